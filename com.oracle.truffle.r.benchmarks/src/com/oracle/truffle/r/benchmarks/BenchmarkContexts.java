@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 3 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 3 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.r.benchmarks;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+
+import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.Source;
+
+/**
+ * Creates the polyglot contexts and loads the R snippets shared by the benchmarks.
+ */
+final class BenchmarkContexts {
+
+    static final String R = "R";
+
+    private BenchmarkContexts() {
+    }
+
+    static Context.Builder newBuilder() {
+        return Context.newBuilder(R).allowExperimentalOptions(true).allowAllAccess(true);
+    }
+
+    /**
+     * Loads the snippet {@code resources/<name>.R}. The snippet defines a {@code setup(n)} function
+     * that creates the input of size {@code n} and a {@code run(s)} function that is measured.
+     */
+    static Source loadSnippet(String name) throws IOException {
+        String fileName = name + ".R";
+        InputStream in = BenchmarkContexts.class.getResourceAsStream("resources/" + fileName);
+        if (in == null) {
+            throw new IllegalArgumentException("unknown benchmark snippet " + name);
+        }
+        try (Reader reader = new InputStreamReader(in, StandardCharsets.UTF_8)) {
+            return Source.newBuilder(R, reader, fileName).build();
+        }
+    }
+}
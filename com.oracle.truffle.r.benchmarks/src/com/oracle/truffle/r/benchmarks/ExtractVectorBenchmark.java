@@ -0,0 +1,162 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 3 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 3 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.r.benchmarks;
+
+import static com.oracle.truffle.r.benchmarks.BenchmarkContexts.R;
+
+import java.util.concurrent.TimeUnit;
+
+import org.graalvm.polyglot.Context;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.oracle.truffle.api.RootCallTarget;
+import com.oracle.truffle.api.Truffle;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.nodes.RootNode;
+import com.oracle.truffle.r.nodes.access.vector.ElementAccessMode;
+import com.oracle.truffle.r.nodes.access.vector.ExtractVectorNode;
+import com.oracle.truffle.r.runtime.RRuntime;
+import com.oracle.truffle.r.runtime.context.TruffleRLanguage;
+import com.oracle.truffle.r.runtime.data.RDataFactory;
+import com.oracle.truffle.r.runtime.data.RDoubleVector;
+import com.oracle.truffle.r.runtime.data.RLogicalVector;
+
+/**
+ * Measures {@link ExtractVectorNode} directly, without the R call and argument matching around
+ * it. The node is adopted by its own root node, so that it specializes and gets compiled like in a
+ * builtin, and is called with the positions that are typical for {@code x[i]}, {@code x[[i]]} and
+ * {@code m[i, j]}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 10, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExtractVectorBenchmark {
+
+    public enum Positions {
+        SCALAR,
+        SEQUENCE,
+        INDICES,
+        NEGATIVE,
+        LOGICAL,
+        MATRIX
+    }
+
+    @Param({"SCALAR", "SEQUENCE", "INDICES", "NEGATIVE", "LOGICAL", "MATRIX"}) public Positions positions;
+
+    @Param({"1000", "100000", "1000000"}) public int size;
+
+    private Context context;
+    private RootCallTarget extract;
+    private RDoubleVector vector;
+    private Object[] position;
+
+    @Setup
+    public void setup() {
+        context = BenchmarkContexts.newBuilder().build();
+        context.initialize(R);
+        context.enter();
+        double[] data = new double[size];
+        for (int i = 0; i < size; i++) {
+            data[i] = i * 0.5;
+        }
+        vector = RDataFactory.createDoubleVector(data, RDataFactory.COMPLETE_VECTOR);
+        ElementAccessMode mode = ElementAccessMode.SUBSET;
+        switch (positions) {
+            case SCALAR:
+                mode = ElementAccessMode.SUBSCRIPT;
+                position = new Object[]{size / 2};
+                break;
+            case SEQUENCE:
+                position = new Object[]{RDataFactory.createIntSequence(1, 2, size / 2)};
+                break;
+            case INDICES:
+                int[] indices = new int[size / 2];
+                for (int i = 0; i < indices.length; i++) {
+                    indices[i] = (int) ((i * 7919L) % size) + 1;
+                }
+                position = new Object[]{RDataFactory.createIntVector(indices, RDataFactory.COMPLETE_VECTOR)};
+                break;
+            case NEGATIVE:
+                position = new Object[]{RDataFactory.createIntVectorFromScalar(-1)};
+                break;
+            case LOGICAL:
+                byte[] selected = new byte[size];
+                for (int i = 0; i < size; i++) {
+                    selected[i] = RRuntime.asLogical(i % 3 != 0);
+                }
+                position = new Object[]{RDataFactory.createLogicalVector(selected, RDataFactory.COMPLETE_VECTOR)};
+                break;
+            case MATRIX:
+                vector.setDimensions(new int[]{size / 10, 10});
+                position = new Object[]{RDataFactory.createIntSequence(1, 1, size / 20), RDataFactory.createIntVector(new int[]{2, 5, 9}, RDataFactory.COMPLETE_VECTOR)};
+                break;
+            default:
+                throw new IllegalArgumentException(positions.name());
+        }
+        extract = Truffle.getRuntime().createCallTarget(new ExtractRootNode(TruffleRLanguage.getCurrentLanguage(), ExtractVectorNode.create(mode, false)));
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.leave();
+        context.close();
+    }
+
+    @Benchmark
+    public Object extract() {
+        return extract.call(vector, position);
+    }
+
+    private static final class ExtractRootNode extends RootNode {
+
+        private final RLogicalVector exact = RDataFactory.createLogicalVectorFromScalar(true);
+        private final RLogicalVector drop = RDataFactory.createLogicalVectorFromScalar(true);
+
+        @Child private ExtractVectorNode node;
+
+        ExtractRootNode(TruffleRLanguage language, ExtractVectorNode node) {
+            super(language);
+            this.node = node;
+        }
+
+        @Override
+        public Object execute(VirtualFrame frame) {
+            Object[] args = frame.getArguments();
+            return node.apply(args[0], (Object[]) args[1], exact, drop);
+        }
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 3 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 3 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.r.benchmarks;
+
+import static com.oracle.truffle.r.benchmarks.BenchmarkContexts.R;
+
+import java.util.concurrent.TimeUnit;
+
+import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.Value;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.oracle.truffle.r.runtime.context.FastROptions;
+import com.oracle.truffle.r.runtime.context.RContext;
+import com.oracle.truffle.r.runtime.data.RDataFactory;
+import com.oracle.truffle.r.runtime.data.RDoubleVector;
+import com.oracle.truffle.r.runtime.data.VectorDataLibrary;
+import com.oracle.truffle.r.runtime.data.VectorDataLibrary.SeqIterator;
+import com.oracle.truffle.r.runtime.env.REnvironment;
+
+/**
+ * Measures the same operations on double vectors whose data are held by the different
+ * {@link VectorDataLibrary} implementations. The vectors are created directly with the runtime
+ * classes and bound in the global environment, so that their storage is not changed by the R code
+ * that would otherwise have to create them. The {@link #read()} benchmark iterates the data via the
+ * uncached library, i.e., the path taken by runtime code outside of compiled nodes.
+ *
+ * Deferred arithmetic is disabled so that the arithmetic benchmark reads the operand storage
+ * eagerly.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 10, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class VectorStorageBenchmark {
+
+    public enum Storage {
+        ARRAY,
+        SEQ,
+        NATIVE,
+        FOREIGN
+    }
+
+    @Param({"ARRAY", "SEQ", "NATIVE", "FOREIGN"}) public Storage storage;
+
+    @Param({"1000", "100000", "1000000"}) public int size;
+
+    private Context context;
+    private RDoubleVector vector;
+    private Value x;
+    private Value arithmetic;
+    private Value sum;
+    private Value subset;
+
+    @Setup
+    public void setup() {
+        context = BenchmarkContexts.newBuilder().option(FastROptions.getName(FastROptions.DeferArithmetic), "false").build();
+        context.initialize(R);
+        context.enter();
+        vector = createVector(storage, size);
+        REnvironment.globalEnv().safePut("x", vector);
+        x = context.eval(R, "x");
+        arithmetic = context.eval(R, "function(x) x * 2 + 1");
+        sum = context.eval(R, "function(x) sum(x)");
+        subset = context.eval(R, "function(x) x[seq.int(1L, length(x), 2L)]");
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.leave();
+        context.close();
+    }
+
+    private static RDoubleVector createVector(Storage storage, int size) {
+        if (storage == Storage.SEQ) {
+            return RDataFactory.createDoubleSequence(1, 0.5, size);
+        }
+        double[] data = new double[size];
+        for (int i = 0; i < size; i++) {
+            data[i] = 1 + i * 0.5;
+        }
+        switch (storage) {
+            case ARRAY:
+                return RDataFactory.createDoubleVector(data, RDataFactory.COMPLETE_VECTOR);
+            case NATIVE:
+                RDoubleVector result = RDataFactory.createDoubleVector(data, RDataFactory.COMPLETE_VECTOR);
+                result.allocateNativeContents();
+                return result;
+            case FOREIGN:
+                return RDoubleVector.createForeignWrapper(RContext.getInstance().getEnv().asGuestValue(data));
+            default:
+                throw new IllegalArgumentException(storage.name());
+        }
+    }
+
+    @Benchmark
+    public Value arithmetic() {
+        return arithmetic.execute(x);
+    }
+
+    @Benchmark
+    public Value sum() {
+        return sum.execute(x);
+    }
+
+    @Benchmark
+    public Value subset() {
+        return subset.execute(x);
+    }
+
+    @Benchmark
+    public double read() {
+        VectorDataLibrary lib = VectorDataLibrary.getFactory().getUncached();
+        Object data = vector.getData();
+        SeqIterator it = lib.iterator(data);
+        double result = 0;
+        while (lib.nextLoopCondition(data, it)) {
+            result += lib.getNextDouble(data, it);
+        }
+        return result;
+    }
+}
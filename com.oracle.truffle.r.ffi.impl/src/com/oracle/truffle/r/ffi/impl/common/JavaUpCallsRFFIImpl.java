@@ -368,16 +368,13 @@ public abstract class JavaUpCallsRFFIImpl implements UpCallsRFFI {
     }
 
     @Override
-    @TruffleBoundary
     public Object Rf_install(String name) {
-        return RDataFactory.createSymbolInterned(name);
+        throw implementedAsNode();
     }
 
     @Override
-    @TruffleBoundary
     public Object Rf_installChar(Object name) {
-        CharSXPWrapper charSXP = guaranteeInstanceOf(name, CharSXPWrapper.class);
-        return RDataFactory.createSymbolInterned(charSXP.getContents());
+        throw implementedAsNode();
     }
 
     @Override
@@ -576,8 +573,7 @@ public abstract class JavaUpCallsRFFIImpl implements UpCallsRFFI {
 
     @Override
     public void SET_VECTOR_ELT(Object x, long i, Object v) {
-        RList list = guaranteeInstanceOf(x, RList.class);
-        list.setElement((int) i, v);
+        throw implementedAsNode();
     }
 
     @Override
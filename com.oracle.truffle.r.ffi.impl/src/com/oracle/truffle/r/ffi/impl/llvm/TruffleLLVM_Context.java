@@ -135,6 +135,7 @@ public class TruffleLLVM_Context extends RFFIContext {
     @Override
     public void beforeDispose(RContext context) {
         callState.beforeDispose(context);
+        super.beforeDispose(context);
     }
 
     @CompilationFinal(dimensions = 1) private final TruffleObject[] nativeFunctions = new TruffleObject[NativeFunction.values().length];
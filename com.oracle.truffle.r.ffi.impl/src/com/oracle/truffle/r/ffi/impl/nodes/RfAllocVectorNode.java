@@ -33,6 +33,8 @@ import com.oracle.truffle.api.dsl.GenerateUncached;
 import com.oracle.truffle.api.dsl.Specialization;
 import com.oracle.truffle.r.runtime.RError;
 import com.oracle.truffle.r.runtime.RError.Message;
+import com.oracle.truffle.r.runtime.context.RContext;
+import com.oracle.truffle.r.runtime.data.NativeAllocationSite.AllocVectorSites;
 import com.oracle.truffle.r.runtime.data.RDataFactory;
 import com.oracle.truffle.r.runtime.data.RNull;
 import com.oracle.truffle.r.runtime.gnur.SEXPTYPE;
@@ -70,13 +72,14 @@ public abstract class RfAllocVectorNode extends FFIUpCallNode.Arg2 {
     }
 
     private static Object allocate(@Cached(value = "getType(mode)", allowUncached = true) SEXPTYPE type, int ni) {
+        AllocVectorSites sites = RContext.getInstance().allocVectorSites;
         switch (type) {
             case INTSXP:
-                return RDataFactory.createIntVector(new int[ni], RDataFactory.COMPLETE_VECTOR);
+                return RDataFactory.createIntVector(sites.intSite, ni);
             case REALSXP:
-                return RDataFactory.createDoubleVector(new double[ni], RDataFactory.COMPLETE_VECTOR);
+                return RDataFactory.createDoubleVector(sites.doubleSite, ni);
             case LGLSXP:
-                return RDataFactory.createLogicalVector(new byte[ni], RDataFactory.COMPLETE_VECTOR);
+                return RDataFactory.createLogicalVector(sites.logicalSite, ni);
             case STRSXP:
                 // fill list with empty strings
                 String[] data = new String[ni];
@@ -85,7 +88,7 @@ public abstract class RfAllocVectorNode extends FFIUpCallNode.Arg2 {
             case CPLXSXP:
                 return RDataFactory.createComplexVector(new double[2 * ni], RDataFactory.COMPLETE_VECTOR);
             case RAWSXP:
-                return RDataFactory.createRawVector(new byte[ni]);
+                return RDataFactory.createRawVector(sites.rawSite, ni);
             case VECSXP:
                 return RDataFactory.createList(ni);
             case LISTSXP:
@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 3 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 3 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.r.ffi.impl.nodes;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.Fallback;
+import com.oracle.truffle.api.dsl.GenerateUncached;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.r.ffi.impl.nodes.SymbolNodesFactory.RfInstallCharNodeGen;
+import com.oracle.truffle.r.ffi.impl.nodes.SymbolNodesFactory.RfInstallNodeGen;
+import com.oracle.truffle.r.runtime.data.CharSXPWrapper;
+import com.oracle.truffle.r.runtime.data.RDataFactory;
+import com.oracle.truffle.r.runtime.data.RSymbol;
+
+/**
+ * Native code typically calls {@code Rf_install} with a constant name, often in a loop, so the
+ * symbols are cached for the names seen at the call site, which saves the interning of the name
+ * and the lookup in the symbol table.
+ */
+public final class SymbolNodes {
+
+    @TruffleBoundary
+    private static RSymbol installSymbol(String name) {
+        return RDataFactory.createSymbolInterned(name);
+    }
+
+    @GenerateUncached
+    public abstract static class RfInstallNode extends FFIUpCallNode.Arg1 {
+
+        public static RfInstallNode create() {
+            return RfInstallNodeGen.create();
+        }
+
+        protected static RSymbol install(String name) {
+            return installSymbol(name);
+        }
+
+        @Specialization(guards = "cachedName.equals(name)", limit = "getCacheSize(4)")
+        protected static RSymbol installCached(@SuppressWarnings("unused") String name,
+                        @SuppressWarnings("unused") @Cached("name") String cachedName,
+                        @Cached("install(name)") RSymbol symbol) {
+            return symbol;
+        }
+
+        @Specialization(replaces = "installCached")
+        protected static RSymbol installGeneric(String name) {
+            return install(name);
+        }
+    }
+
+    @GenerateUncached
+    public abstract static class RfInstallCharNode extends FFIUpCallNode.Arg1 {
+
+        public static RfInstallCharNode create() {
+            return RfInstallCharNodeGen.create();
+        }
+
+        protected static RSymbol install(String name) {
+            return installSymbol(name);
+        }
+
+        @Specialization(guards = "name == cachedName", limit = "getCacheSize(4)")
+        protected static RSymbol installCached(@SuppressWarnings("unused") CharSXPWrapper name,
+                        @SuppressWarnings("unused") @Cached("name") CharSXPWrapper cachedName,
+                        @Cached("install(name.getContents())") RSymbol symbol) {
+            return symbol;
+        }
+
+        @Specialization(replaces = "installCached")
+        protected static RSymbol installGeneric(CharSXPWrapper name) {
+            return install(name.getContents());
+        }
+
+        @Fallback
+        protected static RSymbol installOther(Object name) {
+            throw unsupportedTypes("Rf_installChar", name);
+        }
+    }
+}
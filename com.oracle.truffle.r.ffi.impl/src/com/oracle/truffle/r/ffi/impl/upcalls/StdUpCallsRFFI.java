@@ -98,8 +98,11 @@ import com.oracle.truffle.r.ffi.impl.nodes.RfAllocVectorNode;
 import com.oracle.truffle.r.ffi.impl.nodes.RfEvalNode;
 import com.oracle.truffle.r.ffi.impl.nodes.RfFindFun;
 import com.oracle.truffle.r.ffi.impl.nodes.SetStringEltNode;
+import com.oracle.truffle.r.ffi.impl.nodes.SetVectorEltNode;
 import com.oracle.truffle.r.ffi.impl.nodes.Str2TypeNode;
 import com.oracle.truffle.r.ffi.impl.nodes.StringEltNode;
+import com.oracle.truffle.r.ffi.impl.nodes.SymbolNodes.RfInstallCharNode;
+import com.oracle.truffle.r.ffi.impl.nodes.SymbolNodes.RfInstallNode;
 import com.oracle.truffle.r.ffi.impl.nodes.TYPEOFNode;
 import com.oracle.truffle.r.ffi.impl.nodes.TryRfEvalNode;
 import com.oracle.truffle.r.ffi.impl.nodes.VectorElementGetterNode;
@@ -257,8 +260,10 @@ public interface StdUpCallsRFFI {
 
     int Rf_inherits(Object x, @RFFICstring String clazz);
 
+    @RFFIUpCallNode(RfInstallNode.class)
     Object Rf_install(@RFFICstring String name);
 
+    @RFFIUpCallNode(RfInstallCharNode.class)
     Object Rf_installChar(Object name);
 
     @RFFIUpCallNode(value = LengthGetsNode.class, needsCallTarget = true)
@@ -316,6 +321,7 @@ public interface StdUpCallsRFFI {
 
     void SETLEVELS(Object x, int gpbits);
 
+    @RFFIUpCallNode(SetVectorEltNode.class)
     void SET_VECTOR_ELT(Object x, long i, Object v);
 
     @RFFIUpCallNode(SetAttribNode.class)
@@ -315,6 +315,7 @@ public final class FFIProcessor extends AbstractProcessor {
         w.append("import com.oracle.truffle.r.ffi.impl.upcalls.UpCallBase;");
         w.append("import com.oracle.truffle.r.runtime.ffi.RFFIContext;\n");
         w.append("import com.oracle.truffle.r.runtime.ffi.RFFILog;\n");
+        w.append("import com.oracle.truffle.r.runtime.ffi.NativeCallProfiler;\n");
         w.append("import com.oracle.truffle.api.interop.InteropLibrary;\n");
         w.append("import com.oracle.truffle.api.library.ExportLibrary;\n");
         w.append("import com.oracle.truffle.api.library.ExportMessage;\n");
@@ -416,6 +417,9 @@ public final class FFIProcessor extends AbstractProcessor {
         w.append("        }\n");
         w.append("        RContext ctx = ctxRef.get();\n");
         w.append("        RFFIContext rffiCtx = ctxProfile.profile(ctx.getStateRFFI());\n");
+        w.append("        if (NativeCallProfiler.isActive()) {\n");
+        w.append("            NativeCallProfiler.upCall(rffiCtx, \"" + name + "\");\n");
+        w.append("        }\n");
 
         if (returnKind != TypeKind.VOID) {
             w.append("        Object resultRObj0;\n");
@@ -275,14 +275,18 @@ public class REPL {
 
     static class EventLoopThread extends Thread {
 
+        private static final int STOP_HINT = 66;
+
         private final File fifoInFile;
-        private final File fifoOutFile;
         private final Context context;
         private final ExecutorService executor;
+        /**
+         * The dispatching function, looked up only once and used only in the executor thread.
+         */
+        private Value dispatchNativeHandlers;
 
-        EventLoopThread(String fifoInPath, String fifoOutPath, Context context, ExecutorService executor) {
+        EventLoopThread(String fifoInPath, Context context, ExecutorService executor) {
             this.fifoInFile = new File(fifoInPath);
-            this.fifoOutFile = new File(fifoOutPath);
             this.context = context;
             this.executor = executor;
         }
@@ -291,7 +295,7 @@ public class REPL {
             try {
                 interrupt();
                 try (FileOutputStream fis = new FileOutputStream(fifoInFile)) {
-                    fis.write(66);
+                    fis.write(STOP_HINT);
                     fis.flush();
                 }
                 join(8000);
@@ -300,41 +304,34 @@ public class REPL {
             }
         }
 
-        void releaseFifoOut() {
-            try {
-                try (FileOutputStream fis = new FileOutputStream(fifoOutFile)) {
-                    fis.write(65);
-                    fis.flush();
+        @Override
+        public void run() {
+            // the pipe is kept open, the native loop writes one byte per batch of ready handlers
+            try (FileInputStream fis = new FileInputStream(fifoInFile)) {
+                while (!isInterrupted()) {
+                    int hint = fis.read();
+                    if (hint < 0 || hint == STOP_HINT || isInterrupted()) {
+                        break;
+                    }
+                    executor.submit(this::dispatch);
                 }
-            } catch (Exception e) {
+            } catch (IOException e) {
                 e.printStackTrace();
             }
         }
 
-        @Override
-        public void run() {
-            while (!isInterrupted()) {
-                try {
-                    try (FileInputStream fis = new FileInputStream(fifoInFile)) {
-                        fis.read();
-                        if (isInterrupted()) {
-                            break;
-                        }
-                    }
-                } catch (IOException e) {
-                    e.printStackTrace();
+        private void dispatch() {
+            traceEventLoopLogger.log("before dispatching request");
+            try {
+                if (dispatchNativeHandlers == null) {
+                    dispatchNativeHandlers = context.eval(Source.newBuilder("R", ".fastr.dispatchNativeHandlers", "<dispatch-native-handlers>").internal(true).buildLiteral());
                 }
-                executor.submit(() -> {
-                    traceEventLoopLogger.log("before dispatching request");
-                    try {
-                        int res = context.eval(Source.newBuilder("R", ".fastr.dispatchNativeHandlers", "<dispatch-native-handlers>").internal(true).buildLiteral()).execute().asInt();
-                        traceEventLoopLogger.log("after dispatching request, res=" + res);
-                    } catch (Throwable ex) {
-                        releaseFifoOut();
-                        traceEventLoopLogger.log("error in dispatching request");
-                        ex.printStackTrace();
-                    }
-                });
+                int res = dispatchNativeHandlers.execute().asInt();
+                traceEventLoopLogger.log("after dispatching request, res=" + res);
+            } catch (Throwable ex) {
+                // the dispatching builtin has already released the native event loop thread
+                traceEventLoopLogger.log("error in dispatching request");
+                ex.printStackTrace();
             }
         }
     }
@@ -406,8 +403,7 @@ public class REPL {
             return null;
         } else {
             final String fifoInPath = result.getMember("fifoInPath").asString();
-            final String fifoOutPath = result.getMember("fifoOutPath").asString();
-            EventLoopThread t = new EventLoopThread(fifoInPath, fifoOutPath, context, executor);
+            EventLoopThread t = new EventLoopThread(fifoInPath, context, executor);
             t.start();
             return t;
         }
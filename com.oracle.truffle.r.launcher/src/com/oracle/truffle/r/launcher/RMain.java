@@ -260,7 +260,7 @@ public final class RMain extends AbstractLanguageLauncher implements Closeable {
         }
     }
 
-    private static int executeFile(boolean verbose, Context context, String fileOption) {
+    static int executeFile(boolean verbose, Context context, String fileOption) {
         if (verbose) {
             System.out.println("[launcher] Running file: " + fileOption);
         }
@@ -0,0 +1,504 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 3 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 3 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.r.launcher;
+
+import static com.oracle.truffle.r.launcher.RServerProtocol.MAGIC;
+import static com.oracle.truffle.r.launcher.RServerProtocol.STDERR;
+import static com.oracle.truffle.r.launcher.RServerProtocol.STDIN;
+import static com.oracle.truffle.r.launcher.RServerProtocol.STDOUT;
+import static com.oracle.truffle.r.launcher.RServerProtocol.VERSION;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+
+import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.Engine;
+import org.graalvm.polyglot.PolyglotException;
+import org.graalvm.polyglot.Source;
+import org.graalvm.polyglot.Value;
+
+import com.oracle.truffle.r.launcher.RCmdOptions.Client;
+import com.oracle.truffle.r.launcher.RCmdOptions.RCmdOption;
+import com.oracle.truffle.r.launcher.RMain.PrintHelp;
+import com.oracle.truffle.r.launcher.RMain.PrintVersion;
+
+/**
+ * Keeps a FastR engine resident and runs the {@code Rscript} requests sent by
+ * {@link RscriptClient}, see {@link RServerProtocol} for the wire format. A script run this way
+ * does not pay for the JVM startup and, since all the contexts share one {@link Engine}, for the
+ * warm-up of the compiler either.
+ *
+ * Every script runs in its own context, which is closed once the script finishes, so scripts
+ * cannot observe each other. The server keeps a pool of contexts that were created and initialized
+ * (i.e., have the base package loaded) ahead of time and replaces every context taken from the
+ * pool in the background. Before the script runs, the context gets the arguments reported by
+ * {@code commandArgs()}, the client's working directory and the client's environment variables.
+ * Note that the environment variables read during the startup of R come from the server. A request
+ * with startup options other than the default ones (e.g. {@code --vanilla}) does not use the pool,
+ * it gets a new context created with its exact arguments.
+ *
+ * The working directory is set with {@code setwd}, which changes the directory of the whole
+ * process. Scripts from different directories are therefore run one after another, see
+ * {@link WorkingDirectoryLock}, only scripts from the same directory run concurrently. A script
+ * that changes the directory itself also changes it for the scripts running next to it.
+ *
+ * <pre>
+ * RServer [--port=N] [--pool-size=N] [--server-file=FILE] [--polyglot.option=value ...]
+ * </pre>
+ *
+ * Java 8 has no Unix domain sockets, the server listens on the loopback interface only.
+ */
+public final class RServer implements Closeable {
+
+    private static final String R = "R";
+    private static final String[] LANGUAGES = {R, "llvm"};
+    private static final int DEFAULT_POOL_SIZE = 2;
+    private static final int STDIN_BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * The startup arguments of the pooled contexts, i.e., what {@code Rscript file.R} uses apart
+     * from the file and the script arguments.
+     */
+    private static final List<String> POOLED_ARGS = Arrays.asList("Rscript", "--slave", "--no-restore");
+
+    private static final Source SET_ENV = Source.newBuilder(R, "function(name, value) { args <- list(value); names(args) <- name; invisible(do.call(Sys.setenv, args)) }",
+                    "<server-set-env>").internal(true).buildLiteral();
+    private static final Source PREPARE = Source.newBuilder(R, "function(dir, ...) { .fastr.set.commandArgs(c(...)); invisible(setwd(dir)) }",
+                    "<server-prepare>").internal(true).buildLiteral();
+
+    private final Engine engine;
+    private final BlockingQueue<RequestContext> pool = new LinkedBlockingQueue<>();
+    private final ExecutorService preparer = Executors.newSingleThreadExecutor(r -> newDaemonThread(r, "RServer context preparer"));
+    private final ExecutorService requests = Executors.newCachedThreadPool(r -> newDaemonThread(r, "RServer request"));
+    private final WorkingDirectoryLock workingDirLock = new WorkingDirectoryLock();
+    private final byte[] token;
+    private ServerSocket serverSocket;
+
+    public static void main(String[] args) {
+        int port = 0;
+        int poolSize = DEFAULT_POOL_SIZE;
+        File serverFile = RServerProtocol.getServerFile();
+        Map<String, String> engineOptions = new HashMap<>();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (!arg.startsWith("--") || eq < 0) {
+                throw RMain.fatal("unknown argument '%s'", arg);
+            }
+            String name = arg.substring(2, eq);
+            String value = arg.substring(eq + 1);
+            switch (name) {
+                case "port":
+                    port = Integer.parseInt(value);
+                    break;
+                case "pool-size":
+                    poolSize = Integer.parseInt(value);
+                    break;
+                case "server-file":
+                    serverFile = new File(value);
+                    break;
+                default:
+                    engineOptions.put(name, value);
+            }
+        }
+        try (RServer server = new RServer(engineOptions, poolSize)) {
+            server.serve(port, serverFile);
+        } catch (IOException e) {
+            throw RMain.fatal(e, "FastR server failed");
+        }
+    }
+
+    private RServer(Map<String, String> engineOptions, int poolSize) {
+        this.engine = Engine.newBuilder().allowExperimentalOptions(true).options(engineOptions).build();
+        this.token = new byte[16];
+        new SecureRandom().nextBytes(token);
+        for (int i = 0; i < poolSize; i++) {
+            preparer.execute(this::prepareContext);
+        }
+    }
+
+    private static Thread newDaemonThread(Runnable r, String name) {
+        Thread thread = new Thread(r, name);
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    // CheckStyle: stop system..print check
+
+    private void serve(int port, File serverFile) throws IOException {
+        serverSocket = new ServerSocket(port, 50, InetAddress.getLoopbackAddress());
+        publish(serverFile, serverSocket.getLocalPort());
+        Runtime.getRuntime().addShutdownHook(new Thread(serverFile::delete));
+        System.out.printf("FastR server listening on port %d, server file %s%n", serverSocket.getLocalPort(), serverFile);
+        while (!serverSocket.isClosed()) {
+            Socket socket = serverSocket.accept();
+            requests.execute(() -> handle(socket));
+        }
+    }
+
+    private void publish(File serverFile, int port) throws IOException {
+        Path path = serverFile.toPath();
+        Files.deleteIfExists(path);
+        try {
+            Files.createFile(path, PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rw-------")));
+        } catch (UnsupportedOperationException e) {
+            Files.createFile(path);
+        }
+        StringBuilder hex = new StringBuilder();
+        for (byte b : token) {
+            hex.append(String.format("%02x", b));
+        }
+        Files.write(path, Arrays.asList(Integer.toString(port), hex.toString()), StandardCharsets.UTF_8);
+    }
+
+    private void prepareContext() {
+        try {
+            pool.add(new RequestContext(engine, POOLED_ARGS.toArray(new String[0])));
+        } catch (Throwable t) {
+            System.err.println("FastR server: cannot prepare a context: " + t.getMessage());
+        }
+    }
+
+    /**
+     * Takes a context from the pool and schedules its replacement. If none is ready yet, the
+     * context is created right away, the pending preparations will refill the pool.
+     */
+    private RequestContext takePooledContext() {
+        RequestContext context = pool.poll();
+        if (context == null) {
+            return new RequestContext(engine, POOLED_ARGS.toArray(new String[0]));
+        }
+        preparer.execute(this::prepareContext);
+        return context;
+    }
+
+    private void handle(Socket socket) {
+        try (Socket s = socket) {
+            DataInputStream in = new DataInputStream(new BufferedInputStream(s.getInputStream()));
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(s.getOutputStream()));
+            if (in.readInt() != MAGIC || in.readInt() != VERSION || !MessageDigest.isEqual(token, RServerProtocol.readString(in).getBytes(StandardCharsets.UTF_8))) {
+                return;
+            }
+            String workingDir = RServerProtocol.readString(in);
+            int envCount = in.readInt();
+            Map<String, String> env = new LinkedHashMap<>();
+            for (int i = 0; i < envCount; i++) {
+                env.put(RServerProtocol.readString(in), RServerProtocol.readString(in));
+            }
+            String[] args = new String[in.readInt()];
+            for (int i = 0; i < args.length; i++) {
+                args[i] = RServerProtocol.readString(in);
+            }
+            int exitCode = run(workingDir, env, args, in, out);
+            RServerProtocol.writeExit(out, exitCode);
+        } catch (IOException e) {
+            // the client went away, there is nobody to report to
+        }
+    }
+
+    private int run(String workingDir, Map<String, String> env, String[] args, DataInputStream in, DataOutputStream out) throws IOException {
+        PrintStream stdout = new PrintStream(new FrameOutputStream(out, STDOUT), true);
+        PrintStream stderr = new PrintStream(new FrameOutputStream(out, STDERR), true);
+        if (args.length > 0 && isShortOption(args[args.length - 1])) {
+            // RCmdOptions would terminate the process
+            stderr.printf("option '%s' requires an argument%n", args[args.length - 1]);
+            return 1;
+        }
+        String[] commandLine = new String[args.length + 1];
+        commandLine[0] = Client.RSCRIPT.argumentName();
+        System.arraycopy(args, 0, commandLine, 1, args.length);
+        RCmdOptions options = RCmdOptions.parseArguments(commandLine, true);
+        String[] rArgs;
+        try {
+            rArgs = Client.RSCRIPT.processOptions(options);
+        } catch (PrintHelp e) {
+            stdout.println(Client.RSCRIPT.usage());
+            return 1;
+        } catch (PrintVersion e) {
+            stdout.println(Client.RSCRIPT.getHelpMessage());
+            return 0;
+        }
+
+        String file = options.getString(RCmdOption.FILE);
+        if (file != null && !"-".equals(file)) {
+            file = resolve(workingDir, REPL.unescapeSpace(file));
+            if (!new File(file).isFile()) {
+                stderr.printf("Fatal error: cannot open file '%s': No such file or directory%n", file);
+                return 2;
+            }
+        }
+
+        PipedInputStream stdin = new PipedInputStream(STDIN_BUFFER_SIZE);
+        PipedOutputStream stdinSink = new PipedOutputStream(stdin);
+        newDaemonThread(() -> forwardStdin(in, stdinSink), "RServer stdin").start();
+        RequestContext requestContext = isPoolable(rArgs) ? takePooledContext() : new RequestContext(engine, rArgs);
+        try {
+            requestContext.redirect(stdin, stdout, stderr);
+            try {
+                workingDirLock.acquire(workingDir);
+            } catch (InterruptedException e) {
+                stderr.println("Fatal error: the server is shutting down");
+                return 2;
+            }
+            try {
+                return execute(requestContext.context, options, workingDir, env, rArgs, file, stdin, stdout, stderr);
+            } finally {
+                workingDirLock.release();
+            }
+        } finally {
+            requestContext.close();
+            stdin.close();
+        }
+    }
+
+    private static int execute(Context context, RCmdOptions options, String workingDir, Map<String, String> env, String[] rArgs, String file, InputStream stdin, PrintStream stdout,
+                    PrintStream stderr) {
+        try {
+            Value setEnv = context.eval(SET_ENV);
+            for (Map.Entry<String, String> entry : env.entrySet()) {
+                setEnv.execute(entry.getKey(), entry.getValue());
+            }
+            Object[] prepareArgs = new Object[rArgs.length + 1];
+            prepareArgs[0] = workingDir;
+            System.arraycopy(rArgs, 0, prepareArgs, 1, rArgs.length);
+            context.eval(PREPARE).execute(prepareArgs);
+        } catch (PolyglotException e) {
+            stderr.println("Fatal error: cannot prepare the context: " + e.getMessage());
+            return 2;
+        }
+        if (file != null && !"-".equals(file)) {
+            return RMain.executeFile(options.getBoolean(RCmdOption.VERBOSE), context, file);
+        }
+        ConsoleHandler consoleHandler;
+        List<String> expressions = options.getStringList(RCmdOption.EXPR);
+        if (file == null && expressions != null) {
+            List<String> lines = new ArrayList<>(expressions.size());
+            for (String expression : expressions) {
+                lines.add(REPL.unescapeSpace(expression));
+            }
+            consoleHandler = new StringConsoleHandler(lines, stdout);
+        } else {
+            consoleHandler = new DefaultConsoleHandler(stdin, stdout, false);
+        }
+        consoleHandler.setContext(context);
+        return REPL.readEvalPrint(context, consoleHandler, null);
+    }
+
+    private static boolean isShortOption(String arg) {
+        for (RCmdOption option : RCmdOption.values()) {
+            if (arg.equals(option.shortName)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Only requests that differ from {@link #POOLED_ARGS} in the script, the expressions and the
+     * script arguments can run in a pooled context.
+     */
+    private static boolean isPoolable(String[] rArgs) {
+        List<String> startupArgs = new ArrayList<>();
+        for (int i = 0; i < rArgs.length; i++) {
+            String arg = rArgs[i];
+            if ("--args".equals(arg)) {
+                break;
+            } else if ("-e".equals(arg) || "-f".equals(arg)) {
+                i++;
+            } else if (!arg.startsWith("--file=")) {
+                startupArgs.add(arg);
+            }
+        }
+        return startupArgs.equals(POOLED_ARGS);
+    }
+
+    private static String resolve(String workingDir, String path) {
+        File file = new File(path.startsWith("~") ? System.getProperty("user.home") + path.substring(1) : path);
+        return file.isAbsolute() ? file.getPath() : new File(workingDir, path).getPath();
+    }
+
+    private static void forwardStdin(DataInputStream in, OutputStream sink) {
+        try (OutputStream s = sink) {
+            while (in.readByte() == STDIN) {
+                int length = in.readInt();
+                if (length == 0) {
+                    break;
+                }
+                byte[] bytes = new byte[length];
+                in.readFully(bytes);
+                s.write(bytes);
+            }
+        } catch (IOException e) {
+            // the script finished or the client closed its end
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        preparer.shutdownNow();
+        requests.shutdownNow();
+        if (serverSocket != null) {
+            serverSocket.close();
+        }
+        RequestContext context;
+        while ((context = pool.poll()) != null) {
+            context.close();
+        }
+        engine.close();
+    }
+
+    /**
+     * A context whose standard streams can be bound to a request after it was created.
+     */
+    private static final class RequestContext {
+        private final RedirectedInputStream in = new RedirectedInputStream();
+        private final RedirectedOutputStream out = new RedirectedOutputStream();
+        private final RedirectedOutputStream err = new RedirectedOutputStream();
+        private final Context context;
+
+        RequestContext(Engine engine, String[] rArgs) {
+            context = Context.newBuilder(LANGUAGES).engine(engine).allowAllAccess(true).arguments(R, rArgs).in(in).out(out).err(err).build();
+            context.initialize(R);
+        }
+
+        void redirect(InputStream stdin, OutputStream stdout, OutputStream stderr) {
+            in.target = stdin;
+            out.target = stdout;
+            err.target = stderr;
+        }
+
+        void close() {
+            try {
+                context.close(true);
+            } catch (PolyglotException | IllegalStateException e) {
+                // the script cannot do any harm anymore
+            }
+            out.target = null;
+            err.target = null;
+        }
+    }
+
+    private static final class RedirectedInputStream extends InputStream {
+        private volatile InputStream target;
+
+        @Override
+        public int read() throws IOException {
+            InputStream t = target;
+            return t == null ? -1 : t.read();
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            InputStream t = target;
+            return t == null ? -1 : t.read(b, off, len);
+        }
+
+        @Override
+        public int available() throws IOException {
+            InputStream t = target;
+            return t == null ? 0 : t.available();
+        }
+    }
+
+    /**
+     * Output written while no request is bound, e.g. during the initialization of a pooled
+     * context, is dropped.
+     */
+    private static final class RedirectedOutputStream extends OutputStream {
+        private volatile OutputStream target;
+
+        @Override
+        public void write(int b) throws IOException {
+            OutputStream t = target;
+            if (t != null) {
+                t.write(b);
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            OutputStream t = target;
+            if (t != null) {
+                t.write(b, off, len);
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            OutputStream t = target;
+            if (t != null) {
+                t.flush();
+            }
+        }
+    }
+
+    private static final class FrameOutputStream extends OutputStream {
+        private final DataOutputStream out;
+        private final byte type;
+
+        FrameOutputStream(DataOutputStream out, byte type) {
+            this.out = out;
+            this.type = type;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (len > 0) {
+                RServerProtocol.writeFrame(out, type, b, off, len);
+            }
+        }
+    }
+}
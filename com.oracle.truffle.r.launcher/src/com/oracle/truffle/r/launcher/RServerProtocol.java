@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 3 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 3 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.r.launcher;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * The wire format shared by {@link RServer} and {@link RscriptClient}. All messages are sent over
+ * a loopback TCP socket using {@link DataOutputStream} encoding.
+ *
+ * The client starts with the request:
+ *
+ * <pre>
+ * int MAGIC, int VERSION, string token, string workingDir,
+ * int envCount, envCount * (string name, string value),
+ * int argCount, argCount * string arg
+ * </pre>
+ *
+ * where the arguments are the {@code Rscript} command line arguments. Afterwards, the client
+ * forwards its standard input as {@link #STDIN} frames, an empty frame means end of input. The
+ * server sends {@link #STDOUT} and {@link #STDERR} frames while the script runs, and finally the
+ * {@link #EXIT} frame with the exit code.
+ *
+ * A frame is a type byte followed by an int length and that many bytes, the {@link #EXIT} frame
+ * is a type byte followed by an int exit code.
+ *
+ * The server publishes its port and a random token in the server file (see
+ * {@link #getServerFile()}), which is readable only by its owner. A request that does not present
+ * the token is rejected, so only the user that started the server can run scripts in it.
+ */
+final class RServerProtocol {
+
+    static final int MAGIC = 0x46525356;
+    static final int VERSION = 1;
+
+    static final byte STDIN = 0;
+    static final byte STDOUT = 1;
+    static final byte STDERR = 2;
+    static final byte EXIT = 3;
+
+    private static final int MAX_STRING_LENGTH = 1 << 24;
+
+    /**
+     * Environment variable with the path of the server file.
+     */
+    static final String SERVER_FILE_ENV = "FASTR_SERVER_FILE";
+
+    private RServerProtocol() {
+    }
+
+    static File getServerFile() {
+        String path = System.getenv(SERVER_FILE_ENV);
+        if (path != null && !path.isEmpty()) {
+            return new File(path);
+        }
+        return new File(System.getProperty("user.home"), ".fastr-server");
+    }
+
+    static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0 || length > MAX_STRING_LENGTH) {
+            throw new IOException("invalid string length " + length);
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    static void writeFrame(DataOutputStream out, byte type, byte[] bytes, int off, int len) throws IOException {
+        synchronized (out) {
+            out.writeByte(type);
+            out.writeInt(len);
+            out.write(bytes, off, len);
+            out.flush();
+        }
+    }
+
+    static void writeExit(DataOutputStream out, int exitCode) throws IOException {
+        synchronized (out) {
+            out.writeByte(EXIT);
+            out.writeInt(exitCode);
+            out.flush();
+        }
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 3 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 3 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.r.launcher;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.ConnectException;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A drop-in replacement for {@code Rscript} that runs the script in a running {@link RServer}. The
+ * client forwards its arguments, working directory, environment variables and standard input to
+ * the server and writes out what the script prints. It exits with the exit code of the script.
+ *
+ * If no server is running, i.e., the server file does not exist or nobody listens on the port it
+ * names, the script runs in this process like with {@code Rscript}.
+ */
+public final class RscriptClient {
+
+    private static final int STDIN_CHUNK_SIZE = 8 * 1024;
+
+    private RscriptClient() {
+    }
+
+    // CheckStyle: stop system..print check
+
+    public static void main(String[] args) {
+        File serverFile = RServerProtocol.getServerFile();
+        Socket socket = null;
+        String token = null;
+        if (serverFile.isFile()) {
+            try {
+                List<String> lines = Files.readAllLines(serverFile.toPath(), StandardCharsets.UTF_8);
+                token = lines.get(1).trim();
+                socket = new Socket(InetAddress.getLoopbackAddress(), Integer.parseInt(lines.get(0).trim()));
+            } catch (ConnectException e) {
+                // a stale server file
+            } catch (IOException | RuntimeException e) {
+                System.err.printf("WARNING: ignoring the invalid FastR server file '%s': %s%n", serverFile, e.getMessage());
+            }
+        }
+        if (socket == null) {
+            String[] rscriptArgs = new String[args.length + 1];
+            rscriptArgs[0] = RCmdOptions.Client.RSCRIPT.argumentName();
+            System.arraycopy(args, 0, rscriptArgs, 1, args.length);
+            RMain.main(rscriptArgs);
+            return;
+        }
+        int exitCode;
+        try (Socket s = socket) {
+            s.setTcpNoDelay(true);
+            exitCode = run(s, token, args);
+        } catch (IOException e) {
+            System.err.println("Fatal error: connection to the FastR server failed: " + e.getMessage());
+            exitCode = 2;
+        }
+        System.exit(exitCode);
+    }
+
+    private static int run(Socket socket, String token, String[] args) throws IOException {
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+        out.writeInt(RServerProtocol.MAGIC);
+        out.writeInt(RServerProtocol.VERSION);
+        RServerProtocol.writeString(out, token);
+        RServerProtocol.writeString(out, System.getProperty("user.dir"));
+        Map<String, String> env = System.getenv();
+        out.writeInt(env.size());
+        for (Map.Entry<String, String> entry : env.entrySet()) {
+            RServerProtocol.writeString(out, entry.getKey());
+            RServerProtocol.writeString(out, entry.getValue());
+        }
+        out.writeInt(args.length);
+        for (String arg : args) {
+            RServerProtocol.writeString(out, arg);
+        }
+        out.flush();
+
+        Thread stdin = new Thread(() -> forwardStdin(out), "RscriptClient stdin");
+        stdin.setDaemon(true);
+        stdin.start();
+
+        DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+        byte[] buffer = new byte[STDIN_CHUNK_SIZE];
+        while (true) {
+            byte type;
+            try {
+                type = in.readByte();
+            } catch (EOFException e) {
+                System.err.println("Fatal error: the FastR server closed the connection");
+                return 2;
+            }
+            if (type == RServerProtocol.EXIT) {
+                return in.readInt();
+            }
+            int length = in.readInt();
+            if (buffer.length < length) {
+                buffer = new byte[length];
+            }
+            in.readFully(buffer, 0, length);
+            PrintStream target = type == RServerProtocol.STDERR ? System.err : System.out;
+            target.write(buffer, 0, length);
+            target.flush();
+        }
+    }
+
+    private static void forwardStdin(DataOutputStream out) {
+        byte[] buffer = new byte[STDIN_CHUNK_SIZE];
+        try {
+            int read;
+            while ((read = System.in.read(buffer)) > 0) {
+                RServerProtocol.writeFrame(out, RServerProtocol.STDIN, buffer, 0, read);
+            }
+            RServerProtocol.writeFrame(out, RServerProtocol.STDIN, buffer, 0, 0);
+        } catch (IOException e) {
+            // the script finished and the server closed the connection
+        }
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 3 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 3 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.r.launcher;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Admits the requests of {@link RServer} one working directory at a time. The working directory is
+ * global to the process (native code and the processes started by {@code system()} see the one set
+ * by the last {@code chdir}), so scripts that run in different directories cannot run at the same
+ * time. Requests from the same directory share it and run concurrently. Requests are admitted in
+ * the order in which they arrived, i.e., a request waiting for the directory to be released is not
+ * overtaken by later requests for the directory that is in use.
+ */
+public final class WorkingDirectoryLock {
+
+    private final Set<Long> abandonedTickets = new HashSet<>();
+    private String directory;
+    private int holders;
+    private long nextTicket;
+    private long admittedTicket;
+
+    /**
+     * Blocks until the working directory can be switched to {@code dir} or already is {@code dir},
+     * and registers the caller as one of its holders.
+     */
+    public synchronized void acquire(String dir) throws InterruptedException {
+        long ticket = nextTicket++;
+        try {
+            while (ticket != admittedTicket || (holders > 0 && !dir.equals(directory))) {
+                wait();
+            }
+        } catch (InterruptedException e) {
+            // the requests queued behind this one must not wait for it
+            abandonedTickets.add(ticket);
+            admitNext();
+            throw e;
+        }
+        directory = dir;
+        holders++;
+        admittedTicket++;
+        admitNext();
+    }
+
+    public synchronized void release() {
+        assert holders > 0;
+        holders--;
+        if (holders == 0) {
+            notifyAll();
+        }
+    }
+
+    /**
+     * Returns the directory of the current holders or {@code null} if there are none.
+     */
+    public synchronized String getDirectory() {
+        return holders > 0 ? directory : null;
+    }
+
+    private void admitNext() {
+        while (abandonedTickets.remove(admittedTicket)) {
+            admittedTicket++;
+        }
+        notifyAll();
+    }
+}
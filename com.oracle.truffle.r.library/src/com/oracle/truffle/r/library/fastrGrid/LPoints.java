@@ -1,7 +1,7 @@
 /*
  * Copyright (C) 2001-3 Paul Murrell
  * Copyright (c) 1998-2015, The R Core Team
- * Copyright (c) 2017, 2019, Oracle and/or its affiliates
+ * Copyright (c) 2017, 2020, Oracle and/or its affiliates
  *
  * This program is free software; you can redistribute it and/or modify
  * it under the terms of the GNU General Public License as published by
@@ -22,6 +22,8 @@ package com.oracle.truffle.r.library.fastrGrid;
 import static com.oracle.truffle.r.nodes.builtin.CastBuilder.Predef.abstractVectorValue;
 import static com.oracle.truffle.r.nodes.builtin.CastBuilder.Predef.numericValue;
 
+import java.util.Arrays;
+
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.dsl.Specialization;
 import com.oracle.truffle.r.library.fastrGrid.Unit.UnitConversionContext;
@@ -77,14 +79,20 @@ public abstract class LPoints extends RExternalBuiltinNode.Arg4 {
         // Note: unlike in other drawing primitives, we only consider length of x
         int length = Unit.getLength(xVec);
         ContextCache contextCache = new ContextCache(null);
+        SymbolBatch batch = new SymbolBatch(dev);
         for (int i = 0; i < length; i++) {
             Point loc = TransformMatrix.transLocation(Point.fromUnits(xVec, yVec, i, conversionCtx), vpTransform.transform);
             double size = Unit.convertWidth(sizeVec, i, conversionCtx);
             if (loc.isFinite() && Double.isFinite(size)) {
                 contextCache = contextCache.from(gpar.getDrawingContext(i));
-                drawSymbol(contextCache, dev, pchVec.getDataAt(i % pchVec.getLength()), size * SIZE_FACTOR, loc.x, loc.y);
+                int pch = pchVec.getDataAt(i % pchVec.getLength());
+                if (!batch.add(contextCache, pch, size * SIZE_FACTOR, loc.x, loc.y)) {
+                    batch.flush();
+                    drawSymbol(contextCache, dev, pch, size * SIZE_FACTOR, loc.x, loc.y);
+                }
             }
         }
+        batch.flush();
         return RNull.instance;
     }
 
@@ -238,6 +246,91 @@ public abstract class LPoints extends RExternalBuiltinNode.Arg4 {
         dev.drawPolyLines(ctx, new double[]{x1, x2}, new double[]{y1, y2}, 0, 2);
     }
 
+    /**
+     * Collects consecutive symbols that are simple circles or squares drawn with the same drawing
+     * context, so that they can be drawn by one call to the device.
+     */
+    private static final class SymbolBatch {
+        private static final int MAX_SIZE = 4096;
+
+        private final GridDevice dev;
+        private DrawingContext ctx;
+        private boolean circles;
+        private int count;
+        // the left bottom corner for squares, the center for circles
+        private double[] x = new double[16];
+        private double[] y = new double[16];
+        // the side for squares, the radius for circles
+        private double[] size = new double[16];
+
+        SymbolBatch(GridDevice dev) {
+            this.dev = dev;
+        }
+
+        /**
+         * Adds the symbol to the batch if it is a circle or a square, otherwise returns
+         * {@code false}. The shapes must be the same as the ones drawn by {@code drawSymbol}.
+         */
+        boolean add(ContextCache ctxCache, int pch, double halfSize, double cx, double cy) {
+            switch (pch) {
+                case 0:
+                    add(ctxCache.getTransparentFill(), false, cx - halfSize, cy - halfSize, halfSize * 2);
+                    return true;
+                case 1:
+                    add(ctxCache.getTransparentFill(), true, cx, cy, halfSize);
+                    return true;
+                case 15:
+                case 22:
+                    add(ctxCache.getFilled(), false, cx - halfSize, cy - halfSize, halfSize * 2);
+                    return true;
+                case 16:
+                case 19:
+                case 21:
+                    add(ctxCache.getFilled(), true, cx, cy, halfSize);
+                    return true;
+                case 20:
+                    add(ctxCache.getFilled(), true, cx, cy, halfSize * .6);
+                    return true;
+                case 46:
+                    add(ctxCache.getFilled(), false, cx - PIXEL_SIZE / 2, cy - PIXEL_SIZE / 2, PIXEL_SIZE);
+                    return true;
+                default:
+                    return false;
+            }
+        }
+
+        private void add(DrawingContext newCtx, boolean newCircles, double newX, double newY, double newSize) {
+            if (count > 0 && (ctx != newCtx || circles != newCircles)) {
+                flush();
+            }
+            if (count == x.length) {
+                x = Arrays.copyOf(x, count * 2);
+                y = Arrays.copyOf(y, count * 2);
+                size = Arrays.copyOf(size, count * 2);
+            }
+            ctx = newCtx;
+            circles = newCircles;
+            x[count] = newX;
+            y[count] = newY;
+            size[count] = newSize;
+            if (++count == MAX_SIZE) {
+                flush();
+            }
+        }
+
+        void flush() {
+            if (count == 0) {
+                return;
+            }
+            if (circles) {
+                dev.drawCircles(ctx, x, y, size, count);
+            } else {
+                dev.drawRects(ctx, x, y, size, size, count);
+            }
+            count = 0;
+        }
+    }
+
     private static final class ContextCache {
         public final DrawingContext original;
         private DrawingContext filled;
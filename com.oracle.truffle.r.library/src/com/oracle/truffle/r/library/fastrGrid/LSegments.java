@@ -1,7 +1,7 @@
 /*
  * Copyright (C) 2001-3 Paul Murrell
  * Copyright (c) 1998-2013, The R Core Team
- * Copyright (c) 2017, 2018, Oracle and/or its affiliates
+ * Copyright (c) 2017, 2020, Oracle and/or its affiliates
  *
  * This program is free software; you can redistribute it and/or modify
  * it under the terms of the GNU General Public License as published by
@@ -24,6 +24,7 @@ import static com.oracle.truffle.r.nodes.builtin.CastBuilder.Predef.abstractVect
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.dsl.Specialization;
 import com.oracle.truffle.r.library.fastrGrid.Unit.UnitConversionContext;
+import com.oracle.truffle.r.library.fastrGrid.device.DrawingContext;
 import com.oracle.truffle.r.library.fastrGrid.device.GridDevice;
 import com.oracle.truffle.r.nodes.builtin.RExternalBuiltinNode;
 import com.oracle.truffle.r.runtime.data.RList;
@@ -35,6 +36,8 @@ import com.oracle.truffle.r.runtime.data.model.RAbstractVector;
  * which gets a vector of points and connects them all.
  */
 public abstract class LSegments extends RExternalBuiltinNode.Arg5 {
+    private static final int MAX_BATCH_SIZE = 4096;
+
     static {
         Casts casts = new Casts(LSegments.class);
         casts.arg(0).mustBe(abstractVectorValue());
@@ -66,6 +69,10 @@ public abstract class LSegments extends RExternalBuiltinNode.Arg5 {
         UnitConversionContext conversionCtx = new UnitConversionContext(vpTransform.size, vpContext, dev, gpar);
 
         int length = GridUtils.maxLength(x0, y0, x1, y1);
+        if (arrow == null) {
+            drawSegmentsBatched(dev, gpar, vpTransform, conversionCtx, x0, y0, x1, y1, length);
+            return RNull.instance;
+        }
         double[] xx = new double[2];
         double[] yy = new double[2];
         for (int i = 0; i < length; i++) {
@@ -85,4 +92,43 @@ public abstract class LSegments extends RExternalBuiltinNode.Arg5 {
         }
         return RNull.instance;
     }
+
+    /**
+     * Draws consecutive segments with the same drawing context with one call to the device.
+     */
+    private static void drawSegmentsBatched(GridDevice dev, GPar gpar, ViewPortTransform vpTransform, UnitConversionContext conversionCtx, RAbstractVector x0, RAbstractVector y0,
+                    RAbstractVector x1, RAbstractVector y1, int length) {
+        int batchSize = Math.min(length, MAX_BATCH_SIZE);
+        double[] xx = new double[batchSize * 2];
+        double[] yy = new double[batchSize * 2];
+        int[] starts = new int[batchSize];
+        int[] lengths = new int[batchSize];
+        for (int i = 0; i < batchSize; i++) {
+            starts[i] = i * 2;
+            lengths[i] = 2;
+        }
+        DrawingContext batchCtx = null;
+        int count = 0;
+        for (int i = 0; i < length; i++) {
+            Point loc1 = TransformMatrix.transLocation(Point.fromUnits(x0, y0, i, conversionCtx), vpTransform.transform);
+            Point loc2 = TransformMatrix.transLocation(Point.fromUnits(x1, y1, i, conversionCtx), vpTransform.transform);
+            if (!loc1.isFinite() || !loc2.isFinite()) {
+                continue;
+            }
+            DrawingContext drawingCtx = gpar.getDrawingContext(i);
+            if (count == batchSize || (count > 0 && drawingCtx != batchCtx)) {
+                dev.drawPolyLines(batchCtx, xx, yy, starts, lengths, count);
+                count = 0;
+            }
+            batchCtx = drawingCtx;
+            xx[count * 2] = loc1.x;
+            xx[count * 2 + 1] = loc2.x;
+            yy[count * 2] = loc1.y;
+            yy[count * 2 + 1] = loc2.y;
+            count++;
+        }
+        if (count > 0) {
+            dev.drawPolyLines(batchCtx, xx, yy, starts, lengths, count);
+        }
+    }
 }
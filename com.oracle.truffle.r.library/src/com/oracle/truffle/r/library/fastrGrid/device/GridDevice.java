@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2017, 2018, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2017, 2020, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * This code is free software; you can redistribute it and/or modify it
@@ -94,6 +94,43 @@ public interface GridDevice {
 
     void drawCircle(DrawingContext ctx, double centerX, double centerY, double radius);
 
+    /**
+     * Draws {@code count} axis aligned rectangles with the same drawing context. Devices should
+     * override this if they can draw many shapes at once faster than one by one, e.g. because the
+     * style has to be set up only once.
+     *
+     * @see #drawRect(DrawingContext, double, double, double, double, double)
+     */
+    default void drawRects(DrawingContext ctx, double[] leftX, double[] bottomY, double[] width, double[] height, int count) {
+        for (int i = 0; i < count; i++) {
+            drawRect(ctx, leftX[i], bottomY[i], width[i], height[i], 0);
+        }
+    }
+
+    /**
+     * Draws {@code count} circles with the same drawing context, this is what point symbols are
+     * usually made of.
+     *
+     * @see #drawRects(DrawingContext, double[], double[], double[], double[], int)
+     */
+    default void drawCircles(DrawingContext ctx, double[] centerX, double[] centerY, double[] radius, int count) {
+        for (int i = 0; i < count; i++) {
+            drawCircle(ctx, centerX[i], centerY[i], radius[i]);
+        }
+    }
+
+    /**
+     * Draws {@code count} poly-lines with the same drawing context, the i-th poly-line consists of
+     * {@code lengths[i]} points starting at index {@code startIndices[i]} of the coordinate arrays.
+     *
+     * @see #drawRects(DrawingContext, double[], double[], double[], double[], int)
+     */
+    default void drawPolyLines(DrawingContext ctx, double[] x, double[] y, int[] startIndices, int[] lengths, int count) {
+        for (int i = 0; i < count; i++) {
+            drawPolyLines(ctx, x, y, startIndices[i], lengths[i]);
+        }
+    }
+
     /**
      * Draws a raster image at specified position. The pixels array shall be treated as by row
      * matrix, the values are values compatible with the internal {@link GridColor} representation,
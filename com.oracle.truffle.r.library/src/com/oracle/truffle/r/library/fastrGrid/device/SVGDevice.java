@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2017, 2019, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2017, 2020, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * This code is free software; you can redistribute it and/or modify it
@@ -26,9 +26,13 @@ import static com.oracle.truffle.r.library.fastrGrid.device.DrawingContext.GRID_
 import static com.oracle.truffle.r.library.fastrGrid.device.DrawingContext.INCH_TO_POINTS_FACTOR;
 import static java.lang.Math.round;
 
+import java.io.BufferedWriter;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardCopyOption;
 import java.text.DecimalFormat;
 import java.util.Base64;
 
@@ -37,15 +41,34 @@ import com.oracle.truffle.r.library.fastrGrid.GridColorUtils;
 import com.oracle.truffle.r.library.fastrGrid.device.DrawingContext.GridFontStyle;
 import com.oracle.truffle.r.library.fastrGrid.device.DrawingContext.GridLineEnd;
 import com.oracle.truffle.r.library.fastrGrid.device.DrawingContext.GridLineJoin;
+import com.oracle.truffle.r.runtime.FileSystemUtils;
 import com.oracle.truffle.r.runtime.RInternalError;
+import com.oracle.truffle.r.runtime.TempPathName;
 import com.oracle.truffle.r.runtime.Utils;
 import com.oracle.truffle.r.runtime.context.RContext;
 
+/**
+ * Device that produces SVG code. Small documents are kept in memory, once the document grows
+ * beyond {@link #FLUSH_THRESHOLD} characters, it is written incrementally to a temporary file,
+ * which replaces the target file when the document is saved. The target file is never touched
+ * if the contents are only requested, e.g., by {@code svg.off}.
+ */
 public class SVGDevice implements GridDevice, FileGridDevice {
     private static final DecimalFormat DECIMAL_FORMAT = new DecimalFormat("0.000");
     private static final double COORD_FACTOR = INCH_TO_POINTS_FACTOR;
+    private static final int FLUSH_THRESHOLD = 64 * 1024;
 
     private final StringBuilder data = new StringBuilder(1024);
+    /**
+     * The temporary file with the beginning of the current document, {@code null} if the whole
+     * document is in {@link #data}.
+     */
+    private TruffleFile tempFile;
+    private Writer output;
+    /**
+     * Error that occurred while writing the document during drawing, reported on close.
+     */
+    private IOException outputError;
     private String filename;
     private final double width;
     private final double height;
@@ -60,11 +83,30 @@ public class SVGDevice implements GridDevice, FileGridDevice {
 
     public String closeAndGetContents() {
         closeSVGDocument(data);
-        return data.toString();
+        if (output == null) {
+            return data.toString();
+        }
+        try {
+            closeOutput();
+            return readTempFile();
+        } catch (IOException e) {
+            throw RInternalError.shouldNotReachHere(e, "Cannot read the temporary SVG file " + tempFile);
+        } finally {
+            discardOutput();
+        }
     }
 
     public String getContents() {
-        StringBuilder result = new StringBuilder(data);
+        StringBuilder result = new StringBuilder();
+        if (output != null) {
+            try {
+                output.flush();
+                result.append(readTempFile());
+            } catch (IOException e) {
+                throw RInternalError.shouldNotReachHere(e, "Cannot read the temporary SVG file " + tempFile);
+            }
+        }
+        result.append(data);
         closeSVGDocument(result);
         return result.toString();
     }
@@ -74,6 +116,7 @@ public class SVGDevice implements GridDevice, FileGridDevice {
         // We stay compatible with GnuR: opening new page wipes out what has been drawn without
         // saving it anywhere.
         data.setLength(0);
+        discardOutput();
         cachedCtx = null;
         data.append("<?xml version=\"1.0\" encoding=\"utf-8\"?>\n");
         data.append("<!DOCTYPE svg PUBLIC \"-//W3C//DTD SVG 1.1//EN\" \"http://www.w3.org/Graphics/SVG/1.1/DTD/svg11.dtd\">\n");
@@ -104,6 +147,21 @@ public class SVGDevice implements GridDevice, FileGridDevice {
         }
         appendColorStyle(ctx);
         data.append("/>\n"); // end of 'rect' tag
+        flushIfNeeded();
+    }
+
+    @Override
+    public void drawRects(DrawingContext ctx, double[] leftX, double[] bottomY, double[] widths, double[] heights, int count) {
+        appendStyle(ctx);
+        int styleStart = data.length();
+        appendColorStyle(ctx);
+        String colorStyle = data.substring(styleStart);
+        data.setLength(styleStart);
+        for (int i = 0; i < count; i++) {
+            data.append("<rect x='").append(trRound(leftX[i])).append("' y='").append(trRound(transY(bottomY[i] + heights[i]))).append("' width='").append(trRound(widths[i])).append(
+                            "' height='").append(trRound(heights[i])).append('\'').append(colorStyle).append("/>\n");
+            flushIfNeeded();
+        }
     }
 
     @Override
@@ -111,6 +169,13 @@ public class SVGDevice implements GridDevice, FileGridDevice {
         drawPoly(ctx, x, y, startIndex, length, true);
     }
 
+    @Override
+    public void drawPolyLines(DrawingContext ctx, double[] x, double[] y, int[] startIndices, int[] lengths, int count) {
+        for (int i = 0; i < count; i++) {
+            drawPoly(ctx, x, y, startIndices[i], lengths[i], true);
+        }
+    }
+
     @Override
     public void drawPolygon(DrawingContext ctx, double[] x, double[] y, int startIndex, int length) {
         drawPoly(ctx, x, y, startIndex, length, false);
@@ -122,6 +187,21 @@ public class SVGDevice implements GridDevice, FileGridDevice {
         data.append("<circle cx='").append(trRound(centerX)).append("' cy='").append(trRound(transY(centerY))).append("' r='").append(trRound(radius)).append('\'');
         appendColorStyle(ctx);
         data.append("/>\n");
+        flushIfNeeded();
+    }
+
+    @Override
+    public void drawCircles(DrawingContext ctx, double[] centerX, double[] centerY, double[] radius, int count) {
+        appendStyle(ctx);
+        int styleStart = data.length();
+        appendColorStyle(ctx);
+        String colorStyle = data.substring(styleStart);
+        data.setLength(styleStart);
+        for (int i = 0; i < count; i++) {
+            data.append("<circle cx='").append(trRound(centerX[i])).append("' cy='").append(trRound(transY(centerY[i]))).append("' r='").append(trRound(radius[i])).append('\'');
+            data.append(colorStyle).append("/>\n");
+            flushIfNeeded();
+        }
     }
 
     @Override
@@ -131,6 +211,7 @@ public class SVGDevice implements GridDevice, FileGridDevice {
         data.append("<image x='").append(round(leftX * COORD_FACTOR)).append("' y='").append(trRound(transY(bottomY + h)));
         data.append("' width='").append(round(w * COORD_FACTOR)).append("' height='").append(trRound(h));
         data.append("' preserveAspectRatio='none' xlink:href='data:image/bmp;base64,").append(base64).append("'/>\n");
+        flushIfNeeded();
     }
 
     @Override
@@ -145,6 +226,7 @@ public class SVGDevice implements GridDevice, FileGridDevice {
         data.append('>');
         xmlEncodeAppend(data, text);
         data.append("</text>\n");
+        flushIfNeeded();
     }
 
     @Override
@@ -212,25 +294,99 @@ public class SVGDevice implements GridDevice, FileGridDevice {
         data.append('\'');
         appendColorStyle(ctx, noFill);
         data.append("/>\n");
+        flushIfNeeded();
     }
 
     private void saveFile() throws DeviceCloseException {
         closeSVGDocument(data);
         try {
+            if (outputError != null) {
+                throw outputError;
+            }
             TruffleFile file = RContext.getInstance().getSafeTruffleFile(filename);
             if (FileGridDevice.isDevNull(file)) {
                 return;
             }
-            try (OutputStream stream = file.newOutputStream()) {
-                stream.write(data.toString().getBytes(StandardCharsets.UTF_8));
+            if (output == null) {
+                try (OutputStream stream = file.newOutputStream()) {
+                    stream.write(data.toString().getBytes(StandardCharsets.UTF_8));
+                }
+            } else {
+                closeOutput();
+                tempFile.move(file, StandardCopyOption.REPLACE_EXISTING);
+                tempFile = null;
             }
         } catch (IOException e) {
             throw new DeviceCloseException(e);
+        } finally {
+            discardOutput();
+        }
+    }
+
+    /**
+     * Writes the buffered part of the document to the temporary file once it is large enough.
+     */
+    private void flushIfNeeded() {
+        if (data.length() < FLUSH_THRESHOLD || outputError != null) {
+            return;
+        }
+        try {
+            if (output == null) {
+                openOutput();
+            }
+            output.append(data);
+            data.setLength(0);
+        } catch (IOException e) {
+            outputError = e;
+        }
+    }
+
+    private void openOutput() throws IOException {
+        RContext context = RContext.getInstance();
+        String path = TempPathName.createNonExistingFilePath(context, "svg", TempPathName.tempDirPathChecked(context), ".svg");
+        tempFile = context.getSafeTruffleFile(path);
+        output = new BufferedWriter(new OutputStreamWriter(tempFile.newOutputStream(), StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Writes the rest of the document and closes the temporary file.
+     */
+    private void closeOutput() throws IOException {
+        try {
+            output.append(data);
+            data.setLength(0);
+        } finally {
+            Writer toClose = output;
+            output = null;
+            toClose.close();
+        }
+    }
+
+    /**
+     * Closes and deletes the temporary file if there is any.
+     */
+    private void discardOutput() {
+        try {
+            if (output != null) {
+                output.close();
+            }
+            if (tempFile != null) {
+                FileSystemUtils.deleteIfExists(tempFile);
+            }
+        } catch (IOException e) {
+            // the file is in the session temporary directory, which is deleted on exit
         }
+        output = null;
+        tempFile = null;
+        outputError = null;
+    }
+
+    private String readTempFile() throws IOException {
+        return new String(tempFile.readAllBytes(), StandardCharsets.UTF_8);
     }
 
     private void closeSVGDocument(StringBuilder sb) {
-        if (sb.length() == 0) {
+        if (sb.length() == 0 && output == null) {
             return;
         }
         if (cachedCtx != null) {
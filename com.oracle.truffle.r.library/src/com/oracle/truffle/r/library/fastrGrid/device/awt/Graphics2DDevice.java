@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2017, 2019, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2017, 2020, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * This code is free software; you can redistribute it and/or modify it
@@ -115,6 +115,34 @@ public class Graphics2DDevice implements GridDevice {
         }
     }
 
+    @Override
+    public void drawRects(DrawingContext ctx, double[] leftXIn, double[] bottomYIn, double[] widthIn, double[] heightIn, int count) {
+        setStroke(ctx);
+        Rectangle shape = new Rectangle();
+        for (int i = 0; i < count; i++) {
+            double leftXReal = transX(leftXIn[i]);
+            double topYReal = transY(bottomYIn[i] + heightIn[i]);
+            shape.setBounds(iround(leftXReal), iround(topYReal), transDim(widthIn[i], leftXReal), transDim(heightIn[i], topYReal));
+            drawRectInternal(ctx, shape);
+        }
+    }
+
+    @Override
+    public void drawPolyLines(DrawingContext ctx, double[] x, double[] y, int[] startIndices, int[] lengths, int count) {
+        int maxLength = 0;
+        for (int i = 0; i < count; i++) {
+            maxLength = Math.max(maxLength, lengths[i]);
+        }
+        int[] xi = new int[maxLength];
+        int[] yi = new int[maxLength];
+        setStroke(ctx);
+        setColor(ctx.getColor());
+        for (int i = 0; i < count; i++) {
+            getPath2D(x, y, xi, yi, startIndices[i], lengths[i]);
+            graphics.drawPolyline(xi, yi, lengths[i]);
+        }
+    }
+
     @Override
     public void drawPolyLines(DrawingContext ctx, double[] x, double[] y, int startIndex, int length) {
         int[] xi = new int[length];
@@ -161,6 +189,29 @@ public class Graphics2DDevice implements GridDevice {
         }
     }
 
+    @Override
+    public void drawCircles(DrawingContext ctx, double[] centerXIn, double[] centerYIn, double[] radiusIn, int count) {
+        setStroke(ctx);
+        GridColor fillColor = ctx.getFillColor();
+        boolean fill = !fillColor.equals(GridColor.TRANSPARENT);
+        boolean stroke = !fillColor.equals(ctx.getColor());
+        for (int i = 0; i < count; i++) {
+            double xRel = transX(centerXIn[i] - radiusIn[i]);
+            double yRel = transY(centerYIn[i] + radiusIn[i]);
+            int diameter = transDim(radiusIn[i] * 2d, Math.max(xRel % 1, yRel % 1));
+            int xi = iround(xRel);
+            int yi = iround(yRel);
+            if (fill) {
+                setColor(fillColor);
+                graphics.fillOval(xi, yi, diameter, diameter);
+            }
+            if (stroke) {
+                setColor(ctx.getColor());
+                graphics.drawOval(xi, yi, diameter, diameter);
+            }
+        }
+    }
+
     @Override
     public void drawRaster(double leftX, double bottomY, double w, double h, int[] pixels, int pixelsColumnsCount, ImageInterpolation interpolation) {
         graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, fromInterpolation(interpolation));
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2017, 2019, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2017, 2020, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * This code is free software; you can redistribute it and/or modify it
@@ -153,6 +153,24 @@ public final class JFrameDevice implements GridDevice, ImageSaver {
         repaint();
     }
 
+    @Override
+    public synchronized void drawRects(DrawingContext ctx, double[] leftX, double[] bottomY, double[] width, double[] height, int count) {
+        inner.drawRects(ctx, leftX, bottomY, width, height, count);
+        repaint();
+    }
+
+    @Override
+    public synchronized void drawCircles(DrawingContext ctx, double[] centerX, double[] centerY, double[] radius, int count) {
+        inner.drawCircles(ctx, centerX, centerY, radius, count);
+        repaint();
+    }
+
+    @Override
+    public synchronized void drawPolyLines(DrawingContext ctx, double[] x, double[] y, int[] startIndices, int[] lengths, int count) {
+        inner.drawPolyLines(ctx, x, y, startIndices, lengths, count);
+        repaint();
+    }
+
     @Override
     public synchronized void drawRaster(double leftX, double bottomY, double width, double height, int[] pixels, int pixelsColumnsCount, ImageInterpolation interpolation) {
         inner.drawRaster(leftX, bottomY, width, height, pixels, pixelsColumnsCount, interpolation);
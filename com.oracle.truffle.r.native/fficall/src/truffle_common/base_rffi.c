@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2014, 2019, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2014, 2020, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * This code is free software; you can redistribute it and/or modify it
@@ -30,8 +30,12 @@
 #include <sys/utsname.h>
 #include <errno.h>
 
-int call_base_initEventLoop(char *fifoInPath, char *fifoOutPath) {
-    return initEventLoop(fifoInPath, fifoOutPath);
+int call_base_initEventLoop(char *fifoInPath) {
+    return initEventLoop(fifoInPath);
+}
+
+void call_base_releaseEventLoop() {
+    releaseEventLoop();
 }
 
 int call_base_getpid() {
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2014, 2018, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2014, 2020, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * This code is free software; you can redistribute it and/or modify it
@@ -49,10 +49,12 @@
     popJmpBuf();                    \
     return result;
 
-extern int initEventLoop(char* fifoInPathParam, char* fifoOutPathParam);
+extern int initEventLoop(char* fifoInPathParam);
 
 extern int dispatchHandlers();
 
+extern void releaseEventLoop();
+
 extern void init_memory();
 
 extern void init_utils(TruffleEnv *env);
@@ -2,7 +2,7 @@
  *  R : A Computer Language for Statistical Data Analysis
  *  Copyright (C) 1995, 1996  Robert Gentleman and Ross Ihaka
  *  Copyright (C) 1997--2018  The R Core Team
- *  Copyright (c) 2013, 2019, Oracle and/or its affiliates
+ *  Copyright (c) 2013, 2020, Oracle and/or its affiliates
  *
  *  This program is free software; you can redistribute it and/or modify
  *  it under the terms of the GNU General Public License as published by
@@ -376,69 +376,92 @@ static void eventLoopLog(const char* msg) {
 	}
 }
 
+/*
+ * The event loop thread notifies the Java side through a single named pipe that is opened only
+ * once and then blocks on a condition variable until the handlers are dispatched. The dispatching
+ * runs in the FastR context thread and signals the condition variable directly, there is no
+ * round trip through the file system.
+ */
+#define MAX_DISPATCH_ROUNDS 16
+
 char hint1 = 64;
-char hint2 = 65;
 fd_set *what;
 char* fifoInPath;
-char* fifoOutPath;
+static int fifoInFd = -1;
+static int dispatchPending = 0;
+static pthread_mutex_t dispatchMutex = PTHREAD_MUTEX_INITIALIZER;
+static pthread_cond_t dispatchCond = PTHREAD_COND_INITIALIZER;
 
 static int notifyExecutorAndWait() {
-	int fd = open(fifoInPath, O_WRONLY);
-	if (fd < 0) {
-	    return errno;
-    }
-	int res = write(fd, &hint1, 1);
-	if (res < 0) {
-	    return errno;
-    }
-	res = close(fd);
-	if (res < 0) {
-	    return errno;
-    }
-	
-	// wait until the executor confirms the dispatching of the handlers is done
-	fd = open(fifoOutPath, O_RDONLY);
-	if (fd < 0) {
-	    return errno;
-    }
-	char confirmed[1];
-	res = read(fd, confirmed, sizeof(confirmed) + 1);
-	if (res < 0) {
-	    return errno;
-    }
-	res = close(fd);
+	pthread_mutex_lock(&dispatchMutex);
+	dispatchPending = 1;
+	pthread_mutex_unlock(&dispatchMutex);
+
+	if (fifoInFd < 0) {
+		// blocks until the Java side opens the pipe for reading, which it keeps open
+		fifoInFd = open(fifoInPath, O_WRONLY);
+		if (fifoInFd < 0) {
+			return errno;
+		}
+	}
+	int res;
+	do {
+		res = write(fifoInFd, &hint1, 1);
+	} while (res < 0 && errno == EINTR);
 	if (res < 0) {
-	    return errno;
-    }
+		return errno;
+	}
 
+	// wait until the executor confirms the dispatching of the handlers is done
+	pthread_mutex_lock(&dispatchMutex);
+	while (dispatchPending) {
+		pthread_cond_wait(&dispatchCond, &dispatchMutex);
+	}
+	pthread_mutex_unlock(&dispatchMutex);
 	return 0;
 }
 
+void releaseEventLoop();
+
 int dispatchHandlers() {
-	eventLoopLog("before R_runHandlers in dispatchHandlers");
-	R_runHandlers(R_InputHandlers, what);
-	
-	eventLoopLog("before open in dispatchHandlers");
-	int fd = open(fifoOutPath, O_WRONLY);
-	if (fd < 0) {
-	    return errno;
-    }
-	eventLoopLog("before write in dispatchHandlers");
-	int res = write(fd, &hint2, 1);
-	if (res < 0) {
-	    return errno;
-    }
-	eventLoopLog("before close in dispatchHandlers");
-	res = close(fd);
-	if (res < 0) {
-	    return errno;
-    }
+	pthread_mutex_lock(&dispatchMutex);
+	int pending = dispatchPending;
+	pthread_mutex_unlock(&dispatchMutex);
+	if (!pending) {
+		eventLoopLog("no pending events in dispatchHandlers");
+		return 0;
+	}
+
+	// handlers that become ready while dispatching are run within the same downcall
+	int rounds = 0;
+	while (what != NULL) {
+		eventLoopLog("before R_runHandlers in dispatchHandlers");
+		R_runHandlers(R_InputHandlers, what);
+		if (++rounds == MAX_DISPATCH_ROUNDS) {
+			break;
+		}
+		what = R_checkActivityEx(0, 1, handleInterrupt);
+	}
+
+	releaseEventLoop();
 
 	eventLoopLog("before exit in dispatchHandlers");
 
 	return 0;
 }
 
+/*
+ * Lets the event loop thread continue. Called at the end of dispatchHandlers and by the Java side
+ * when the dispatching does not get there, e.g. when a handler raises an R error, otherwise the
+ * event loop thread would wait for the condition variable forever.
+ */
+void releaseEventLoop() {
+	pthread_mutex_lock(&dispatchMutex);
+	dispatchPending = 0;
+	pthread_cond_signal(&dispatchCond);
+	pthread_mutex_unlock(&dispatchMutex);
+}
+
 static void *eventLoop(void *params) {
 
 	int wt = 1000000;
@@ -458,27 +481,19 @@ static void *eventLoop(void *params) {
 	return NULL;
 }
 
-int initEventLoop(char* fifoInPathParam, char* fifoOutPathParam) {
+int initEventLoop(char* fifoInPathParam) {
 	const char* trace = getenv("TRACE_EVENT_LOOP");
 	if (trace && strcmp(trace, "true") == 0) {
 		fpLog = fopen("traceEventLoop.log", "a+");
 	}
 
-	fifoInPath = malloc(strlen(fifoInPathParam) * (sizeof(char) + 1));
+	fifoInPath = malloc(strlen(fifoInPathParam) + 1);
 	strcpy(fifoInPath, fifoInPathParam);
-
-	fifoOutPath = malloc(strlen(fifoOutPathParam) * (sizeof(char) + 1));
-	strcpy(fifoOutPath, fifoOutPathParam);
     
     int res = mkfifo(fifoInPath, 0666);
     if (res != 0 && errno != EEXIST) {
 	    return errno;
     }
-
-    res = mkfifo(fifoOutPath, 0666);
-    if (res != 0 && errno != EEXIST) {
-	    return errno;
-    }
     
     pthread_t eventLoopThread;
 	if(pthread_create(&eventLoopThread, NULL, eventLoop, NULL)) {
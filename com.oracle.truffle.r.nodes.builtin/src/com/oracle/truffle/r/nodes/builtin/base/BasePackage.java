@@ -53,8 +53,8 @@ import com.oracle.truffle.r.nodes.builtin.base.fastpaths.MatrixFastPathNodeGen;
 import com.oracle.truffle.r.nodes.builtin.base.fastpaths.SetDiffFastPathNodeGen;
 import com.oracle.truffle.r.nodes.builtin.base.fastpaths.StopifnotFastPath;
 import com.oracle.truffle.r.nodes.builtin.base.fastpaths.SubscriptDataFrameFastPathNodeGen;
-import com.oracle.truffle.r.nodes.builtin.base.fastpaths.SubsetDataFrameFastPath;
 import com.oracle.truffle.r.nodes.builtin.base.fastpaths.SubsetDataFrameFastPathNodeGen;
+import com.oracle.truffle.r.nodes.builtin.base.fastpaths.UpdateSubsetDataFrameFastPathNodeGen;
 import com.oracle.truffle.r.nodes.builtin.base.fastpaths.VectorFastPathsFactory.ComplexFastPathNodeGen;
 import com.oracle.truffle.r.nodes.builtin.base.fastpaths.VectorFastPathsFactory.DoubleFastPathNodeGen;
 import com.oracle.truffle.r.nodes.builtin.base.fastpaths.VectorFastPathsFactory.IntegerFastPathNodeGen;
@@ -103,6 +103,8 @@ import com.oracle.truffle.r.nodes.builtin.base.system.SystemFunction;
 import com.oracle.truffle.r.nodes.builtin.base.system.SystemFunctionNodeGen;
 import com.oracle.truffle.r.nodes.builtin.fastr.FastRContext;
 import com.oracle.truffle.r.nodes.builtin.fastr.FastRContextFactory;
+import com.oracle.truffle.r.nodes.builtin.fastr.FastRCopyProf;
+import com.oracle.truffle.r.nodes.builtin.fastr.FastRCopyProfFactory;
 import com.oracle.truffle.r.nodes.builtin.fastr.FastRDebug;
 import com.oracle.truffle.r.nodes.builtin.fastr.FastRDebugNodeGen;
 import com.oracle.truffle.r.nodes.builtin.fastr.FastRDispatchNativeHandlers;
@@ -131,6 +133,10 @@ import com.oracle.truffle.r.nodes.builtin.fastr.FastRInteropFactory.FastRInterop
 import com.oracle.truffle.r.nodes.builtin.fastr.FastRJavaGDResize;
 import com.oracle.truffle.r.nodes.builtin.fastr.FastRLibPaths;
 import com.oracle.truffle.r.nodes.builtin.fastr.FastRLibPathsNodeGen;
+import com.oracle.truffle.r.nodes.builtin.fastr.FastRMapFile;
+import com.oracle.truffle.r.nodes.builtin.fastr.FastRMapFileNodeGen;
+import com.oracle.truffle.r.nodes.builtin.fastr.FastRNativeProf;
+import com.oracle.truffle.r.nodes.builtin.fastr.FastRNativeProfFactory;
 import com.oracle.truffle.r.nodes.builtin.fastr.FastROptionBuiltin;
 import com.oracle.truffle.r.nodes.builtin.fastr.FastRPatchPackage;
 import com.oracle.truffle.r.nodes.builtin.fastr.FastRPatchPackageNodeGen;
@@ -142,6 +148,8 @@ import com.oracle.truffle.r.nodes.builtin.fastr.FastRRefCountInfo;
 import com.oracle.truffle.r.nodes.builtin.fastr.FastRRefCountInfoNodeGen;
 import com.oracle.truffle.r.nodes.builtin.fastr.FastRRegisterFunctions;
 import com.oracle.truffle.r.nodes.builtin.fastr.FastRRegisterFunctionsNodeGen;
+import com.oracle.truffle.r.nodes.builtin.fastr.FastRSetCommandArgs;
+import com.oracle.truffle.r.nodes.builtin.fastr.FastRSetCommandArgsNodeGen;
 import com.oracle.truffle.r.nodes.builtin.fastr.FastRSetConsoleHandler;
 import com.oracle.truffle.r.nodes.builtin.fastr.FastRSetConsoleHandlerNodeGen;
 import com.oracle.truffle.r.nodes.builtin.fastr.FastRSetToolchain;
@@ -500,6 +508,8 @@ public class BasePackage extends RBuiltinPackage {
         add(FastRInteropGetException.class, FastRInteropGetExceptionNodeGen::create);
         add(FastRInteropClearException.class, FastRInteropClearExceptionNodeGen::create);
         add(FastRInspect.class, FastRInspectNodeGen::create);
+        add(FastRMapFile.class, FastRMapFileNodeGen::create);
+        add(FastRSetCommandArgs.class, FastRSetCommandArgsNodeGen::create);
         add(FastRInterop.Eval.class, FastRInteropFactory.EvalNodeGen::create);
         add(FastRInterop.Export.class, FastRInteropFactory.ExportNodeGen::create);
         add(FastRInterop.Import.class, FastRInteropFactory.ImportNodeGen::create);
@@ -538,6 +548,10 @@ public class BasePackage extends RBuiltinPackage {
         add(FastRprofmemShow.class, FastRprofmemShowNodeGen::create);
         add(FastRprofmemSource.class, FastRprofmemSourceNodeGen::create);
         add(FastRprofmemSnapshot.class, FastRprofmemSnapshotNodeGen::create);
+        add(FastRNativeProf.NativeProf.class, FastRNativeProfFactory.NativeProfNodeGen::create);
+        add(FastRNativeProf.NativeProfSummary.class, FastRNativeProfFactory.NativeProfSummaryNodeGen::create);
+        add(FastRCopyProf.CopyProf.class, FastRCopyProfFactory.CopyProfNodeGen::create);
+        add(FastRCopyProf.CopyProfSummary.class, FastRCopyProfFactory.CopyProfSummaryNodeGen::create);
         add(FastRLibPaths.class, FastRLibPathsNodeGen::create);
         add(FileFunctions.BaseName.class, FileFunctionsFactory.BaseNameNodeGen::create);
         add(FileFunctions.DirCreate.class, FileFunctionsFactory.DirCreateNodeGen::create);
@@ -692,6 +706,8 @@ public class BasePackage extends RBuiltinPackage {
         add(Matrix.class, MatrixNodeGen::create);
         add(Max.class, MaxNodeGen::create);
         add(Mean.class, MeanNodeGen::create);
+        add(MemCompressFunctions.MemCompress.class, MemCompressFunctionsFactory.MemCompressNodeGen::create);
+        add(MemCompressFunctions.MemDecompress.class, MemCompressFunctionsFactory.MemDecompressNodeGen::create);
         add(Merge.class, MergeNodeGen::create);
         add(Min.class, MinNodeGen::create);
         add(Missing.class, MissingNodeGen::create);
@@ -955,7 +971,8 @@ public class BasePackage extends RBuiltinPackage {
     public void loadOverrides(MaterializedFrame baseFrame) {
         super.loadOverrides(baseFrame);
         addFastPath(baseFrame, "[[.data.frame", SubscriptDataFrameFastPathNodeGen::create, RVisibility.ON);
-        addFastPath(baseFrame, "[.data.frame", SubsetDataFrameFastPath.createFastPathFactory(SubsetDataFrameFastPathNodeGen::create));
+        addFastPath(baseFrame, "[.data.frame", SubsetDataFrameFastPathNodeGen::create, RVisibility.ON);
+        addFastPath(baseFrame, "[<-.data.frame", UpdateSubsetDataFrameFastPathNodeGen::create, RVisibility.ON);
         addFastPath(baseFrame, "matrix", MatrixFastPathNodeGen::create, Matrix.class);
         addFastPath(baseFrame, "setdiff", SetDiffFastPathNodeGen::create, RVisibility.ON);
         addFastPath(baseFrame, "get", GetFastPathNodeGen::create, RVisibility.ON);
@@ -555,9 +555,9 @@ public abstract class Bind extends RBaseNodeWithWarnings {
             assert dims.length == 2;
             for (int col = 0; col < dims[1]; col++) {
                 int rowsCount = Math.min(dims[0], resultDimensions[0]);
-                for (int row = 0; row < rowsCount; row++) {
-                    result.transferElementSameType(ind++, vec, dims[0] * col + row);
-                }
+                // the column is contiguous in both vectors
+                result.transferRegionSameType(ind, vec, dims[0] * col, rowsCount);
+                ind += rowsCount;
                 if (rowsAndColumnsNotEqual) {
                     everSeenNotEqualRows.enter();
                     if (rowsCount < resultDimensions[0]) {
@@ -743,9 +743,9 @@ public abstract class Bind extends RBaseNodeWithWarnings {
             int srcInd = 0;
             int j = 0;
             for (; j < vecLength / firstDims[i]; j++) {
-                for (int k = dstRowInd; k < dstRowInd + firstDims[i]; k++) {
-                    result.transferElementSameType(j * resultDimensions[0] + k, vec, srcInd++);
-                }
+                // the rows of one column of the input are contiguous in the result column
+                result.transferRegionSameType(j * resultDimensions[0] + dstRowInd, vec, srcInd, firstDims[i]);
+                srcInd += firstDims[i];
             }
             if (rowsAndColumnsNotEqual) {
                 everSeenNotEqualColumns.enter();
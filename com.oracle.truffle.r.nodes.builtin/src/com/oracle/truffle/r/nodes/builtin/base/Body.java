@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2014, 2018, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2014, 2020, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * This code is free software; you can redistribute it and/or modify it
@@ -25,6 +25,7 @@ package com.oracle.truffle.r.nodes.builtin.base;
 import static com.oracle.truffle.r.runtime.builtins.RBehavior.PURE;
 import static com.oracle.truffle.r.runtime.builtins.RBuiltinKind.INTERNAL;
 
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.dsl.Cached;
 import com.oracle.truffle.api.dsl.Specialization;
 import com.oracle.truffle.api.nodes.RootNode;
@@ -34,6 +35,7 @@ import com.oracle.truffle.r.nodes.builtin.RBuiltinNode;
 import com.oracle.truffle.r.nodes.function.FunctionDefinitionNode;
 import com.oracle.truffle.r.runtime.builtins.RBuiltin;
 import com.oracle.truffle.r.runtime.data.RFunction;
+import com.oracle.truffle.r.runtime.data.RFunction.DeferredTarget;
 import com.oracle.truffle.r.runtime.data.RNull;
 
 @RBuiltin(name = "body", kind = INTERNAL, parameterNames = {"fun"}, behavior = PURE)
@@ -45,7 +47,12 @@ public abstract class Body extends RBuiltinNode.Arg1 {
 
     @Specialization
     protected Object doBody(RFunction fun,
-                    @Cached("createBinaryProfile()") ConditionProfile profile) {
+                    @Cached("createBinaryProfile()") ConditionProfile profile,
+                    @Cached("createBinaryProfile()") ConditionProfile deferredProfile) {
+        DeferredTarget deferred = fun.getDeferredTarget();
+        if (deferredProfile.profile(deferred != null)) {
+            return getDeferredBody(deferred);
+        }
         RootNode root = fun.getRootNode();
         if (profile.profile(root instanceof FunctionDefinitionNode)) {
             FunctionDefinitionNode fdn = (FunctionDefinitionNode) root;
@@ -55,6 +62,11 @@ public abstract class Body extends RBuiltinNode.Arg1 {
         }
     }
 
+    @TruffleBoundary
+    private static Object getDeferredBody(DeferredTarget deferred) {
+        return deferred.getBody();
+    }
+
     @Specialization(guards = "!isRFunction(fun)")
     protected RNull doBodyNull(@SuppressWarnings("unused") Object fun) {
         return RNull.instance;
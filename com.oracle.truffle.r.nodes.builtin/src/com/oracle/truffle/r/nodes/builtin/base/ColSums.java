@@ -31,12 +31,14 @@ import com.oracle.truffle.api.profiles.ConditionProfile;
 import com.oracle.truffle.r.runtime.RRuntime;
 import com.oracle.truffle.r.runtime.builtins.RBuiltin;
 import com.oracle.truffle.r.runtime.data.RDataFactory;
+import com.oracle.truffle.r.runtime.data.RDoubleArrayVectorData;
 import com.oracle.truffle.r.runtime.data.RDoubleVector;
 import com.oracle.truffle.r.runtime.data.VectorDataLibrary;
 import com.oracle.truffle.r.runtime.data.VectorDataLibrary.RandomAccessIterator;
 import com.oracle.truffle.r.runtime.data.RIntVector;
 import com.oracle.truffle.r.runtime.data.RLogicalVector;
 import com.oracle.truffle.r.runtime.ops.BinaryArithmetic;
+import com.oracle.truffle.r.runtime.ops.CompensatedSum;
 import com.oracle.truffle.r.runtime.ops.na.NACheck;
 
 @RBuiltin(name = "colSums", kind = INTERNAL, parameterNames = {"X", "m", "n", "na.rm"}, behavior = PURE)
@@ -45,6 +47,7 @@ public abstract class ColSums extends ColSumsBase {
     @Child private BinaryArithmetic add = BinaryArithmetic.ADD.createOperation();
 
     private final ConditionProfile removeNA = ConditionProfile.createBinaryProfile();
+    private final ConditionProfile arrayDataProfile = ConditionProfile.createBinaryProfile();
 
     static {
         createCasts(ColSums.class);
@@ -59,32 +62,26 @@ public abstract class ColSums extends ColSumsBase {
         boolean isComplete = true;
         final boolean rna = removeNA.profile(rnaParam);
 
-        int pos = 0;
         Object xData = x.getData();
-        RandomAccessIterator xIt = xDataLib.randomAccessIterator(xData);
-        NACheck naCheck = xDataLib.getNACheck(xData);
-        nextCol: for (int c = 0; c < colNum; c++) {
-            double sum = 0;
-            for (int i = 0; i < rowNum; i++) {
-                final double el = xDataLib.getDouble(xData, xIt, pos++);
-                if (rna) {
-                    if (!naCheck.check(el) && !Double.isNaN(el)) {
-                        sum = add.op(sum, el);
-                    }
-                } else {
-                    if (naCheck.check(el)) {
-                        result[c] = RRuntime.DOUBLE_NA;
-                        isComplete = false;
-                        pos += rowNum - i - 1;
-                        continue nextCol;
-                    }
-                    if (Double.isNaN(el)) {
-                        result[c] = Double.NaN;
-                        pos += rowNum - i - 1;
-                        continue nextCol;
-                    }
-                    sum = add.op(sum, el);
+        // reading the array of other data would copy them, e.g. compact sequences
+        double[] values = arrayDataProfile.profile(xData instanceof RDoubleArrayVectorData) ? xDataLib.getReadonlyDoubleData(xData) : null;
+        RandomAccessIterator xIt = values == null ? xDataLib.randomAccessIterator(xData) : null;
+        for (int c = 0; c < colNum; c++) {
+            int start = c * rowNum;
+            double sum;
+            if (values != null) {
+                sum = CompensatedSum.sum(values, start, start + rowNum, rna);
+                if (!rna && Double.isNaN(sum)) {
+                    // whichever of NA and NaN comes first in the column is the result
+                    sum = CompensatedSum.firstNaN(values, start, start + rowNum, sum);
                 }
+            } else if (rna) {
+                sum = CompensatedSum.sum(xDataLib, xData, xIt, start, start + rowNum, true);
+            } else {
+                sum = CompensatedSum.sumOrFirstNaN(xDataLib, xData, xIt, start, start + rowNum);
+            }
+            if (RRuntime.isNA(sum)) {
+                isComplete = false;
             }
             result[c] = sum;
         }
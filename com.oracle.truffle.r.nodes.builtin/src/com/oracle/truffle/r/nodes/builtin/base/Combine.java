@@ -69,10 +69,14 @@ import com.oracle.truffle.r.runtime.data.CharSXPWrapper;
 import com.oracle.truffle.r.runtime.data.RArgsValuesAndNames;
 import com.oracle.truffle.r.runtime.data.RAttributesLayout;
 import com.oracle.truffle.r.runtime.data.RDataFactory;
+import com.oracle.truffle.r.runtime.data.RDoubleArrayVectorData;
 import com.oracle.truffle.r.runtime.data.RFunction;
+import com.oracle.truffle.r.runtime.data.RIntArrayVectorData;
 import com.oracle.truffle.r.runtime.data.RList;
+import com.oracle.truffle.r.runtime.data.RLogicalArrayVectorData;
 import com.oracle.truffle.r.runtime.data.RNull;
 import com.oracle.truffle.r.runtime.data.RPairList;
+import com.oracle.truffle.r.runtime.data.RRawArrayVectorData;
 import com.oracle.truffle.r.runtime.data.RS4Object;
 import com.oracle.truffle.r.runtime.data.RStringVector;
 import com.oracle.truffle.r.runtime.data.RSymbol;
@@ -116,6 +120,7 @@ public abstract class Combine extends RBuiltinNode.Arg2 {
     private final ConditionProfile fastNamesMerge = ConditionProfile.createBinaryProfile();
     private final ConditionProfile isAbstractVectorProfile = ConditionProfile.createBinaryProfile();
     private final ConditionProfile hasNewNamesProfile = ConditionProfile.createBinaryProfile();
+    private final ConditionProfile bulkCopyProfile = ConditionProfile.createBinaryProfile();
 
     static {
         Casts casts = new Casts(Combine.class);
@@ -382,6 +387,9 @@ public abstract class Combine extends RBuiltinNode.Arg2 {
             VectorDataLibrary vDataLib = getElemDataLib(elementIndex);
             Object resultData = result.getData();
             Object vData = v.getData();
+            if (bulkCopyProfile.profile(isArrayData(resultData) && resultData.getClass() == vData.getClass())) {
+                return transferRegion(result, pos, v);
+            }
             try (RandomAccessWriteIterator resultIt = resultDataLibrary.randomAccessWriteIterator(resultData)) {
                 RandomAccessIterator vIt = vDataLib.randomAccessIterator(vData);
                 for (int i = 0; i < v.getLength(); i++) {
@@ -399,6 +407,17 @@ public abstract class Combine extends RBuiltinNode.Arg2 {
         }
     }
 
+    private static boolean isArrayData(Object data) {
+        return data instanceof RDoubleArrayVectorData || data instanceof RIntArrayVectorData || data instanceof RLogicalArrayVectorData || data instanceof RRawArrayVectorData;
+    }
+
+    @TruffleBoundary
+    private static int transferRegion(RAbstractVector result, int pos, RAbstractVector v) {
+        int length = v.getLength();
+        result.transferRegionSameType(pos, v, 0, length);
+        return length;
+    }
+
     private VectorDataLibrary getResultDataLibrary() {
         if (resultDataLib == null) {
             CompilerDirectives.transferToInterpreterAndInvalidate();
@@ -59,12 +59,16 @@ import java.time.temporal.ChronoField;
 import java.time.temporal.TemporalAccessor;
 import java.time.temporal.TemporalField;
 import java.time.temporal.ValueRange;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.TimeZone;
+import java.util.concurrent.ConcurrentHashMap;
 
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.dsl.Cached;
@@ -235,9 +239,16 @@ public class DatePOSIXFunctions {
         protected RList asPOSIXlt(RDoubleVector x, String tz) {
             int xLen = x.getLength();
             POSIXltBuilder builder = new POSIXltBuilder(xLen, tz);
+            ZoneTable table = ZoneTable.get(builder.getRealZone());
             for (int i = 0; i < xLen; i++) {
                 double second = x.getDataAt(i);
                 if (RRuntime.isFinite(second)) {
+                    long epochSecond = (long) second;
+                    if (table.contains(epochSecond)) {
+                        int index = table.indexAt(epochSecond);
+                        setLocalEntry(builder, i, epochSecond + table.offsets[index], second - Math.floor(second), table.daylightTime[index]);
+                        continue;
+                    }
                     Instant instant = Instant.ofEpochSecond((long) second);
                     double miliseconds = second - Math.floor(second);
                     ZonedDateTime date = ZonedDateTime.ofInstant(instant, builder.getRealZone().toZoneId());
@@ -284,6 +295,7 @@ public class DatePOSIXFunctions {
             }
 
             ZoneId zoneId = zone.toZoneId();
+            ZoneTable table = ZoneTable.get(zone);
             int length = max(secVector.getLength(), minVector.getLength(), hourVector.getLength(), mdayVector.getLength(), monVector.getLength(), yearVector.getLength());
             double[] data = new double[length];
             boolean complete = true;
@@ -304,6 +316,14 @@ public class DatePOSIXFunctions {
                         year -= delta;
                         mon += delta * 12;
                     }
+                    int intSec = (int) sec;
+                    if (hour >= 0 && hour < 24 && min >= 0 && min < 60 && intSec >= 0 && intSec < 60) {
+                        long local = (daysFromCivil(year + 1900L, mon + 1, 1) + mday - 1) * SECONDS_PER_DAY + hour * 3600 + min * 60 + intSec;
+                        if (table.contains(local)) {
+                            data[i] = local - table.offsetAtLocal(local) + (sec - Math.floor(sec));
+                            continue;
+                        }
+                    }
                     LocalDateTime time = LocalDateTime.of(year + 1900, mon + 1, 1, hour, min, (int) sec).plusDays(mday - 1);
                     ZonedDateTime zoned = time.atZone(zoneId);
                     data[i] = zoned.toInstant().getEpochSecond() + (sec - Math.floor(sec));
@@ -395,20 +415,20 @@ public class DatePOSIXFunctions {
             RIntVector monVector = (RIntVector) RRuntime.asAbstractVector(x.getDataAt(4));
             RIntVector yearVector = (RIntVector) RRuntime.asAbstractVector(x.getDataAt(5));
             ZoneId zone;
-            DateTimeFormatterBuilder[] builders = createFormatters(format, false);
             String tzone = getTimeZomeFromAttribute(x);
-            if (usetz && !tzone.isEmpty()) {
+            boolean withZone = usetz && !tzone.isEmpty();
+            DateTimeFormatter[] formatters = getFormatters(format, false, withZone);
+            int[] fastFormats = new int[formatters.length];
+            ZoneTable table = null;
+            if (withZone) {
                 zone = ZoneId.of(tzone, TIME_ZONE_MAPPING);
-                for (DateTimeFormatterBuilder builder : builders) {
-                    builder.appendLiteral(' ').appendZoneText(TextStyle.SHORT);
-                }
             } else {
-                zone = RContext.getInstance().stateREnvVars.getSystemTimeZone().toZoneId();
-            }
-
-            DateTimeFormatter[] formatters = new DateTimeFormatter[builders.length];
-            for (int i = 0; i < builders.length; i++) {
-                formatters[i] = builders[i].toFormatter();
+                TimeZone systemZone = RContext.getInstance().stateREnvVars.getSystemTimeZone();
+                zone = systemZone.toZoneId();
+                table = ZoneTable.get(systemZone);
+                for (int i = 0; i < fastFormats.length; i++) {
+                    fastFormats[i] = getFastFormat(format.getDataAt(i));
+                }
             }
             int length = secVector.getLength();
             String[] data = new String[length];
@@ -421,6 +441,14 @@ public class DatePOSIXFunctions {
                     int mday = mdayVector.getDataAt(i);
                     int mon = monVector.getDataAt(i) + 1;
                     int year = yearVector.getDataAt(i) + 1900;
+                    int fastFormat = fastFormats[i % fastFormats.length];
+                    if (fastFormat != FAST_FORMAT_NONE) {
+                        String formatted = formatISODateTime(table, year, mon, mday, hour, min, sec, fastFormat == FAST_FORMAT_DATE_TIME);
+                        if (formatted != null) {
+                            data[i] = formatted;
+                            continue;
+                        }
+                    }
                     LocalDateTime time = LocalDateTime.of(year, mon, mday, hour, min, (int) sec, (int) ((sec - Math.floor(sec)) * 1000000000L));
                     ZonedDateTime zoned = time.atZone(zone);
                     data[i] = formatters[i % formatters.length].format(zoned);
@@ -453,14 +481,29 @@ public class DatePOSIXFunctions {
                 timeZone = TimeZone.getTimeZone(tz.getDataAt(0));
             }
             POSIXltBuilder builder = new POSIXltBuilder(length, zoneString);
-            DateTimeFormatterBuilder[] builders = createFormatters(format, true);
-            DateTimeFormatter[] formatters = new DateTimeFormatter[builders.length];
-            for (int i = 0; i < builders.length; i++) {
-                formatters[i] = builders[i].toFormatter().withChronology(LeapYearChronology.INSTANCE);
+            DateTimeFormatter[] formatters = getFormatters(format, true, false);
+            int[] fastFormats = new int[formatters.length];
+            for (int i = 0; i < fastFormats.length; i++) {
+                fastFormats[i] = getFastFormat(format.getDataAt(i));
             }
+            ZoneTable localTable = ZoneTable.get(timeZone);
+            ZoneTable dstTable = ZoneTable.get(builder.getRealZone());
+            ISODateTimeParser parser = new ISODateTimeParser();
 
             for (int i = 0; i < length; i++) {
                 String str = x.getDataAt(i);
+                int fastFormat = fastFormats[i % fastFormats.length];
+                if (fastFormat != FAST_FORMAT_NONE) {
+                    long local = parser.parse(str, fastFormat == FAST_FORMAT_DATE_TIME);
+                    if (local != ISODateTimeParser.INVALID && localTable.contains(local)) {
+                        long midnight = Math.floorDiv(local, SECONDS_PER_DAY) * SECONDS_PER_DAY;
+                        long epochMidnight = midnight - localTable.offsetAtLocal(midnight);
+                        if (dstTable.contains(epochMidnight)) {
+                            setLocalEntry(builder, i, local, 0, dstTable.daylightTime[dstTable.indexAt(epochMidnight)]);
+                            continue;
+                        }
+                    }
+                }
                 TemporalAccessor parse;
                 try {
                     parse = formatters[i % formatters.length].parse(str, new ParsePosition(0));
@@ -498,10 +541,35 @@ public class DatePOSIXFunctions {
         }
     }
 
-    private static DateTimeFormatterBuilder[] createFormatters(RStringVector formats, boolean forInput) {
-        DateTimeFormatterBuilder[] result = new DateTimeFormatterBuilder[formats.getLength()];
+    /**
+     * Translated formatters keyed by the direction, the locale and the R format string. The
+     * formatters are immutable, therefore they can be shared by all contexts.
+     */
+    private static final ConcurrentHashMap<String, DateTimeFormatter> FORMATTERS = new ConcurrentHashMap<>();
+    private static final int MAX_CACHED_FORMATTERS = 256;
+
+    private static DateTimeFormatter[] getFormatters(RStringVector formats, boolean forInput, boolean withZone) {
+        String keyPrefix = (forInput ? "in:" : withZone ? "zone:" : "out:") + Locale.getDefault(Locale.Category.FORMAT) + ':';
+        DateTimeFormatter[] result = new DateTimeFormatter[formats.getLength()];
         for (int i = 0; i < result.length; i++) {
-            result[i] = createFormatter(formats.getDataAt(i), forInput);
+            String format = formats.getDataAt(i);
+            String key = keyPrefix + format;
+            DateTimeFormatter formatter = FORMATTERS.get(key);
+            if (formatter == null) {
+                DateTimeFormatterBuilder builder = createFormatter(format, forInput);
+                if (withZone) {
+                    builder.appendLiteral(' ').appendZoneText(TextStyle.SHORT);
+                }
+                formatter = builder.toFormatter();
+                if (forInput) {
+                    formatter = formatter.withChronology(LeapYearChronology.INSTANCE);
+                }
+                if (FORMATTERS.size() >= MAX_CACHED_FORMATTERS) {
+                    FORMATTERS.clear();
+                }
+                FORMATTERS.put(key, formatter);
+            }
+            result[i] = formatter;
         }
         return result;
     }
@@ -826,6 +894,289 @@ public class DatePOSIXFunctions {
         return zone;
     }
 
+    /*
+     * Fast paths for the most common ISO 8601 formats, which are parsed and printed without
+     * creating any java.time objects. Anything out of the ordinary (e.g., invalid values, values
+     * outside of the range of the zone tables or local times in a daylight saving time gap) is left
+     * to the general code.
+     */
+
+    private static final int FAST_FORMAT_NONE = 0;
+    private static final int FAST_FORMAT_DATE = 1;
+    private static final int FAST_FORMAT_DATE_TIME = 2;
+
+    private static final long SECONDS_PER_DAY = 24 * 3600;
+
+    private static int getFastFormat(String format) {
+        if ("%Y-%m-%d".equals(format)) {
+            return FAST_FORMAT_DATE;
+        } else if ("%Y-%m-%d %H:%M:%S".equals(format)) {
+            return FAST_FORMAT_DATE_TIME;
+        }
+        return FAST_FORMAT_NONE;
+    }
+
+    /**
+     * Number of days since 1970-01-01 of given date in the proleptic Gregorian calendar.
+     */
+    private static long daysFromCivil(long year, int month, int day) {
+        long y = month <= 2 ? year - 1 : year;
+        long era = Math.floorDiv(y, 400);
+        long yearOfEra = y - era * 400;
+        long dayOfYear = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        long dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146097 + dayOfEra - 719468;
+    }
+
+    private static int monthLength(long year, int month) {
+        if (month == 2) {
+            return IsoChronology.INSTANCE.isLeapYear(year) ? 29 : 28;
+        }
+        return month == 4 || month == 6 || month == 9 || month == 11 ? 30 : 31;
+    }
+
+    /**
+     * Sets the entry from given local time in seconds since the epoch. The week day and the year
+     * day are computed in the same way as by the general code, i.e., from {@code DayOfWeek#ordinal}
+     * and {@code LocalDate#getDayOfYear}.
+     */
+    private static void setLocalEntry(POSIXltBuilder builder, int index, long localSecond, double fraction, boolean dst) {
+        long days = Math.floorDiv(localSecond, SECONDS_PER_DAY);
+        int secondOfDay = (int) Math.floorMod(localSecond, SECONDS_PER_DAY);
+        long shifted = days + 719468;
+        long era = Math.floorDiv(shifted, 146097);
+        long dayOfEra = shifted - era * 146097;
+        long yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        long year = yearOfEra + era * 400;
+        long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        long monthIndex = (5 * dayOfYear + 2) / 153;
+        int mday = (int) (dayOfYear - (153 * monthIndex + 2) / 5 + 1);
+        int month = (int) (monthIndex < 10 ? monthIndex + 3 : monthIndex - 9);
+        if (month <= 2) {
+            year++;
+        }
+        int yday = (int) (days - daysFromCivil(year, 1, 1)) + 1;
+        int wday = (int) Math.floorMod(days + 3, 7);
+        builder.setEntry(index, secondOfDay % 60 + fraction, (secondOfDay / 60) % 60, secondOfDay / 3600, mday, month - 1, (int) year - 1900, wday, yday, dst ? 1 : 0);
+    }
+
+    /**
+     * Formats given local date-time as {@code %Y-%m-%d} or {@code %Y-%m-%d %H:%M:%S}, returns
+     * {@code null} if the general code has to be used.
+     */
+    private static String formatISODateTime(ZoneTable table, int year, int month, int day, int hour, int minute, double sec, boolean withTime) {
+        int second = (int) sec;
+        if (month < 1 || month > 12 || day < 1 || day > monthLength(year, month) || hour < 0 || hour > 23 || minute < 0 || minute > 59 || !(sec >= 0) || second > 59) {
+            return null;
+        }
+        long local = daysFromCivil(year, month, day) * SECONDS_PER_DAY + hour * 3600 + minute * 60 + second;
+        if (!table.contains(local)) {
+            return null;
+        }
+        long epochSecond = local - table.offsetAtLocal(local);
+        if (epochSecond + table.offsets[table.indexAt(epochSecond)] != local) {
+            // the local time does not exist in the time zone
+            return null;
+        }
+        char[] chars = new char[withTime ? 19 : 10];
+        appendDigits(chars, 0, year, 4);
+        chars[4] = '-';
+        appendDigits(chars, 5, month, 2);
+        chars[7] = '-';
+        appendDigits(chars, 8, day, 2);
+        if (withTime) {
+            chars[10] = ' ';
+            appendDigits(chars, 11, hour, 2);
+            chars[13] = ':';
+            appendDigits(chars, 14, minute, 2);
+            chars[16] = ':';
+            appendDigits(chars, 17, second, 2);
+        }
+        return new String(chars);
+    }
+
+    private static void appendDigits(char[] chars, int start, int value, int width) {
+        int v = value;
+        for (int i = start + width - 1; i >= start; i--) {
+            chars[i] = (char) ('0' + v % 10);
+            v /= 10;
+        }
+    }
+
+    /**
+     * Parses strings in the form {@code %Y-%m-%d}, optionally followed by {@code " %H:%M:%S"}, with
+     * the same leniency as the general parser (one or two digits for all fields except the year,
+     * ignored trailing text).
+     */
+    private static final class ISODateTimeParser {
+
+        static final long INVALID = Long.MIN_VALUE;
+
+        private String str;
+        private int pos;
+
+        /**
+         * Returns the local date-time in seconds since the epoch or {@link #INVALID} if the string
+         * is not in the expected form or the values are out of range.
+         */
+        long parse(String s, boolean withTime) {
+            str = s;
+            pos = 0;
+            int year = number(4, 4);
+            if (year < 0 || !expect('-')) {
+                return INVALID;
+            }
+            int month = number(1, 2);
+            if (month < 1 || month > 12 || !expect('-')) {
+                return INVALID;
+            }
+            int day = number(1, 2);
+            if (day < 1 || day > monthLength(year, month)) {
+                return INVALID;
+            }
+            long local = daysFromCivil(year, month, day) * SECONDS_PER_DAY;
+            if (withTime) {
+                if (!expect(' ')) {
+                    return INVALID;
+                }
+                int hour = number(1, 2);
+                if (hour < 0 || hour > 23 || !expect(':')) {
+                    return INVALID;
+                }
+                int minute = number(1, 2);
+                if (minute < 0 || minute > 59 || !expect(':')) {
+                    return INVALID;
+                }
+                int second = number(1, 2);
+                if (second < 0 || second > 59) {
+                    return INVALID;
+                }
+                local += hour * 3600 + minute * 60 + second;
+            }
+            if (pos < str.length() && isDigit(str.charAt(pos))) {
+                return INVALID;
+            }
+            return local;
+        }
+
+        private int number(int minDigits, int maxDigits) {
+            int start = pos;
+            int value = 0;
+            while (pos < str.length() && pos - start < maxDigits && isDigit(str.charAt(pos))) {
+                value = value * 10 + (str.charAt(pos++) - '0');
+            }
+            return pos - start < minDigits ? -1 : value;
+        }
+
+        private boolean expect(char c) {
+            if (pos < str.length() && str.charAt(pos) == c) {
+                pos++;
+                return true;
+            }
+            return false;
+        }
+
+        private static boolean isDigit(char c) {
+            return c >= '0' && c <= '9';
+        }
+    }
+
+    /**
+     * UTC offsets and daylight saving time flags of a time zone between the years 1900 and 2100 in
+     * a table sorted by the times of the transitions, so that the vectorized conversions do not
+     * have to create {@link ZonedDateTime} and {@link Date} objects for every element.
+     */
+    private static final class ZoneTable {
+
+        private static final long START = daysFromCivil(1900, 1, 1) * SECONDS_PER_DAY;
+        private static final long END = daysFromCivil(2100, 1, 1) * SECONDS_PER_DAY;
+
+        private static final ConcurrentHashMap<String, ZoneTable> TABLES = new ConcurrentHashMap<>();
+
+        private final TimeZone zone;
+        /**
+         * Epoch seconds from which the corresponding offset and flag hold, the first element is
+         * {@link #START}, the others are the transitions.
+         */
+        private final long[] transitions;
+        private final int[] offsets;
+        private final boolean[] daylightTime;
+
+        static ZoneTable get(TimeZone zone) {
+            ZoneTable table = TABLES.get(zone.getID());
+            if (table == null || (table.zone != zone && !table.zone.hasSameRules(zone))) {
+                table = new ZoneTable((TimeZone) zone.clone());
+                TABLES.put(zone.getID(), table);
+            }
+            return table;
+        }
+
+        private ZoneTable(TimeZone zone) {
+            this.zone = zone;
+            ZoneRules rules = zone.toZoneId().getRules();
+            ArrayList<ZoneOffsetTransition> list = new ArrayList<>();
+            ZoneOffsetTransition transition = rules.nextTransition(Instant.ofEpochSecond(START));
+            while (transition != null && transition.toEpochSecond() < END) {
+                list.add(transition);
+                transition = rules.nextTransition(transition.getInstant());
+            }
+            transitions = new long[list.size() + 1];
+            offsets = new int[list.size() + 1];
+            daylightTime = new boolean[list.size() + 1];
+            transitions[0] = START;
+            offsets[0] = rules.getOffset(Instant.ofEpochSecond(START)).getTotalSeconds();
+            daylightTime[0] = zone.inDaylightTime(new Date(START * 1000));
+            for (int i = 0; i < list.size(); i++) {
+                transitions[i + 1] = list.get(i).toEpochSecond();
+                offsets[i + 1] = list.get(i).getOffsetAfter().getTotalSeconds();
+                daylightTime[i + 1] = zone.inDaylightTime(new Date(transitions[i + 1] * 1000));
+            }
+        }
+
+        /**
+         * Whether given epoch or local seconds are safely within the range of the table.
+         */
+        boolean contains(long seconds) {
+            return seconds >= START + SECONDS_PER_DAY && seconds < END - SECONDS_PER_DAY;
+        }
+
+        int indexAt(long epochSecond) {
+            int low = 0;
+            int high = transitions.length - 1;
+            while (low < high) {
+                int mid = (low + high + 1) >>> 1;
+                if (transitions[mid] <= epochSecond) {
+                    low = mid;
+                } else {
+                    high = mid - 1;
+                }
+            }
+            return low;
+        }
+
+        /**
+         * Returns the offset for given local time with the same semantics as
+         * {@link ZoneRules#getOffset(LocalDateTime)}: the offset before the transition is used
+         * both in gaps and overlaps.
+         */
+        int offsetAtLocal(long localSecond) {
+            int low = 0;
+            int high = transitions.length - 1;
+            while (low < high) {
+                int mid = (low + high + 1) >>> 1;
+                if (transitions[mid] + offsets[mid - 1] <= localSecond) {
+                    low = mid;
+                } else {
+                    high = mid - 1;
+                }
+            }
+            if (low > 0 && localSecond < transitions[low] + offsets[low]) {
+                return offsets[low - 1];
+            }
+            return offsets[low];
+        }
+    }
+
     private static final class LeapYearChronology implements Chronology {
 
         static LeapYearChronology INSTANCE = new LeapYearChronology(IsoChronology.INSTANCE);
@@ -49,13 +49,13 @@ import java.nio.file.StandardOpenOption;
 import java.nio.file.attribute.BasicFileAttributes;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Iterator;
 import java.util.List;
 import java.util.function.BiFunction;
 import java.util.function.Predicate;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.regex.PatternSyntaxException;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import com.oracle.truffle.api.CompilerDirectives;
@@ -93,6 +93,19 @@ import java.nio.file.FileVisitor;
 
 public class FileFunctions {
 
+    /**
+     * Finds the files in the directory {@code root} accepted by the matcher. Recursive searches
+     * list the directories in parallel, the order of the result is the same in both cases.
+     */
+    private static List<TruffleFile> find(TruffleFile root, boolean recursive, Predicate<TruffleFile> matcher) throws IOException {
+        if (recursive) {
+            return FileSystemUtils.findParallel(root, Integer.MAX_VALUE, matcher);
+        }
+        try (Stream<TruffleFile> stream = FileSystemUtils.find(root, 1, matcher)) {
+            return stream.collect(Collectors.toList());
+        }
+    }
+
     @RBuiltin(name = "file.access", kind = INTERNAL, parameterNames = {"names", "mode"}, behavior = IO)
     public abstract static class FileAccess extends RBuiltinNode.Arg2 {
         private static final int EXECUTE = 1;
@@ -287,9 +300,20 @@ public class FileFunctions {
             casts.arg("extra_cols").asLogicalVector().findFirst().map(toBoolean());
         }
 
+        /**
+         * The attributes are read by a single call to the file system per file, the owner and group
+         * names are only requested if the extra columns are.
+         */
+        private static final List<TruffleFile.AttributeDescriptor<?>> ATTRIBUTES = Arrays.asList(TruffleFile.SIZE, TruffleFile.IS_DIRECTORY, TruffleFile.POSIX_PERMISSIONS,
+                        TruffleFile.LAST_MODIFIED_TIME, TruffleFile.CREATION_TIME, TruffleFile.LAST_ACCESS_TIME);
+        private static final List<TruffleFile.AttributeDescriptor<?>> EXTRA_ATTRIBUTES = Arrays.asList(TruffleFile.SIZE, TruffleFile.IS_DIRECTORY, TruffleFile.POSIX_PERMISSIONS,
+                        TruffleFile.LAST_MODIFIED_TIME, TruffleFile.CREATION_TIME, TruffleFile.LAST_ACCESS_TIME, TruffleFile.OWNER, TruffleFile.GROUP);
+        private static final int BASIC_COLUMNS_COUNT = Column.atime.ordinal() + 1;
+        private static final RStringVector BASIC_NAMES_VECTOR = RDataFactory.createStringVector(Arrays.copyOf(NAMES, BASIC_COLUMNS_COUNT), RDataFactory.COMPLETE_VECTOR);
+
         @Specialization
         @TruffleBoundary
-        protected RList doFileInfo(RStringVector vec, @SuppressWarnings("unused") Boolean extraCols,
+        protected RList doFileInfo(RStringVector vec, boolean extraCols,
                         @CachedContext(TruffleRLanguage.class) TruffleLanguage.ContextReference<RContext> ctxRef) {
             /*
              * Create a list, the elements of which are vectors of length vec.getLength() containing
@@ -300,64 +324,49 @@ public class FileFunctions {
              * We try to use the JDK classes, even though they provide a more abstract interface
              * than R. In particular there seems to be no way to get the uid/gid values. We might be
              * better off justing using a native call.
-             *
-             * TODO implement extras_cols=FALSE
              */
             int vecLength = vec.getLength();
-            Object[] data = new Object[NAMES.length];
-            boolean[] complete = new boolean[NAMES.length];
-            for (int n = 0; n < Column.VALUES.length; n++) {
+            int columnsCount = extraCols ? Column.VALUES.length : BASIC_COLUMNS_COUNT;
+            Object[] data = new Object[columnsCount];
+            boolean[] complete = new boolean[columnsCount];
+            for (int n = 0; n < columnsCount; n++) {
                 data[n] = createColumnData(Column.VALUES[n], vecLength);
                 complete[n] = RDataFactory.COMPLETE_VECTOR; // optimistic
             }
             for (int i = 0; i < vecLength; i++) {
                 String vecPath = vec.getDataAt(i);
                 TruffleFile file = ctxRef.get().getSafeTruffleFile(vecPath);
-                // missing defaults to NA
-                if (file.exists()) {
-                    double size = RRuntime.DOUBLE_NA;
-                    byte isdir = RRuntime.LOGICAL_NA;
-                    int mode = RRuntime.INT_NA;
-                    int mtime = RRuntime.INT_NA;
-                    int atime = RRuntime.INT_NA;
-                    int ctime = RRuntime.INT_NA;
-                    int uid = RRuntime.INT_NA;
-                    int gid = RRuntime.INT_NA;
-                    String uname = RRuntime.STRING_NA;
-                    String grname = RRuntime.STRING_NA;
-                    try {
-                        size = file.size();
-                        isdir = RRuntime.asLogical(file.isDirectory());
-                        mtime = Utils.getTimeInSecs(file.getLastModifiedTime());
-                        ctime = Utils.getTimeInSecs(file.getCreationTime());
-                        atime = Utils.getTimeInSecs(file.getLastAccessTime());
-                        mode = Utils.intFilePermissions(file.getPosixPermissions());
-                        uname = file.getOwner().getName();
-                        grname = file.getGroup().getName();
-                    } catch (IOException ex) {
-                        // ok, NA value is used
+                TruffleFile.Attributes attributes;
+                try {
+                    attributes = file.getAttributes(extraCols ? EXTRA_ATTRIBUTES : ATTRIBUTES);
+                } catch (IOException | UnsupportedOperationException | SecurityException ex) {
+                    // missing file or the attributes are not available, NA values are used
+                    attributes = null;
+                }
+                if (attributes != null) {
+                    setColumnValue(Column.size, data, complete, i, (double) attributes.get(TruffleFile.SIZE));
+                    setColumnValue(Column.isdir, data, complete, i, RRuntime.asLogical(attributes.get(TruffleFile.IS_DIRECTORY)));
+                    setColumnValue(Column.mode, data, complete, i, Utils.intFilePermissions(attributes.get(TruffleFile.POSIX_PERMISSIONS)));
+                    setColumnValue(Column.mtime, data, complete, i, Utils.getTimeInSecs(attributes.get(TruffleFile.LAST_MODIFIED_TIME)));
+                    setColumnValue(Column.ctime, data, complete, i, Utils.getTimeInSecs(attributes.get(TruffleFile.CREATION_TIME)));
+                    setColumnValue(Column.atime, data, complete, i, Utils.getTimeInSecs(attributes.get(TruffleFile.LAST_ACCESS_TIME)));
+                    if (extraCols) {
+                        setColumnValue(Column.uid, data, complete, i, RRuntime.INT_NA);
+                        setColumnValue(Column.gid, data, complete, i, RRuntime.INT_NA);
+                        setColumnValue(Column.uname, data, complete, i, attributes.get(TruffleFile.OWNER).getName());
+                        setColumnValue(Column.grname, data, complete, i, attributes.get(TruffleFile.GROUP).getName());
                     }
-                    setColumnValue(Column.size, data, complete, i, size);
-                    setColumnValue(Column.isdir, data, complete, i, isdir);
-                    setColumnValue(Column.mode, data, complete, i, mode);
-                    setColumnValue(Column.mtime, data, complete, i, mtime);
-                    setColumnValue(Column.ctime, data, complete, i, ctime);
-                    setColumnValue(Column.atime, data, complete, i, atime);
-                    setColumnValue(Column.uid, data, complete, i, uid);
-                    setColumnValue(Column.gid, data, complete, i, gid);
-                    setColumnValue(Column.uname, data, complete, i, uname);
-                    setColumnValue(Column.grname, data, complete, i, grname);
                 } else {
-                    for (int n = 0; n < Column.VALUES.length; n++) {
+                    for (int n = 0; n < columnsCount; n++) {
                         setNA(Column.VALUES[n], data, i);
                         complete[n] = false;
                     }
                 }
             }
-            for (int n = 0; n < Column.VALUES.length; n++) {
+            for (int n = 0; n < columnsCount; n++) {
                 data[n] = createColumnResult(Column.VALUES[n], data[n], complete[n]);
             }
-            return RDataFactory.createList(data, NAMES_VECTOR);
+            return RDataFactory.createList(data, extraCols ? NAMES_VECTOR : BASIC_NAMES_VECTOR);
         }
 
         private static Object createColumnData(Column column, int vecLength) {
@@ -611,19 +620,18 @@ public class FileFunctions {
                 } else {
                     TruffleFile f = ctxRef.get().getSafeTruffleFile(path);
                     // TODO R's notion of exists may not match Java - check
-                    if (f.exists()) {
-                        try {
-                            status[i] = f.getCanonicalFile().exists() ? RRuntime.LOGICAL_TRUE : RRuntime.LOGICAL_FALSE;
-                        } catch (NoSuchFileException ex) {
-                            // e.g. /dirExists/dirDoesNotExist/..")
-                            // technicaly speaking the file exists,
-                            // but getCanonicalFile() seems to be in accord with GNUR on this
-                            // see also .getSafeTruffleFile()
-                            status[i] = RRuntime.LOGICAL_FALSE;
-                        } catch (IOException ex) {
-                            throw RInternalError.shouldNotReachHere();
-                        }
-                    } else {
+                    try {
+                        // resolving the real path fails if the file does not exist, there is no
+                        // need to check the existence separately
+                        f.getCanonicalFile();
+                        status[i] = RRuntime.LOGICAL_TRUE;
+                    } catch (NoSuchFileException ex) {
+                        // e.g. /dirExists/dirDoesNotExist/..")
+                        // technicaly speaking the file exists,
+                        // but getCanonicalFile() seems to be in accord with GNUR on this
+                        // see also .getSafeTruffleFile()
+                        status[i] = RRuntime.LOGICAL_FALSE;
+                    } catch (IOException | SecurityException ex) {
                         status[i] = RRuntime.LOGICAL_FALSE;
                     }
                 }
@@ -704,10 +712,9 @@ public class FileFunctions {
                     // File.exists() returns false for "" but TF gives true
                     continue;
                 }
-                try (Stream<TruffleFile> stream = FileSystemUtils.find(root, recursive ? Integer.MAX_VALUE : 1, new FileMatcher(pattern, allFiles, includeDirs))) {
-                    Iterator<TruffleFile> iter = stream.iterator();
-                    while (iter.hasNext()) {
-                        TruffleFile file = iter.next();
+                try {
+                    for (TruffleFile found : find(root, recursive, new FileMatcher(pattern, allFiles, includeDirs))) {
+                        TruffleFile file = found;
                         if (file.equals(root)) {
                             continue;
                         }
@@ -827,10 +834,9 @@ public class FileFunctions {
                 if (!root.exists()) {
                     continue;
                 }
-                try (Stream<TruffleFile> stream = FileSystemUtils.find(root, recursive ? Integer.MAX_VALUE : 1, new FileMatcher())) {
-                    Iterator<TruffleFile> iter = stream.iterator();
-                    while (iter.hasNext()) {
-                        TruffleFile dir = iter.next();
+                try {
+                    for (TruffleFile found : find(root, recursive, new FileMatcher())) {
+                        TruffleFile dir = found;
                         if (!recursive && dir.equals(root)) {
                             continue;
                         }
@@ -266,7 +266,7 @@ public class HiddenInternalFunctions {
             } else {
                 udata = new byte[outlen];
                 if (compression == 2 || compression == 3) {
-                    RCompression.Type type = RCompression.Type.fromTypeChar(dbData[4]);
+                    RCompression.Type type = RCompression.Type.fromTypeChar(dbData[offset + 4]);
                     if (type == null) {
                         warning(RError.Message.GENERIC, "unknown compression type");
                         return RNull.instance;
@@ -439,7 +439,7 @@ public class HiddenInternalFunctions {
 
         @TruffleBoundary
         private RIntVector lazyLoadDBinsertValueInternal(RContext context, MaterializedFrame frame, Object value, RStringVector file, int type, int compression, RFunction hook) {
-            if (!(compression == 1 || compression == 3)) {
+            if (!(compression == 1 || compression == 2 || compression == 3)) {
                 throw error(Message.GENERIC, "unsupported compression");
             }
 
@@ -472,15 +472,19 @@ public class HiddenInternalFunctions {
                         throw error(Message.GENERIC, "zlib compress error");
                     }
                 } else {
-                    assert compression == 3;
-                    ctype = RCompression.Type.XZ;
+                    ctype = compression == 2 ? RCompression.Type.BZIP2 : RCompression.Type.XZ;
                     offset = 5;
-                    outLen = data.length;
-                    cdata = new byte[outLen];
-                    boolean rc = RCompression.compress(ctype, data, cdata);
-                    if (!rc) {
-                        throw error(Message.GENERIC, "lzma compress error");
+                    try {
+                        cdata = RCompression.compress(ctype, data);
+                    } catch (IOException ex) {
+                        throw error(Message.GENERIC, compression == 2 ? "bzip2 compress error" : "lzma compress error");
+                    }
+                    if (cdata.length >= data.length) {
+                        // like in GnuR, data that do not compress are stored uncompressed
+                        ctype = RCompression.Type.NONE;
+                        cdata = data;
                     }
+                    outLen = cdata.length;
                 }
                 int[] intData = new int[2];
                 intData[1] = outLen + offset; // include length + type (compression == 3)
@@ -518,8 +522,8 @@ public class HiddenInternalFunctions {
                 byte[] ulenData = new byte[4];
                 dataLengthBuf.get(ulenData);
                 out.write(ulenData);
-                if (type == RCompression.Type.XZ) {
-                    out.write(RCompression.Type.XZ.typeByte);
+                if (type != RCompression.Type.GZIP) {
+                    out.write(type.typeByte);
                 }
                 out.write(cdata);
                 return result;
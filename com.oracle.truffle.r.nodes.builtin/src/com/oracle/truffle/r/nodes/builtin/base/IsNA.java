@@ -27,6 +27,7 @@ import static com.oracle.truffle.r.runtime.builtins.RBehavior.PURE;
 import static com.oracle.truffle.r.runtime.builtins.RBuiltinKind.PRIMITIVE;
 
 import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.dsl.Cached;
 import com.oracle.truffle.api.dsl.Fallback;
 import com.oracle.truffle.api.dsl.ImportStatic;
@@ -47,9 +48,14 @@ import com.oracle.truffle.r.runtime.builtins.RBuiltin;
 import com.oracle.truffle.r.runtime.data.RComplex;
 import com.oracle.truffle.r.runtime.data.RDataFactory;
 import com.oracle.truffle.r.runtime.data.RDataFactory.VectorFactory;
+import com.oracle.truffle.r.runtime.data.RDoubleRepVectorData;
+import com.oracle.truffle.r.runtime.data.RIntRepVectorData;
+import com.oracle.truffle.r.runtime.data.RLogicalRepVectorData;
 import com.oracle.truffle.r.runtime.data.RLogicalVector;
 import com.oracle.truffle.r.runtime.data.RNull;
 import com.oracle.truffle.r.runtime.data.RRaw;
+import com.oracle.truffle.r.runtime.data.RRep;
+import com.oracle.truffle.r.runtime.data.RStringRepVectorData;
 import com.oracle.truffle.r.runtime.data.model.RAbstractAtomicVector;
 import com.oracle.truffle.r.runtime.data.model.RAbstractVector;
 import com.oracle.truffle.r.runtime.data.nodes.VectorAccess;
@@ -105,6 +111,35 @@ public abstract class IsNA extends RBuiltinNode.Arg1 {
         return RRuntime.LOGICAL_FALSE;
     }
 
+    protected static boolean isRep(RAbstractVector vector) {
+        return vector.getData() instanceof RRep;
+    }
+
+    /**
+     * The result for a compact vector (see {@link RRep}) is again compact and is computed only for
+     * the repeated values.
+     */
+    @Specialization(guards = {"isRep(vector)", "vector.getAttributes() == null"})
+    @TruffleBoundary
+    protected RLogicalVector isNARep(RAbstractVector vector) {
+        RRep rep = (RRep) vector.getData();
+        byte[] result = new byte[rep.getOccurringValuesLength()];
+        for (int i = 0; i < result.length; i++) {
+            boolean isNA;
+            if (rep instanceof RDoubleRepVectorData) {
+                isNA = RRuntime.isNAorNaN(((RDoubleRepVectorData) rep).getValue(i));
+            } else if (rep instanceof RIntRepVectorData) {
+                isNA = RRuntime.isNA(((RIntRepVectorData) rep).getValue(i));
+            } else if (rep instanceof RLogicalRepVectorData) {
+                isNA = RRuntime.isNA(((RLogicalRepVectorData) rep).getValue(i));
+            } else {
+                isNA = RRuntime.isNA(((RStringRepVectorData) rep).getValue(i));
+            }
+            result[i] = RRuntime.asLogical(isNA);
+        }
+        return RLogicalVector.createRep(result, rep.getEach(), rep.getLength());
+    }
+
     @Specialization(guards = "access.supports(vector)", limit = "getVectorAccessCacheSize()")
     protected RLogicalVector isNACached(RAbstractVector vector,
                     @Cached("vector.access()") VectorAccess access,
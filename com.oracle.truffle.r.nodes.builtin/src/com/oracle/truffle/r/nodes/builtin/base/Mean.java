@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2013, 2018, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2013, 2020, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * This code is free software; you can redistribute it and/or modify it
@@ -29,16 +29,22 @@ import static com.oracle.truffle.r.runtime.builtins.RBuiltinKind.INTERNAL;
 import com.oracle.truffle.api.dsl.Cached;
 import com.oracle.truffle.api.dsl.ImportStatic;
 import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.library.CachedLibrary;
 import com.oracle.truffle.api.profiles.ConditionProfile;
 import com.oracle.truffle.r.nodes.builtin.RBuiltinNode;
 import com.oracle.truffle.r.runtime.RType;
 import com.oracle.truffle.r.runtime.builtins.RBuiltin;
 import com.oracle.truffle.r.runtime.data.RComplex;
+import com.oracle.truffle.r.runtime.data.RDoubleArrayVectorData;
+import com.oracle.truffle.r.runtime.data.RDoubleVector;
+import com.oracle.truffle.r.runtime.data.VectorDataLibrary;
+import com.oracle.truffle.r.runtime.data.altrep.AltrepUtilities;
 import com.oracle.truffle.r.runtime.data.model.RAbstractVector;
 import com.oracle.truffle.r.runtime.data.nodes.VectorAccess;
 import com.oracle.truffle.r.runtime.data.nodes.VectorAccess.SequentialIterator;
+import com.oracle.truffle.r.runtime.ops.CompensatedSum;
 
-@ImportStatic(RType.class)
+@ImportStatic({RType.class, AltrepUtilities.class})
 @RBuiltin(name = "mean", kind = INTERNAL, parameterNames = {"x"}, dispatch = INTERNAL_GENERIC, behavior = PURE_SUMMARY)
 public abstract class Mean extends RBuiltinNode.Arg1 {
 
@@ -46,6 +52,18 @@ public abstract class Mean extends RBuiltinNode.Arg1 {
         Casts.noCasts(Mean.class);
     }
 
+    @Specialization(guards = "!isAltrep(x)", limit = "getTypedVectorDataLibraryCacheSize()")
+    protected double meanDouble(RDoubleVector x,
+                    @CachedLibrary("x.getData()") VectorDataLibrary dataLib,
+                    @Cached("createBinaryProfile()") ConditionProfile arrayDataProfile) {
+        Object data = x.getData();
+        if (arrayDataProfile.profile(data instanceof RDoubleArrayVectorData)) {
+            return CompensatedSum.mean(dataLib.getReadonlyDoubleData(data), 0, dataLib.getLength(data));
+        }
+        // reading the array of other data would copy them, e.g. compact sequences
+        return CompensatedSum.mean(dataLib, data, dataLib.randomAccessIterator(data), 0, dataLib.getLength(data));
+    }
+
     @Specialization(guards = {"access.supports(x)", "access.getType() != Complex"})
     protected double meanDoubleCached(RAbstractVector x,
                     @Cached("x.access()") VectorAccess access,
@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 3 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 3 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.r.nodes.builtin.base;
+
+import static com.oracle.truffle.r.nodes.builtin.CastBuilder.Predef.gte;
+import static com.oracle.truffle.r.nodes.builtin.CastBuilder.Predef.instanceOf;
+import static com.oracle.truffle.r.nodes.builtin.CastBuilder.Predef.lte;
+import static com.oracle.truffle.r.runtime.builtins.RBehavior.PURE;
+import static com.oracle.truffle.r.runtime.builtins.RBuiltinKind.INTERNAL;
+
+import java.io.IOException;
+import java.util.Locale;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.r.nodes.builtin.RBuiltinNode;
+import com.oracle.truffle.r.runtime.RCompression;
+import com.oracle.truffle.r.runtime.RError;
+import com.oracle.truffle.r.runtime.builtins.RBuiltin;
+import com.oracle.truffle.r.runtime.data.RDataFactory;
+import com.oracle.truffle.r.runtime.data.RRawVector;
+
+/**
+ * In-memory compression of raw vectors, all formats are handled by {@link RCompression}. The
+ * {@code type} argument is the index into {@code c("none", "gzip", "bzip2", "xz", "unknown")}, as
+ * computed by the R closures.
+ */
+public class MemCompressFunctions {
+
+    private static final int TYPE_UNKNOWN = 5;
+
+    private static RCompression.Type toType(int type) {
+        switch (type) {
+            case 2:
+                return RCompression.Type.GZIP;
+            case 3:
+                return RCompression.Type.BZIP2;
+            case 4:
+                return RCompression.Type.XZ;
+            default:
+                return RCompression.Type.NONE;
+        }
+    }
+
+    @RBuiltin(name = "memCompress", kind = INTERNAL, parameterNames = {"from", "type"}, behavior = PURE)
+    public abstract static class MemCompress extends RBuiltinNode.Arg2 {
+
+        static {
+            Casts casts = new Casts(MemCompress.class);
+            casts.arg("from").mustBe(instanceOf(RRawVector.class), RError.Message.ARGUMENT_MUST_BE_RAW_VECTOR, "from");
+            casts.arg("type").asIntegerVector().findFirst().mustBe(gte(1).and(lte(4)), RError.Message.INVALID_ARGUMENT, "type");
+        }
+
+        @Specialization
+        @TruffleBoundary
+        protected RRawVector memCompress(RRawVector from, int type) {
+            try {
+                return RDataFactory.createRawVector(RCompression.memCompress(toType(type), from.getReadonlyData()));
+            } catch (IOException ex) {
+                throw error(RError.Message.GENERIC, "internal error in memCompress: " + ex.getMessage());
+            }
+        }
+    }
+
+    @RBuiltin(name = "memDecompress", kind = INTERNAL, parameterNames = {"from", "type"}, behavior = PURE)
+    public abstract static class MemDecompress extends RBuiltinNode.Arg2 {
+
+        static {
+            Casts casts = new Casts(MemDecompress.class);
+            casts.arg("from").mustBe(instanceOf(RRawVector.class), RError.Message.ARGUMENT_MUST_BE_RAW_VECTOR, "from");
+            casts.arg("type").asIntegerVector().findFirst().mustBe(gte(1).and(lte(TYPE_UNKNOWN)), RError.Message.INVALID_ARGUMENT, "type");
+        }
+
+        @Specialization
+        @TruffleBoundary
+        protected RRawVector memDecompress(RRawVector from, int type) {
+            byte[] data = from.getReadonlyData();
+            RCompression.Type ctype;
+            if (type == TYPE_UNKNOWN) {
+                ctype = RCompression.detectType(data);
+                if (ctype == null) {
+                    warning(RError.Message.GENERIC, "unknown compression, assuming none");
+                    ctype = RCompression.Type.NONE;
+                }
+            } else {
+                ctype = toType(type);
+            }
+            try {
+                return RDataFactory.createRawVector(RCompression.memDecompress(ctype, data));
+            } catch (IOException ex) {
+                throw error(RError.Message.GENERIC, "internal error in memDecompress(type = " + ctype.name().toLowerCase(Locale.ROOT) + "): " + ex.getMessage());
+            }
+        }
+    }
+}
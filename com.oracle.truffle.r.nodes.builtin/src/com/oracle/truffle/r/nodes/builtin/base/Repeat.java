@@ -35,6 +35,7 @@ import java.util.Arrays;
 
 import com.oracle.truffle.api.CompilerDirectives;
 import com.oracle.truffle.api.CompilerDirectives.CompilationFinal;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.dsl.Cached;
 import com.oracle.truffle.api.dsl.ImportStatic;
 import com.oracle.truffle.api.dsl.Specialization;
@@ -56,6 +57,7 @@ import com.oracle.truffle.r.runtime.ArgumentsSignature;
 import com.oracle.truffle.r.runtime.DSLConfig;
 import com.oracle.truffle.r.runtime.RError;
 import com.oracle.truffle.r.runtime.RRuntime;
+import com.oracle.truffle.r.runtime.RType;
 import com.oracle.truffle.r.runtime.builtins.RBuiltin;
 import com.oracle.truffle.r.runtime.data.RArgsValuesAndNames;
 import com.oracle.truffle.r.runtime.data.RAttributesLayout;
@@ -63,6 +65,7 @@ import com.oracle.truffle.r.runtime.data.RDataFactory;
 import com.oracle.truffle.r.runtime.data.RDoubleVector;
 import com.oracle.truffle.r.runtime.data.RMissing;
 import com.oracle.truffle.r.runtime.data.RNull;
+import com.oracle.truffle.r.runtime.data.RRep;
 import com.oracle.truffle.r.runtime.data.RStringVector;
 import com.oracle.truffle.r.runtime.data.RTypes;
 import com.oracle.truffle.r.runtime.data.VectorDataLibrary;
@@ -188,13 +191,19 @@ public abstract class Repeat extends RBuiltinNode.Arg2 {
                         @CachedLibrary("times.getData()") VectorDataLibrary timesDataLib,
                         @Cached("createEqualityProfile()") PrimitiveValueProfile lengthOutProfile,
                         @Cached("createEqualityProfile()") PrimitiveValueProfile eachProfile,
-                        @Cached("createBinaryProfile()") ConditionProfile hasNamesProfile) {
+                        @Cached("createBinaryProfile()") ConditionProfile hasNamesProfile,
+                        @Cached("createBinaryProfile()") ConditionProfile compactProfile) {
             RAbstractVector x = xProfile.profile(xIn);
             Object timesData = times.getData();
             Object xData = x.getData();
             int lengthOut = lengthOutProfile.profile(lengthOutIn);
             int each = eachProfile.profile(eachIn);
 
+            long compactLength = getCompactLength(xDataLib, xData, x, timesDataLib, timesData, lengthOut, each);
+            if (compactProfile.profile(compactLength >= 0)) {
+                return repCompact(x, each, (int) compactLength);
+            }
+
             // fast path for very simple case of filling with a single double values:
             if (trySimple) {
                 if (x instanceof RDoubleVector && xDataLib.getLength(xData) == 1 && timesDataLib.getLength(timesData) == 1 && each == 1 && getNames.getNames(x) == null) {
@@ -215,6 +224,40 @@ public abstract class Repeat extends RBuiltinNode.Arg2 {
             return preprocessEach(xDataLib, xData, x, timesDataLib, timesData, lengthOut, each, hasNamesProfile);
         }
 
+        /**
+         * Returns the length of the result if it should be represented compactly (see {@link RRep})
+         * or {@code -1} otherwise.
+         */
+        private static long getCompactLength(VectorDataLibrary xDataLib, Object xData, RAbstractVector x, VectorDataLibrary timesDataLib, Object timesData, int lengthOut, int each) {
+            RType type = x.getRType();
+            if (each < 1 || timesDataLib.getLength(timesData) != 1 || !(type == RType.Integer || type == RType.Double || type == RType.Logical || type == RType.Character)) {
+                return -1;
+            }
+            int xLength = xDataLib.getLength(xData);
+            long length;
+            if (RRuntime.isNA(lengthOut)) {
+                int times = timesDataLib.getIntAt(timesData, 0);
+                if (times < 0) {
+                    // NA or negative times give an error in the generic path
+                    return -1;
+                }
+                length = (long) xLength * each * times;
+            } else {
+                length = lengthOut;
+            }
+            return RRep.isBeneficial(xLength, length) ? length : -1;
+        }
+
+        @TruffleBoundary
+        private RAbstractVector repCompact(RAbstractVector x, int each, int length) {
+            RAbstractVector result = RDataFactory.createRepVector(x, each, length);
+            RStringVector names = getNames.getNames(x);
+            if (names != null) {
+                result.initAttributes(RAttributesLayout.createNames((RStringVector) RDataFactory.createRepVector(names, each, length)));
+            }
+            return result;
+        }
+
         private RAbstractVector preprocessEach(VectorDataLibrary xDataLib, Object xData, RAbstractVector x, VectorDataLibrary timesDataLib, Object timesData, int lengthOut, int each,
                         ConditionProfile hasNamesProfile) {
             if (each != 1) {
@@ -49,6 +49,7 @@ import com.oracle.truffle.r.runtime.data.RLogicalVector;
 import com.oracle.truffle.r.runtime.data.RNull;
 import com.oracle.truffle.r.runtime.data.RRaw;
 import com.oracle.truffle.r.runtime.data.RRawVector;
+import com.oracle.truffle.r.runtime.data.RRep;
 import com.oracle.truffle.r.runtime.data.RStringVector;
 import com.oracle.truffle.r.runtime.data.VectorDataLibrary;
 import com.oracle.truffle.r.runtime.data.VectorDataLibrary.SeqIterator;
@@ -85,6 +86,9 @@ public abstract class RepeatLength extends RBuiltinNode.Arg2 {
 
     @Specialization
     protected RIntVector repLen(int value, int length) {
+        if (RRep.isBeneficial(1, length)) {
+            return RIntVector.createRep(new int[]{value}, 1, length);
+        }
         int[] array = new int[length];
         Arrays.fill(array, value);
         return RDataFactory.createIntVector(array, !RRuntime.isNA(value));
@@ -92,6 +96,9 @@ public abstract class RepeatLength extends RBuiltinNode.Arg2 {
 
     @Specialization
     protected RDoubleVector repLen(double value, int length) {
+        if (RRep.isBeneficial(1, length)) {
+            return RDoubleVector.createRep(new double[]{value}, 1, length);
+        }
         double[] array = new double[length];
         Arrays.fill(array, value);
         return RDataFactory.createDoubleVector(array, !RRuntime.isNA(value));
@@ -99,6 +106,9 @@ public abstract class RepeatLength extends RBuiltinNode.Arg2 {
 
     @Specialization
     protected RStringVector repLen(String value, int length) {
+        if (RRep.isBeneficial(1, length)) {
+            return RStringVector.createRep(new String[]{value}, 1, length);
+        }
         String[] array = new String[length];
         Arrays.fill(array, value);
         return RDataFactory.createStringVector(array, !RRuntime.isNA(value));
@@ -117,6 +127,9 @@ public abstract class RepeatLength extends RBuiltinNode.Arg2 {
 
     @Specialization
     protected RLogicalVector repLen(byte value, int length) {
+        if (RRep.isBeneficial(1, length)) {
+            return RLogicalVector.createRep(new byte[]{value}, 1, length);
+        }
         byte[] array = new byte[length];
         Arrays.fill(array, value);
         return RDataFactory.createLogicalVector(array, value != RRuntime.LOGICAL_NA);
@@ -127,11 +140,18 @@ public abstract class RepeatLength extends RBuiltinNode.Arg2 {
                     @CachedLibrary("x") AbstractContainerLibrary xContainerLib,
                     @CachedLibrary("x.getData()") VectorDataLibrary xDataLib,
                     @CachedLibrary(limit = "getGenericDataLibraryCacheSize()") VectorDataLibrary resultDataLib,
-                    @Cached("createBinaryProfile()") ConditionProfile emptyProfile) {
+                    @Cached("createBinaryProfile()") ConditionProfile emptyProfile,
+                    @Cached("createBinaryProfile()") ConditionProfile compactProfile) {
         Object xData = x.getData();
         if (emptyProfile.profile(xDataLib.getLength(xData) == 0)) {
             return xContainerLib.createEmptySameType(x, length, true);
         }
+        if (compactProfile.profile(RRep.isBeneficial(xDataLib.getLength(xData), length))) {
+            RAbstractVector result = RDataFactory.createRepVector(x, 1, length);
+            if (result != null) {
+                return result;
+            }
+        }
         SeqIterator xIt = xDataLib.iterator(xData);
         RAbstractVector result = xContainerLib.createEmptySameType(x, length, false);
         Object resultData = result.getData();
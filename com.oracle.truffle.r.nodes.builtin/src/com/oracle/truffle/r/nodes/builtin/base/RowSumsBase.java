@@ -30,10 +30,12 @@ import com.oracle.truffle.r.runtime.data.RDoubleVector;
 import com.oracle.truffle.r.runtime.data.VectorDataLibrary;
 import com.oracle.truffle.r.runtime.data.VectorDataLibrary.RandomAccessIterator;
 import com.oracle.truffle.r.runtime.ops.BinaryArithmetic;
+import com.oracle.truffle.r.runtime.ops.CompensatedSum;
 import com.oracle.truffle.r.runtime.ops.na.NACheck;
 
 /**
- * Implements a skeleton of an algorithm that traverses rows and accumulates their values.
+ * Implements a skeleton of an algorithm that traverses rows and accumulates their values. The sums
+ * are compensated, see {@link CompensatedSum}.
  */
 public abstract class RowSumsBase extends ColSumsBase {
 
@@ -65,15 +67,19 @@ public abstract class RowSumsBase extends ColSumsBase {
         if (!na.isEnabled()) {
             while (outerProfile.inject(i <= rowNum - UNROLL)) {
                 double[] sum = new double[UNROLL];
+                double[] compensation = new double[UNROLL];
                 int pos = i;
                 for (int c = 0; innerProfile.inject(c < colNum); c++) {
                     for (int unroll = 0; unroll < UNROLL; unroll++) {
-                        sum[unroll] = add.op(sum[unroll], dataLib.getDouble(data, it, pos + unroll));
+                        double el = dataLib.getDouble(data, it, pos + unroll);
+                        double newSum = add.op(sum[unroll], el);
+                        compensation[unroll] += CompensatedSum.error(sum[unroll], el, newSum);
+                        sum[unroll] = newSum;
                     }
                     pos += rowNum;
                 }
                 for (int unroll = 0; unroll < UNROLL; unroll++) {
-                    result[i + unroll] = finalTransform.get(sum[unroll], colNum);
+                    result[i + unroll] = finalTransform.get(CompensatedSum.result(sum[unroll], compensation[unroll]), colNum);
                 }
                 i += UNROLL;
             }
@@ -81,6 +87,7 @@ public abstract class RowSumsBase extends ColSumsBase {
         if (remainderProfile.profile(i < rowNum)) {
             while (i < rowNum) {
                 double sum = 0;
+                double compensation = 0;
                 int pos = i;
                 int notNACount = 0;
                 for (int c = 0; innerProfile.inject(c < colNum); c++) {
@@ -97,11 +104,13 @@ public abstract class RowSumsBase extends ColSumsBase {
                             break;
                         }
                     } else {
-                        sum = add.op(sum, el);
+                        double newSum = add.op(sum, el);
+                        compensation += CompensatedSum.error(sum, el, newSum);
+                        sum = newSum;
                         notNACount++;
                     }
                 }
-                result[i] = finalTransform.get(sum, notNACount);
+                result[i] = finalTransform.get(CompensatedSum.result(sum, compensation), notNACount);
                 i++;
             }
         }
@@ -29,30 +29,37 @@ import static com.oracle.truffle.r.runtime.builtins.RBuiltinKind.PRIMITIVE;
 import static com.oracle.truffle.r.runtime.context.FastROptions.FullPrecisionSum;
 
 import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.dsl.Cached;
 import com.oracle.truffle.api.dsl.ImportStatic;
 import com.oracle.truffle.api.dsl.Specialization;
 import com.oracle.truffle.api.library.CachedLibrary;
 import com.oracle.truffle.api.nodes.Node;
 import com.oracle.truffle.api.profiles.ConditionProfile;
-import com.oracle.truffle.api.profiles.LoopConditionProfile;
 import com.oracle.truffle.r.nodes.builtin.RBuiltinNode;
-import com.oracle.truffle.r.nodes.profile.VectorLengthProfile;
 import com.oracle.truffle.r.nodes.unary.UnaryArithmeticReduceNode;
 import com.oracle.truffle.r.nodes.unary.UnaryArithmeticReduceNode.ReduceSemantics;
 import com.oracle.truffle.r.nodes.unary.UnaryArithmeticReduceNodeGen;
 import com.oracle.truffle.r.runtime.RRuntime;
 import com.oracle.truffle.r.runtime.builtins.RBuiltin;
+import com.oracle.truffle.r.runtime.context.FastROptions;
 import com.oracle.truffle.r.runtime.context.RContext;
 import com.oracle.truffle.r.runtime.data.RArgsValuesAndNames;
+import com.oracle.truffle.r.runtime.data.RDoubleArrayVectorData;
+import com.oracle.truffle.r.runtime.data.RDoubleDeferredVectorData;
+import com.oracle.truffle.r.runtime.data.RDoubleRepVectorData;
 import com.oracle.truffle.r.runtime.data.RDoubleVector;
+import com.oracle.truffle.r.runtime.data.RIntRepVectorData;
+import com.oracle.truffle.r.runtime.data.RLogicalRepVectorData;
+import com.oracle.truffle.r.runtime.data.RRep;
 import com.oracle.truffle.r.runtime.data.VectorDataLibrary;
 import com.oracle.truffle.r.runtime.data.altrep.AltrepUtilities;
+import com.oracle.truffle.r.runtime.data.model.RAbstractVector;
 import com.oracle.truffle.r.runtime.data.nodes.GetReadonlyData;
 import com.oracle.truffle.r.runtime.ffi.AltrepRFFI;
 import com.oracle.truffle.r.runtime.ffi.MiscRFFI;
 import com.oracle.truffle.r.runtime.ops.BinaryArithmetic;
-import com.oracle.truffle.r.runtime.ops.na.NACheck;
+import com.oracle.truffle.r.runtime.ops.CompensatedSum;
 
 /**
  * Sum has combine semantics (TBD: exactly?) and uses a reduce operation on the resulting array.
@@ -85,40 +92,90 @@ public abstract class Sum extends RBuiltinNode.Arg2 {
 
     @Child private MiscRFFI.ExactSumNode exactSumNode;
 
-    @Specialization(guards = {"fullPrecision()", "args.getLength() == 1", "isRDoubleVector(args.getArgument(0))", "naRm == cachedNaRm"})
+    protected static boolean isNumericRep(Object value) {
+        if (value instanceof RAbstractVector) {
+            Object data = ((RAbstractVector) value).getData();
+            return data instanceof RDoubleRepVectorData || data instanceof RIntRepVectorData || data instanceof RLogicalRepVectorData;
+        }
+        return false;
+    }
+
+    /**
+     * Compact vectors (see {@link RRep}) are summed over the repeated values weighted by the
+     * number of their occurrences. Integer sums that overflow are left to the generic path, which
+     * reports the overflow, and so are double values whose weighted terms overflow.
+     */
+    @Specialization(guards = {"args.getLength() == 1", "isNumericRep(args.getArgument(0))"})
+    protected Object sumRep(RArgsValuesAndNames args, boolean naRm) {
+        Object result = sumRep((RRep) ((RAbstractVector) args.getArgument(0)).getData(), naRm);
+        return result != null ? result : sumLengthOne(args, naRm);
+    }
+
+    @TruffleBoundary
+    private static Object sumRep(RRep rep, boolean naRm) {
+        int n = rep.getOccurringValuesLength();
+        if (rep instanceof RDoubleRepVectorData) {
+            RDoubleRepVectorData data = (RDoubleRepVectorData) rep;
+            double[] terms = new double[n];
+            for (int i = 0; i < n; i++) {
+                double value = data.getValue(i);
+                terms[i] = Double.isNaN(value) ? value : value * rep.getCount(i);
+                if (Double.isFinite(value) && !Double.isFinite(terms[i])) {
+                    // the product overflows although the running sum may not
+                    return null;
+                }
+            }
+            return CompensatedSum.sum(terms, 0, n, naRm);
+        }
+        long sum = 0;
+        for (int i = 0; i < n; i++) {
+            int value = rep instanceof RIntRepVectorData ? ((RIntRepVectorData) rep).getValue(i) : RRuntime.logical2int(((RLogicalRepVectorData) rep).getValue(i));
+            if (RRuntime.isNA(value)) {
+                if (naRm) {
+                    continue;
+                }
+                return RRuntime.INT_NA;
+            }
+            sum += value * rep.getCount(i);
+            if (sum > Integer.MAX_VALUE || sum < -Integer.MAX_VALUE) {
+                return null;
+            }
+        }
+        return (int) sum;
+    }
+
+    /**
+     * Double vectors are summed in Java with {@link CompensatedSum}, which gives accuracy
+     * comparable to GNU R's {@code long double} accumulator. The native {@code long double}
+     * summation can still be requested with {@link FastROptions#FullPrecisionSum}.
+     */
+    @Specialization(guards = {"args.getLength() == 1", "isRDoubleVector(args.getArgument(0))", "!isAltrep(args.getArgument(0))", "naRm == cachedNaRm"})
     protected double sumLengthOneRDoubleVector(RArgsValuesAndNames args, @SuppressWarnings("unused") boolean naRm,
                     @Cached("create()") GetReadonlyData.Double vectorToArrayNode,
                     @Cached("naRm") boolean cachedNaRm,
-                    @Cached("create()") VectorLengthProfile lengthProfile,
-                    @Cached("createCountingProfile()") LoopConditionProfile loopProfile,
-                    @Cached("create()") NACheck na,
                     @Cached("createBinaryProfile()") ConditionProfile needsExactSumProfile,
+                    @Cached("createBinaryProfile()") ConditionProfile deferredProfile,
+                    @Cached("createBinaryProfile()") ConditionProfile arrayDataProfile,
                     @CachedLibrary(limit = "getTypedVectorDataLibraryCacheSize()") VectorDataLibrary vecDataLib) {
         RDoubleVector vector = (RDoubleVector) args.getArgument(0);
-        int length = lengthProfile.profile(vecDataLib.getLength(vector.getData()));
-
-        if (needsExactSumProfile.profile(length >= 3)) {
+        Object data = vector.getData();
+        if (needsExactSumProfile.profile(fullPrecision() && vecDataLib.getLength(data) >= 3)) {
             if (exactSumNode == null) {
                 CompilerDirectives.transferToInterpreterAndInvalidate();
                 exactSumNode = (MiscRFFI.ExactSumNode) insert((Node) MiscRFFI.ExactSumNode.create());
             }
-            return exactSumNode.execute(vectorToArrayNode.execute(vector), !vecDataLib.isComplete(vector.getData()), cachedNaRm);
-        } else {
-            na.enable(vector);
-            loopProfile.profileCounted(length);
-            double sum = 0;
-            for (int i = 0; loopProfile.inject(i < length); i++) {
-                double value = vecDataLib.getDoubleAt(vector.getData(), i);
-                if (na.check(value)) {
-                    if (!cachedNaRm) {
-                        return RRuntime.DOUBLE_NA;
-                    }
-                } else {
-                    sum += value;
-                }
-            }
-            return sum;
+            return exactSumNode.execute(vectorToArrayNode.execute(vector), !vecDataLib.isComplete(data), cachedNaRm);
+        }
+        if (deferredProfile.profile(data instanceof RDoubleDeferredVectorData)) {
+            // the elements are computed and summed without allocating the whole vector, the
+            // operands of a temporary vector are not needed afterwards
+            return ((RDoubleDeferredVectorData) data).sum(cachedNaRm, vector.isTemporary());
+        }
+        if (arrayDataProfile.profile(data instanceof RDoubleArrayVectorData)) {
+            return CompensatedSum.sum(vecDataLib.getReadonlyDoubleData(data), 0, vecDataLib.getLength(data), cachedNaRm);
         }
+        // reading the array of other data would copy them, e.g. compact sequences
+        return CompensatedSum.sum(vecDataLib, data, vecDataLib.randomAccessIterator(data), 0, vecDataLib.getLength(data), cachedNaRm);
     }
 
     /**
@@ -36,6 +36,7 @@ import com.oracle.truffle.api.CompilerDirectives;
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.dsl.Cached;
 import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
 import com.oracle.truffle.api.library.CachedLibrary;
 import com.oracle.truffle.api.profiles.ConditionProfile;
 import com.oracle.truffle.r.nodes.builtin.RBuiltinNode;
@@ -54,9 +55,11 @@ import com.oracle.truffle.r.runtime.data.RList;
 import com.oracle.truffle.r.runtime.data.RLogicalVector;
 import com.oracle.truffle.r.runtime.data.RNull;
 import com.oracle.truffle.r.runtime.data.RRawVector;
+import com.oracle.truffle.r.runtime.data.RRep;
 import com.oracle.truffle.r.runtime.data.RStringVector;
 import com.oracle.truffle.r.runtime.data.VectorDataLibrary;
 import com.oracle.truffle.r.runtime.data.VectorDataLibrary.SeqIterator;
+import com.oracle.truffle.r.runtime.data.model.RAbstractVector;
 
 @RBuiltin(name = "unique", kind = INTERNAL, parameterNames = {"x", "incomparables", "fromLast", "nmax"}, behavior = PURE)
 // TODO A more efficient implementation is in order; GNU R uses hash tables so perhaps we should
@@ -89,6 +92,41 @@ public abstract class Unique extends RBuiltinNode.Arg4 {
         return vec;
     }
 
+    protected static boolean isRep(RAbstractVector vec) {
+        return vec.getData() instanceof RRep;
+    }
+
+    protected static Unique createRecursive() {
+        return UniqueNodeGen.create();
+    }
+
+    /**
+     * The unique elements of a compact vector (see {@link RRep}) are the unique elements of the
+     * values it repeats. For {@code fromLast}, the values are taken from the end of the data and
+     * the first occurrences found in them are reversed back to the original order.
+     */
+    @Specialization(guards = "isRep(vec)")
+    protected Object doUniqueRep(VirtualFrame frame, RAbstractVector vec, byte incomparables, byte fromLast, int nmax,
+                    @Cached("createRecursive()") Unique recursive,
+                    @Cached("createBinaryProfile()") ConditionProfile fromLastProfile) {
+        RRep rep = (RRep) vec.getData();
+        if (fromLastProfile.profile(fromLast != RRuntime.LOGICAL_TRUE)) {
+            return recursive.execute(frame, rep.createOccurringValues(false), incomparables, fromLast, nmax);
+        }
+        Object result = recursive.execute(frame, rep.createOccurringValues(true), incomparables, RRuntime.LOGICAL_FALSE, nmax);
+        return reverse((RAbstractVector) result);
+    }
+
+    @TruffleBoundary
+    private static RAbstractVector reverse(RAbstractVector vec) {
+        int length = vec.getLength();
+        RAbstractVector result = vec.createEmptySameType(length, vec.isComplete());
+        for (int i = 0; i < length; i++) {
+            result.transferElementSameType(i, vec, length - 1 - i);
+        }
+        return result;
+    }
+
     @SuppressWarnings("unused")
     @Specialization(limit = "getTypedVectorDataLibraryCacheSize()")
     protected RStringVector doUniqueCachedString(RStringVector vec, byte incomparables, byte fromLast, int nmax,
@@ -53,15 +53,20 @@ import com.oracle.truffle.r.runtime.builtins.RBuiltin;
 import com.oracle.truffle.r.runtime.context.RContext;
 import com.oracle.truffle.r.runtime.data.RComplex;
 import com.oracle.truffle.r.runtime.data.RDataFactory;
+import com.oracle.truffle.r.runtime.data.RDoubleVector;
+import com.oracle.truffle.r.runtime.data.RIntVector;
+import com.oracle.truffle.r.runtime.data.RLogicalVector;
 import com.oracle.truffle.r.runtime.data.RFunction;
 import com.oracle.truffle.r.runtime.data.RPairList;
 import com.oracle.truffle.r.runtime.data.RPairListLibrary;
 import com.oracle.truffle.r.runtime.data.RList;
 import com.oracle.truffle.r.runtime.data.RNull;
 import com.oracle.truffle.r.runtime.data.RRaw;
+import com.oracle.truffle.r.runtime.data.RRawVector;
 import com.oracle.truffle.r.runtime.data.RStringVector;
 import com.oracle.truffle.r.runtime.data.RSymbol;
 import com.oracle.truffle.r.runtime.data.RTypes;
+import com.oracle.truffle.r.runtime.data.VectorDataLibrary;
 import com.oracle.truffle.r.runtime.data.model.RAbstractContainer;
 import com.oracle.truffle.r.runtime.data.model.RAbstractListVector;
 import com.oracle.truffle.r.runtime.data.model.RAbstractVector;
@@ -490,14 +495,21 @@ public abstract class Unlist extends RBuiltinNode.Arg3 {
             RAbstractVector v = (RAbstractVector) o;
             RStringVector ln = getNames.getNames(v);
             RStringVector listNames = useNames && ln != null ? ln : null;
-            for (int i = 0; i < v.getLength(); i++) {
-                String name = itemName(listNames, i);
-                Object cur = v.getDataAtAsObject(i);
-                if (v instanceof RList && recursive) {
-                    position = unlistHelperRaw(result, namesData, position, namesInfo, cur, base, name, recursive, useNames);
-                } else {
-                    assignName(name, base, position, namesData, namesInfo, useNames);
-                    result[position++] = unlistValueRaw(cur);
+            if (v instanceof RRawVector) {
+                // same type: the values are copied in bulk, only the names are assigned one by one
+                byte[] values = VectorDataLibrary.getFactory().getUncached().getReadonlyRawData(v.getData());
+                System.arraycopy(values, 0, result, position, values.length);
+                position = assignNames(listNames, base, position, values.length, namesData, namesInfo, useNames);
+            } else {
+                for (int i = 0; i < v.getLength(); i++) {
+                    String name = itemName(listNames, i);
+                    Object cur = v.getDataAtAsObject(i);
+                    if (v instanceof RList && recursive) {
+                        position = unlistHelperRaw(result, namesData, position, namesInfo, cur, base, name, recursive, useNames);
+                    } else {
+                        assignName(name, base, position, namesData, namesInfo, useNames);
+                        result[position++] = unlistValueRaw(cur);
+                    }
                 }
             }
         } else if (o != RNull.instance) {
@@ -529,16 +541,23 @@ public abstract class Unlist extends RBuiltinNode.Arg3 {
             RAbstractVector v = (RAbstractVector) o;
             RStringVector ln = getNames.getNames(v);
             RStringVector listNames = useNames && ln != null ? ln : null;
-            for (int i = 0; i < v.getLength(); i++) {
-                String name = itemName(listNames, i);
-                Object cur = v.getDataAtAsObject(i);
-                if (RRuntime.isForeignObject(cur)) {
-                    position = unlistHelperForeignLogical(result, position, (TruffleObject) cur, recursive, interop);
-                } else if (v instanceof RList && recursive) {
-                    position = unlistHelperLogical(result, namesData, position, namesInfo, cur, base, name, recursive, useNames, interop);
-                } else {
-                    assignName(name, base, position, namesData, namesInfo, useNames);
-                    result[position++] = unlistValueLogical(cur);
+            if (v instanceof RLogicalVector) {
+                // same type: the values are copied in bulk, only the names are assigned one by one
+                byte[] values = VectorDataLibrary.getFactory().getUncached().getReadonlyLogicalData(v.getData());
+                System.arraycopy(values, 0, result, position, values.length);
+                position = assignNames(listNames, base, position, values.length, namesData, namesInfo, useNames);
+            } else {
+                for (int i = 0; i < v.getLength(); i++) {
+                    String name = itemName(listNames, i);
+                    Object cur = v.getDataAtAsObject(i);
+                    if (RRuntime.isForeignObject(cur)) {
+                        position = unlistHelperForeignLogical(result, position, (TruffleObject) cur, recursive, interop);
+                    } else if (v instanceof RList && recursive) {
+                        position = unlistHelperLogical(result, namesData, position, namesInfo, cur, base, name, recursive, useNames, interop);
+                    } else {
+                        assignName(name, base, position, namesData, namesInfo, useNames);
+                        result[position++] = unlistValueLogical(cur);
+                    }
                 }
             }
         } else if (RRuntime.isForeignObject(o)) {
@@ -571,16 +590,23 @@ public abstract class Unlist extends RBuiltinNode.Arg3 {
             RAbstractVector v = (RAbstractVector) o;
             RStringVector ln = getNames.getNames(v);
             RStringVector listNames = useNames && ln != null ? ln : null;
-            for (int i = 0; i < v.getLength(); i++) {
-                String name = itemName(listNames, i);
-                Object cur = v.getDataAtAsObject(i);
-                if (RRuntime.isForeignObject(cur)) {
-                    position = unlistHelperForeignInt(result, position, (TruffleObject) cur, recursive, interop);
-                } else if (v instanceof RList && recursive) {
-                    position = unlistHelperInt(result, namesData, position, namesInfo, cur, base, name, recursive, useNames, interop);
-                } else {
-                    assignName(name, base, position, namesData, namesInfo, useNames);
-                    result[position++] = unlistValueInt(cur);
+            if (v instanceof RIntVector) {
+                // same type: the values are copied in bulk, only the names are assigned one by one
+                int[] values = VectorDataLibrary.getFactory().getUncached().getReadonlyIntData(v.getData());
+                System.arraycopy(values, 0, result, position, values.length);
+                position = assignNames(listNames, base, position, values.length, namesData, namesInfo, useNames);
+            } else {
+                for (int i = 0; i < v.getLength(); i++) {
+                    String name = itemName(listNames, i);
+                    Object cur = v.getDataAtAsObject(i);
+                    if (RRuntime.isForeignObject(cur)) {
+                        position = unlistHelperForeignInt(result, position, (TruffleObject) cur, recursive, interop);
+                    } else if (v instanceof RList && recursive) {
+                        position = unlistHelperInt(result, namesData, position, namesInfo, cur, base, name, recursive, useNames, interop);
+                    } else {
+                        assignName(name, base, position, namesData, namesInfo, useNames);
+                        result[position++] = unlistValueInt(cur);
+                    }
                 }
             }
         } else if (RRuntime.isForeignObject(o)) {
@@ -614,16 +640,23 @@ public abstract class Unlist extends RBuiltinNode.Arg3 {
             RAbstractVector v = (RAbstractVector) o;
             RStringVector ln = getNames.getNames(v);
             RStringVector listNames = useNames && ln != null ? ln : null;
-            for (int i = 0; i < v.getLength(); i++) {
-                String name = itemName(listNames, i);
-                Object cur = v.getDataAtAsObject(i);
-                if (RRuntime.isForeignObject(cur)) {
-                    position = unlistHelperForeignDouble(result, position, (TruffleObject) cur, recursive, interop);
-                } else if (v instanceof RList && recursive) {
-                    position = unlistHelperDouble(result, namesData, position, namesInfo, cur, base, name, recursive, useNames, interop);
-                } else {
-                    assignName(name, base, position, namesData, namesInfo, useNames);
-                    result[position++] = unlistValueDouble(cur);
+            if (v instanceof RDoubleVector) {
+                // same type: the values are copied in bulk, only the names are assigned one by one
+                double[] values = VectorDataLibrary.getFactory().getUncached().getReadonlyDoubleData(v.getData());
+                System.arraycopy(values, 0, result, position, values.length);
+                position = assignNames(listNames, base, position, values.length, namesData, namesInfo, useNames);
+            } else {
+                for (int i = 0; i < v.getLength(); i++) {
+                    String name = itemName(listNames, i);
+                    Object cur = v.getDataAtAsObject(i);
+                    if (RRuntime.isForeignObject(cur)) {
+                        position = unlistHelperForeignDouble(result, position, (TruffleObject) cur, recursive, interop);
+                    } else if (v instanceof RList && recursive) {
+                        position = unlistHelperDouble(result, namesData, position, namesInfo, cur, base, name, recursive, useNames, interop);
+                    } else {
+                        assignName(name, base, position, namesData, namesInfo, useNames);
+                        result[position++] = unlistValueDouble(cur);
+                    }
                 }
             }
         } else if (RRuntime.isForeignObject(o)) {
@@ -875,6 +908,15 @@ public abstract class Unlist extends RBuiltinNode.Arg3 {
         }
     }
 
+    private static int assignNames(RStringVector listNames, String base, int position, int length, String[] namesData, NamesInfo namesInfo, boolean useNames) {
+        if (useNames) {
+            for (int i = 0; i < length; i++) {
+                assignName(itemName(listNames, i), base, position + i, namesData, namesInfo, true);
+            }
+        }
+        return position + length;
+    }
+
     private static String itemName(RStringVector names, int i) {
         if (names == null || names.getDataAt(i).equals(RRuntime.NAMES_ATTR_EMPTY_VALUE)) {
             return null;
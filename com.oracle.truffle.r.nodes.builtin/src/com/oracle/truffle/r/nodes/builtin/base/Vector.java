@@ -35,9 +35,15 @@ import com.oracle.truffle.r.runtime.data.nodes.attributes.TypeFromModeNodeGen;
 import com.oracle.truffle.r.nodes.builtin.RBuiltinNode;
 import com.oracle.truffle.r.runtime.DSLConfig;
 import com.oracle.truffle.r.runtime.RError;
+import com.oracle.truffle.r.runtime.RRuntime;
 import com.oracle.truffle.r.runtime.RType;
 import com.oracle.truffle.r.runtime.builtins.RBuiltin;
 import com.oracle.truffle.r.runtime.data.RDataFactory;
+import com.oracle.truffle.r.runtime.data.RDoubleVector;
+import com.oracle.truffle.r.runtime.data.RIntVector;
+import com.oracle.truffle.r.runtime.data.RLogicalVector;
+import com.oracle.truffle.r.runtime.data.RRep;
+import com.oracle.truffle.r.runtime.data.RStringVector;
 import com.oracle.truffle.r.runtime.gnur.SEXPTYPE;
 
 @ImportStatic(DSLConfig.class)
@@ -82,6 +88,21 @@ public abstract class Vector extends RBuiltinNode.Arg2 {
         if (type == RType.PairList) {
             return RDataFactory.createPairList(length, SEXPTYPE.LISTSXP);
         }
+        if (RRep.isBeneficial(1, length)) {
+            // long vectors are often only partially overwritten, keep them compact until then
+            switch (type) {
+                case Double:
+                    return RDoubleVector.createRep(new double[]{0}, 1, length);
+                case Integer:
+                    return RIntVector.createRep(new int[]{0}, 1, length);
+                case Logical:
+                    return RLogicalVector.createRep(new byte[]{RRuntime.LOGICAL_FALSE}, 1, length);
+                case Character:
+                    return RStringVector.createRep(new String[]{""}, 1, length);
+                default:
+                    break;
+            }
+        }
         return type.create(length, false);
     }
 }
@@ -0,0 +1,658 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 3 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 3 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.r.nodes.builtin.base.fastpaths;
+
+import java.util.Arrays;
+import java.util.HashSet;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.object.DynamicObject;
+import com.oracle.truffle.r.runtime.RInternalError;
+import com.oracle.truffle.r.runtime.RRuntime;
+import com.oracle.truffle.r.runtime.RType;
+import com.oracle.truffle.r.runtime.data.RDataFactory;
+import com.oracle.truffle.r.runtime.data.REmpty;
+import com.oracle.truffle.r.runtime.data.RIntVector;
+import com.oracle.truffle.r.runtime.data.RList;
+import com.oracle.truffle.r.runtime.data.RMissing;
+import com.oracle.truffle.r.runtime.data.RStringVector;
+import com.oracle.truffle.r.runtime.data.VectorDataLibrary;
+import com.oracle.truffle.r.runtime.data.model.RAbstractVector;
+import com.oracle.truffle.r.runtime.data.nodes.ShareObjectNode;
+
+/**
+ * Java implementation of the most common cases of {@code [.data.frame} and
+ * {@code [<-.data.frame}: selecting rows by a logical or positive integer index together with a
+ * subset of the columns, replacing whole columns and replacing values in selected rows.
+ *
+ * Only "plain" data frames are handled, i.e., lists with just the names, row names and class
+ * {@code "data.frame"} attributes whose columns are atomic vectors without any attributes. The row
+ * index is converted to row numbers once and all the columns are then gathered by a simple loop
+ * over these. Anything else, including the cases where the R code would make up new row names,
+ * report an error or extend the data frame, makes the functions return {@code null}, so that the
+ * call site reverts to the R implementation.
+ */
+final class DataFrameFastPaths {
+
+    private DataFrameFastPaths() {
+        // only static methods
+    }
+
+    /**
+     * Implements {@code x[i, j, drop]}.
+     */
+    @TruffleBoundary
+    static Object subset(RList x, Object i, Object j, Object drop) {
+        // x[i] is the list-like indexing and x[, j] does not copy the columns anyway
+        if (i == RMissing.instance || i == REmpty.instance || j == RMissing.instance) {
+            return null;
+        }
+        if (drop != RMissing.instance && !(drop instanceof Byte && (byte) drop == RRuntime.LOGICAL_FALSE)) {
+            return null;
+        }
+        int nrow = getRowCount(x);
+        if (nrow < 0) {
+            return null;
+        }
+        RStringVector names = x.getNames();
+        int[] cols = getColumnIndex(j, names, x.getLength());
+        if (cols == null) {
+            return null;
+        }
+        for (int col : cols) {
+            if (col < 0 || !isPlainColumn(x.getDataAt(col), nrow)) {
+                return null;
+            }
+        }
+        int[] rows = getRowIndex(i, nrow);
+        if (rows == null) {
+            return null;
+        }
+        if (drop == RMissing.instance && cols.length == 1) {
+            // the default of drop is "length(cols) == 1"
+            return gather((RAbstractVector) x.getDataAt(cols[0]), rows);
+        }
+        Object rowNames = subsetRowNames(x.getAttr(RRuntime.ROWNAMES_ATTR_KEY), rows);
+        if (rowNames == null) {
+            return null;
+        }
+        Object[] data = new Object[cols.length];
+        String[] newNames = new String[cols.length];
+        for (int k = 0; k < cols.length; k++) {
+            data[k] = gather((RAbstractVector) x.getDataAt(cols[k]), rows);
+            newNames[k] = names.getDataAt(cols[k]);
+        }
+        RList result = RDataFactory.createList(data, RDataFactory.createStringVector(newNames, RDataFactory.COMPLETE_VECTOR));
+        result.setAttr(RRuntime.ROWNAMES_ATTR_KEY, rowNames);
+        result.setClassAttr(RDataFactory.createStringVectorFromScalar(RRuntime.CLASS_DATA_FRAME));
+        return result;
+    }
+
+    /**
+     * Implements {@code x[i, j] <- value}, {@code x[, j] <- value} and {@code x[j] <- value}, the
+     * last two may also append new columns given by name.
+     */
+    @TruffleBoundary
+    static Object update(RList x, Object i, Object j, Object value) {
+        Object rowSelector;
+        Object colSelector;
+        if (j == RMissing.instance) {
+            // x[j] <- value
+            rowSelector = REmpty.instance;
+            colSelector = i;
+        } else {
+            rowSelector = i;
+            colSelector = j;
+        }
+        if (rowSelector == RMissing.instance || colSelector == RMissing.instance || (rowSelector == REmpty.instance && colSelector == REmpty.instance)) {
+            return null;
+        }
+        RAbstractVector v = asPlainVector(value);
+        if (v == null) {
+            return null;
+        }
+        int nrow = getRowCount(x);
+        if (nrow < 0) {
+            return null;
+        }
+        RStringVector names = x.getNames();
+        int ncol = x.getLength();
+        int[] cols = getColumnIndex(colSelector, names, ncol);
+        if (cols == null) {
+            return null;
+        }
+        boolean allRows = rowSelector == REmpty.instance;
+        int newCols = 0;
+        for (int col : cols) {
+            if (col < 0) {
+                if (!allRows) {
+                    // new columns would have to be filled with NAs
+                    return null;
+                }
+                newCols++;
+            } else if (!isPlainColumn(x.getDataAt(col), nrow)) {
+                return null;
+            }
+        }
+        int[] rows = allRows ? null : getRowIndex(rowSelector, nrow);
+        if (!allRows && rows == null) {
+            return null;
+        }
+        int n = allRows ? nrow : rows.length;
+        int p = cols.length;
+        int m = v.getLength();
+        if (n == 0 || p == 0 || m == 0 || !(m == 1 || m == n || m == (long) n * p)) {
+            return null;
+        }
+
+        Object[] original = x.getReadonlyData();
+        Object[] data = Arrays.copyOf(original, ncol + newCols);
+        String[] newNames = null;
+        if (newCols > 0) {
+            newNames = Arrays.copyOf(names.getReadonlyStringData(), ncol + newCols);
+        }
+        int nextCol = ncol;
+        for (int k = 0; k < p; k++) {
+            // value is recycled to a n x p matrix and its columns are assigned to the columns
+            int offset = m == (long) n * p ? k * n : 0;
+            Object column;
+            if (allRows) {
+                column = m == n ? ShareObjectNode.share(v) : gather(v, valueIndex(offset, n, m));
+            } else {
+                column = replaceRows((RAbstractVector) data[cols[k]], rows, v, offset);
+                if (column == null) {
+                    return null;
+                }
+            }
+            if (cols[k] < 0) {
+                // only column names can refer to new columns
+                newNames[nextCol] = colSelector instanceof String ? (String) colSelector : ((RStringVector) colSelector).getDataAt(k);
+                data[nextCol++] = column;
+            } else {
+                data[cols[k]] = column;
+            }
+        }
+        for (int k = 0; k < ncol; k++) {
+            if (data[k] == original[k]) {
+                ShareObjectNode.share(data[k]);
+            }
+        }
+        RStringVector resultNames = newNames == null ? ShareObjectNode.share(names) : RDataFactory.createStringVector(newNames, RDataFactory.COMPLETE_VECTOR);
+        RList result = RDataFactory.createList(data, resultNames);
+        result.setAttr(RRuntime.ROWNAMES_ATTR_KEY, ShareObjectNode.share(x.getAttr(RRuntime.ROWNAMES_ATTR_KEY)));
+        result.setClassAttr(RDataFactory.createStringVectorFromScalar(RRuntime.CLASS_DATA_FRAME));
+        return result;
+    }
+
+    /**
+     * Returns the number of rows of a plain data frame or {@code -1} for anything else.
+     */
+    private static int getRowCount(RList x) {
+        DynamicObject attributes = x.getAttributes();
+        if (x.isS4() || attributes == null || attributes.getShape().getPropertyCount() != 3) {
+            return -1;
+        }
+        RStringVector classAttr = x.getClassAttr();
+        if (classAttr == null || classAttr.getLength() != 1 || !RRuntime.CLASS_DATA_FRAME.equals(classAttr.getDataAt(0))) {
+            return -1;
+        }
+        RStringVector names = x.getNames();
+        if (names == null || !names.isComplete()) {
+            return -1;
+        }
+        Object rowNames = x.getAttr(RRuntime.ROWNAMES_ATTR_KEY);
+        if (rowNames instanceof RIntVector) {
+            RIntVector intRowNames = (RIntVector) rowNames;
+            if (intRowNames.getLength() == 2 && RRuntime.isNA(intRowNames.getDataAt(0))) {
+                return Math.abs(intRowNames.getDataAt(1));
+            }
+            return intRowNames.getLength();
+        } else if (rowNames instanceof RStringVector) {
+            return ((RStringVector) rowNames).getLength();
+        }
+        return -1;
+    }
+
+    private static boolean hasNoAttributes(RAbstractVector vector) {
+        DynamicObject attributes = vector.getAttributes();
+        return attributes == null || attributes.getShape().getPropertyCount() == 0;
+    }
+
+    private static boolean isPlainColumn(Object column, int nrow) {
+        if (!(column instanceof RAbstractVector)) {
+            return false;
+        }
+        RAbstractVector vector = (RAbstractVector) column;
+        return vector.getLength() == nrow && isPlainVector(vector);
+    }
+
+    private static boolean isPlainVector(RAbstractVector vector) {
+        if (!hasNoAttributes(vector) || vector.isAltRep()) {
+            return false;
+        }
+        switch (vector.getRType()) {
+            case Logical:
+            case Integer:
+            case Double:
+            case Complex:
+            case Character:
+            case Raw:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private static RAbstractVector asPlainVector(Object value) {
+        if (value instanceof Integer) {
+            return RDataFactory.createIntVectorFromScalar((int) value);
+        } else if (value instanceof Double) {
+            return RDataFactory.createDoubleVectorFromScalar((double) value);
+        } else if (value instanceof Byte) {
+            return RDataFactory.createLogicalVectorFromScalar((byte) value);
+        } else if (value instanceof String) {
+            return RDataFactory.createStringVectorFromScalar((String) value);
+        } else if (value instanceof RAbstractVector && isPlainVector((RAbstractVector) value)) {
+            return (RAbstractVector) value;
+        }
+        return null;
+    }
+
+    /**
+     * Converts a logical or positive numeric row index to zero based row numbers. Returns
+     * {@code null} for NAs, negative, out of range or duplicate indices, for which the R code makes
+     * up new row names or extends the data frame.
+     */
+    private static int[] getRowIndex(Object i, int nrow) {
+        if (i instanceof Byte) {
+            return logicalIndex(new byte[]{(byte) i}, 1, nrow);
+        } else if (i instanceof Integer) {
+            return integerIndex(new int[]{(int) i}, 1, nrow);
+        } else if (i instanceof Double) {
+            return numericIndex(new double[]{(double) i}, 1, nrow);
+        } else if (!(i instanceof RAbstractVector)) {
+            return null;
+        }
+        RAbstractVector vector = (RAbstractVector) i;
+        if (vector.isObject() || vector.getAttr(RRuntime.DIM_ATTR_KEY) != null) {
+            return null;
+        }
+        Object data = vector.getData();
+        VectorDataLibrary lib = VectorDataLibrary.getFactory().getUncached(data);
+        switch (vector.getRType()) {
+            case Logical:
+                return logicalIndex(lib.getReadonlyLogicalData(data), lib.getLength(data), nrow);
+            case Integer:
+                return integerIndex(lib.getReadonlyIntData(data), lib.getLength(data), nrow);
+            case Double:
+                return numericIndex(lib.getReadonlyDoubleData(data), lib.getLength(data), nrow);
+            default:
+                return null;
+        }
+    }
+
+    private static int[] logicalIndex(byte[] values, int length, int nrow) {
+        if (length > nrow) {
+            // the extra elements select NA rows
+            return null;
+        }
+        if (length == 0) {
+            return new int[0];
+        }
+        int count = 0;
+        for (int k = 0, l = 0; k < nrow; k++, l = l + 1 == length ? 0 : l + 1) {
+            byte value = values[l];
+            if (value == RRuntime.LOGICAL_NA) {
+                return null;
+            }
+            if (value == RRuntime.LOGICAL_TRUE) {
+                count++;
+            }
+        }
+        int[] result = new int[count];
+        for (int k = 0, l = 0, r = 0; k < nrow; k++, l = l + 1 == length ? 0 : l + 1) {
+            if (values[l] == RRuntime.LOGICAL_TRUE) {
+                result[r++] = k;
+            }
+        }
+        return result;
+    }
+
+    private static int[] integerIndex(int[] values, int length, int nrow) {
+        int[] result = new int[length];
+        int count = 0;
+        boolean increasing = true;
+        int previous = -1;
+        for (int k = 0; k < length; k++) {
+            int value = values[k];
+            if (RRuntime.isNA(value) || value < 0 || value > nrow) {
+                return null;
+            }
+            if (value == 0) {
+                continue;
+            }
+            increasing &= value - 1 > previous;
+            previous = value - 1;
+            result[count++] = previous;
+        }
+        return checkDuplicates(result, count, increasing, nrow);
+    }
+
+    private static int[] numericIndex(double[] values, int length, int nrow) {
+        int[] result = new int[length];
+        int count = 0;
+        boolean increasing = true;
+        int previous = -1;
+        for (int k = 0; k < length; k++) {
+            double value = values[k];
+            if (Double.isNaN(value) || value < 0 || value >= nrow + 1) {
+                return null;
+            }
+            // indices are truncated towards zero
+            int index = (int) value;
+            if (index == 0) {
+                continue;
+            }
+            increasing &= index - 1 > previous;
+            previous = index - 1;
+            result[count++] = previous;
+        }
+        return checkDuplicates(result, count, increasing, nrow);
+    }
+
+    private static int[] checkDuplicates(int[] rows, int count, boolean increasing, int nrow) {
+        if (!increasing) {
+            boolean[] seen = new boolean[nrow];
+            for (int k = 0; k < count; k++) {
+                if (seen[rows[k]]) {
+                    return null;
+                }
+                seen[rows[k]] = true;
+            }
+        }
+        return count == rows.length ? rows : Arrays.copyOf(rows, count);
+    }
+
+    /**
+     * Converts a column index to zero based column numbers, column names that do not exist are
+     * represented by {@code -1}. Returns {@code null} for anything the R code has to handle.
+     */
+    private static int[] getColumnIndex(Object j, RStringVector names, int ncol) {
+        if (j == REmpty.instance) {
+            int[] result = new int[ncol];
+            for (int k = 0; k < ncol; k++) {
+                result[k] = k;
+            }
+            return result;
+        } else if (j instanceof String) {
+            return getColumnIndex(RDataFactory.createStringVectorFromScalar((String) j), names, ncol);
+        } else if (j instanceof RStringVector) {
+            RStringVector columns = (RStringVector) j;
+            if (!hasNoAttributes(columns) || !columns.isComplete()) {
+                return null;
+            }
+            HashSet<String> selected = new HashSet<>();
+            int[] result = new int[columns.getLength()];
+            for (int k = 0; k < result.length; k++) {
+                String column = columns.getDataAt(k);
+                if (column.isEmpty() || !selected.add(column)) {
+                    return null;
+                }
+                result[k] = -1;
+                for (int l = 0; l < ncol; l++) {
+                    if (column.equals(names.getDataAt(l))) {
+                        result[k] = l;
+                        break;
+                    }
+                }
+            }
+            return result;
+        }
+        if (j instanceof Byte || j instanceof RAbstractVector && (!hasNoAttributes((RAbstractVector) j) || ((RAbstractVector) j).getRType() == RType.Logical)) {
+            return null;
+        }
+        // numeric column indices follow the same rules as the row indices
+        return getRowIndex(j, ncol);
+    }
+
+    private static int[] valueIndex(int offset, int n, int m) {
+        int[] result = new int[n];
+        if (m != 1) {
+            for (int k = 0; k < n; k++) {
+                result[k] = offset + k;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Creates a new vector with the elements of given vector at given zero based indices.
+     */
+    private static RAbstractVector gather(RAbstractVector vector, int[] rows) {
+        Object data = vector.getData();
+        VectorDataLibrary lib = VectorDataLibrary.getFactory().getUncached(data);
+        boolean complete = lib.isComplete(data);
+        int n = rows.length;
+        switch (vector.getRType()) {
+            case Integer: {
+                int[] src = lib.getReadonlyIntData(data);
+                int[] dst = new int[n];
+                for (int k = 0; k < n; k++) {
+                    dst[k] = src[rows[k]];
+                }
+                return RDataFactory.createIntVector(dst, complete);
+            }
+            case Double: {
+                double[] src = lib.getReadonlyDoubleData(data);
+                double[] dst = new double[n];
+                for (int k = 0; k < n; k++) {
+                    dst[k] = src[rows[k]];
+                }
+                return RDataFactory.createDoubleVector(dst, complete);
+            }
+            case Logical: {
+                byte[] src = lib.getReadonlyLogicalData(data);
+                byte[] dst = new byte[n];
+                for (int k = 0; k < n; k++) {
+                    dst[k] = src[rows[k]];
+                }
+                return RDataFactory.createLogicalVector(dst, complete);
+            }
+            case Raw: {
+                byte[] src = lib.getReadonlyRawData(data);
+                byte[] dst = new byte[n];
+                for (int k = 0; k < n; k++) {
+                    dst[k] = src[rows[k]];
+                }
+                return RDataFactory.createRawVector(dst);
+            }
+            case Character: {
+                String[] src = lib.getReadonlyStringData(data);
+                String[] dst = new String[n];
+                for (int k = 0; k < n; k++) {
+                    dst[k] = src[rows[k]];
+                }
+                return RDataFactory.createStringVector(dst, complete);
+            }
+            case Complex: {
+                double[] src = lib.getReadonlyComplexData(data);
+                double[] dst = new double[n << 1];
+                for (int k = 0; k < n; k++) {
+                    dst[k << 1] = src[rows[k] << 1];
+                    dst[(k << 1) + 1] = src[(rows[k] << 1) + 1];
+                }
+                return RDataFactory.createComplexVector(dst, complete);
+            }
+            default:
+                throw RInternalError.shouldNotReachHere();
+        }
+    }
+
+    /**
+     * Creates a copy of the column with the given rows replaced by the elements of {@code value}
+     * starting at {@code offset} (recycled if {@code value} is a scalar). Returns {@code null} if
+     * the column would have to be coerced to the type of the value.
+     */
+    private static RAbstractVector replaceRows(RAbstractVector column, int[] rows, RAbstractVector value, int offset) {
+        Object data = column.getData();
+        VectorDataLibrary lib = VectorDataLibrary.getFactory().getUncached(data);
+        Object valueData = value.getData();
+        VectorDataLibrary valueLib = VectorDataLibrary.getFactory().getUncached(valueData);
+        boolean complete = lib.isComplete(data) && valueLib.isComplete(valueData);
+        int step = value.getLength() == 1 ? 0 : 1;
+        int n = rows.length;
+        switch (column.getRType()) {
+            case Integer: {
+                int[] src = asIntData(value, valueLib, valueData);
+                if (src == null) {
+                    return null;
+                }
+                int[] dst = lib.getIntDataCopy(data);
+                for (int k = 0, l = offset; k < n; k++, l += step) {
+                    dst[rows[k]] = src[l];
+                }
+                return RDataFactory.createIntVector(dst, complete);
+            }
+            case Double: {
+                double[] src = asDoubleData(value, valueLib, valueData);
+                if (src == null) {
+                    return null;
+                }
+                double[] dst = lib.getDoubleDataCopy(data);
+                for (int k = 0, l = offset; k < n; k++, l += step) {
+                    dst[rows[k]] = src[l];
+                }
+                return RDataFactory.createDoubleVector(dst, complete);
+            }
+            default:
+                if (value.getRType() != column.getRType()) {
+                    return null;
+                }
+                break;
+        }
+        switch (column.getRType()) {
+            case Logical: {
+                byte[] src = valueLib.getReadonlyLogicalData(valueData);
+                byte[] dst = lib.getLogicalDataCopy(data);
+                for (int k = 0, l = offset; k < n; k++, l += step) {
+                    dst[rows[k]] = src[l];
+                }
+                return RDataFactory.createLogicalVector(dst, complete);
+            }
+            case Raw: {
+                byte[] src = valueLib.getReadonlyRawData(valueData);
+                byte[] dst = lib.getRawDataCopy(data);
+                for (int k = 0, l = offset; k < n; k++, l += step) {
+                    dst[rows[k]] = src[l];
+                }
+                return RDataFactory.createRawVector(dst);
+            }
+            case Character: {
+                String[] src = valueLib.getReadonlyStringData(valueData);
+                String[] dst = lib.getStringDataCopy(data);
+                for (int k = 0, l = offset; k < n; k++, l += step) {
+                    dst[rows[k]] = src[l];
+                }
+                return RDataFactory.createStringVector(dst, complete);
+            }
+            case Complex: {
+                double[] src = valueLib.getReadonlyComplexData(valueData);
+                double[] dst = lib.getComplexDataCopy(data);
+                for (int k = 0, l = offset; k < n; k++, l += step) {
+                    dst[rows[k] << 1] = src[l << 1];
+                    dst[(rows[k] << 1) + 1] = src[(l << 1) + 1];
+                }
+                return RDataFactory.createComplexVector(dst, complete);
+            }
+            default:
+                throw RInternalError.shouldNotReachHere();
+        }
+    }
+
+    private static int[] asIntData(RAbstractVector value, VectorDataLibrary lib, Object data) {
+        switch (value.getRType()) {
+            case Integer:
+                return lib.getReadonlyIntData(data);
+            case Logical: {
+                byte[] src = lib.getReadonlyLogicalData(data);
+                int[] result = new int[lib.getLength(data)];
+                for (int k = 0; k < result.length; k++) {
+                    result[k] = RRuntime.logical2int(src[k]);
+                }
+                return result;
+            }
+            default:
+                return null;
+        }
+    }
+
+    private static double[] asDoubleData(RAbstractVector value, VectorDataLibrary lib, Object data) {
+        switch (value.getRType()) {
+            case Double:
+                return lib.getReadonlyDoubleData(data);
+            case Integer:
+            case Logical: {
+                int[] src = asIntData(value, lib, data);
+                double[] result = new double[src.length];
+                for (int k = 0; k < result.length; k++) {
+                    result[k] = RRuntime.int2double(src[k]);
+                }
+                return result;
+            }
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Selects the row names of the given rows. Like {@code row.names<-} in GNU R, integer row names
+     * {@code 1:n} with {@code n > 2} are stored compactly as {@code c(NA, +n)}, i.e., compact but
+     * not automatic.
+     */
+    private static Object subsetRowNames(Object rowNames, int[] rows) {
+        int n = rows.length;
+        if (rowNames instanceof RStringVector) {
+            RStringVector names = (RStringVector) rowNames;
+            String[] result = new String[n];
+            for (int k = 0; k < n; k++) {
+                result[k] = names.getDataAt(rows[k]);
+                if (RRuntime.isNA(result[k])) {
+                    return null;
+                }
+            }
+            return RDataFactory.createStringVector(result, RDataFactory.COMPLETE_VECTOR);
+        }
+        RIntVector intNames = (RIntVector) rowNames;
+        boolean compact = intNames.getLength() == 2 && RRuntime.isNA(intNames.getDataAt(0));
+        int[] result = new int[n];
+        boolean prefix = true;
+        for (int k = 0; k < n; k++) {
+            result[k] = compact ? rows[k] + 1 : intNames.getDataAt(rows[k]);
+            prefix &= result[k] == k + 1;
+        }
+        if (prefix && n > 2) {
+            return RDataFactory.createIntVector(new int[]{RRuntime.INT_NA, n}, RDataFactory.INCOMPLETE_VECTOR);
+        }
+        return RDataFactory.createIntVector(result, RDataFactory.COMPLETE_VECTOR);
+    }
+}
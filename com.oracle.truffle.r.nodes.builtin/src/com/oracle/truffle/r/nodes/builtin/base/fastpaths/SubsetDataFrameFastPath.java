@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2017, 2018, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2017, 2020, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * This code is free software; you can redistribute it and/or modify it
@@ -22,66 +22,25 @@
  */
 package com.oracle.truffle.r.nodes.builtin.base.fastpaths;
 
-import com.oracle.truffle.api.dsl.Cached;
 import com.oracle.truffle.api.dsl.Fallback;
 import com.oracle.truffle.api.dsl.Specialization;
-import com.oracle.truffle.r.nodes.access.vector.ElementAccessMode;
-import com.oracle.truffle.r.nodes.access.vector.ExtractVectorNode;
-import com.oracle.truffle.r.runtime.RRuntime;
-import com.oracle.truffle.r.runtime.RVisibility;
-import com.oracle.truffle.r.runtime.builtins.FastPathFactory;
-import com.oracle.truffle.r.runtime.data.RArgsValuesAndNames;
-import com.oracle.truffle.r.runtime.data.model.RAbstractListVector;
+import com.oracle.truffle.r.runtime.data.RList;
 import com.oracle.truffle.r.runtime.nodes.RFastPathNode;
-import java.util.function.Supplier;
 
+/**
+ * Fast path of {@code [.data.frame(x, i, j, drop)} for the row selection by a logical or integer
+ * index, see {@link DataFrameFastPaths}.
+ */
 public abstract class SubsetDataFrameFastPath extends RFastPathNode {
 
-    @Child private ExtractVectorNode extractNode = ExtractVectorNode.create(ElementAccessMode.SUBSCRIPT, false);
-
-    @Specialization(guards = {"positions.getLength() == 2", "positions.getSignature().getNonNullCount() == 0"})
-    protected Object subset2(RAbstractListVector df, RArgsValuesAndNames positions, Object exact,
-                    @Cached("create()") AsScalarNode asScalar1,
-                    @Cached("create()") AsScalarNode asScalar2) {
-        Object pos2 = asScalar2.execute(positions.getArgument(1));
-        if (pos2 == null) {
-            return null;
-        }
-        Object extracted = extractNode.apply(df, new Object[]{pos2}, exact, RRuntime.LOGICAL_TRUE);
-        Object pos1 = asScalar1.execute(positions.getArgument(0));
-        if (pos1 == null) {
-            return null;
-        }
-        return extractNode.apply(extracted, new Object[]{pos1}, exact, RRuntime.LOGICAL_TRUE);
+    @Specialization
+    protected Object subset(RList df, Object i, Object j, Object drop) {
+        return DataFrameFastPaths.subset(df, i, j, drop);
     }
 
     @Fallback
     @SuppressWarnings("unused")
-    protected Object fallback(Object df, Object positions, Object exact) {
+    protected Object fallback(Object df, Object i, Object j, Object drop) {
         return null;
     }
-
-    public static FastPathFactory createFastPathFactory(Supplier<RFastPathNode> factory) {
-        return new FastPathFactory() {
-            @Override
-            public RFastPathNode create() {
-                return factory.get();
-            }
-
-            @Override
-            public RVisibility getVisibility() {
-                return RVisibility.ON;
-            }
-
-            @Override
-            public boolean evaluatesArgument(int index) {
-                return !(index == 1 || index == 2);
-            }
-
-            @Override
-            public boolean forcedEagerPromise(int index) {
-                return false;
-            }
-        };
-    }
 }
@@ -0,0 +1,46 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 3 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 3 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.r.nodes.builtin.base.fastpaths;
+
+import com.oracle.truffle.api.dsl.Fallback;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.r.runtime.data.RList;
+import com.oracle.truffle.r.runtime.nodes.RFastPathNode;
+
+/**
+ * Fast path of {@code [<-.data.frame(x, i, j, value)} for the column assignment and the
+ * replacement of values in selected rows, see {@link DataFrameFastPaths}.
+ */
+public abstract class UpdateSubsetDataFrameFastPath extends RFastPathNode {
+
+    @Specialization
+    protected Object update(RList df, Object i, Object j, Object value) {
+        return DataFrameFastPaths.update(df, i, j, value);
+    }
+
+    @Fallback
+    @SuppressWarnings("unused")
+    protected Object fallback(Object df, Object i, Object j, Object value) {
+        return null;
+    }
+}
@@ -31,8 +31,8 @@ import com.oracle.truffle.api.object.DynamicObjectLibrary;
 import com.oracle.truffle.r.nodes.builtin.CastBuilder.Predef;
 import com.oracle.truffle.r.nodes.builtin.RExternalBuiltinNode;
 import com.oracle.truffle.r.nodes.builtin.base.printer.ComplexVectorPrinter;
-import com.oracle.truffle.r.nodes.builtin.base.printer.DoubleVectorPrinter;
 import com.oracle.truffle.r.nodes.function.ClassHierarchyNode;
+import com.oracle.truffle.r.runtime.DoubleFormatter;
 import com.oracle.truffle.r.runtime.RError;
 import com.oracle.truffle.r.runtime.RError.Message;
 import com.oracle.truffle.r.runtime.RInternalError;
@@ -85,6 +85,7 @@ public abstract class WriteTable extends RExternalBuiltinNode.Arg11 {
     @TruffleBoundary
     protected static Object writetable(Object xx, int file, int nr, int nc, Object rnames, String csep, String ceol, String cna, String dec, RIntVector quote, boolean qmethod) {
         char cdec = dec.charAt(0);
+        DoubleFormatter formatter = new DoubleFormatter();
         boolean[] quoteCol = new boolean[nc];
         boolean quoteRn = false;
         for (int i = 0; i < quote.getLength(); i++) {
@@ -98,7 +99,7 @@ public abstract class WriteTable extends RExternalBuiltinNode.Arg11 {
         }
         try (RConnection con = RConnection.fromIndex(file).forceOpen("wt")) {
             if (xx instanceof RAttributable && ClassHierarchyNode.hasClass((RAttributable) xx, RRuntime.CLASS_DATA_FRAME)) {
-                executeDataFrame(con, (RAbstractVector) xx, nr, nc, rnames, csep, ceol, cna, cdec, qmethod, quoteCol, quoteRn);
+                executeDataFrame(con, (RAbstractVector) xx, nr, nc, rnames, csep, ceol, cna, cdec, formatter, qmethod, quoteCol, quoteRn);
             } else { /* A matrix */
 
                 // if (!isVectorAtomic(x))
@@ -112,7 +113,7 @@ public abstract class WriteTable extends RExternalBuiltinNode.Arg11 {
                 StringBuilder tmp = new StringBuilder();
                 for (int i = 0; i < nr; i++) {
                     if (!(rnames instanceof RNull)) {
-                        tmp.append(encodeElement2((RStringVector) rnames, i, quoteRn, qmethod, cdec));
+                        tmp.append(encodeElement2((RStringVector) rnames, i, quoteRn, qmethod, cdec, formatter));
                         tmp.append(csep);
                     }
                     for (int j = 0; j < nc; j++) {
@@ -122,8 +123,7 @@ public abstract class WriteTable extends RExternalBuiltinNode.Arg11 {
                         if (isna(x, i + j * nr)) {
                             tmp.append(cna);
                         } else {
-                            tmp.append(encodeElement2(x, i + j * nr, quoteCol[j], qmethod, cdec));
-                            /* if(cdec) change_dec(tmp, cdec, TYPEOF(x)); */
+                            tmp.append(encodeElement2(x, i + j * nr, quoteCol[j], qmethod, cdec, formatter));
                         }
                     }
                     tmp.append(ceol);
@@ -137,7 +137,8 @@ public abstract class WriteTable extends RExternalBuiltinNode.Arg11 {
         return RNull.instance;
     }
 
-    private static void executeDataFrame(RConnection con, RAbstractVector x, int nr, int nc, Object rnames, String csep, String ceol, String cna, char cdec, boolean qmethod, boolean[] quoteCol,
+    private static void executeDataFrame(RConnection con, RAbstractVector x, int nr, int nc, Object rnames, String csep, String ceol, String cna, char cdec, DoubleFormatter formatter, boolean qmethod,
+                    boolean[] quoteCol,
                     boolean quoteRn)
                     throws IOException {
 
@@ -165,7 +166,7 @@ public abstract class WriteTable extends RExternalBuiltinNode.Arg11 {
             // if (i % 1000 == 999)
             // R_CheckUserInterrupt();
             if (!(rnames instanceof RNull)) {
-                tmp.append(encodeElement2((RStringVector) rnames, i, quoteRn, qmethod, cdec)).append(csep);
+                tmp.append(encodeElement2((RStringVector) rnames, i, quoteRn, qmethod, cdec, formatter)).append(csep);
             }
             for (int j = 0; j < nc; j++) {
                 Object xjObj = x.getDataAtAsObject(j);
@@ -178,15 +179,13 @@ public abstract class WriteTable extends RExternalBuiltinNode.Arg11 {
                         tmp.append(cna);
                     } else {
                         if (levels[j] != null) {
-                            tmp.append(encodeElement2(levels[j], (int) xj.getDataAtAsObject(i) - 1, quoteCol[j], qmethod, cdec));
+                            tmp.append(encodeElement2(levels[j], (int) xj.getDataAtAsObject(i) - 1, quoteCol[j], qmethod, cdec, formatter));
                         } else {
-                            tmp.append(encodeElement2((RAbstractVector) xj, i, quoteCol[j], qmethod, cdec));
+                            tmp.append(encodeElement2((RAbstractVector) xj, i, quoteCol[j], qmethod, cdec, formatter));
                         }
-                        /* if(cdec) change_dec(tmp, cdec, TYPEOF(xj)); */
                     }
                 } else {
-                    tmp.append(encodePrimitiveElement(xjObj, cna, quoteRn, qmethod));
-                    /* if(cdec) change_dec(tmp, cdec, TYPEOF(xj)); */
+                    tmp.append(encodePrimitiveElement(xjObj, cna, quoteRn, qmethod, cdec, formatter));
                 }
             }
             tmp.append(ceol);
@@ -213,7 +212,7 @@ public abstract class WriteTable extends RExternalBuiltinNode.Arg11 {
     }
 
     /* a version of EncodeElement with different escaping of char strings */
-    private static String encodeElement2(RAbstractVector x, int indx, boolean quote, boolean qmethod, char cdec) {
+    private static String encodeElement2(RAbstractVector x, int indx, boolean quote, boolean qmethod, char cdec, DoubleFormatter formatter) {
         if (indx < 0 || indx >= x.getLength()) {
             throw new IllegalArgumentException("index out of range");
         }
@@ -222,16 +221,16 @@ public abstract class WriteTable extends RExternalBuiltinNode.Arg11 {
             String p0 = /* translateChar */sx.getDataAt(indx);
             return encodeStringElement(p0, quote, qmethod);
         }
-        return encodeElement(x, indx, quote ? '"' : 0, cdec);
+        return encodeElement(x, indx, quote ? '"' : 0, cdec, formatter);
     }
 
-    private static String encodePrimitiveElement(Object o, String cna, boolean quote, boolean qmethod) {
+    private static String encodePrimitiveElement(Object o, String cna, boolean quote, boolean qmethod, char cdec, DoubleFormatter formatter) {
         if (o instanceof Integer) {
             int v = (int) o;
             return RRuntime.isNA(v) ? cna : RRuntime.intToStringNoCheck(v);
         } else if (o instanceof Double) {
             double v = (double) o;
-            return RRuntime.isNA(v) ? cna : DoubleVectorPrinter.encodeReal(v);
+            return RRuntime.isNA(v) ? cna : formatter.format(v, DoubleFormatter.DEFAULT_DIGITS, 0, cdec, cna);
         } else if (o instanceof Byte) {
             byte v = (byte) o;
             return RRuntime.isNA(v) ? cna : RRuntime.logicalToStringNoCheck(v);
@@ -266,10 +265,10 @@ public abstract class WriteTable extends RExternalBuiltinNode.Arg11 {
         }
     }
 
-    private static String encodeElement(Object x, int indx, @SuppressWarnings("unused") char quote, @SuppressWarnings("unused") char dec) {
+    private static String encodeElement(Object x, int indx, @SuppressWarnings("unused") char quote, char dec, DoubleFormatter formatter) {
         if (x instanceof RDoubleVector) {
             RDoubleVector v = (RDoubleVector) x;
-            return DoubleVectorPrinter.encodeReal(v.getDataAt(indx));
+            return formatter.format(v.getDataAt(indx), DoubleFormatter.DEFAULT_DIGITS, 0, dec, RRuntime.STRING_NA);
         }
         if (x instanceof RIntVector) {
             RIntVector v = (RIntVector) x;
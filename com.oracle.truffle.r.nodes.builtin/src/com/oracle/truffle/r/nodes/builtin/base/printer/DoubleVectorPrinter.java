@@ -22,6 +22,7 @@ package com.oracle.truffle.r.nodes.builtin.base.printer;
 import java.io.IOException;
 
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.r.runtime.DoubleFormatter;
 import com.oracle.truffle.r.runtime.RRuntime;
 import com.oracle.truffle.r.runtime.Utils;
 import com.oracle.truffle.r.runtime.data.RDataFactory;
@@ -46,6 +47,8 @@ public final class DoubleVectorPrinter extends VectorPrinter<RDoubleVector> {
 
     private final class DoubleVectorPrintJob extends VectorPrintJob {
 
+        private final DoubleFormatter formatter = new DoubleFormatter();
+
         protected DoubleVectorPrintJob(RDoubleVector vector, int indx, PrintContext printCtx) {
             super(vector, indx, printCtx);
         }
@@ -58,7 +61,7 @@ public final class DoubleVectorPrinter extends VectorPrinter<RDoubleVector> {
         @Override
         protected void printElement(int i, FormatMetrics fm) throws IOException {
             DoubleVectorMetrics dfm = (DoubleVectorMetrics) fm;
-            String v = encodeReal(access.getDouble(iterator, i), dfm.maxWidth, dfm.d, dfm.e, '.', printCtx.parameters());
+            String v = formatter.encode(access.getDouble(iterator, i), dfm.maxWidth, dfm.d, dfm.e, '.', printCtx.parameters().getNaString());
             out.print(v);
         }
 
@@ -117,6 +120,8 @@ public final class DoubleVectorPrinter extends VectorPrinter<RDoubleVector> {
         rgt = mxl = mxsl = mxns = RRuntime.INT_MIN_VALUE;
         mnl = RRuntime.INT_MAX_VALUE;
 
+        DoubleFormatter formatter = digits >= 1 ? new DoubleFormatter() : null;
+
         for (int i = 0; i < n; i++) {
             double xi = access.getDouble(iter, offs + i);
             if (!RRuntime.isFinite(xi)) {
@@ -130,11 +135,19 @@ public final class DoubleVectorPrinter extends VectorPrinter<RDoubleVector> {
                     neginf = true;
                 }
             } else {
-                ScientificDouble sd = scientific(xi, digits);
-                sgn = sd.sgn;
-                nsig = sd.nsig;
-                kpower = sd.kpower;
-                roundingwidens = sd.roundingwidens;
+                if (formatter != null) {
+                    formatter.scientific(xi, digits);
+                    sgn = formatter.getSign();
+                    nsig = formatter.getNSig();
+                    kpower = formatter.getKPower();
+                    roundingwidens = formatter.isRoundingWidens();
+                } else {
+                    ScientificDouble sd = scientific(xi, digits);
+                    sgn = sd.sgn;
+                    nsig = sd.nsig;
+                    kpower = sd.kpower;
+                    roundingwidens = sd.roundingwidens;
+                }
 
                 left = kpower + 1;
                 if (roundingwidens) {
@@ -260,6 +273,11 @@ public final class DoubleVectorPrinter extends VectorPrinter<RDoubleVector> {
 
     @TruffleBoundary
     public static ScientificDouble scientific(double x, int digits) {
+        if (digits >= 1) {
+            DoubleFormatter formatter = new DoubleFormatter();
+            formatter.scientific(x, digits);
+            return new ScientificDouble(formatter.getSign(), formatter.getKPower(), formatter.getNSig(), formatter.isRoundingWidens());
+        }
         /*
          * for a number x , determine sgn = 1_{x < 0} {0/1} kpower = Exponent of 10; nsig =
          * min(R_print.digits, #{significant digits of alpha}) roundingwidens = 1 if rounding causes
@@ -379,6 +397,9 @@ public final class DoubleVectorPrinter extends VectorPrinter<RDoubleVector> {
 
     @TruffleBoundary
     public static String encodeReal(double x, int digits, char cdec, int sciPen, String naString) {
+        if (digits >= 1) {
+            return new DoubleFormatter().format(x, digits, sciPen, cdec, naString);
+        }
         RDoubleVector value = RDataFactory.createDoubleVectorFromScalar(x);
         VectorAccess access = value.slowPathAccess();
         try (RandomIterator iter = access.randomAccess(value)) {
@@ -398,183 +419,17 @@ public final class DoubleVectorPrinter extends VectorPrinter<RDoubleVector> {
     }
 
     private static final int DECIMAL_SHIFT = 350;
-    private static final double[][] DECIMAL_VALUES = new double[700][10];
     private static final double[] DECIMAL_WEIGHTS = new double[700];
-    /**
-     * This array contains the halves minus the unit of least precision, e.g. 0.499999...
-     */
-    private static final double[] HALVES_MINUS_ULP = new double[700];
 
     static {
         for (int i = 0; i < DECIMAL_WEIGHTS.length; i++) {
             DECIMAL_WEIGHTS[i] = Math.pow(10, i - DECIMAL_SHIFT);
         }
-        for (int i = 0; i < DECIMAL_VALUES.length; i++) {
-            for (int i2 = 0; i2 < 10; i2++) {
-                DECIMAL_VALUES[i][i2] = i2 / Math.pow(10, DECIMAL_SHIFT - i);
-            }
-            HALVES_MINUS_ULP[i] = Math.nextDown(DECIMAL_VALUES[i][5]);
-        }
     }
 
     @TruffleBoundary
-    static String encodeReal(double initialX, int w, int d, int e, char cdec, String naString) {
-        /* IEEE allows signed zeros (yuck!) */
-        double x = RRuntime.normalizeZero(initialX);
-
-        StringBuilder str = new StringBuilder(w);
-        if (!RRuntime.isFinite(x)) {
-            String id;
-            if (RRuntime.isNA(x)) {
-                id = naString;
-            } else if (RRuntime.isNAorNaN(x)) {
-                id = "NaN";
-            } else {
-                id = x > 0 ? "Inf" : "-Inf";
-            }
-            int blanks = w - id.length();
-            for (int i = 0; i < blanks; i++) {
-                str.append(' ');
-            }
-            str.append(id);
-        } else {
-            boolean negated = x < 0;
-            if (negated) {
-                x = -x;
-            }
-            if (e != 0) {
-
-                boolean shifted = false;
-                int log10;
-                int adjustedE = e;
-                if (x == 0) {
-                    log10 = 0;
-                } else {
-                    if (x < 1e-200) {
-                        // if we're close to the smallest double numbers, the loop that calculates
-                        // digits will produce errors
-                        shifted = true;
-                        x *= 1e100;
-                        assert Math.abs(Math.log10(x)) >= 100 : "should not shift into 2-digit exponents";
-                    }
-                    log10 = (int) Math.log10(x);
-                    if (DECIMAL_WEIGHTS[log10 + DECIMAL_SHIFT] > x) {
-                        // log10 behaves differently for < 1.0
-                        log10--;
-                    }
-                    if (log10 <= -100 || log10 >= 100) {
-                        adjustedE = 3;
-                    }
-                }
-                int blanks = w // target width
-                                - (negated ? 1 : 0) // "-"
-                                - 1 // digits before "."
-                                - (d > 0 ? 1 : 0)  // "."
-                                - d // digits after "."
-                                - 1 // "e"
-                                - 1 // "+/-" for exponent
-                                - Math.max(2, adjustedE); // digits for exponent
-                for (int i = 0; i < blanks; i++) {
-                    str.append(' ');
-                }
-                // round towards next digit instead of truncating
-                double rounded = x + DECIMAL_VALUES[log10 - d - 1 + DECIMAL_SHIFT][5];
-                if (Double.isFinite(rounded)) {
-                    x = rounded;
-                    // the rounding might have modified the exponent
-                    if (DECIMAL_WEIGHTS[log10 + 1 + DECIMAL_SHIFT] <= x) {
-                        log10++;
-                    }
-                }
-                if (negated) {
-                    str.append('-');
-                }
-                x = appendDigit(x, log10, str);
-                if (d > 0) {
-                    str.append(cdec);
-                    for (int i = 1; i <= d; i++) {
-                        x = appendDigit(x, log10 - i, str);
-                    }
-                }
-                str.append('e');
-                if (log10 < 0) {
-                    str.append('-');
-                    log10 = -log10;
-                } else {
-                    str.append('+');
-                }
-                if (shifted) {
-                    log10 += 100;
-                }
-                if (adjustedE >= 3) {
-                    str.append((char) ('0' + (log10 / 100)));
-                    log10 = log10 % 100;
-                }
-                str.append((char) ('0' + (log10 / 10)));
-                str.append((char) ('0' + (log10 % 10)));
-            } else { /* e == 0 */
-                boolean finalRun = ((int) x) == x; // within int range is always exact
-                double startingX = x;
-                double halfOfLastDigit = DECIMAL_VALUES[-d - 1 + DECIMAL_SHIFT][5];
-                while (true) {
-                    if (!finalRun) {
-                        double pow10 = x * DECIMAL_WEIGHTS[d + DECIMAL_SHIFT];
-                        double mantissa = Math.floor(pow10);
-                        double rest = pow10 - mantissa;
-
-                        if (rest < 0.49 || rest > 0.99) {
-                            // get the value away from the boundaries
-                            x += halfOfLastDigit;
-                            finalRun = true;
-                        }
-                    }
-                    int log10 = x == 0 ? 0 : Math.max((int) Math.log10(x), 0);
-                    int blanks = w // target width
-                                    - (negated ? 1 : 0) // "-"
-                                    - (log10 + 1) // digits before "."
-                                    - (d > 0 ? 1 : 0) // "."
-                                    - d; // digits after "."
-
-                    for (int i = 0; i < blanks; i++) {
-                        str.append(' ');
-                    }
-                    if (negated) {
-                        str.append('-');
-                    }
-                    for (int i = log10; i >= 0; i--) {
-                        x = appendDigit(x, i, str);
-                    }
-                    if (d > 0) {
-                        str.append(cdec);
-                        for (int i = 1; i <= d; i++) {
-                            x = appendDigit(x, -i, str);
-                        }
-                    }
-                    if (finalRun) {
-                        break;
-                    }
-
-                    boolean even = ((str.charAt(str.length() - 1) - '0') & 1) == 0;
-                    if (even ? x > halfOfLastDigit : x >= halfOfLastDigit) {
-                        // the leftover is large enough to increment from rounding, so re-run
-                        x = startingX + DECIMAL_VALUES[-d + DECIMAL_SHIFT][1];
-                        finalRun = true;
-                        str.setLength(0);
-                    } else {
-                        break;
-                    }
-                }
-            }
-        }
-        assert str.length() >= w;
-        return str.toString();
-    }
-
-    private static double appendDigit(double x, int digit, StringBuilder str) {
-        int c = (int) (x / DECIMAL_WEIGHTS[digit + DECIMAL_SHIFT]);
-        assert c >= 0 && c <= 9 : c;
-        str.append((char) ('0' + c));
-        return x - DECIMAL_VALUES[digit + DECIMAL_SHIFT][c];
+    static String encodeReal(double x, int w, int d, int e, char cdec, String naString) {
+        return new DoubleFormatter().encode(x, w, d, e, cdec, naString);
     }
 
     public static String[] format(RDoubleVector value, boolean trim, int nsmall, int width, char decimalMark, PrintParameters pp) {
@@ -585,8 +440,10 @@ public final class DoubleVectorPrinter extends VectorPrinter<RDoubleVector> {
             int w = Math.max(trim ? 1 : dfm.maxWidth, width);
 
             String[] result = new String[length];
+            DoubleFormatter formatter = new DoubleFormatter();
+            String naString = pp.getNaString();
             for (int i = 0; i < length; i++) {
-                result[i] = encodeReal(access.getDouble(iter, i), w, dfm.d, dfm.e, decimalMark, pp);
+                result[i] = formatter.encode(access.getDouble(iter, i), w, dfm.d, dfm.e, decimalMark, naString);
             }
             return result;
         }
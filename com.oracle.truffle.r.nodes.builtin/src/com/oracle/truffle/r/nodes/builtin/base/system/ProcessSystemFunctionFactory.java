@@ -26,6 +26,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.lang.ProcessBuilder.Redirect;
 import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
@@ -83,10 +84,17 @@ public class ProcessSystemFunctionFactory extends SystemFunctionFactory {
         try {
             Process p = pb.start();
             InputStream os = p.getInputStream();
-            ProcessOutputManager.OutputThreadVariable readThread = null;
+            List<String> lines = null;
+            ProcessOutputManager.OutputThreadLines readThread = null;
             if (intern) {
-                readThread = new ProcessOutputManager.OutputThreadVariable("system", os);
-                readThread.start();
+                if (timeoutSecs > 0) {
+                    // the output is read in another thread so that the timeout can be enforced
+                    readThread = new ProcessOutputManager.OutputThreadLines("system", os);
+                    readThread.start();
+                } else {
+                    // the process ends once its output is read, stdout and stderr are merged
+                    lines = ProcessOutputManager.readLines(os);
+                }
             }
             if (timeoutSecs > 0) {
                 boolean exited = p.waitFor(timeoutSecs, TimeUnit.SECONDS);
@@ -101,13 +109,14 @@ public class ProcessSystemFunctionFactory extends SystemFunctionFactory {
 
             if (intern) {
                 // capture output in character vector
-                String output = new String(readThread.getData(), 0, readThread.getTotalRead());
+                if (readThread != null) {
+                    lines = readThread.getLines();
+                }
                 RStringVector vec;
-                if (output.length() == 0) {
+                if (lines.isEmpty()) {
                     vec = RDataFactory.createEmptyStringVector();
                 } else {
-                    String[] data = output.split("\n");
-                    vec = RDataFactory.createStringVector(data, RDataFactory.COMPLETE_VECTOR);
+                    vec = RDataFactory.createStringVector(lines.toArray(new String[lines.size()]), RDataFactory.COMPLETE_VECTOR);
                 }
                 if (rc != 0) {
                     vec.setAttr("status", RDataFactory.createIntVectorFromScalar(rc));
@@ -0,0 +1,360 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 3 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 3 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.r.nodes.builtin.fastr;
+
+import static com.oracle.truffle.r.nodes.builtin.CastBuilder.Predef.singleElement;
+import static com.oracle.truffle.r.nodes.builtin.CastBuilder.Predef.toBoolean;
+import static com.oracle.truffle.r.runtime.RVisibility.OFF;
+import static com.oracle.truffle.r.runtime.builtins.RBehavior.IO;
+import static com.oracle.truffle.r.runtime.builtins.RBuiltinKind.PRIMITIVE;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Objects;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.Frame;
+import com.oracle.truffle.api.frame.FrameInstance.FrameAccess;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.instrumentation.EventBinding;
+import com.oracle.truffle.api.instrumentation.EventContext;
+import com.oracle.truffle.api.instrumentation.ExecutionEventListener;
+import com.oracle.truffle.api.instrumentation.SourceSectionFilter;
+import com.oracle.truffle.api.instrumentation.StandardTags;
+import com.oracle.truffle.api.nodes.Node;
+import com.oracle.truffle.api.nodes.RootNode;
+import com.oracle.truffle.api.source.SourceSection;
+import com.oracle.truffle.r.nodes.builtin.RBuiltinNode;
+import com.oracle.truffle.r.nodes.function.FunctionDefinitionNode;
+import com.oracle.truffle.r.nodes.instrumentation.RInstrumentation;
+import com.oracle.truffle.r.runtime.RArguments;
+import com.oracle.truffle.r.runtime.RCaller;
+import com.oracle.truffle.r.runtime.RRuntime;
+import com.oracle.truffle.r.runtime.RSource;
+import com.oracle.truffle.r.runtime.RType;
+import com.oracle.truffle.r.runtime.Utils;
+import com.oracle.truffle.r.runtime.builtins.RBuiltin;
+import com.oracle.truffle.r.runtime.context.RContext;
+import com.oracle.truffle.r.runtime.data.MemoryCopyTracer;
+import com.oracle.truffle.r.runtime.data.RDataFactory;
+import com.oracle.truffle.r.runtime.data.RList;
+import com.oracle.truffle.r.runtime.data.RNull;
+import com.oracle.truffle.r.runtime.data.model.RAbstractVector;
+import com.oracle.truffle.r.runtime.instrument.InstrumentationState;
+import com.oracle.truffle.r.runtime.nodes.RSyntaxNode;
+
+/**
+ * Profiling of the vector copies. Every copy of a vector, every materialization of compact data
+ * (sequences, closures, etc.) and every copy of vector data to or from native memory reported to
+ * {@link MemoryCopyTracer} is attributed to the innermost R statement being executed and to the
+ * stack of the R functions that called it. Typical usage:
+ *
+ * <pre>
+ * .fastr.copyprof(TRUE)
+ * ... code that copies vectors ...
+ * .fastr.copyprof(FALSE)
+ * .fastr.copyprof.summary()
+ * </pre>
+ *
+ * The statements are tracked with an instrument listener, so the profiled code runs slower than
+ * usual, but the relative numbers of copies are the same.
+ */
+public class FastRCopyProf {
+
+    private static final String STATE_NAME = "copy";
+
+    @RBuiltin(name = ".fastr.copyprof", visibility = OFF, kind = PRIMITIVE, parameterNames = {"on"}, behavior = IO)
+    public abstract static class CopyProf extends RBuiltinNode.Arg1 {
+
+        static {
+            Casts casts = new Casts(CopyProf.class);
+            casts.arg("on").asLogicalVector().mustBe(singleElement()).findFirst().map(toBoolean());
+        }
+
+        @Override
+        public Object[] getDefaultParameterValues() {
+            return new Object[]{RRuntime.LOGICAL_TRUE};
+        }
+
+        @Specialization
+        @TruffleBoundary
+        protected RNull copyProf(boolean on) {
+            CopyProfState state = CopyProfState.get();
+            if (on) {
+                state.start();
+            } else {
+                state.stop();
+            }
+            return RNull.instance;
+        }
+    }
+
+    /**
+     * Returns a data frame with one row per source location and call stack, ordered by the total
+     * number of bytes copied there.
+     */
+    @RBuiltin(name = ".fastr.copyprof.summary", kind = PRIMITIVE, parameterNames = {}, behavior = IO)
+    public abstract static class CopyProfSummary extends RBuiltinNode.Arg0 {
+
+        @Specialization
+        @TruffleBoundary
+        protected RList summary() {
+            List<Entry> entries = new ArrayList<>(CopyProfState.get().entries.values());
+            entries.sort((a, b) -> Long.compare(b.totalBytes(), a.totalBytes()));
+            int n = entries.size();
+            String[] location = new String[n];
+            String[] stack = new String[n];
+            double[] copies = new double[n];
+            double[] copyBytes = new double[n];
+            double[] materializations = new double[n];
+            double[] materializedBytes = new double[n];
+            double[] nativeCopies = new double[n];
+            double[] nativeBytes = new double[n];
+            for (int i = 0; i < n; i++) {
+                Entry e = entries.get(i);
+                location[i] = e.key.location;
+                stack[i] = e.key.stack;
+                copies[i] = e.copies;
+                copyBytes[i] = e.copyBytes;
+                materializations[i] = e.materializations;
+                materializedBytes[i] = e.materializedBytes;
+                nativeCopies[i] = e.nativeCopies;
+                nativeBytes[i] = e.nativeBytes;
+            }
+            RList result = RDataFactory.createList(new Object[]{
+                            RDataFactory.createStringVector(location, RDataFactory.COMPLETE_VECTOR),
+                            RDataFactory.createStringVector(stack, RDataFactory.COMPLETE_VECTOR),
+                            RDataFactory.createDoubleVector(copies, RDataFactory.COMPLETE_VECTOR),
+                            RDataFactory.createDoubleVector(copyBytes, RDataFactory.COMPLETE_VECTOR),
+                            RDataFactory.createDoubleVector(materializations, RDataFactory.COMPLETE_VECTOR),
+                            RDataFactory.createDoubleVector(materializedBytes, RDataFactory.COMPLETE_VECTOR),
+                            RDataFactory.createDoubleVector(nativeCopies, RDataFactory.COMPLETE_VECTOR),
+                            RDataFactory.createDoubleVector(nativeBytes, RDataFactory.COMPLETE_VECTOR)},
+                            RDataFactory.createStringVector(new String[]{"location", "stack", "copies", "copy.bytes", "materializations", "materialized.bytes", "native.copies", "native.bytes"},
+                                            RDataFactory.COMPLETE_VECTOR));
+            result.setClassAttr(RDataFactory.createStringVectorFromScalar(RRuntime.CLASS_DATA_FRAME));
+            result.setAttr(RRuntime.ROWNAMES_ATTR_KEY, RDataFactory.createIntVector(new int[]{RRuntime.INT_NA, -n}, RDataFactory.INCOMPLETE_VECTOR));
+            return result;
+        }
+    }
+
+    private static final class Key {
+        private final String location;
+        private final String stack;
+
+        Key(String location, String stack) {
+            this.location = location;
+            this.stack = stack;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(location, stack);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) obj;
+            return location.equals(other.location) && stack.equals(other.stack);
+        }
+    }
+
+    private static final class Entry {
+        private final Key key;
+        private long copies;
+        private long copyBytes;
+        private long materializations;
+        private long materializedBytes;
+        private long nativeCopies;
+        private long nativeBytes;
+
+        Entry(Key key) {
+            this.key = key;
+        }
+
+        long totalBytes() {
+            return copyBytes + materializedBytes + nativeBytes;
+        }
+    }
+
+    /**
+     * The profiler itself: keeps the stack of the statements entered and not yet left, which gives
+     * the innermost statement at the time a copy is reported.
+     */
+    private static final class CopyProfState extends InstrumentationState.RprofState implements MemoryCopyTracer.Listener, ExecutionEventListener {
+        private final HashMap<Key, Entry> entries = new HashMap<>();
+        private final ArrayDeque<Node> statements = new ArrayDeque<>();
+        private EventBinding<CopyProfState> binding;
+
+        private static CopyProfState get() {
+            CopyProfState state = (CopyProfState) RContext.getInstance().stateInstrumentation.getRprofState(STATE_NAME);
+            if (state == null) {
+                state = new CopyProfState();
+                RContext.getInstance().stateInstrumentation.setRprofState(STATE_NAME, state);
+            }
+            return state;
+        }
+
+        private void start() {
+            if (binding != null) {
+                return;
+            }
+            entries.clear();
+            statements.clear();
+            SourceSectionFilter filter = SourceSectionFilter.newBuilder().tagIs(StandardTags.StatementTag.class).build();
+            binding = RInstrumentation.getInstrumenter().attachExecutionEventListener(filter, this);
+            MemoryCopyTracer.addListener(this);
+            MemoryCopyTracer.setTracingState(true);
+        }
+
+        private void stop() {
+            if (binding == null) {
+                return;
+            }
+            MemoryCopyTracer.removeListener(this);
+            MemoryCopyTracer.setTracingState(false);
+            binding.dispose();
+            binding = null;
+            statements.clear();
+        }
+
+        @Override
+        public void cleanup(int status) {
+            stop();
+        }
+
+        @Override
+        public void onEnter(EventContext context, VirtualFrame frame) {
+            enter(context.getInstrumentedNode());
+        }
+
+        @Override
+        public void onReturnValue(EventContext context, VirtualFrame frame, Object result) {
+            leave(context.getInstrumentedNode());
+        }
+
+        @Override
+        public void onReturnExceptional(EventContext context, VirtualFrame frame, Throwable exception) {
+            leave(context.getInstrumentedNode());
+        }
+
+        @TruffleBoundary
+        private void enter(Node node) {
+            statements.push(node);
+        }
+
+        @TruffleBoundary
+        private void leave(Node node) {
+            // statements entered before the profiling started are not on the stack
+            if (statements.peek() == node) {
+                statements.pop();
+            }
+        }
+
+        @Override
+        @TruffleBoundary
+        public void reportCopying(RAbstractVector source, RAbstractVector dest) {
+            Entry e = currentEntry();
+            e.copies++;
+            e.copyBytes += getDataSize(source);
+        }
+
+        @Override
+        @TruffleBoundary
+        public void reportMaterialization(RAbstractVector vector) {
+            Entry e = currentEntry();
+            e.materializations++;
+            e.materializedBytes += getDataSize(vector);
+        }
+
+        @Override
+        @TruffleBoundary
+        public void reportNativeCopy(long bytes, boolean toNative) {
+            Entry e = currentEntry();
+            e.nativeCopies++;
+            e.nativeBytes += bytes;
+        }
+
+        private Entry currentEntry() {
+            Key key = new Key(getLocation(statements.peek()), getStack());
+            return entries.computeIfAbsent(key, Entry::new);
+        }
+
+        private static String getLocation(Node statement) {
+            SourceSection section = statement == null ? null : statement.getSourceSection();
+            if (section == null || !section.isAvailable()) {
+                return "<unknown>";
+            }
+            String path = RSource.getPath(section.getSource());
+            return (path != null ? path : section.getSource().getName()) + "#" + section.getStartLine();
+        }
+
+        private static String getStack() {
+            StringBuilder sb = new StringBuilder();
+            Utils.iterateRFrames(FrameAccess.READ_ONLY, (Frame fIn) -> {
+                Frame f = RArguments.unwrap(fIn);
+                RCaller call = RCaller.unwrapPromiseCaller(RArguments.getCall(f));
+                if (RCaller.isValidCaller(call)) {
+                    RootNode rootNode = ((RSyntaxNode) call.getSyntaxNode()).asRNode().getRootNode();
+                    if (rootNode instanceof FunctionDefinitionNode) {
+                        sb.append(sb.length() == 0 ? "" : " ").append(rootNode.getName());
+                    }
+                }
+                return null;
+            });
+            return sb.toString();
+        }
+
+        /**
+         * Estimates the size of the vector data as if they were materialized, the attributes are
+         * not included.
+         */
+        private static long getDataSize(RAbstractVector vector) {
+            RType type = vector.getRType();
+            long elementSize;
+            switch (type) {
+                case Raw:
+                    elementSize = 1;
+                    break;
+                case Logical:
+                case Integer:
+                    elementSize = 4;
+                    break;
+                case Complex:
+                    elementSize = 16;
+                    break;
+                default:
+                    // doubles and references
+                    elementSize = 8;
+                    break;
+            }
+            return elementSize * vector.getLength();
+        }
+    }
+}
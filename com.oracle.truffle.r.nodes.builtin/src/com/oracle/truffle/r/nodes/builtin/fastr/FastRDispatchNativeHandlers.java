@@ -31,6 +31,10 @@ import com.oracle.truffle.r.runtime.builtins.RBuiltin;
 import com.oracle.truffle.r.runtime.ffi.BaseRFFI;
 
 /**
+ * Runs the native input handlers that are ready. The native event loop thread waits until the
+ * dispatching is done, if a handler does not return normally, e.g. it raises an R error, the event
+ * loop is released here.
+ *
  * @see FastRInitEventLoop
  */
 @RBuiltin(name = ".fastr.dispatchNativeHandlers", kind = PRIMITIVE, behavior = COMPLEX, parameterNames = {})
@@ -41,9 +45,15 @@ public final class FastRDispatchNativeHandlers extends RBuiltinNode.Arg0 {
     }
 
     @Child private BaseRFFI.DispatchHandlersNode dispatchHandlersNode = BaseRFFI.DispatchHandlersNode.create();
+    @Child private BaseRFFI.ReleaseEventLoopNode releaseEventLoopNode = BaseRFFI.ReleaseEventLoopNode.create();
 
     @Override
     public Object execute(VirtualFrame frame) {
-        return dispatchHandlersNode.execute();
+        try {
+            return dispatchHandlersNode.execute();
+        } catch (Throwable t) {
+            releaseEventLoopNode.execute();
+            throw t;
+        }
     }
 }
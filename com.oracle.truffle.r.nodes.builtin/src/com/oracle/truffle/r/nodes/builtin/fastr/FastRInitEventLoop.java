@@ -40,16 +40,18 @@ import com.oracle.truffle.r.runtime.ffi.BaseRFFI;
 
 /**
  * This FastR specific builtin is the entry point to the infrastructure for dispatching native IO
- * handlers. A separate native event loop is spawn and two named pipes are created by executing the
+ * handlers. A separate native event loop is spawn and a named pipe is created by executing the
  * <code>initEventLoop</code> native function. When an event occurs in an IO descriptor (registered
- * via the <code>addInputHandler</code> native function), the native loop notifies the Java side via
- * the <code>fifoIn</code> named pipe, to which a dedicated Java thread is listening (running out of
- * any {@link RContext}). At this point the native event loop gets blocked by listening to
- * <code>fifoOut</code>, whíle the Java thread submits a task to the {@link RContext#getExecutor()
- * single-threaded executor} to dispatch the native IO event(s) through executing another native
- * function <code>dispatchNativeHandlers</code>. When done, the <code>dispatchNativeHandlers</code>
- * uses the <code>fifoOut</code> named pipe to release the native event loop. The described
- * procedure ensures that the native event handlers handle events within a single FastR context
+ * via the <code>addInputHandler</code> native function), the native loop writes a byte to the
+ * <code>fifoIn</code> named pipe, which both sides keep open for the whole lifetime of the loop and
+ * to which a dedicated Java thread is listening (running out of any {@link RContext}). The native
+ * event loop then waits on a condition variable, while the Java thread submits a task to the
+ * {@link RContext#getExecutor() single-threaded executor} to dispatch the native IO event(s)
+ * through executing another native function <code>dispatchNativeHandlers</code>. The function runs
+ * all the ready handlers, including those that become ready in the meantime, and then releases the
+ * native event loop by signalling the condition variable directly. The described procedure ensures
+ * that the native event handlers handle events within a single FastR context and that a burst of
+ * events is handled by a single context entry.
  */
 @RBuiltin(name = ".fastr.initEventLoop", kind = PRIMITIVE, behavior = COMPLEX, parameterNames = {})
 public abstract class FastRInitEventLoop extends RBuiltinNode.Arg0 {
@@ -72,10 +74,9 @@ public abstract class FastRInitEventLoop extends RBuiltinNode.Arg0 {
             }
             ctx.eventLoopState = new EventLoopState(tmpDir);
             String fifoInPath = tmpDir.resolve("event-loop-fifo-in").toString();
-            String fifoOutPath = tmpDir.resolve("event-loop-fifo-out").toString();
-            int result = initEventLoopNode.execute(fifoInPath, fifoOutPath);
-            return RDataFactory.createList(new Object[]{result, fifoInPath, fifoOutPath},
-                            RDataFactory.createStringVector(new String[]{"result", "fifoInPath", "fifoOutPath"}, RDataFactory.COMPLETE_VECTOR));
+            int result = initEventLoopNode.execute(fifoInPath);
+            return RDataFactory.createList(new Object[]{result, fifoInPath},
+                            RDataFactory.createStringVector(new String[]{"result", "fifoInPath"}, RDataFactory.COMPLETE_VECTOR));
         } else {
             return RNull.instance;
         }
@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 3 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 3 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.r.nodes.builtin.fastr;
+
+import static com.oracle.truffle.r.runtime.builtins.RBehavior.IO;
+import static com.oracle.truffle.r.runtime.builtins.RBuiltinKind.PRIMITIVE;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.TruffleFile;
+import com.oracle.truffle.api.TruffleLanguage;
+import com.oracle.truffle.api.dsl.CachedContext;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.r.nodes.builtin.RBuiltinNode;
+import com.oracle.truffle.r.runtime.RError;
+import com.oracle.truffle.r.runtime.RRuntime;
+import com.oracle.truffle.r.runtime.Utils;
+import com.oracle.truffle.r.runtime.builtins.RBuiltin;
+import com.oracle.truffle.r.runtime.context.RContext;
+import com.oracle.truffle.r.runtime.context.TruffleRLanguage;
+import com.oracle.truffle.r.runtime.data.MappedFileRegion;
+import com.oracle.truffle.r.runtime.data.RDoubleVector;
+import com.oracle.truffle.r.runtime.data.RIntVector;
+import com.oracle.truffle.r.runtime.data.RRawVector;
+import com.oracle.truffle.r.runtime.data.model.RAbstractVector;
+
+/**
+ * Maps a region of a binary file as an R vector without reading it into memory. The file is
+ * expected to contain the elements in the same format as {@code writeBin} writes them. The vector
+ * reads its elements directly from the mapped file and is copied into memory only once it is
+ * modified (or its data pointer is requested by native code). Note that the file should not be
+ * modified while the vector is alive.
+ *
+ * <pre>
+ * x &lt;- .fastr.mmap('data.bin', what = 'double', offset = 0, n = NA, endian = 'little')
+ * </pre>
+ */
+@RBuiltin(name = ".fastr.mmap", kind = PRIMITIVE, parameterNames = {"file", "what", "offset", "n", "endian"}, behavior = IO)
+public abstract class FastRMapFile extends RBuiltinNode.Arg5 {
+
+    static {
+        Casts casts = new Casts(FastRMapFile.class);
+        casts.arg("file").asStringVector().findFirst().mustNotBeNA();
+        casts.arg("what").asStringVector().findFirst().mustNotBeNA();
+        casts.arg("offset").asDoubleVector().findFirst().mustNotBeNA();
+        casts.arg("n").asIntegerVector().findFirst();
+        casts.arg("endian").asStringVector().findFirst().mustNotBeNA();
+    }
+
+    @Override
+    public Object[] getDefaultParameterValues() {
+        String endian = ByteOrder.nativeOrder() == ByteOrder.LITTLE_ENDIAN ? "little" : "big";
+        return new Object[]{RRuntime.STRING_NA, "double", 0d, RRuntime.INT_NA, endian};
+    }
+
+    @Specialization
+    @TruffleBoundary
+    protected RAbstractVector map(String path, String what, double offsetArg, int n, String endian,
+                    @CachedContext(TruffleRLanguage.class) TruffleLanguage.ContextReference<RContext> ctxRef) {
+        int elementSize;
+        switch (what) {
+            case "double":
+            case "numeric":
+                elementSize = Double.BYTES;
+                break;
+            case "integer":
+            case "int":
+                elementSize = Integer.BYTES;
+                break;
+            case "raw":
+                elementSize = 1;
+                break;
+            default:
+                throw error(RError.Message.INVALID_ARGUMENT, "what");
+        }
+        ByteOrder order;
+        if ("little".equals(endian)) {
+            order = ByteOrder.LITTLE_ENDIAN;
+        } else if ("big".equals(endian)) {
+            order = ByteOrder.BIG_ENDIAN;
+        } else {
+            throw error(RError.Message.INVALID_ARGUMENT, "endian");
+        }
+        long offset = (long) offsetArg;
+        if (offset < 0 || offset != offsetArg) {
+            throw error(RError.Message.INVALID_ARGUMENT, "offset");
+        }
+        TruffleFile file = ctxRef.get().getSafeTruffleFile(Utils.tildeExpand(path));
+        try {
+            int length = n;
+            if (RRuntime.isNA(n)) {
+                long available = (file.size() - offset) / elementSize;
+                if (available < 0 || available > Integer.MAX_VALUE) {
+                    throw error(RError.Message.GENERIC, "cannot map " + available + " elements of file '" + path + "'");
+                }
+                length = (int) available;
+            } else if (n < 0) {
+                throw error(RError.Message.INVALID_ARGUMENT, "n");
+            }
+            MappedFileRegion region = MappedFileRegion.map(file, offset, length, elementSize, order);
+            switch (elementSize) {
+                case Double.BYTES:
+                    return RDoubleVector.createMapped(region);
+                case Integer.BYTES:
+                    return RIntVector.createMapped(region);
+                default:
+                    return RRawVector.createMapped(region);
+            }
+        } catch (IOException e) {
+            throw error(RError.Message.GENERIC, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 3 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 3 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.r.nodes.builtin.fastr;
+
+import static com.oracle.truffle.r.nodes.builtin.CastBuilder.Predef.singleElement;
+import static com.oracle.truffle.r.nodes.builtin.CastBuilder.Predef.toBoolean;
+import static com.oracle.truffle.r.runtime.RVisibility.OFF;
+import static com.oracle.truffle.r.runtime.builtins.RBehavior.IO;
+import static com.oracle.truffle.r.runtime.builtins.RBuiltinKind.PRIMITIVE;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.r.nodes.builtin.RBuiltinNode;
+import com.oracle.truffle.r.runtime.RRuntime;
+import com.oracle.truffle.r.runtime.builtins.RBuiltin;
+import com.oracle.truffle.r.runtime.context.RContext;
+import com.oracle.truffle.r.runtime.data.RDataFactory;
+import com.oracle.truffle.r.runtime.data.RList;
+import com.oracle.truffle.r.runtime.data.RNull;
+import com.oracle.truffle.r.runtime.ffi.NativeCallProfiler;
+
+/**
+ * Profiling of the native code called via {@code .Call}, {@code .External}, {@code .C} and
+ * {@code .Fortran}, see {@link NativeCallProfiler}. Typical usage:
+ *
+ * <pre>
+ * .fastr.nativeprof(TRUE)
+ * ... code that calls native functions ...
+ * .fastr.nativeprof(FALSE)
+ * .fastr.nativeprof.summary()
+ * </pre>
+ */
+public class FastRNativeProf {
+
+    @RBuiltin(name = ".fastr.nativeprof", visibility = OFF, kind = PRIMITIVE, parameterNames = {"on"}, behavior = IO)
+    public abstract static class NativeProf extends RBuiltinNode.Arg1 {
+
+        static {
+            Casts casts = new Casts(NativeProf.class);
+            casts.arg("on").asLogicalVector().mustBe(singleElement()).findFirst().map(toBoolean());
+        }
+
+        @Override
+        public Object[] getDefaultParameterValues() {
+            return new Object[]{RRuntime.LOGICAL_TRUE};
+        }
+
+        @Specialization
+        @TruffleBoundary
+        protected RNull nativeProf(boolean on) {
+            RContext.getInstance().getStateRFFI().rffiContextState.nativeCallProfiler.setEnabled(on);
+            return RNull.instance;
+        }
+    }
+
+    /**
+     * Returns a list with the per-symbol data in a data frame ordered by the time spent in the
+     * native function, the number of calls of every up-call function and the total number of bytes
+     * copied to and from native memory.
+     */
+    @RBuiltin(name = ".fastr.nativeprof.summary", kind = PRIMITIVE, parameterNames = {}, behavior = IO)
+    public abstract static class NativeProfSummary extends RBuiltinNode.Arg0 {
+
+        @Specialization
+        @TruffleBoundary
+        protected RList summary() {
+            NativeCallProfiler profiler = RContext.getInstance().getStateRFFI().rffiContextState.nativeCallProfiler;
+            List<NativeCallProfiler.Entry> entries = new ArrayList<>(profiler.getEntries());
+            entries.sort((a, b) -> Long.compare(b.nanos, a.nanos));
+            int n = entries.size();
+            String[] dll = new String[n];
+            String[] symbol = new String[n];
+            double[] calls = new double[n];
+            double[] time = new double[n];
+            double[] upCalls = new double[n];
+            double[] toNative = new double[n];
+            double[] fromNative = new double[n];
+            for (int i = 0; i < n; i++) {
+                NativeCallProfiler.Entry e = entries.get(i);
+                dll[i] = e.dll;
+                symbol[i] = e.symbol;
+                calls[i] = e.calls;
+                time[i] = e.nanos / 1e9;
+                upCalls[i] = e.upCalls;
+                toNative[i] = e.bytesToNative;
+                fromNative[i] = e.bytesFromNative;
+            }
+            RList callsFrame = RDataFactory.createList(new Object[]{
+                            RDataFactory.createStringVector(dll, RDataFactory.COMPLETE_VECTOR),
+                            RDataFactory.createStringVector(symbol, RDataFactory.COMPLETE_VECTOR),
+                            RDataFactory.createDoubleVector(calls, RDataFactory.COMPLETE_VECTOR),
+                            RDataFactory.createDoubleVector(time, RDataFactory.COMPLETE_VECTOR),
+                            RDataFactory.createDoubleVector(upCalls, RDataFactory.COMPLETE_VECTOR),
+                            RDataFactory.createDoubleVector(toNative, RDataFactory.COMPLETE_VECTOR),
+                            RDataFactory.createDoubleVector(fromNative, RDataFactory.COMPLETE_VECTOR)},
+                            RDataFactory.createStringVector(new String[]{"dll", "symbol", "calls", "time", "upcalls", "bytes.to.native", "bytes.from.native"}, RDataFactory.COMPLETE_VECTOR));
+            callsFrame.setClassAttr(RDataFactory.createStringVectorFromScalar(RRuntime.CLASS_DATA_FRAME));
+            callsFrame.setAttr(RRuntime.ROWNAMES_ATTR_KEY, RDataFactory.createIntVector(new int[]{RRuntime.INT_NA, -n}, RDataFactory.INCOMPLETE_VECTOR));
+
+            Map<String, Long> upCallCounts = profiler.getUpCalls();
+            String[] upCallNames = new String[upCallCounts.size()];
+            double[] upCallValues = new double[upCallCounts.size()];
+            int i = 0;
+            for (Map.Entry<String, Long> e : upCallCounts.entrySet()) {
+                upCallNames[i] = e.getKey();
+                upCallValues[i] = e.getValue();
+                i++;
+            }
+            return RDataFactory.createList(new Object[]{
+                            callsFrame,
+                            RDataFactory.createDoubleVector(upCallValues, RDataFactory.COMPLETE_VECTOR, RDataFactory.createStringVector(upCallNames, RDataFactory.COMPLETE_VECTOR)),
+                            (double) profiler.getBytesToNative(),
+                            (double) profiler.getBytesFromNative()},
+                            RDataFactory.createStringVector(new String[]{"calls", "upcalls", "bytes.to.native", "bytes.from.native"}, RDataFactory.COMPLETE_VECTOR));
+        }
+    }
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2016, 2018, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2016, 2020, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * This code is free software; you can redistribute it and/or modify it
@@ -24,12 +24,71 @@ package com.oracle.truffle.r.nodes.builtin.base.printer;
 
 import static org.junit.Assert.assertEquals;
 
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.util.Random;
+
 import org.junit.Test;
 
+import com.oracle.truffle.r.runtime.DoubleFormatter;
+import com.oracle.truffle.r.runtime.RRuntime;
+
 public class DoubleVectorPrinterTest {
 
     @Test
     public void testEncodeReal() {
         assertEquals("3.14159265358979e-06", DoubleVectorPrinter.encodeReal(Math.PI / 1000000));
+        assertEquals("0.1", DoubleVectorPrinter.encodeReal(0.1));
+        assertEquals("0.3", DoubleVectorPrinter.encodeReal(0.1 + 0.2));
+        assertEquals("0.333333333333333", DoubleVectorPrinter.encodeReal(1.0 / 3));
+        assertEquals("1e+05", DoubleVectorPrinter.encodeReal(100000));
+        assertEquals("123456", DoubleVectorPrinter.encodeReal(123456));
+        assertEquals("1e-04", DoubleVectorPrinter.encodeReal(0.0001));
+        assertEquals("0.000123", DoubleVectorPrinter.encodeReal(0.000123));
+        assertEquals("-1.5", DoubleVectorPrinter.encodeReal(-1.5));
+        assertEquals("9007199254740992", DoubleVectorPrinter.encodeReal(9007199254740992.0));
+        assertEquals("1.79769313486232e+308", DoubleVectorPrinter.encodeReal(Double.MAX_VALUE));
+        assertEquals("4.94065645841247e-324", DoubleVectorPrinter.encodeReal(Double.MIN_VALUE));
+        assertEquals("0", DoubleVectorPrinter.encodeReal(-0.0));
+        assertEquals("3.14", DoubleVectorPrinter.encodeReal(Math.PI, 3));
+        assertEquals("3,14", DoubleVectorPrinter.encodeReal(Math.PI, 3, ',', 0, RRuntime.STRING_NA));
+    }
+
+    @Test
+    public void testEncodeWithMetrics() {
+        DoubleFormatter formatter = new DoubleFormatter();
+        assertEquals("   2.50", formatter.encode(2.5, 7, 2, 0, '.', RRuntime.STRING_NA));
+        assertEquals("  2", formatter.encode(2.5, 3, 0, 0, '.', RRuntime.STRING_NA));
+        assertEquals("1.2e+100", formatter.encode(1.23e100, 8, 1, 2, '.', RRuntime.STRING_NA));
+        assertEquals("   NA", formatter.encode(RRuntime.DOUBLE_NA, 5, 2, 0, '.', RRuntime.STRING_NA));
+        assertEquals(" -Inf", formatter.encode(Double.NEGATIVE_INFINITY, 5, 2, 0, '.', RRuntime.STRING_NA));
+    }
+
+    @Test
+    public void testEncodeMatchesExactRounding() {
+        DoubleFormatter formatter = new DoubleFormatter();
+        Random random = new Random(42);
+        for (int i = 0; i < 100000; i++) {
+            double x = random.nextDouble() * Math.pow(10, random.nextInt(60) - 30);
+            int d = random.nextInt(20);
+
+            BigDecimal sci = new BigDecimal(x).round(new MathContext(d + 1, RoundingMode.HALF_EVEN));
+            StringBuilder digits = new StringBuilder(sci.unscaledValue().toString());
+            while (digits.length() < d + 1) {
+                digits.append('0');
+            }
+            if (d > 0) {
+                digits.insert(1, '.');
+            }
+            int exp = sci.precision() - 1 - sci.scale();
+            String expected = digits + (exp < 0 ? "e-" : "e+") + (Math.abs(exp) < 10 ? "0" : "") + Math.abs(exp);
+            assertEquals(expected, formatter.encode(x, 0, d, 1, '.', RRuntime.STRING_NA));
+
+            if (x < 1e20) {
+                expected = new BigDecimal(x).setScale(d, RoundingMode.HALF_EVEN).toPlainString();
+                assertEquals(expected, formatter.encode(x, 0, d, 0, '.', RRuntime.STRING_NA));
+            }
+        }
     }
 }
@@ -58,6 +58,7 @@ import com.oracle.truffle.r.runtime.data.RAttributable;
 import com.oracle.truffle.r.runtime.data.RDataFactory;
 import com.oracle.truffle.r.runtime.data.REmpty;
 import com.oracle.truffle.r.runtime.data.RFunction;
+import com.oracle.truffle.r.runtime.data.RFunction.DeferredTarget;
 import com.oracle.truffle.r.runtime.data.RPairList;
 import com.oracle.truffle.r.runtime.data.RMissing;
 import com.oracle.truffle.r.runtime.data.RNull;
@@ -311,6 +312,10 @@ public final class RASTUtils {
         if (fun.isBuiltin()) {
             return RNull.instance;
         }
+        DeferredTarget deferred = fun.getDeferredTarget();
+        if (deferred != null) {
+            return deferred.getFormals();
+        }
         RootNode root = fun.getRootNode();
         assert root == null || root instanceof FunctionDefinitionNode;
         if (!(root instanceof FunctionDefinitionNode)) {
@@ -93,6 +93,10 @@ final class SearchFirstStringNode extends Node {
             elementsDataLib = insert(VectorDataLibrary.getFactory().createDispatched(DSLConfig.getGenericDataLibraryCacheSize()));
         }
 
+        if (indexedProfile.profile(targetProfiled.hasIndexableData())) {
+            // validating the cached indices would scan the long target, its hash index is cheaper
+            return searchGeneric(targetProfiled, targetLength, elementsProfiled, elementsLength, notFoundStartIndex, false, names);
+        }
         if (cachedIndices == UNINTIALIZED_CACHED_INDICES) {
             CompilerDirectives.transferToInterpreterAndInvalidate();
             cachedIndices = searchCached(targetProfiled, targetLength, elementsProfiled, elementsLength, names);
@@ -181,6 +185,7 @@ final class SearchFirstStringNode extends Node {
 
     private final BranchProfile notFoundProfile = BranchProfile.create();
     private final ConditionProfile hashingProfile = ConditionProfile.createBinaryProfile();
+    private final ConditionProfile indexedProfile = ConditionProfile.createBinaryProfile();
 
     private RIntVector searchGeneric(RStringVector target, int targetLength, RStringVector elements, int elementsLength, int notFoundStartIndex, boolean nullOnNotFound,
                     RStringVector names) {
@@ -190,8 +195,12 @@ final class SearchFirstStringNode extends Node {
         long hashingCost = targetLength * 10L + 10 /* constant overhead */;
         long lookupCost = elementsLength * 2L;
         long nestedLoopCost = targetLength * (long) elementsLength;
+        boolean indexed = target.hasIndexableData();
         NonRecursiveHashMapCharacter map;
-        if (hashingProfile.profile(nestedLoopCost > hashingCost + lookupCost)) {
+        if (indexed) {
+            // the target keeps its own hash index, see RStringVector#getIndexOf
+            map = null;
+        } else if (hashingProfile.profile(nestedLoopCost > hashingCost + lookupCost)) {
             map = new NonRecursiveHashMapCharacter(targetLength);
             for (int i = 0; i < targetLength; i++) {
                 String name = target.getDataAt(i);
@@ -208,8 +217,8 @@ final class SearchFirstStringNode extends Node {
             boolean isElementNA = elementsNACheck.check(element) || element.length() == 0;
             if (!isElementNA) {
                 int index;
-                if (map != null) {
-                    index = map.get(element);
+                if (indexed || map != null) {
+                    index = indexed ? target.getIndexOf(element) : map.get(element);
                     if (!exactMatch && index < 0) {
                         // the map is only good for exact matches
                         index = findNonExactIndex(target, targetLength, element);
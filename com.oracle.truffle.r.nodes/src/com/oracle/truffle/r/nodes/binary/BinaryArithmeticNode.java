@@ -22,6 +22,8 @@
  */
 package com.oracle.truffle.r.nodes.binary;
 
+import static com.oracle.truffle.r.runtime.context.FastROptions.DeferArithmetic;
+
 import com.oracle.truffle.api.CompilerAsserts;
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.dsl.Cached;
@@ -38,7 +40,10 @@ import com.oracle.truffle.r.runtime.DSLConfig;
 import com.oracle.truffle.r.runtime.RError;
 import com.oracle.truffle.r.runtime.RError.Message;
 import com.oracle.truffle.r.runtime.RType;
+import com.oracle.truffle.r.runtime.context.RContext;
 import com.oracle.truffle.r.runtime.data.RDataFactory;
+import com.oracle.truffle.r.runtime.data.RDoubleDeferredVectorData;
+import com.oracle.truffle.r.runtime.data.RDoubleDeferredVectorData.Op;
 import com.oracle.truffle.r.runtime.data.RDoubleVector;
 import com.oracle.truffle.r.runtime.data.RMissing;
 import com.oracle.truffle.r.runtime.data.RNull;
@@ -66,6 +71,12 @@ public abstract class BinaryArithmeticNode extends RBuiltinNode.Arg2 {
 
     @Child private BinaryArithmetic operation;
 
+    /**
+     * The operation if it can be deferred on long double vectors, see
+     * {@link RDoubleDeferredVectorData}.
+     */
+    protected final Op deferredOp;
+
     static {
         Casts casts = new Casts(BinaryArithmeticNode.class);
         casts.arg(0).boxPrimitive();
@@ -76,6 +87,22 @@ public abstract class BinaryArithmeticNode extends RBuiltinNode.Arg2 {
         this.binary = binaryFactory;
         this.operation = binaryFactory.createOperation();
         this.unary = unaryFactory;
+        this.deferredOp = getDeferredOp(operation);
+    }
+
+    private static Op getDeferredOp(BinaryArithmetic operation) {
+        if (operation instanceof BinaryArithmetic.Add) {
+            return Op.ADD;
+        } else if (operation instanceof BinaryArithmetic.Subtract) {
+            return Op.SUBTRACT;
+        } else if (operation instanceof BinaryArithmetic.Multiply) {
+            return Op.MULTIPLY;
+        } else if (operation instanceof BinaryArithmetic.Div) {
+            return Op.DIVIDE;
+        } else if (operation instanceof BinaryArithmetic.Pow) {
+            return Op.SQUARE;
+        }
+        return null;
     }
 
     public abstract Object execute(Object left, Object right);
@@ -89,6 +116,15 @@ public abstract class BinaryArithmeticNode extends RBuiltinNode.Arg2 {
         return BinaryArithmeticNodeGen.create(binary, unary);
     }
 
+    protected boolean canDefer(RDoubleVector left, RDoubleVector right) {
+        return deferredOp != null && RContext.getInstance().getOption(DeferArithmetic) && RDoubleDeferredVectorData.canDefer(deferredOp, left, right);
+    }
+
+    @Specialization(guards = "canDefer(left, right)")
+    protected RDoubleVector doDeferred(RDoubleVector left, RDoubleVector right) {
+        return RDoubleVector.createDeferred(deferredOp, left, right);
+    }
+
     @Specialization(limit = "getCacheSize(CACHE_LIMIT)", guards = {"cached != null", "cached.isSupported(left, right)"})
     protected Object doNumericVectorCached(RAbstractVector left, RAbstractVector right,
                     @Cached("createFastCached(left, right)") BinaryMapNode cached) {
@@ -103,11 +103,14 @@ public abstract class PromiseNode extends RNode {
 
     /**
      * @param factory {@link #factory}
+     * @param passValueAssumptions if not {@code null}, the value of a forced eager argument can be
+     *            passed to the callee without a promise as long as these assumptions hold, see
+     *            {@link OptForcedEagerPromiseNode}
      * @return Depending on {@link RPromiseFactory#getState()}, the proper {@link PromiseNode}
      *         implementation
      */
     @TruffleBoundary
-    static RNode create(RPromiseFactory factory, boolean noOpt, boolean forcedEager, Assumption allArgPromisesCanOptimize) {
+    static RNode create(RPromiseFactory factory, boolean noOpt, boolean forcedEager, Assumption[] passValueAssumptions, Assumption allArgPromisesCanOptimize) {
         assert factory.getState() != PromiseState.Explicit;
 
         // For ARG_DEFAULT, expr == defaultExpr!
@@ -121,7 +124,7 @@ public abstract class PromiseNode extends RNode {
         boolean alwaysEager = expr != null && expr.forceEagerEvaluation();
         if (forcedEager || alwaysEager) {
             Assumption assumption = alwaysEager ? AlwaysValidAssumption.INSTANCE : allArgPromisesCanOptimize;
-            return new OptForcedEagerPromiseNode(factory, wrapIndex, assumption, alwaysEager);
+            return new OptForcedEagerPromiseNode(factory, wrapIndex, assumption, alwaysEager, passValueAssumptions);
         } else {
             Object optimizableConstant = getOptimizableConstant(expr);
             if (optimizableConstant != null) {
@@ -393,7 +396,7 @@ public abstract class PromiseNode extends RNode {
                 if (RASTUtils.isLookup(nodes[i], ArgumentsSignature.VARARG_NAME)) {
                     this.promised[i] = nodes[i];
                 } else {
-                    this.promised[i] = PromiseNode.create(RPromiseFactory.create(PromiseState.Supplied, closure), noOpt, !noOpt && forcedEager, allArgPromisesCanOptimize);
+                    this.promised[i] = PromiseNode.create(RPromiseFactory.create(PromiseState.Supplied, closure), noOpt, !noOpt && forcedEager, null, allArgPromisesCanOptimize);
                 }
             }
             this.signature = signature;
@@ -41,6 +41,7 @@ import com.oracle.truffle.r.nodes.function.FormalArguments;
 import com.oracle.truffle.r.nodes.function.RCallNode;
 import com.oracle.truffle.r.nodes.function.call.PrepareArgumentsFactory.PrepareArgumentsDefaultNodeGen;
 import com.oracle.truffle.r.nodes.function.call.PrepareArgumentsFactory.PrepareArgumentsExplicitNodeGen;
+import com.oracle.truffle.r.nodes.function.opt.OptForcedEagerPromiseNode;
 import com.oracle.truffle.r.runtime.data.nodes.ShareObjectNode;
 import com.oracle.truffle.r.runtime.data.nodes.UnShareObjectNode;
 import com.oracle.truffle.r.nodes.profile.TruffleBoundaryNode;
@@ -51,6 +52,7 @@ import com.oracle.truffle.r.runtime.RArguments.S3DefaultArguments;
 import com.oracle.truffle.r.runtime.RError;
 import com.oracle.truffle.r.runtime.RInternalError;
 import com.oracle.truffle.r.runtime.data.RArgsValuesAndNames;
+import com.oracle.truffle.r.runtime.data.RPromise;
 import com.oracle.truffle.r.runtime.nodes.RBaseNode;
 import com.oracle.truffle.r.runtime.nodes.RNode;
 
@@ -74,10 +76,20 @@ public abstract class PrepareArguments extends Node {
         static final class ArgumentsAndSignature extends Node {
             @Children private final RNode[] matchedArguments;
             private final ArgumentsSignature matchedSuppliedSignature;
+            /**
+             * Whether some of the arguments may be passed as values instead of promises, see
+             * {@link OptForcedEagerPromiseNode}.
+             */
+            private final boolean passesValues;
 
             protected ArgumentsAndSignature(RNode[] matchedArguments, ArgumentsSignature matchedSuppliedSignature) {
                 this.matchedArguments = matchedArguments;
                 this.matchedSuppliedSignature = matchedSuppliedSignature;
+                boolean values = false;
+                for (RNode argument : matchedArguments) {
+                    values |= argument instanceof OptForcedEagerPromiseNode && ((OptForcedEagerPromiseNode) argument).passesValue();
+                }
+                this.passesValues = values;
             }
         }
 
@@ -97,7 +109,8 @@ public abstract class PrepareArguments extends Node {
         }
 
         @ExplodeLoop
-        private RArgsValuesAndNames executeArgs(RNode[] arguments, ArgumentsSignature suppliedSignature, VirtualFrame frame) {
+        private RArgsValuesAndNames executeArgs(ArgumentsAndSignature matched, VirtualFrame frame) {
+            RNode[] arguments = matched.matchedArguments;
             Object[] result = new Object[arguments.length];
             for (int i = 0; i < arguments.length; i++) {
                 Object value = arguments[i].execute(frame);
@@ -116,7 +129,28 @@ public abstract class PrepareArguments extends Node {
                 }
                 getUnshareObject().execute(result[i]);
             }
-            return new RArgsValuesAndNames(result, suppliedSignature);
+            if (matched.passesValues && !allArgPromisesCanOptimize.isValid()) {
+                replacePassedValues(arguments, result, frame);
+            }
+            return new RArgsValuesAndNames(result, matched.matchedSuppliedSignature);
+        }
+
+        /**
+         * The eager evaluation of some argument failed after other arguments were already passed as
+         * values, which must not be observed before the failed argument is evaluated in the callee.
+         * Once the arguments rewrite themselves to ordinary promises, there is nothing to replace
+         * and this does not deoptimize.
+         */
+        @ExplodeLoop
+        private static void replacePassedValues(RNode[] arguments, Object[] result, VirtualFrame frame) {
+            for (int i = 0; i < arguments.length; i++) {
+                if (arguments[i] instanceof OptForcedEagerPromiseNode && !(result[i] instanceof RPromise)) {
+                    OptForcedEagerPromiseNode argument = (OptForcedEagerPromiseNode) arguments[i];
+                    if (argument.passesValue()) {
+                        result[i] = argument.createFallbackPromise(frame);
+                    }
+                }
+            }
         }
 
         @Specialization(limit = "getCacheSize(8)", guards = {"cachedVarArgSignature == null || cachedVarArgSignature == varArgs.getSignature()", "cachedS3DefaultArguments == s3DefaultArguments"})
@@ -126,7 +160,7 @@ public abstract class PrepareArguments extends Node {
                         @Cached("createArguments(call, cachedVarArgSignature, s3DefaultArguments)") ArgumentsAndSignature arguments,
                         @SuppressWarnings("unused") @Cached("s3DefaultArguments") S3DefaultArguments cachedS3DefaultArguments) {
             assert (cachedVarArgSignature != null) == (varArgs != null);
-            return executeArgs(arguments.matchedArguments, arguments.matchedSuppliedSignature, frame);
+            return executeArgs(arguments, frame);
         }
 
         private ShareObjectNode getShareObject() {
@@ -173,7 +207,7 @@ public abstract class PrepareArguments extends Node {
                     ArgumentsAndSignature arguments = createArguments(call, varArgSignature, s3DefaultArguments);
                     entry = e = insert(new GenericCallEntry(varArgSignature, s3DefaultArguments, arguments));
                 }
-                return executeArgs(e.arguments.matchedArguments, e.arguments.matchedSuppliedSignature, materializedFrame);
+                return executeArgs(e.arguments, materializedFrame);
             }
         }
 
@@ -28,10 +28,13 @@ import java.util.logging.Level;
 
 import com.oracle.truffle.api.Assumption;
 import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.CompilerDirectives.CompilationFinal;
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.TruffleLogger;
 import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.nodes.ExplodeLoop;
 import com.oracle.truffle.api.profiles.BranchProfile;
+import com.oracle.truffle.api.profiles.ConditionProfile;
 import com.oracle.truffle.r.nodes.function.ArgumentStatePush;
 import com.oracle.truffle.r.nodes.function.PromiseHelperNode;
 import com.oracle.truffle.r.nodes.function.PromiseNode;
@@ -41,9 +44,15 @@ import com.oracle.truffle.r.runtime.RCaller;
 import com.oracle.truffle.r.runtime.RCaller.UnwrapPromiseCallerProfile;
 import com.oracle.truffle.r.runtime.RDeparse;
 import com.oracle.truffle.r.runtime.RLogger;
+import com.oracle.truffle.r.runtime.data.RArgsValuesAndNames;
+import com.oracle.truffle.r.runtime.data.REmpty;
+import com.oracle.truffle.r.runtime.data.RMissing;
 import com.oracle.truffle.r.runtime.data.RPromise;
 import com.oracle.truffle.r.runtime.data.RPromise.EagerFeedback;
 import com.oracle.truffle.r.runtime.data.RPromise.RPromiseFactory;
+import com.oracle.truffle.r.runtime.data.RSharingAttributeStorage;
+import com.oracle.truffle.r.runtime.data.model.RAbstractContainer;
+import com.oracle.truffle.r.runtime.data.nodes.ShareObjectNode;
 import com.oracle.truffle.r.runtime.env.frame.CannotOptimizePromise;
 import com.oracle.truffle.r.runtime.nodes.RNode;
 import com.oracle.truffle.r.runtime.nodes.RSyntaxNode;
@@ -109,6 +118,18 @@ import com.oracle.truffle.r.runtime.nodes.RSyntaxNode;
  * {@code allArgPromisesCanOptimize} assumption.
  *
  * <p>
+ * If the callee never inspects the argument as a promise (see
+ * {@code FastPathFactory#passesEagerValue}), the eagerly evaluated value is passed to the callee as
+ * is and no promise is allocated at all. This is restricted to values whose reference count is only
+ * ever incremented when passed as an argument (scalars, short vectors, permanently shared values),
+ * so that nothing has to be done on the callee side. The value is shared exactly once, like the
+ * value of a forced eager promise, so that temporaries can still be updated in place by the callee.
+ * The callee relies on the well-known functions it calls not being redefined, which is guarded by
+ * {@code EvaluatedArgumentsVisitor#getValueOnlyFunctionAssumption}. Should the eager evaluation of
+ * another argument of the same call fail afterwards, the plain value is replaced with an ordinary
+ * promise before the call, see {@link #createFallbackPromise(VirtualFrame)}.
+ *
+ * <p>
  * Known limitation: possible double error reporting if error handler is installed.
  *
  * <p>
@@ -144,9 +165,11 @@ public final class OptForcedEagerPromiseNode extends PromiseNode implements Eage
 
     @Child private RNode expr;
     @Child private PromiseHelperNode promiseHelper;
+    @Child private ShareObjectNode shareObject;
 
     private final UnwrapPromiseCallerProfile unwrapCallerProfile = new UnwrapPromiseCallerProfile();
     private final BranchProfile nonPromiseProfile = BranchProfile.create();
+    private final ConditionProfile passValueProfile = ConditionProfile.createBinaryProfile();
     private final RPromiseFactory factory;
 
     @Child private PromiseNode fallback;
@@ -158,14 +181,30 @@ public final class OptForcedEagerPromiseNode extends PromiseNode implements Eage
 
     private final Assumption allArgPromisesCanOptimize;
     private final boolean alwaysForce;
+    /**
+     * Whether the eagerly evaluated value can be passed to the callee without a promise.
+     */
+    private final boolean passValue;
+    /**
+     * The assumptions that the functions called by the callee were not redefined, see
+     * {@code EvaluatedArgumentsVisitor#getValueOnlyFunctionAssumption}.
+     */
+    @CompilationFinal(dimensions = 1) private final Assumption[] passValueAssumptions;
 
-    public OptForcedEagerPromiseNode(RPromiseFactory factory, int wrapIndex, Assumption allArgPromisesCanOptimize, boolean alwaysForce) {
+    public OptForcedEagerPromiseNode(RPromiseFactory factory, int wrapIndex, Assumption allArgPromisesCanOptimize, boolean alwaysForce, Assumption[] passValueAssumptions) {
         super(null);
         this.factory = factory;
         this.wrapIndex = wrapIndex;
         this.expr = (RNode) factory.getExpr();
         this.allArgPromisesCanOptimize = allArgPromisesCanOptimize;
         this.alwaysForce = alwaysForce;
+        this.passValue = passValueAssumptions != null;
+        this.passValueAssumptions = passValueAssumptions;
+        this.shareObject = passValue && wrapIndex != ArgumentStatePush.INVALID_INDEX ? ShareObjectNode.create() : null;
+    }
+
+    public boolean passesValue() {
+        return passValue;
     }
 
     /**
@@ -222,6 +261,10 @@ public final class OptForcedEagerPromiseNode extends PromiseNode implements Eage
             return getFallback().execute(frame);
         }
         log("Eagerly evaluated");
+        if (passValue && isValid(passValueAssumptions) && passValueProfile.profile(canPassValue(value))) {
+            // shared once, like the value of an eager promise forced in the callee
+            return shareObject == null ? value : shareObject.execute(value);
+        }
         RCaller call = RCaller.unwrapPromiseCaller(currentCaller, unwrapCallerProfile);
         if (alwaysForce) {
             return factory.createEvaluatedPromise(value);
@@ -233,6 +276,34 @@ public final class OptForcedEagerPromiseNode extends PromiseNode implements Eage
         return factory.createEagerSuppliedPromise(value, allArgPromisesCanOptimize, call, this, wrapIndex, null);
     }
 
+    @ExplodeLoop
+    private static boolean isValid(Assumption[] assumptions) {
+        for (int i = 0; i < assumptions.length; i++) {
+            if (!assumptions[i].isValid()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean canPassValue(Object value) {
+        if (value instanceof RSharingAttributeStorage) {
+            // mirrors the cases in which ArgumentStatePush does not decrement the reference count
+            RSharingAttributeStorage shareable = (RSharingAttributeStorage) value;
+            return shareable.isSharedPermanent() || (shareable instanceof RAbstractContainer && ((RAbstractContainer) shareable).getLength() < ArgumentStatePush.REF_COUNT_SIZE_THRESHOLD);
+        }
+        return value != RMissing.instance && value != REmpty.instance && !(value instanceof RArgsValuesAndNames);
+    }
+
+    /**
+     * Creates an ordinary promise in place of a value passed by this node if the eager evaluation
+     * of another argument of the same call failed after this node was executed.
+     */
+    public Object createFallbackPromise(VirtualFrame frame) {
+        CompilerDirectives.transferToInterpreter();
+        return factory.createPromise(frame.materialize());
+    }
+
     @Override
     public RSyntaxNode getRSyntaxNode() {
         return getPromiseExpr();
@@ -25,6 +25,7 @@ package com.oracle.truffle.r.nodes.helpers;
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.nodes.Node;
 import com.oracle.truffle.r.runtime.data.nodes.attributes.SpecialAttributesFunctions.GetNamesAttributeNode;
+import com.oracle.truffle.r.runtime.RRuntime;
 import com.oracle.truffle.r.runtime.Utils;
 import com.oracle.truffle.r.runtime.data.RStringVector;
 
@@ -36,17 +37,31 @@ public abstract class ListFieldNodeBase extends Node {
 
     protected static int getIndex(RStringVector names, String field) {
         if (names != null) {
-            int fieldHash = field.hashCode();
-            for (int i = 0; i < names.getLength(); i++) {
-                String current = names.getDataAt(i);
-                if (Utils.fastPathIdentityEquals(current, field) || hashCodeEquals(current, fieldHash) && contentsEquals(current, field)) {
-                    return i;
-                }
+            if (names.getLength() >= RStringVector.INDEX_MIN_LENGTH) {
+                return getIndexHashed(names, field);
             }
+            return getIndexLinear(names, field);
         }
         return -1;
     }
 
+    private static int getIndexLinear(RStringVector names, String field) {
+        int fieldHash = field.hashCode();
+        for (int i = 0; i < names.getLength(); i++) {
+            String current = names.getDataAt(i);
+            if (Utils.fastPathIdentityEquals(current, field) || hashCodeEquals(current, fieldHash) && contentsEquals(current, field)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @TruffleBoundary
+    private static int getIndexHashed(RStringVector names, String field) {
+        // NA names match the field "NA", the hash index of the names does not contain them
+        return field.equals(RRuntime.STRING_NA) ? getIndexLinear(names, field) : names.getIndexOf(field);
+    }
+
     @TruffleBoundary
     private static boolean contentsEquals(String current, String field) {
         return field.equals(current);
@@ -31,10 +31,12 @@ import com.oracle.truffle.api.library.CachedLibrary;
 import com.oracle.truffle.api.profiles.ConditionProfile;
 import com.oracle.truffle.api.profiles.ValueProfile;
 import com.oracle.truffle.r.runtime.DSLConfig;
+import com.oracle.truffle.r.runtime.DoubleFormatter;
 import com.oracle.truffle.r.runtime.RDeparse;
 import com.oracle.truffle.r.runtime.RError;
 import com.oracle.truffle.r.runtime.RError.ErrorContext;
 import com.oracle.truffle.r.runtime.RRuntime;
+import com.oracle.truffle.r.runtime.data.RDoubleArrayVectorData;
 import com.oracle.truffle.r.runtime.data.RDoubleVector;
 import com.oracle.truffle.r.runtime.data.RForeignVectorWrapper;
 import com.oracle.truffle.r.runtime.data.RIntSeqVectorData;
@@ -96,6 +98,23 @@ public abstract class CastStringNode extends CastStringBaseNode {
         return factory().createStringSequence("", "", seq.getStart(), seq.getStride(), vector.getLength());
     }
 
+    protected static boolean isArrayData(RDoubleVector vector) {
+        return vector.getData() instanceof RDoubleArrayVectorData;
+    }
+
+    /**
+     * Only the data held in a Java array are formatted in bulk, reading the array of other data
+     * would materialize them, e.g. the data of {@code rep} or of a memory mapped file.
+     */
+    @Specialization(guards = "isArrayData(operandIn)", limit = "getGenericDataLibraryCacheSize()")
+    protected RStringVector doDoubleVector(RDoubleVector operandIn,
+                    @CachedLibrary("operandIn.getData()") VectorDataLibrary operandDataLib) {
+        // the whole vector is formatted in one go reusing a single formatter and its buffer
+        double[] data = operandDataLib.getReadonlyDoubleData(operandIn.getData());
+        String[] sdata = DoubleFormatter.toStrings(data, DoubleFormatter.DEFAULT_DIGITS, 0, '.');
+        return vectorCopy(operandIn, operandDataLib, sdata);
+    }
+
     @Specialization(guards = {"uAccess.supports(operandIn)", "handleAsAtomic(operandIn)", "!isForeignVector(operandIn)"}, limit = "getGenericVectorAccessCacheSize()")
     protected RStringVector doAbstractAtomicVector(RAbstractAtomicVector operandIn,
                     @Cached("createClassProfile()") ValueProfile operandProfile,
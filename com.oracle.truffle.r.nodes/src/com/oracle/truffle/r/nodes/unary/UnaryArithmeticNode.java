@@ -22,6 +22,8 @@
  */
 package com.oracle.truffle.r.nodes.unary;
 
+import static com.oracle.truffle.r.runtime.context.FastROptions.DeferArithmetic;
+
 import com.oracle.truffle.api.CompilerDirectives;
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.dsl.Cached;
@@ -31,6 +33,8 @@ import com.oracle.truffle.r.nodes.primitive.UnaryMapNode;
 import com.oracle.truffle.r.nodes.profile.TruffleBoundaryNode;
 import com.oracle.truffle.r.runtime.RError;
 import com.oracle.truffle.r.runtime.RType;
+import com.oracle.truffle.r.runtime.context.RContext;
+import com.oracle.truffle.r.runtime.data.RDoubleDeferredVectorData;
 import com.oracle.truffle.r.runtime.data.RDoubleVector;
 import com.oracle.truffle.r.runtime.data.RMissing;
 import com.oracle.truffle.r.runtime.data.RComplexVector;
@@ -46,12 +50,28 @@ public abstract class UnaryArithmeticNode extends UnaryNode {
 
     protected final UnaryArithmeticFactory unary;
 
+    /**
+     * Whether the operation is the negation, which can be deferred on long double vectors, see
+     * {@link RDoubleDeferredVectorData}.
+     */
+    protected final boolean negate;
+
     public UnaryArithmeticNode(UnaryArithmeticFactory factory) {
         this.unary = factory;
+        this.negate = factory.createOperation() instanceof UnaryArithmetic.Negate;
     }
 
     public abstract Object execute(Object value);
 
+    protected boolean canDefer(RDoubleVector operand) {
+        return negate && RContext.getInstance().getOption(DeferArithmetic) && RDoubleDeferredVectorData.canDeferNegate(operand);
+    }
+
+    @Specialization(guards = "canDefer(operand)")
+    protected RDoubleVector doDeferred(RDoubleVector operand) {
+        return RDoubleVector.createDeferredNegate(operand);
+    }
+
     @Specialization(guards = {"cachedNode != null", "cachedNode.isSupported(operand)"})
     protected Object doCached(RAbstractVector operand,
                     @Cached("createCachedFast(operand)") UnaryMapNode cachedNode) {
@@ -0,0 +1,881 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 3 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 3 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.r.runtime;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.PriorityQueue;
+
+/**
+ * In-process implementation of the bzip2 format, which spares us a {@code bzip2} sub-process for
+ * every compressed object. The output is a complete bzip2 stream as produced by
+ * {@code BZ2_bzBuffToBuffCompress}. The encoder sorts the block rotations by prefix doubling, which
+ * is slower than the sorting in libbzip2 on typical data, but does not degrade on repetitive input.
+ */
+final class BZip2 {
+
+    private static final int BASE_BLOCK_SIZE = 100000;
+    private static final int RUNA = 0;
+    private static final int RUNB = 1;
+    private static final int GROUP_SIZE = 50;
+    private static final int MAX_GROUPS = 6;
+    private static final int MAX_ENCODE_CODE_LENGTH = 17;
+    private static final int MAX_DECODE_CODE_LENGTH = 20;
+    private static final int ITERATIONS = 4;
+    private static final int BLOCK_MAGIC_HI = 0x314159;
+    private static final int BLOCK_MAGIC_LO = 0x265359;
+    private static final int END_MAGIC_HI = 0x177245;
+    private static final int END_MAGIC_LO = 0x385090;
+
+    private static final int[] CRC_TABLE = new int[256];
+
+    static {
+        for (int i = 0; i < 256; i++) {
+            int c = i << 24;
+            for (int k = 0; k < 8; k++) {
+                c = (c & 0x80000000) != 0 ? (c << 1) ^ 0x04c11db7 : c << 1;
+            }
+            CRC_TABLE[i] = c;
+        }
+    }
+
+    private BZip2() {
+        // no instances
+    }
+
+    private static int updateCRC(int crc, int b) {
+        return (crc << 8) ^ CRC_TABLE[((crc >>> 24) ^ b) & 0xff];
+    }
+
+    /**
+     * Compresses {@code data} into a bzip2 stream with blocks of {@code level * 100000} bytes.
+     */
+    static byte[] compress(byte[] data, int level) {
+        assert level >= 1 && level <= 9;
+        return new Encoder(level, data.length).compress(data);
+    }
+
+    /**
+     * Decompresses the bzip2 stream(s) in {@code data}.
+     *
+     * @param expectedLength the length of the uncompressed data if known, used only as the initial
+     *            size of the result buffer
+     */
+    static byte[] uncompress(byte[] data, int expectedLength) throws IOException {
+        return new Decoder(data, expectedLength).decode();
+    }
+
+    private static final class Encoder {
+        private final int level;
+        private final BitWriter out;
+        private final byte[] block;
+        private int blockLength;
+        private int combinedCRC;
+
+        private int[] sorted;
+        private int[] rank;
+        private int[] temp;
+        private int[] counts;
+        private byte[] lastColumn;
+
+        private final boolean[] inUse = new boolean[256];
+        private int alphaSize;
+        private int[] mtfValues;
+        private int mtfLength;
+        private int[] mtfFrequencies;
+
+        Encoder(int level, int inputLength) {
+            this.level = level;
+            // run-length encoding of the input expands it by at most 5/4
+            int maxBlockLength = level * BASE_BLOCK_SIZE - 19;
+            this.block = new byte[(int) Math.min(maxBlockLength, inputLength + inputLength / 4L + 5)];
+            this.out = new BitWriter(inputLength / 4 + 64);
+        }
+
+        byte[] compress(byte[] data) {
+            out.writeBits(8, 'B');
+            out.writeBits(8, 'Z');
+            out.writeBits(8, 'h');
+            out.writeBits(8, '0' + level);
+            int n = data.length;
+            int crc = -1;
+            int i = 0;
+            while (i < n) {
+                int b = data[i] & 0xff;
+                int run = 1;
+                while (run < 255 && i + run < n && (data[i + run] & 0xff) == b) {
+                    run++;
+                }
+                if (blockLength + 5 > block.length) {
+                    writeBlock(~crc);
+                    crc = -1;
+                }
+                for (int k = 0; k < run; k++) {
+                    crc = updateCRC(crc, b);
+                }
+                if (run < 4) {
+                    for (int k = 0; k < run; k++) {
+                        block[blockLength++] = (byte) b;
+                    }
+                } else {
+                    for (int k = 0; k < 4; k++) {
+                        block[blockLength++] = (byte) b;
+                    }
+                    block[blockLength++] = (byte) (run - 4);
+                }
+                i += run;
+            }
+            if (blockLength > 0) {
+                writeBlock(~crc);
+            }
+            out.writeBits(24, END_MAGIC_HI);
+            out.writeBits(24, END_MAGIC_LO);
+            out.writeInt(combinedCRC);
+            return out.finish();
+        }
+
+        private void writeBlock(int crc) {
+            combinedCRC = ((combinedCRC << 1) | (combinedCRC >>> 31)) ^ crc;
+            out.writeBits(24, BLOCK_MAGIC_HI);
+            out.writeBits(24, BLOCK_MAGIC_LO);
+            out.writeInt(crc);
+            // not randomized
+            out.writeBits(1, 0);
+            out.writeBits(24, sortBlock());
+            generateMTFValues();
+            sendMTFValues();
+            blockLength = 0;
+        }
+
+        /**
+         * Sorts the rotations of the block by prefix doubling, stores the last column of the
+         * sorted rotations in {@link #lastColumn} and returns the index of the original string.
+         */
+        private int sortBlock() {
+            int n = blockLength;
+            if (sorted == null || sorted.length < n) {
+                sorted = new int[n];
+                rank = new int[n];
+                temp = new int[n];
+                counts = new int[Math.max(n, 256)];
+                lastColumn = new byte[n];
+            }
+            int[] sa = sorted;
+            int[] cnt = counts;
+            Arrays.fill(cnt, 0, 256, 0);
+            for (int i = 0; i < n; i++) {
+                cnt[block[i] & 0xff]++;
+            }
+            for (int c = 0, sum = 0; c < 256; c++) {
+                int t = cnt[c];
+                cnt[c] = sum;
+                sum += t;
+            }
+            for (int i = 0; i < n; i++) {
+                sa[cnt[block[i] & 0xff]++] = i;
+            }
+            int classes = 1;
+            rank[sa[0]] = 0;
+            for (int j = 1; j < n; j++) {
+                if (block[sa[j]] != block[sa[j - 1]]) {
+                    classes++;
+                }
+                rank[sa[j]] = classes - 1;
+            }
+            for (int k = 1; classes < n && k < n; k <<= 1) {
+                int[] tmp = temp;
+                int[] rnk = rank;
+                // order by the second half of the 2k-prefix
+                for (int j = 0; j < n; j++) {
+                    int p = sa[j] - k;
+                    tmp[j] = p < 0 ? p + n : p;
+                }
+                // stable counting sort by the first half
+                Arrays.fill(cnt, 0, classes, 0);
+                for (int j = 0; j < n; j++) {
+                    cnt[rnk[tmp[j]]]++;
+                }
+                for (int c = 0, sum = 0; c < classes; c++) {
+                    int t = cnt[c];
+                    cnt[c] = sum;
+                    sum += t;
+                }
+                for (int j = 0; j < n; j++) {
+                    int p = tmp[j];
+                    sa[cnt[rnk[p]]++] = p;
+                }
+                // new classes of the 2k-prefixes
+                int c = 0;
+                tmp[sa[0]] = 0;
+                for (int j = 1; j < n; j++) {
+                    int cur = sa[j];
+                    int prev = sa[j - 1];
+                    int curSecond = cur + k < n ? cur + k : cur + k - n;
+                    int prevSecond = prev + k < n ? prev + k : prev + k - n;
+                    if (rnk[cur] != rnk[prev] || rnk[curSecond] != rnk[prevSecond]) {
+                        c++;
+                    }
+                    tmp[cur] = c;
+                }
+                temp = rnk;
+                rank = tmp;
+                classes = c + 1;
+            }
+            int origPtr = -1;
+            for (int j = 0; j < n; j++) {
+                int p = sa[j];
+                if (p == 0) {
+                    origPtr = j;
+                    p = n;
+                }
+                lastColumn[j] = block[p - 1];
+            }
+            assert origPtr >= 0;
+            return origPtr;
+        }
+
+        private void generateMTFValues() {
+            int n = blockLength;
+            Arrays.fill(inUse, false);
+            for (int j = 0; j < n; j++) {
+                inUse[lastColumn[j] & 0xff] = true;
+            }
+            int[] unseqToSeq = new int[256];
+            int nInUse = 0;
+            for (int i = 0; i < 256; i++) {
+                if (inUse[i]) {
+                    unseqToSeq[i] = nInUse++;
+                }
+            }
+            alphaSize = nInUse + 2;
+            mtfFrequencies = new int[alphaSize];
+            if (mtfValues == null || mtfValues.length < n + 1) {
+                mtfValues = new int[n + 1];
+            }
+            mtfLength = 0;
+            char[] order = new char[nInUse];
+            for (int i = 0; i < nInUse; i++) {
+                order[i] = (char) i;
+            }
+            int zeroRun = 0;
+            for (int j = 0; j < n; j++) {
+                char value = (char) unseqToSeq[lastColumn[j] & 0xff];
+                if (order[0] == value) {
+                    zeroRun++;
+                } else {
+                    if (zeroRun > 0) {
+                        emitRun(zeroRun);
+                        zeroRun = 0;
+                    }
+                    int p = 1;
+                    while (order[p] != value) {
+                        p++;
+                    }
+                    System.arraycopy(order, 0, order, 1, p);
+                    order[0] = value;
+                    emit(p + 1);
+                }
+            }
+            if (zeroRun > 0) {
+                emitRun(zeroRun);
+            }
+            emit(nInUse + 1);
+        }
+
+        /**
+         * Encodes a run of zeros as a bijective base-2 number with the digits RUNA and RUNB.
+         */
+        private void emitRun(int length) {
+            int z = length - 1;
+            while (true) {
+                emit((z & 1) != 0 ? RUNB : RUNA);
+                if (z < 2) {
+                    break;
+                }
+                z = (z - 2) >> 1;
+            }
+        }
+
+        private void emit(int value) {
+            mtfValues[mtfLength++] = value;
+            mtfFrequencies[value]++;
+        }
+
+        private void sendMTFValues() {
+            int nGroups;
+            if (mtfLength < 200) {
+                nGroups = 2;
+            } else if (mtfLength < 600) {
+                nGroups = 3;
+            } else if (mtfLength < 1200) {
+                nGroups = 4;
+            } else if (mtfLength < 2400) {
+                nGroups = 5;
+            } else {
+                nGroups = MAX_GROUPS;
+            }
+            byte[][] lengths = new byte[nGroups][alphaSize];
+
+            // initial tables: each covers a range of symbols with similar total frequency
+            int remaining = mtfLength;
+            int gs = 0;
+            for (int part = nGroups; part > 0; part--) {
+                int target = remaining / part;
+                int ge = gs - 1;
+                int acc = 0;
+                while (acc < target && ge < alphaSize - 1) {
+                    ge++;
+                    acc += mtfFrequencies[ge];
+                }
+                if (ge > gs && part != nGroups && part != 1 && ((nGroups - part) % 2 == 1)) {
+                    acc -= mtfFrequencies[ge];
+                    ge--;
+                }
+                for (int v = 0; v < alphaSize; v++) {
+                    lengths[part - 1][v] = (byte) (v >= gs && v <= ge ? 0 : 15);
+                }
+                gs = ge + 1;
+                remaining -= acc;
+            }
+
+            // refine the tables by assigning each group of symbols to the cheapest one
+            int nSelectors = (mtfLength + GROUP_SIZE - 1) / GROUP_SIZE;
+            byte[] selectors = new byte[nSelectors];
+            int[][] frequencies = new int[nGroups][alphaSize];
+            for (int iter = 0; iter < ITERATIONS; iter++) {
+                for (int t = 0; t < nGroups; t++) {
+                    Arrays.fill(frequencies[t], 0);
+                }
+                int s = 0;
+                for (gs = 0; gs < mtfLength; gs += GROUP_SIZE) {
+                    int ge = Math.min(gs + GROUP_SIZE, mtfLength);
+                    int best = 0;
+                    int bestCost = Integer.MAX_VALUE;
+                    for (int t = 0; t < nGroups; t++) {
+                        byte[] len = lengths[t];
+                        int cost = 0;
+                        for (int i = gs; i < ge; i++) {
+                            cost += len[mtfValues[i]];
+                        }
+                        if (cost < bestCost) {
+                            bestCost = cost;
+                            best = t;
+                        }
+                    }
+                    selectors[s++] = (byte) best;
+                    int[] freq = frequencies[best];
+                    for (int i = gs; i < ge; i++) {
+                        freq[mtfValues[i]]++;
+                    }
+                }
+                for (int t = 0; t < nGroups; t++) {
+                    makeCodeLengths(lengths[t], frequencies[t], alphaSize);
+                }
+            }
+
+            // symbol map
+            int used16 = 0;
+            for (int i = 0; i < 16; i++) {
+                for (int j = 0; j < 16; j++) {
+                    if (inUse[i * 16 + j]) {
+                        used16 |= 0x8000 >>> i;
+                        break;
+                    }
+                }
+            }
+            out.writeBits(16, used16);
+            for (int i = 0; i < 16; i++) {
+                if ((used16 & (0x8000 >>> i)) != 0) {
+                    int bits = 0;
+                    for (int j = 0; j < 16; j++) {
+                        if (inUse[i * 16 + j]) {
+                            bits |= 0x8000 >>> j;
+                        }
+                    }
+                    out.writeBits(16, bits);
+                }
+            }
+
+            // selectors, move-to-front and unary coded
+            out.writeBits(3, nGroups);
+            out.writeBits(15, nSelectors);
+            byte[] order = new byte[nGroups];
+            for (int t = 0; t < nGroups; t++) {
+                order[t] = (byte) t;
+            }
+            for (int s = 0; s < nSelectors; s++) {
+                byte value = selectors[s];
+                int p = 0;
+                while (order[p] != value) {
+                    p++;
+                }
+                System.arraycopy(order, 0, order, 1, p);
+                order[0] = value;
+                for (int k = 0; k < p; k++) {
+                    out.writeBits(1, 1);
+                }
+                out.writeBits(1, 0);
+            }
+
+            // code lengths, delta coded
+            int[][] codes = new int[nGroups][];
+            for (int t = 0; t < nGroups; t++) {
+                byte[] len = lengths[t];
+                int current = len[0];
+                out.writeBits(5, current);
+                for (int v = 0; v < alphaSize; v++) {
+                    while (current < len[v]) {
+                        out.writeBits(2, 2);
+                        current++;
+                    }
+                    while (current > len[v]) {
+                        out.writeBits(2, 3);
+                        current--;
+                    }
+                    out.writeBits(1, 0);
+                }
+                codes[t] = assignCodes(len, alphaSize);
+            }
+
+            // the symbols
+            int s = 0;
+            for (gs = 0; gs < mtfLength; gs += GROUP_SIZE) {
+                int t = selectors[s++];
+                byte[] len = lengths[t];
+                int[] code = codes[t];
+                int ge = Math.min(gs + GROUP_SIZE, mtfLength);
+                for (int i = gs; i < ge; i++) {
+                    int v = mtfValues[i];
+                    out.writeBits(len[v], code[v]);
+                }
+            }
+        }
+
+        /**
+         * Computes Huffman code lengths no longer than {@link #MAX_ENCODE_CODE_LENGTH}. Every
+         * symbol gets a code, unused ones as if they occurred once.
+         */
+        private static void makeCodeLengths(byte[] lengths, int[] frequencies, int size) {
+            long[] weights = new long[2 * size];
+            int[] parents = new int[2 * size];
+            for (int i = 0; i < size; i++) {
+                weights[i] = frequencies[i] == 0 ? 1 : frequencies[i];
+            }
+            PriorityQueue<Long> queue = new PriorityQueue<>();
+            while (true) {
+                queue.clear();
+                for (int i = 0; i < size; i++) {
+                    queue.add((weights[i] << 10) | i);
+                }
+                int next = size;
+                while (queue.size() > 1) {
+                    int a = (int) (queue.poll() & 0x3ff);
+                    int b = (int) (queue.poll() & 0x3ff);
+                    weights[next] = weights[a] + weights[b];
+                    parents[a] = next;
+                    parents[b] = next;
+                    queue.add((weights[next] << 10) | next);
+                    next++;
+                }
+                int root = next - 1;
+                boolean tooLong = false;
+                for (int i = 0; i < size; i++) {
+                    int depth = 0;
+                    for (int j = i; j != root; j = parents[j]) {
+                        depth++;
+                    }
+                    lengths[i] = (byte) depth;
+                    tooLong |= depth > MAX_ENCODE_CODE_LENGTH;
+                }
+                if (!tooLong) {
+                    return;
+                }
+                for (int i = 0; i < size; i++) {
+                    weights[i] = 1 + weights[i] / 2;
+                }
+            }
+        }
+
+        /**
+         * Assigns canonical codes: shorter codes first, symbols of the same length in their order.
+         */
+        private static int[] assignCodes(byte[] lengths, int size) {
+            int minLength = MAX_DECODE_CODE_LENGTH;
+            int maxLength = 0;
+            for (int i = 0; i < size; i++) {
+                minLength = Math.min(minLength, lengths[i]);
+                maxLength = Math.max(maxLength, lengths[i]);
+            }
+            int[] codes = new int[size];
+            int code = 0;
+            for (int len = minLength; len <= maxLength; len++) {
+                for (int i = 0; i < size; i++) {
+                    if (lengths[i] == len) {
+                        codes[i] = code++;
+                    }
+                }
+                code <<= 1;
+            }
+            return codes;
+        }
+    }
+
+    private static final class BitWriter {
+        private byte[] buffer;
+        private int position;
+        private long bits;
+        private int bitCount;
+
+        BitWriter(int initialCapacity) {
+            this.buffer = new byte[Math.max(initialCapacity, 16)];
+        }
+
+        void writeBits(int n, int value) {
+            assert n <= 24;
+            bits = (bits << n) | (value & ((1 << n) - 1));
+            bitCount += n;
+            while (bitCount >= 8) {
+                bitCount -= 8;
+                put((byte) (bits >>> bitCount));
+            }
+        }
+
+        void writeInt(int value) {
+            writeBits(16, value >>> 16);
+            writeBits(16, value & 0xffff);
+        }
+
+        private void put(byte b) {
+            if (position == buffer.length) {
+                buffer = Arrays.copyOf(buffer, buffer.length * 2);
+            }
+            buffer[position++] = b;
+        }
+
+        byte[] finish() {
+            if (bitCount > 0) {
+                put((byte) (bits << (8 - bitCount)));
+                bitCount = 0;
+            }
+            return Arrays.copyOf(buffer, position);
+        }
+    }
+
+    private static final class Decoder {
+        private final byte[] data;
+        private int position;
+        private long bits;
+        private int bitCount;
+
+        private byte[] result;
+        private int resultLength;
+
+        private byte[] block;
+        private int[] links;
+
+        Decoder(byte[] data, int expectedLength) {
+            this.data = data;
+            this.result = new byte[Math.max(expectedLength, 64)];
+        }
+
+        byte[] decode() throws IOException {
+            boolean first = true;
+            while (true) {
+                if (!first && !startsWithMagic()) {
+                    // GnuR's decompression, like the bzip2 tool, ignores trailing garbage
+                    break;
+                }
+                if (readBits(8) != 'B' || readBits(8) != 'Z' || readBits(8) != 'h') {
+                    throw new IOException("not a bzip2 stream");
+                }
+                int level = readBits(8) - '0';
+                if (level < 1 || level > 9) {
+                    throw new IOException("invalid bzip2 block size");
+                }
+                int combinedCRC = 0;
+                while (true) {
+                    int magicHi = readBits(24);
+                    int magicLo = readBits(24);
+                    int crc = readInt();
+                    if (magicHi == END_MAGIC_HI && magicLo == END_MAGIC_LO) {
+                        if (crc != combinedCRC) {
+                            throw new IOException("bzip2 stream CRC error");
+                        }
+                        break;
+                    }
+                    if (magicHi != BLOCK_MAGIC_HI || magicLo != BLOCK_MAGIC_LO) {
+                        throw new IOException("bad bzip2 block header");
+                    }
+                    if (decodeBlock(level * BASE_BLOCK_SIZE) != crc) {
+                        throw new IOException("bzip2 block CRC error");
+                    }
+                    combinedCRC = ((combinedCRC << 1) | (combinedCRC >>> 31)) ^ crc;
+                }
+                // streams are byte aligned
+                bitCount -= bitCount & 7;
+                first = false;
+            }
+            return resultLength == result.length ? result : Arrays.copyOf(result, resultLength);
+        }
+
+        private boolean startsWithMagic() {
+            int p = position - bitCount / 8;
+            return p + 3 < data.length && data[p] == 'B' && data[p + 1] == 'Z' && data[p + 2] == 'h';
+        }
+
+        private int decodeBlock(int blockSize) throws IOException {
+            if (readBits(1) != 0) {
+                throw new IOException("randomized bzip2 blocks are not supported");
+            }
+            int origPtr = readBits(24);
+
+            int[] seqToUnseq = new int[256];
+            int nInUse = 0;
+            int used16 = readBits(16);
+            for (int i = 0; i < 16; i++) {
+                if ((used16 & (0x8000 >>> i)) != 0) {
+                    int used = readBits(16);
+                    for (int j = 0; j < 16; j++) {
+                        if ((used & (0x8000 >>> j)) != 0) {
+                            seqToUnseq[nInUse++] = i * 16 + j;
+                        }
+                    }
+                }
+            }
+            if (nInUse == 0) {
+                throw new IOException("bzip2 block without symbols");
+            }
+            int alphaSize = nInUse + 2;
+            int eob = nInUse + 1;
+
+            int nGroups = readBits(3);
+            int nSelectors = readBits(15);
+            if (nGroups < 2 || nGroups > MAX_GROUPS || nSelectors < 1) {
+                throw new IOException("invalid bzip2 block");
+            }
+            byte[] order = new byte[nGroups];
+            for (int t = 0; t < nGroups; t++) {
+                order[t] = (byte) t;
+            }
+            byte[] selectors = new byte[nSelectors];
+            for (int s = 0; s < nSelectors; s++) {
+                int p = 0;
+                while (readBits(1) != 0) {
+                    if (++p >= nGroups) {
+                        throw new IOException("invalid bzip2 selector");
+                    }
+                }
+                byte value = order[p];
+                System.arraycopy(order, 0, order, 1, p);
+                order[0] = value;
+                selectors[s] = value;
+            }
+
+            HuffmanTable[] tables = new HuffmanTable[nGroups];
+            byte[] lengths = new byte[alphaSize];
+            for (int t = 0; t < nGroups; t++) {
+                int current = readBits(5);
+                for (int v = 0; v < alphaSize; v++) {
+                    while (true) {
+                        if (current < 1 || current > MAX_DECODE_CODE_LENGTH) {
+                            throw new IOException("invalid bzip2 code length");
+                        }
+                        if (readBits(1) == 0) {
+                            break;
+                        }
+                        current += readBits(1) == 0 ? 1 : -1;
+                    }
+                    lengths[v] = (byte) current;
+                }
+                tables[t] = new HuffmanTable(lengths, alphaSize);
+            }
+
+            if (block == null || block.length < blockSize) {
+                block = new byte[blockSize];
+            }
+            int[] counts = new int[256];
+            int[] mtf = new int[nInUse];
+            for (int i = 0; i < nInUse; i++) {
+                mtf[i] = i;
+            }
+            int n = 0;
+            int selector = 0;
+            int groupLeft = 0;
+            HuffmanTable table = null;
+            int run = 0;
+            int runWeight = 1;
+            while (true) {
+                if (groupLeft == 0) {
+                    if (selector >= nSelectors) {
+                        throw new IOException("invalid bzip2 block");
+                    }
+                    table = tables[selectors[selector++]];
+                    groupLeft = GROUP_SIZE;
+                }
+                groupLeft--;
+                int symbol = table.decode(this);
+                if (symbol == RUNA || symbol == RUNB) {
+                    run += (symbol + 1) * runWeight;
+                    runWeight <<= 1;
+                    if (run > blockSize) {
+                        throw new IOException("bzip2 block overflow");
+                    }
+                    continue;
+                }
+                if (run > 0) {
+                    if (n + run > blockSize) {
+                        throw new IOException("bzip2 block overflow");
+                    }
+                    int b = seqToUnseq[mtf[0]];
+                    Arrays.fill(block, n, n + run, (byte) b);
+                    counts[b] += run;
+                    n += run;
+                    run = 0;
+                    runWeight = 1;
+                }
+                if (symbol == eob) {
+                    break;
+                }
+                int p = symbol - 1;
+                if (p >= nInUse) {
+                    throw new IOException("invalid bzip2 symbol");
+                }
+                int value = mtf[p];
+                System.arraycopy(mtf, 0, mtf, 1, p);
+                mtf[0] = value;
+                if (n >= blockSize) {
+                    throw new IOException("bzip2 block overflow");
+                }
+                int b = seqToUnseq[value];
+                block[n++] = (byte) b;
+                counts[b]++;
+            }
+            if (origPtr >= n) {
+                throw new IOException("invalid bzip2 block");
+            }
+
+            // inverse Burrows-Wheeler transform
+            if (links == null || links.length < n) {
+                links = new int[n];
+            }
+            for (int c = 0, sum = 0; c < 256; c++) {
+                int t = counts[c];
+                counts[c] = sum;
+                sum += t;
+            }
+            for (int i = 0; i < n; i++) {
+                links[counts[block[i] & 0xff]++] = i;
+            }
+
+            // undo the initial run-length encoding
+            int crc = -1;
+            int p = links[origPtr];
+            int last = -1;
+            int repeat = 0;
+            for (int k = 0; k < n; k++) {
+                int b = block[p] & 0xff;
+                p = links[p];
+                if (repeat == 4) {
+                    for (int r = 0; r < b; r++) {
+                        put(last);
+                        crc = updateCRC(crc, last);
+                    }
+                    repeat = 0;
+                    continue;
+                }
+                if (b == last) {
+                    repeat++;
+                } else {
+                    last = b;
+                    repeat = 1;
+                }
+                put(b);
+                crc = updateCRC(crc, b);
+            }
+            return ~crc;
+        }
+
+        private void put(int b) {
+            if (resultLength == result.length) {
+                result = Arrays.copyOf(result, result.length * 2);
+            }
+            result[resultLength++] = (byte) b;
+        }
+
+        int readBits(int n) throws IOException {
+            while (bitCount < n) {
+                if (position >= data.length) {
+                    throw new EOFException("unexpected end of bzip2 stream");
+                }
+                bits = (bits << 8) | (data[position++] & 0xff);
+                bitCount += 8;
+            }
+            bitCount -= n;
+            return (int) (bits >>> bitCount) & ((1 << n) - 1);
+        }
+
+        private int readInt() throws IOException {
+            return (readBits(16) << 16) | readBits(16);
+        }
+    }
+
+    /**
+     * Decodes canonical Huffman codes as assigned by {@link Encoder#assignCodes}.
+     */
+    private static final class HuffmanTable {
+        private final int[] countPerLength = new int[MAX_DECODE_CODE_LENGTH + 1];
+        private final int[] symbols;
+
+        HuffmanTable(byte[] lengths, int size) {
+            symbols = new int[size];
+            for (int i = 0; i < size; i++) {
+                countPerLength[lengths[i]]++;
+            }
+            int[] offsets = new int[MAX_DECODE_CODE_LENGTH + 2];
+            for (int len = 1; len <= MAX_DECODE_CODE_LENGTH; len++) {
+                offsets[len + 1] = offsets[len] + countPerLength[len];
+            }
+            for (int i = 0; i < size; i++) {
+                symbols[offsets[lengths[i]]++] = i;
+            }
+        }
+
+        int decode(Decoder in) throws IOException {
+            int code = 0;
+            int first = 0;
+            int index = 0;
+            for (int len = 1; len <= MAX_DECODE_CODE_LENGTH; len++) {
+                code |= in.readBits(1);
+                int count = countPerLength[len];
+                if (code - first < count) {
+                    return symbols[index + code - first];
+                }
+                index += count;
+                first = (first + count) << 1;
+                code <<= 1;
+            }
+            throw new IOException("invalid bzip2 Huffman code");
+        }
+    }
+}
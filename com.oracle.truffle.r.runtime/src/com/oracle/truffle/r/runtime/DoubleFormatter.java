@@ -0,0 +1,439 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 3 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 3 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.r.runtime;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+
+/**
+ * Converts doubles to text the way GnuR's {@code formatReal} and {@code encodeReal} do, i.e., with
+ * the digits that {@code sprintf("%.*e")} or {@code sprintf("%.*f")} produce for the exact binary
+ * value of the number.
+ *
+ * The decimal digits are computed directly as a {@code long} by scaling the value with a
+ * double-double power of ten. Only when the scaled value lies too close to a rounding boundary, or
+ * when the exponents are outside of the range of the tables, we fall back to {@link BigDecimal}.
+ *
+ * An instance keeps a reusable character buffer and the results of the last
+ * {@link #scientific(double, int)} call. Instances are not thread safe, the intended usage is to
+ * create one instance per formatted vector, see {@link #toStrings(double[], int, int, char)}.
+ */
+public final class DoubleFormatter {
+
+    /**
+     * The number of significant digits used by {@code as.character} and {@code paste}.
+     */
+    public static final int DEFAULT_DIGITS = 15;
+
+    /**
+     * The range of the powers of ten tables. Chosen so that both parts of the double-double
+     * representation are normal numbers.
+     */
+    private static final int MAX_POW = 290;
+    /**
+     * Scaled values must stay below this bound so that they fit into a {@code long}.
+     */
+    private static final double MAX_SCALED = 1e18;
+    /**
+     * Maximal number of digits after the decimal point in scientific notation that the fast path
+     * handles: the significand must be less than {@link #MAX_SCALED}.
+     */
+    private static final int MAX_FAST_SCI_DECIMALS = 16;
+    /**
+     * Veltkamp's constant {@code 2^27 + 1} used to split a double into two halves.
+     */
+    private static final double SPLITTER = 134217729.0;
+    private static final double MIN_FAST_VALUE = 1e-290;
+    private static final double MAX_FAST_VALUE = 1e290;
+
+    private static final double[] POW10_HI = new double[2 * MAX_POW + 1];
+    private static final double[] POW10_LO = new double[2 * MAX_POW + 1];
+    private static final double[] POW10_HI_HEAD = new double[2 * MAX_POW + 1];
+    private static final double[] POW10_HI_TAIL = new double[2 * MAX_POW + 1];
+    private static final long[] LONG_POW10 = new long[19];
+    private static final double[] EXACT_POW10 = {
+                    1e00, 1e01, 1e02, 1e03, 1e04, 1e05, 1e06, 1e07, 1e08, 1e09,
+                    1e10, 1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19,
+                    1e20, 1e21, 1e22
+    };
+
+    static {
+        MathContext mc = new MathContext(60);
+        for (int p = -MAX_POW; p <= MAX_POW; p++) {
+            BigDecimal pow = p >= 0 ? BigDecimal.TEN.pow(p) : BigDecimal.ONE.divide(BigDecimal.TEN.pow(-p), mc);
+            double hi = pow.doubleValue();
+            int idx = p + MAX_POW;
+            POW10_HI[idx] = hi;
+            POW10_LO[idx] = pow.subtract(new BigDecimal(hi)).doubleValue();
+            double c = SPLITTER * hi;
+            POW10_HI_HEAD[idx] = c - (c - hi);
+            POW10_HI_TAIL[idx] = hi - POW10_HI_HEAD[idx];
+        }
+        long pow = 1;
+        for (int i = 0; i < LONG_POW10.length; i++) {
+            LONG_POW10[i] = pow;
+            pow *= 10;
+        }
+    }
+
+    private char[] buffer = new char[32];
+    private int length;
+
+    // results of the last call to scientific
+    private int sign;
+    private int kpower;
+    private int nsig;
+    private boolean roundingWidens;
+
+    // results of the last call to roundSignificand
+    private long significand;
+    private int exponent;
+
+    /**
+     * Converts the value to a string the same way as {@code as.character} does.
+     */
+    @TruffleBoundary
+    public static String toString(double x) {
+        return new DoubleFormatter().format(x, DEFAULT_DIGITS, 0, '.', RRuntime.STRING_NA);
+    }
+
+    /**
+     * Converts each value of the array independently to a string the same way as
+     * {@code as.character} does. {@code NA} values are converted to {@link RRuntime#STRING_NA}.
+     */
+    @TruffleBoundary
+    public static String[] toStrings(double[] values, int digits, int sciPen, char cdec) {
+        DoubleFormatter formatter = new DoubleFormatter();
+        String[] result = new String[values.length];
+        for (int i = 0; i < values.length; i++) {
+            result[i] = formatter.format(values[i], digits, sciPen, cdec, RRuntime.STRING_NA);
+        }
+        return result;
+    }
+
+    /**
+     * Converts the value to a string with the width and format (fixed or scientific) computed for
+     * this value only, i.e., without any padding.
+     */
+    public String format(double x, int digits, int sciPen, char cdec, String naString) {
+        if (!RRuntime.isFinite(x)) {
+            return nonFiniteId(x, naString);
+        }
+        scientific(x, digits);
+        int left = kpower + 1;
+        if (roundingWidens) {
+            left--;
+        }
+        int sleft = sign + ((left <= 0) ? 1 : left);
+        int rgt = nsig - left;
+        int mxsl = left < 0 ? 1 + sign : sleft;
+        if (rgt < 0) {
+            rgt = 0;
+        }
+        int wF = mxsl + rgt + (rgt != 0 ? 1 : 0);
+        int e = (left > 100 || left <= -99) ? 2 : 1;
+        int d = nsig - 1;
+        int w = sign + (d > 0 ? 1 : 0) + d + 4 + e;
+        if (wF <= w + sciPen) {
+            return encode(x, wF, rgt, 0, cdec, naString);
+        }
+        return encode(x, w, d, e, cdec, naString);
+    }
+
+    /**
+     * Encodes the value using given width {@code w}, number of digits after the decimal point
+     * {@code d} and exponent width {@code e}, where {@code e == 0} means fixed notation. The result
+     * is right-aligned to {@code w} characters.
+     */
+    public String encode(double x, int w, int d, int e, char cdec, String naString) {
+        length = 0;
+        if (!RRuntime.isFinite(x)) {
+            appendString(nonFiniteId(x, naString));
+        } else {
+            /* IEEE allows signed zeros (yuck!) */
+            double value = RRuntime.normalizeZero(x);
+            boolean negative = value < 0;
+            if (negative) {
+                append('-');
+            }
+            double r = negative ? -value : value;
+            if (e != 0) {
+                appendScientific(r, d, cdec);
+            } else {
+                appendFixed(r, d, cdec);
+            }
+        }
+        if (length < w) {
+            padLeft(w - length);
+        }
+        return new String(buffer, 0, length);
+    }
+
+    /**
+     * For a finite number {@code x} determines {@code sgn = 1_{x < 0}}, {@code kpower} (the
+     * exponent of 10), {@code nsig = min(digits, #{significant digits of alpha})} and
+     * {@code roundingwidens} (rounding causes {@code x} to increase in width), where
+     * {@code |x| = alpha * 10^kpower} and {@code 1 <= alpha < 10}. The results are available via
+     * the getters until the next call.
+     */
+    public void scientific(double x, int digits) {
+        assert digits >= 1 && RRuntime.isFinite(x);
+        if (x == 0.0) {
+            sign = 0;
+            kpower = 0;
+            nsig = 1;
+            roundingWidens = false;
+            return;
+        }
+        sign = x < 0.0 ? 1 : 0;
+        double r = Math.abs(x);
+        int sigDigits = digits;
+        if (digits - 1 <= MAX_FAST_SCI_DECIMALS) {
+            roundSignificand(r, digits - 1);
+            long sig = significand;
+            while (sigDigits > 1 && sig % 10 == 0) {
+                sig /= 10;
+                sigDigits--;
+            }
+            kpower = exponent;
+        } else {
+            BigDecimal rounded = new BigDecimal(r).round(new MathContext(digits, RoundingMode.HALF_EVEN));
+            kpower = rounded.precision() - 1 - rounded.scale();
+            sigDigits = Math.min(digits, Math.max(1, rounded.stripTrailingZeros().precision()));
+        }
+        nsig = sigDigits;
+
+        /*
+         * Scientific format may do more rounding than fixed format, e.g. 9996 with 3 digits is
+         * 1e+04 in scientific, but 9996 in fixed. This happens when the true value r is less than
+         * 10^kpower and would not round up to it in fixed format. Here rgt is the decimal place
+         * that will be cut off by rounding.
+         */
+        int rgt = digits - kpower;
+        rgt = rgt < 0 ? 0 : rgt > 22 ? 22 : rgt;
+        double fuzz = 0.5 / EXACT_POW10[rgt];
+        roundingWidens = kpower > 0 && kpower <= 22 && r < EXACT_POW10[kpower] - fuzz;
+    }
+
+    public int getSign() {
+        return sign;
+    }
+
+    public int getKPower() {
+        return kpower;
+    }
+
+    public int getNSig() {
+        return nsig;
+    }
+
+    public boolean isRoundingWidens() {
+        return roundingWidens;
+    }
+
+    private static String nonFiniteId(double x, String naString) {
+        if (RRuntime.isNA(x)) {
+            return naString;
+        } else if (RRuntime.isNAorNaN(x)) {
+            return "NaN";
+        } else {
+            return x > 0 ? "Inf" : "-Inf";
+        }
+    }
+
+    private void appendScientific(double r, int d, char cdec) {
+        int exp;
+        if (r == 0) {
+            exp = 0;
+            appendZeros(d + 1);
+        } else if (d <= MAX_FAST_SCI_DECIMALS) {
+            roundSignificand(r, d);
+            exp = exponent;
+            appendDigits(significand, d + 1);
+        } else {
+            BigDecimal rounded = new BigDecimal(r).round(new MathContext(d + 1, RoundingMode.HALF_EVEN));
+            exp = rounded.precision() - 1 - rounded.scale();
+            String digits = rounded.unscaledValue().toString();
+            appendString(digits);
+            appendZeros(d + 1 - digits.length());
+        }
+        if (d > 0) {
+            insert(length - d, cdec);
+        }
+        append('e');
+        if (exp < 0) {
+            append('-');
+            exp = -exp;
+        } else {
+            append('+');
+        }
+        if (exp >= 100) {
+            append((char) ('0' + exp / 100));
+            exp = exp % 100;
+        }
+        append((char) ('0' + exp / 10));
+        append((char) ('0' + exp % 10));
+    }
+
+    private void appendFixed(double r, int d, char cdec) {
+        if (d <= MAX_POW && r * POW10_HI[d + MAX_POW] < MAX_SCALED) {
+            long scaled = r == 0 ? 0 : roundScaled(r, d);
+            appendDigits(scaled, d + 1);
+        } else {
+            String digits = new BigDecimal(r).setScale(d, RoundingMode.HALF_EVEN).unscaledValue().toString();
+            appendZeros(d + 1 - digits.length());
+            appendString(digits);
+        }
+        if (d > 0) {
+            insert(length - d, cdec);
+        }
+    }
+
+    /**
+     * Rounds {@code r > 0} to {@code d + 1} significant digits, the result is
+     * {@code significand * 10^(exponent - d)} where {@code 10^d <= significand < 10^(d + 1)}.
+     */
+    private void roundSignificand(double r, int d) {
+        assert d <= MAX_FAST_SCI_DECIMALS;
+        int k = (int) Math.floor(Math.log10(r));
+        long sig;
+        while (true) {
+            sig = roundScaled(r, d - k);
+            if (sig < LONG_POW10[d]) {
+                // log10 overestimated the exponent
+                k--;
+            } else if (sig >= LONG_POW10[d + 1]) {
+                k++;
+                if (sig == LONG_POW10[d + 1]) {
+                    // rounding carried into a new digit
+                    sig = LONG_POW10[d];
+                    break;
+                }
+            } else {
+                break;
+            }
+        }
+        significand = sig;
+        exponent = k;
+    }
+
+    /**
+     * Computes {@code r * 10^p} rounded half-even to an integer. The result must be less than
+     * {@link #MAX_SCALED}.
+     */
+    private static long roundScaled(double r, int p) {
+        if (p >= -MAX_POW && p <= MAX_POW && r >= MIN_FAST_VALUE && r <= MAX_FAST_VALUE) {
+            int idx = p + MAX_POW;
+            double hi = POW10_HI[idx];
+            double product = r * hi;
+            // Dekker's algorithm: the exact error of the product r * hi
+            double c = SPLITTER * r;
+            double rHead = c - (c - r);
+            double rTail = r - rHead;
+            double hiHead = POW10_HI_HEAD[idx];
+            double hiTail = POW10_HI_TAIL[idx];
+            double error = ((rHead * hiHead - product) + rHead * hiTail + rTail * hiHead) + rTail * hiTail;
+            double low = error + r * POW10_LO[idx];
+            // r * 10^p == product + low with relative error below 2^-100
+            double integral = Math.floor(product);
+            double fraction = (product - integral) + low;
+            double carry = Math.floor(fraction);
+            fraction -= carry;
+            long result = (long) integral + (long) carry;
+            double tolerance = product * 0x1p-88 + 0x1p-48;
+            if (Math.abs(fraction - 0.5) > tolerance) {
+                return fraction > 0.5 ? result + 1 : result;
+            }
+        }
+        return roundScaledExact(r, p);
+    }
+
+    @TruffleBoundary
+    private static long roundScaledExact(double r, int p) {
+        return new BigDecimal(r).scaleByPowerOfTen(p).setScale(0, RoundingMode.HALF_EVEN).longValueExact();
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > buffer.length) {
+            char[] newBuffer = new char[Math.max(capacity, buffer.length * 2)];
+            System.arraycopy(buffer, 0, newBuffer, 0, length);
+            buffer = newBuffer;
+        }
+    }
+
+    private void append(char c) {
+        ensureCapacity(length + 1);
+        buffer[length++] = c;
+    }
+
+    private void appendString(String s) {
+        ensureCapacity(length + s.length());
+        s.getChars(0, s.length(), buffer, length);
+        length += s.length();
+    }
+
+    private void appendZeros(int count) {
+        ensureCapacity(length + count);
+        for (int i = 0; i < count; i++) {
+            buffer[length++] = '0';
+        }
+    }
+
+    /**
+     * Appends the decimal digits of a non-negative {@code value}, left-padded with zeros to at least
+     * {@code minDigits} digits.
+     */
+    private void appendDigits(long value, int minDigits) {
+        int digits = 1;
+        while (digits < LONG_POW10.length && value >= LONG_POW10[digits]) {
+            digits++;
+        }
+        int count = Math.max(digits, minDigits);
+        ensureCapacity(length + count);
+        long v = value;
+        for (int pos = length + count - 1; pos >= length; pos--) {
+            buffer[pos] = (char) ('0' + (int) (v % 10));
+            v /= 10;
+        }
+        length += count;
+    }
+
+    private void insert(int pos, char c) {
+        ensureCapacity(length + 1);
+        System.arraycopy(buffer, pos, buffer, pos + 1, length - pos);
+        buffer[pos] = c;
+        length++;
+    }
+
+    private void padLeft(int blanks) {
+        ensureCapacity(length + blanks);
+        System.arraycopy(buffer, 0, buffer, blanks, length);
+        for (int i = 0; i < blanks; i++) {
+            buffer[i] = ' ';
+        }
+        length += blanks;
+    }
+}
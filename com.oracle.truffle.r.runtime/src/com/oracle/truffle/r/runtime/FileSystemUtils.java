@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2018, 2019, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2018, 2020, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * This code is free software; you can redistribute it and/or modify it
@@ -45,6 +45,8 @@ import java.util.NoSuchElementException;
 import java.util.Set;
 import java.util.Spliterator;
 import java.util.Spliterators;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
 import java.util.function.Predicate;
 import java.util.regex.PatternSyntaxException;
 import java.util.stream.Stream;
@@ -132,6 +134,86 @@ public class FileSystemUtils {
         }
     }
 
+    /**
+     * Bound on the number of threads used by {@link #findParallel}. Directory listing is mostly
+     * waiting for the file system, so more threads than cores pay off on network file systems.
+     */
+    private static final int FIND_PARALLELISM = Math.min(4 * Runtime.getRuntime().availableProcessors(), 32);
+
+    private static ForkJoinPool findPool;
+
+    private static synchronized ForkJoinPool getFindPool() {
+        if (findPool == null) {
+            findPool = new ForkJoinPool(FIND_PARALLELISM);
+        }
+        return findPool;
+    }
+
+    /**
+     * Version of {@link #find} that lists the directories in parallel. The order of the returned
+     * files is the same as if the tree was walked depth-first by a single thread, directories that
+     * cannot be read are skipped.
+     *
+     * @param start starting truffle file.
+     * @param maxDepth maximum number of directory levels to search.
+     * @param matcher function used to decide whether a file should be included in the result, it
+     *            may be called from several threads at once.
+     * @return list of truffle files.
+     */
+    @TruffleBoundary
+    public static List<TruffleFile> findParallel(TruffleFile start, int maxDepth, Predicate<TruffleFile> matcher) {
+        return getFindPool().invoke(new FindTask(start, 0, maxDepth, matcher));
+    }
+
+    @SuppressWarnings("serial")
+    private static final class FindTask extends RecursiveTask<List<TruffleFile>> {
+        private final TruffleFile file;
+        private final int depth;
+        private final int maxDepth;
+        private final Predicate<TruffleFile> matcher;
+
+        FindTask(TruffleFile file, int depth, int maxDepth, Predicate<TruffleFile> matcher) {
+            this.file = file;
+            this.depth = depth;
+            this.maxDepth = maxDepth;
+            this.matcher = matcher;
+        }
+
+        @Override
+        protected List<TruffleFile> compute() {
+            List<TruffleFile> result = new ArrayList<>();
+            if (matcher.test(file)) {
+                result.add(file);
+            }
+            if (depth >= maxDepth || !file.isDirectory()) {
+                return result;
+            }
+            TruffleFile[] entries;
+            try (DirectoryStream<TruffleFile> stream = file.newDirectoryStream()) {
+                ArrayList<TruffleFile> list = new ArrayList<>();
+                for (TruffleFile entry : stream) {
+                    list.add(entry);
+                }
+                entries = list.toArray(new TruffleFile[list.size()]);
+            } catch (IOException | DirectoryIteratorException | SecurityException ex) {
+                return result;
+            }
+            FindTask[] tasks = new FindTask[entries.length];
+            for (int i = 0; i < entries.length; i++) {
+                tasks[i] = new FindTask(entries[i], depth + 1, maxDepth, matcher);
+            }
+            invokeAll(tasks);
+            // merge in the listing order, so that the result does not depend on the scheduling
+            for (FindTask task : tasks) {
+                List<TruffleFile> files = task.join();
+                if (!files.isEmpty()) {
+                    result.addAll(files);
+                }
+            }
+            return result;
+        }
+    }
+
     public static Stream<TruffleFile> walk(TruffleFile start, int maxDepth)
                     throws IOException {
         FileTreeIterator iterator = new FileTreeIterator(start, maxDepth);
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2014, 2018, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2014, 2020, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * This code is free software; you can redistribute it and/or modify it
@@ -24,6 +24,10 @@ package com.oracle.truffle.r.runtime;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.concurrent.Semaphore;
 
 /**
@@ -115,4 +119,90 @@ public class ProcessOutputManager {
             return data;
         }
     }
+
+    /**
+     * Reads the output of a sub-process line by line as it arrives, lines are separated by
+     * {@code '\n'} and decoded with the default charset. Only the line being read is kept as
+     * bytes, so the memory needed is about the size of the resulting strings. Trailing empty lines
+     * are dropped.
+     */
+    public static List<String> readLines(InputStream is) throws IOException {
+        Charset charset = Charset.defaultCharset();
+        ArrayList<String> lines = new ArrayList<>();
+        byte[] buffer = new byte[8192];
+        byte[] line = new byte[256];
+        int lineLength = 0;
+        int emptyLines = 0;
+        int n;
+        while ((n = is.read(buffer)) != -1) {
+            int start = 0;
+            for (int i = 0; i < n; i++) {
+                if (buffer[i] == '\n') {
+                    String s;
+                    if (lineLength == 0) {
+                        s = new String(buffer, start, i - start, charset);
+                    } else {
+                        line = append(line, lineLength, buffer, start, i - start);
+                        s = new String(line, 0, lineLength + i - start, charset);
+                        lineLength = 0;
+                    }
+                    lines.add(s);
+                    emptyLines = s.isEmpty() ? emptyLines + 1 : 0;
+                    start = i + 1;
+                }
+            }
+            if (start < n) {
+                line = append(line, lineLength, buffer, start, n - start);
+                lineLength += n - start;
+            }
+        }
+        if (lineLength > 0) {
+            lines.add(new String(line, 0, lineLength, charset));
+        } else {
+            lines.subList(lines.size() - emptyLines, lines.size()).clear();
+        }
+        return lines;
+    }
+
+    private static byte[] append(byte[] line, int lineLength, byte[] buffer, int start, int length) {
+        byte[] result = line;
+        if (lineLength + length > line.length) {
+            result = Arrays.copyOf(line, Math.max(line.length * 2, lineLength + length));
+        }
+        System.arraycopy(buffer, start, result, lineLength, length);
+        return result;
+    }
+
+    /**
+     * Reads the output of a sub-process by {@link ProcessOutputManager#readLines(InputStream)} in a
+     * separate thread, which is only needed if the reading must not block the caller, e.g., to
+     * enforce a timeout.
+     */
+    public static final class OutputThreadLines extends OutputThread {
+        private List<String> lines;
+
+        public OutputThreadLines(String name, InputStream is) {
+            super(name, is);
+        }
+
+        @Override
+        public void run() {
+            try {
+                lines = readLines(is);
+            } catch (IOException ex) {
+                // unexpected, no lines are returned
+            } finally {
+                exit.release();
+            }
+        }
+
+        public List<String> getLines() {
+            try {
+                exit.acquire();
+            } catch (InterruptedException e) {
+
+            }
+            return lines == null ? new ArrayList<>() : lines;
+        }
+    }
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2014, 2019, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2014, 2020, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * This code is free software; you can redistribute it and/or modify it
@@ -24,23 +24,34 @@ package com.oracle.truffle.r.runtime;
 
 import com.oracle.truffle.api.TruffleFile;
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
-import java.lang.ProcessBuilder.Redirect;
 import java.nio.file.OpenOption;
 import java.nio.file.StandardOpenOption;
-import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
 import java.util.zip.GZIPInputStream;
+import java.util.zip.Inflater;
 
+import org.tukaani.xz.ArrayCache;
+import org.tukaani.xz.BasicArrayCache;
+import org.tukaani.xz.FinishableOutputStream;
+import org.tukaani.xz.FinishableWrapperOutputStream;
 import org.tukaani.xz.LZMA2InputStream;
+import org.tukaani.xz.LZMA2Options;
+import org.tukaani.xz.XZ;
+import org.tukaani.xz.XZInputStream;
+import org.tukaani.xz.XZOutputStream;
 
 import com.oracle.truffle.r.runtime.context.RContext;
 import com.oracle.truffle.r.runtime.ffi.ZipRFFI;
 
 /**
- * Abstracts the implementation of the various forms of compression used in R. Since the C API for
- * LZMA is very complex (as used by GnuR), we use an 'xz' subprocess to do the work.
+ * Abstracts the implementation of the various forms of compression used in R. All of them are done
+ * in-process: gzip via the native zlib or {@link Deflater}, LZMA with the XZ for Java library and
+ * bzip2 with {@link BZip2}.
  */
 public class RCompression {
     public enum Type {
@@ -111,7 +122,7 @@ public class RCompression {
             case GZIP:
                 return gzipUncompress(udata, cdata);
             case BZIP2:
-                throw RInternalError.unimplemented("BZIP2 compression");
+                return bzipUncompress(udata, cdata);
             case XZ:
                 return lzmaUncompress(udata, cdata);
             default:
@@ -137,15 +148,41 @@ public class RCompression {
             case GZIP:
                 return gzipCompress(udata, cdata);
             case BZIP2:
-                throw RInternalError.unimplemented("BZIP2 compression");
             case XZ:
-                return lzmaCompress(udata, cdata);
+                try {
+                    byte[] compressed = compress(type, udata);
+                    if (compressed.length > cdata.length) {
+                        return false;
+                    }
+                    System.arraycopy(compressed, 0, cdata, 0, compressed.length);
+                    return true;
+                } catch (IOException ex) {
+                    return false;
+                }
             default:
                 assert false;
                 return false;
         }
     }
 
+    /**
+     * Compresses the data into the format used by lazy-load databases, i.e., a bzip2 stream for
+     * {@link Type#BZIP2} and raw LZMA2 data for {@link Type#XZ}, and returns exactly the
+     * compressed bytes.
+     */
+    public static byte[] compress(Type type, byte[] udata) throws IOException {
+        switch (type) {
+            case NONE:
+                return udata.clone();
+            case BZIP2:
+                return BZip2.compress(udata, 9);
+            case XZ:
+                return lzmaCompress(udata);
+            default:
+                throw RInternalError.shouldNotReachHere("unexpected compression type " + type);
+        }
+    }
+
     private static boolean gzipCompress(byte[] udata, byte[] cdata) {
         int rc = (int) ZipRFFI.CompressRootNode.create(RContext.getInstance()).call(cdata, udata);
         return rc == 0;
@@ -156,41 +193,56 @@ public class RCompression {
         return rc == 0;
     }
 
-    /**
-     * There is no obvious counterpart to {@link LZMA2InputStream} and according to the XZ forum it
-     * is not implemented for Java, so have to use sub-process.
-     */
-    private static boolean lzmaCompress(byte[] udata, byte[] cdata) {
-        int rc;
-        ProcessBuilder pb = new ProcessBuilder("xz", "--compress", "--format=raw", "--lzma2", "--stdout");
-        pb.redirectError(Redirect.INHERIT);
+    private static boolean bzipUncompress(byte[] udata, byte[] cdata) {
         try {
-            Process p = pb.start();
-            OutputStream os = p.getOutputStream();
-            InputStream is = p.getInputStream();
-            ProcessOutputManager.OutputThread readThread = new ProcessOutputManager.OutputThreadFixed("xz", is, cdata);
-            readThread.start();
-            os.write(udata);
-            os.close();
-            rc = p.waitFor();
-            if (rc == 0) {
-                readThread.join();
-                return true;
+            byte[] data = BZip2.uncompress(cdata, udata.length);
+            if (data.length != udata.length) {
+                return false;
             }
-        } catch (InterruptedException | IOException ex) {
+            System.arraycopy(data, 0, udata, 0, data.length);
+            return true;
+        } catch (IOException ex) {
             return false;
         }
-        assert rc != 0;
-        return false;
+    }
+
+    /**
+     * The large buffers of the LZMA encoders and decoders are reused across calls through this
+     * cache.
+     */
+    private static ArrayCache arrayCache() {
+        return BasicArrayCache.getInstance();
+    }
 
+    /**
+     * Creates the options for the given preset with the dictionary not larger than the data, a
+     * larger dictionary would only cost memory in the encoder and in the decoder.
+     */
+    private static LZMA2Options lzmaOptions(int preset, int length) throws IOException {
+        LZMA2Options options = new LZMA2Options(preset);
+        options.setDictSize(Math.max(LZMA2Options.DICT_SIZE_MIN, Math.min(options.getDictSize(), length)));
+        return options;
+    }
+
+    /**
+     * Compresses into raw LZMA2 data with the default preset, like {@code xz --format=raw --lzma2}
+     * and the {@code R_compress3} function of GnuR.
+     */
+    private static byte[] lzmaCompress(byte[] udata) throws IOException {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream(udata.length / 4 + 64);
+        LZMA2Options options = lzmaOptions(LZMA2Options.PRESET_DEFAULT, udata.length);
+        try (FinishableOutputStream os = options.getOutputStream(new FinishableWrapperOutputStream(bos), arrayCache())) {
+            os.write(udata);
+        }
+        return bos.toByteArray();
     }
 
     private static boolean lzmaUncompress(byte[] udata, byte[] data) {
         int dictSize = udata.length < LZMA2InputStream.DICT_SIZE_MIN ? LZMA2InputStream.DICT_SIZE_MIN : udata.length;
-        try (LZMA2InputStream lzmaStream = new LZMA2InputStream(new ByteArrayInputStream(data), dictSize)) {
+        try (LZMA2InputStream lzmaStream = new LZMA2InputStream(new ByteArrayInputStream(data), dictSize, null, arrayCache())) {
             int totalRead = 0;
             int n;
-            while ((n = lzmaStream.read(udata, totalRead, udata.length - totalRead)) > 0) {
+            while (totalRead < udata.length && (n = lzmaStream.read(udata, totalRead, udata.length - totalRead)) > 0) {
                 totalRead += n;
             }
             return totalRead == udata.length;
@@ -199,55 +251,134 @@ public class RCompression {
         }
     }
 
-    public static byte[] bzipUncompressFromFile(TruffleFile path) throws IOException {
-        String[] command = new String[]{"bzip2", "-dc", path.getPath()};
-        ProcessBuilder pb = new ProcessBuilder(command);
-        pb.redirectError(Redirect.INHERIT);
-        Process p = pb.start();
-        InputStream is = p.getInputStream();
-        ProcessOutputManager.OutputThreadVariable readThread = new ProcessOutputManager.OutputThreadVariable(command[0], is);
-        readThread.start();
-        try {
-            int rc = p.waitFor();
-            if (rc == 0) {
-                readThread.join();
-                return Arrays.copyOf(readThread.getData(), readThread.getTotalRead());
-            } else {
-                throw new IOException("bzip2 error code: " + rc);
+    /**
+     * Detects the compression type of {@code data} from its magic number, as done by
+     * {@code memDecompress(type = "unknown")}. Returns {@code null} if the format is not known.
+     */
+    public static Type detectType(byte[] data) {
+        if (data.length >= 2 && data[0] == Type.GZIP_MAGIC1 && data[1] == Type.GZIP_MAGIC2) {
+            return Type.GZIP;
+        } else if (data.length >= 3 && data[0] == 'B' && data[1] == 'Z' && data[2] == 'h') {
+            return Type.BZIP2;
+        } else if (data.length >= 5 && Type.decodeBuf(data) == Type.XZ) {
+            return Type.XZ;
+        }
+        return null;
+    }
+
+    /**
+     * Compresses the data into the format produced by {@code memCompress}: zlib data for
+     * {@link Type#GZIP}, a bzip2 stream and an xz container. GnuR uses the "extreme" variant of
+     * the strongest xz preset, which XZ for Java does not provide, the result is still the same
+     * format.
+     */
+    public static byte[] memCompress(Type type, byte[] data) throws IOException {
+        switch (type) {
+            case NONE:
+                return data.clone();
+            case GZIP: {
+                Deflater deflater = new Deflater();
+                try {
+                    deflater.setInput(data);
+                    deflater.finish();
+                    ByteArrayOutputStream bos = new ByteArrayOutputStream(data.length / 2 + 64);
+                    byte[] buffer = new byte[8192];
+                    while (!deflater.finished()) {
+                        bos.write(buffer, 0, deflater.deflate(buffer));
+                    }
+                    return bos.toByteArray();
+                } finally {
+                    deflater.end();
+                }
             }
-        } catch (InterruptedException ex) {
-            // fall through
+            case BZIP2:
+                return BZip2.compress(data, 9);
+            case XZ: {
+                ByteArrayOutputStream bos = new ByteArrayOutputStream(data.length / 4 + 64);
+                LZMA2Options options = lzmaOptions(LZMA2Options.PRESET_MAX, data.length);
+                try (XZOutputStream os = new XZOutputStream(bos, options, XZ.CHECK_CRC32, arrayCache())) {
+                    os.write(data);
+                }
+                return bos.toByteArray();
+            }
+            default:
+                throw RInternalError.shouldNotReachHere("unexpected compression type " + type);
         }
-        throw new IOException();
     }
 
-    public static void bzipCompressToFile(byte[] data, TruffleFile path, boolean append) throws IOException {
-        String[] command = new String[]{"bzip2", "-zc"};
-        int rc;
-        ProcessBuilder pb = new ProcessBuilder(command);
-        pb.redirectError(Redirect.INHERIT);
-        Process p = pb.start();
-        InputStream is = p.getInputStream();
-        OutputStream os = p.getOutputStream();
-        ProcessOutputManager.OutputThreadVariable readThread = new ProcessOutputManager.OutputThreadVariable(command[0], is);
-        readThread.start();
-        os.write(data);
-        os.close();
-        try {
-            rc = p.waitFor();
-            if (rc == 0) {
-                readThread.join();
-                byte[] cData = Arrays.copyOf(readThread.getData(), readThread.getTotalRead());
-                OpenOption[] openOptions = append ? new OpenOption[]{StandardOpenOption.APPEND} : new OpenOption[0];
-                path.newOutputStream(openOptions).write(cData);
-                return;
-            } else {
-                throw new IOException("bzip2 error code: " + rc);
+    /**
+     * Decompresses the data produced by {@code memCompress}, gzip data may also come with the
+     * header of a gzip file.
+     */
+    public static byte[] memDecompress(Type type, byte[] data) throws IOException {
+        switch (type) {
+            case NONE:
+                return data.clone();
+            case GZIP: {
+                if (data.length >= 2 && data[0] == Type.GZIP_MAGIC1 && data[1] == Type.GZIP_MAGIC2) {
+                    return readFully(new GZIPInputStream(new ByteArrayInputStream(data)), data.length * 3L);
+                }
+                Inflater inflater = new Inflater();
+                try {
+                    inflater.setInput(data);
+                    ByteArrayOutputStream bos = new ByteArrayOutputStream(sizeHint(data.length * 3L));
+                    byte[] buffer = new byte[8192];
+                    while (!inflater.finished()) {
+                        int n = inflater.inflate(buffer);
+                        if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                            throw new IOException("incomplete zlib data");
+                        }
+                        bos.write(buffer, 0, n);
+                    }
+                    return bos.toByteArray();
+                } catch (DataFormatException ex) {
+                    throw new IOException(ex);
+                } finally {
+                    inflater.end();
+                }
             }
-        } catch (InterruptedException ex) {
-            // fall through
+            case BZIP2:
+                return BZip2.uncompress(data, sizeHint(data.length * 4L));
+            case XZ:
+                return readFully(new XZInputStream(new ByteArrayInputStream(data), arrayCache()), data.length * 4L);
+            default:
+                throw RInternalError.shouldNotReachHere("unexpected compression type " + type);
+        }
+    }
+
+    /**
+     * The expected size of decompressed data, which only serves as the initial buffer size.
+     */
+    private static int sizeHint(long expected) {
+        return (int) Math.min(expected, 64 * 1024 * 1024);
+    }
+
+    private static byte[] readFully(InputStream is, long expectedSize) throws IOException {
+        try (InputStream in = is) {
+            ByteArrayOutputStream bos = new ByteArrayOutputStream(sizeHint(expectedSize));
+            byte[] buffer = new byte[8192];
+            int n;
+            while ((n = in.read(buffer)) != -1) {
+                bos.write(buffer, 0, n);
+            }
+            return bos.toByteArray();
+        }
+    }
+
+    public static byte[] bzipUncompressFromFile(TruffleFile path) throws IOException {
+        byte[] data;
+        try (InputStream is = path.newInputStream()) {
+            data = readFully(is, path.size());
+        }
+        return BZip2.uncompress(data, sizeHint(data.length * 4L));
+    }
+
+    public static void bzipCompressToFile(byte[] data, TruffleFile path, boolean append) throws IOException {
+        byte[] cData = BZip2.compress(data, 9);
+        OpenOption[] openOptions = append ? new OpenOption[]{StandardOpenOption.APPEND} : new OpenOption[0];
+        try (OutputStream os = path.newOutputStream(openOptions)) {
+            os.write(cData);
         }
-        throw new IOException();
     }
 
     public static String getBz2Version() throws IOException {
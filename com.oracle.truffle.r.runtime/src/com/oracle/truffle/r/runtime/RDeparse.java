@@ -41,10 +41,12 @@ import com.oracle.truffle.r.runtime.data.RAttributesLayout;
 import com.oracle.truffle.r.runtime.data.RAttributesLayout.RAttribute;
 import com.oracle.truffle.r.runtime.data.RBaseObject;
 import com.oracle.truffle.r.runtime.data.RComplex;
+import com.oracle.truffle.r.runtime.data.RDataFactory;
 import com.oracle.truffle.r.runtime.data.REmpty;
 import com.oracle.truffle.r.runtime.data.RExpression;
 import com.oracle.truffle.r.runtime.data.RExternalPtr;
 import com.oracle.truffle.r.runtime.data.RFunction;
+import com.oracle.truffle.r.runtime.data.RFunction.DeferredTarget;
 import com.oracle.truffle.r.runtime.data.RIntSeqVectorData;
 import com.oracle.truffle.r.runtime.data.RList;
 import com.oracle.truffle.r.runtime.data.RMissing;
@@ -63,6 +65,7 @@ import com.oracle.truffle.r.runtime.data.model.RAbstractListVector;
 import com.oracle.truffle.r.runtime.data.RRawVector;
 import com.oracle.truffle.r.runtime.data.model.RAbstractVector;
 import com.oracle.truffle.r.runtime.env.REnvironment;
+import com.oracle.truffle.r.runtime.gnur.SEXPTYPE;
 import com.oracle.truffle.r.runtime.interop.TruffleObjectConverter;
 import com.oracle.truffle.r.runtime.nodes.RCodeBuilder.Argument;
 import com.oracle.truffle.r.runtime.nodes.RSyntaxCall;
@@ -756,7 +759,16 @@ public class RDeparse {
                 if (f.isBuiltin()) {
                     append(".Primitive(\"").append(f.getName()).append("\")");
                 } else {
-                    RSyntaxFunction function = (RSyntaxFunction) f.getRootNode();
+                    RSyntaxFunction function;
+                    DeferredTarget deferred = f.getDeferredTarget();
+                    if (deferred != null) {
+                        // deparse the compact form instead of building the AST
+                        RPairList body = RDataFactory.createPairList(deferred.getBody(), RNull.instance, RNull.instance, SEXPTYPE.LISTSXP);
+                        RPairList formals = RDataFactory.createPairList(deferred.getFormals(), body, RNull.instance, SEXPTYPE.LISTSXP);
+                        function = (RSyntaxFunction) RDataFactory.createPairList(RDataFactory.createSymbolInterned("function"), formals, RNull.instance, SEXPTYPE.LANGSXP).getSyntaxElement();
+                    } else {
+                        function = (RSyntaxFunction) f.getRootNode();
+                    }
                     append("function (");
                     appendArgs(function.getSyntaxSignature(), function.getSyntaxArgumentDefaults(), 0, true);
                     append(") ");
@@ -73,6 +73,13 @@ public class RLogger {
      */
     public static final String LOGGER_RFFI = "com.oracle.truffle.r.rffi";
 
+    /**
+     * Log the number of calls of every R API function made by native code, the counts are printed
+     * when the context is disposed. Useful for finding the up-calls that are worth implementing as
+     * specialized nodes.
+     */
+    public static final String LOGGER_RFFI_UPCALL_PROFILE = "com.oracle.truffle.r.rffiUpCallProfile";
+
     /**
      * Log ALTREP framework functionality:<br>
      * <ul>
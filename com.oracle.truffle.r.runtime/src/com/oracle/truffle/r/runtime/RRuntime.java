@@ -736,7 +736,7 @@ public class RRuntime {
         if (object instanceof Integer) {
             return intToString((int) object);
         } else if (object instanceof Double) {
-            return Double.toString((double) object);
+            return DoubleFormatter.toString((double) object);
         } else if (object instanceof Byte) {
             return logicalToString((byte) object);
         }
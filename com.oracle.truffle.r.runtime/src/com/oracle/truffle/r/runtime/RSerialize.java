@@ -50,7 +50,6 @@ import com.oracle.truffle.api.frame.Frame;
 import com.oracle.truffle.api.frame.FrameDescriptor;
 import com.oracle.truffle.api.frame.FrameSlot;
 import com.oracle.truffle.api.frame.FrameSlotKind;
-import com.oracle.truffle.api.frame.MaterializedFrame;
 import com.oracle.truffle.api.instrumentation.StandardTags;
 import com.oracle.truffle.api.nodes.Node;
 import com.oracle.truffle.api.object.DynamicObject;
@@ -727,6 +726,16 @@ public class RSerialize {
                             // older versions of GnuR allowed 'NULL'
                             assert tagItem == RNull.instance || tagItem instanceof REnvironment;
                             REnvironment enclosingEnv = tagItem == RNull.instance ? REnvironment.baseEnv() : (REnvironment) tagItem;
+                            if (RContext.getInstance().getOption(FastROptions.DeferFunctionBodies)) {
+                                // the AST is built once the function is called
+                                DeferredFunction deferred = new DeferredFunction(carItem, cdrItem, enclosingEnv, currentFunctionName);
+                                RFunction func = RDataFactory.createDeferredFunction(currentFunctionName, packageName, deferred, enclosingEnv.getFrame());
+                                if (attrItem != RNull.instance) {
+                                    setAttributes(func, attrItem);
+                                }
+                                result = func;
+                                break;
+                            }
                             boolean restore = setupLibPath(enclosingEnv);
                             RFunction func = PairlistDeserializer.processFunction(carItem, cdrItem, enclosingEnv, currentFunctionName, packageName);
                             if (attrItem != RNull.instance) {
@@ -2830,14 +2839,8 @@ public class RSerialize {
     private static final class PairlistDeserializer {
 
         public static RFunction processFunction(Object car, Object cdr, REnvironment environment, String functionName, String packageName) {
-            // car == arguments, cdr == body, tag == PairList(attributes, environment)
-
-            MaterializedFrame enclosingFrame = environment.getFrame();
-
-            RootCallTarget callTarget = RContext.getASTBuilder().rootFunction(RContext.getInstance().getLanguage(), RSyntaxNode.LAZY_DEPARSE, processArguments(car, false), processBody(cdr),
-                            functionName == null ? "<deserialized function>" : functionName);
-            FrameSlotChangeMonitor.initializeEnclosingFrame(callTarget.getRootNode().getFrameDescriptor(), enclosingFrame);
-            RFunction func = RDataFactory.createFunction(functionName, packageName, callTarget, null, enclosingFrame);
+            RootCallTarget callTarget = processFunctionTarget(car, cdr, environment, functionName);
+            RFunction func = RDataFactory.createFunction(functionName, packageName, callTarget, null, environment.getFrame());
 
             /*
              * TODO: this is missing the code that registers sources with RPackageSource!
@@ -2845,6 +2848,14 @@ public class RSerialize {
             return func;
         }
 
+        public static RootCallTarget processFunctionTarget(Object car, Object cdr, REnvironment environment, String functionName) {
+            // car == arguments, cdr == body, tag == PairList(attributes, environment)
+            RootCallTarget callTarget = RContext.getASTBuilder().rootFunction(RContext.getInstance().getLanguage(), RSyntaxNode.LAZY_DEPARSE, processArguments(car, false), processBody(cdr),
+                            functionName == null ? "<deserialized function>" : functionName);
+            FrameSlotChangeMonitor.initializeEnclosingFrame(callTarget.getRootNode().getFrameDescriptor(), environment.getFrame());
+            return callTarget;
+        }
+
         public static RPairList processLanguage(Object car, Object cdr, Object tag) {
             Closure closure = Closure.createLanguageClosure(processCall(car, cdr, tag, null).asRNode());
             return RDataFactory.createLanguage(closure);
@@ -2972,6 +2983,107 @@ public class RSerialize {
         }
     }
 
+    /**
+     * The compact form of a deserialized closure: the formals and the body are kept as the
+     * deserialized pairlists and the AST is built by {@link PairlistDeserializer} only when the
+     * closure is called for the first time. Most of the functions lazily loaded from a package
+     * database are never called, but building their ASTs would take a large part of the package
+     * loading time and of the heap.
+     */
+    private static final class DeferredFunction implements RFunction.DeferredTarget {
+        private final REnvironment environment;
+        private final String functionName;
+        private Object formals;
+        private Object body;
+        private RootCallTarget target;
+
+        DeferredFunction(Object formals, Object body, REnvironment environment, String functionName) {
+            this.formals = formals;
+            this.body = body;
+            this.environment = environment;
+            this.functionName = functionName;
+        }
+
+        @Override
+        public synchronized RootCallTarget materialize(RFunction function) {
+            if (target == null) {
+                boolean restore = setupLibPath(environment);
+                try {
+                    RootCallTarget callTarget = PairlistDeserializer.processFunctionTarget(formals, body, environment, functionName);
+                    if (function.getAttributes() != null) {
+                        handleSrcrefAttr(function, (RSyntaxElement) callTarget.getRootNode());
+                    }
+                    target = callTarget;
+                    formals = null;
+                    body = null;
+                } finally {
+                    if (restore) {
+                        RContext.getInstance().libraryPaths.remove(0);
+                    }
+                }
+            }
+            return target;
+        }
+
+        @Override
+        public synchronized boolean isMaterialized() {
+            return target != null;
+        }
+
+        @Override
+        public synchronized Object getFormals() {
+            assert target == null;
+            return toRValue(formals);
+        }
+
+        @Override
+        public synchronized Object getBody() {
+            assert target == null;
+            Object value = body;
+            if (value instanceof RPairList && ((RPairList) value).getType() == SEXPTYPE.LISTSXP) {
+                value = ((RPairList) value).car();
+            }
+            return toRValue(value);
+        }
+
+        /**
+         * Copies a deserialized pairlist into the R values the AST would give, i.e., missing
+         * arguments are represented by {@link RSymbol#MISSING} and byte-code is replaced by its
+         * expression.
+         */
+        private static Object toRValue(Object value) {
+            if (value == RMissing.instance) {
+                return RSymbol.MISSING;
+            } else if (value instanceof RPairList) {
+                RPairList pl = (RPairList) value;
+                SEXPTYPE type = pl.getType();
+                if (type == SEXPTYPE.BCODESXP) {
+                    return toRValue(((RAbstractListVector) pl.cdr()).getDataAt(0));
+                } else if (type == SEXPTYPE.LANGSXP || type == SEXPTYPE.LISTSXP) {
+                    RPairList result = null;
+                    RPairList last = null;
+                    Object current = pl;
+                    while (current instanceof RPairList) {
+                        RPairList cell = (RPairList) current;
+                        RPairList copy = RDataFactory.createPairList(toRValue(cell.car()), RNull.instance, cell.getTag(), cell.getType());
+                        if (cell.getAttributes() != null) {
+                            copy.initAttributes(RAttributesLayout.copy(cell.getAttributes()));
+                        }
+                        if (last == null) {
+                            result = copy;
+                        } else {
+                            last.setCdr(copy);
+                        }
+                        last = copy;
+                        current = cell.cdr();
+                    }
+                    return result;
+                }
+            }
+            return value;
+        }
+    }
+
     private static void handleFunctionSrcrefAttr(RFunction func) {
         handleSrcrefAttr(func, (RSyntaxElement) func.getRootNode());
     }
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2015, 2019, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2015, 2020, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * This code is free software; you can redistribute it and/or modify it
@@ -24,6 +24,7 @@ package com.oracle.truffle.r.runtime.builtins;
 
 import java.util.function.Supplier;
 
+import com.oracle.truffle.api.Assumption;
 import com.oracle.truffle.r.runtime.RVisibility;
 import com.oracle.truffle.r.runtime.context.RContext;
 import com.oracle.truffle.r.runtime.nodes.RFastPathNode;
@@ -148,6 +149,24 @@ public interface FastPathFactory {
 
     boolean forcedEagerPromise(int index);
 
+    /**
+     * Whether the value of an argument for which {@link #forcedEagerPromise(int)} holds can be
+     * passed to the function as is, i.e., without wrapping it into a promise. This is only valid
+     * if the function never inspects the argument as a promise, e.g., via {@code substitute} or
+     * {@code missing}.
+     */
+    default boolean passesEagerValue(@SuppressWarnings("unused") int index) {
+        return false;
+    }
+
+    /**
+     * The assumptions under which {@link #passesEagerValue(int)} holds, the caller checks them
+     * again whenever it passes a value.
+     */
+    default Assumption[] getEagerValueAssumptions() {
+        return null;
+    }
+
     /**
      * Visibility of the output. This corresponds to {@link RBuiltin#visibility()}
      */
@@ -79,6 +79,8 @@ public class ConnectionSupport {
          */
         private int hwm = 2;
 
+        final SocketConnections.SocketState sockets = new SocketConnections.SocketState();
+
         private ContextStateImpl() {
             for (int i = 0; i < MAX_CONNECTIONS; i++) {
                 allConnections.add(i, null);
@@ -174,6 +176,7 @@ public class ConnectionSupport {
                     ref.clear();
                 }
             }
+            sockets.dispose();
         }
 
         private static void closeAndDestroy(BaseRConnection con) {
@@ -69,11 +69,21 @@ abstract class DelegateRConnection extends RBaseObject implements RConnection, B
     }
 
     DelegateRConnection(BaseRConnection base, int cacheSize, boolean readCache) {
+        this(base, cacheSize, readCache, false);
+    }
+
+    /**
+     * @param direct if {@code true}, the cache is a direct buffer, which saves a copy when reading
+     *            from channels backed by a file descriptor, e.g., sockets. Only read caches may be
+     *            direct.
+     */
+    DelegateRConnection(BaseRConnection base, int cacheSize, boolean readCache, boolean direct) {
+        assert !direct || readCache;
         this.base = Objects.requireNonNull(base);
         this.readCache = readCache;
 
         if (cacheSize > 0) {
-            cache = ByteBuffer.allocate(cacheSize);
+            cache = direct ? ByteBuffer.allocateDirect(cacheSize) : ByteBuffer.allocate(cacheSize);
 
             // indicate that there are no remaining bytes in the buffer to read
             if (readCache) {
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2014, 2018, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2014, 2020, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * This code is free software; you can redistribute it and/or modify it
@@ -33,4 +33,8 @@ abstract class DelegateReadWriteRConnection extends DelegateRConnection {
     protected DelegateReadWriteRConnection(BaseRConnection base, int cacheSize) {
         super(base, cacheSize, true);
     }
+
+    protected DelegateReadWriteRConnection(BaseRConnection base, int cacheSize, boolean direct) {
+        super(base, cacheSize, true, direct);
+    }
 }
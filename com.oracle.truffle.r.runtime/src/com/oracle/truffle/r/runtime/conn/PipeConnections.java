@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2014, 2018, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2014, 2020, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * This code is free software; you can redistribute it and/or modify it
@@ -28,9 +28,6 @@ import java.io.OutputStream;
 import java.lang.ProcessBuilder.Redirect;
 import java.nio.ByteBuffer;
 import java.nio.channels.ByteChannel;
-import java.nio.channels.Channels;
-import java.nio.channels.ReadableByteChannel;
-import java.nio.channels.WritableByteChannel;
 
 import com.oracle.truffle.r.runtime.RError;
 import com.oracle.truffle.r.runtime.conn.ConnectionSupport.AbstractOpenMode;
@@ -39,16 +36,23 @@ import com.oracle.truffle.r.runtime.conn.ConnectionSupport.ConnectionClass;
 
 public class PipeConnections {
 
-    private static Process executeAndJoin(String command) throws IOException {
+    /**
+     * Starts the command like {@code popen} does, the process runs concurrently with R and its
+     * output is consumed as it is produced. The standard error is inherited, as is the standard
+     * output if R only writes to the process. If R only reads from the process, its standard input
+     * is closed right away.
+     */
+    private static ProcessChannel execute(String command, boolean read, boolean write) throws IOException {
         ProcessBuilder pb = new ProcessBuilder("/bin/sh", "-c", command);
         pb.redirectError(Redirect.INHERIT);
+        if (!read) {
+            pb.redirectOutput(Redirect.INHERIT);
+        }
         Process p = pb.start();
-        try {
-            p.waitFor();
-        } catch (InterruptedException e) {
-            // TODO not sure how to handle an interrupted exception at this point
+        if (!write) {
+            p.getOutputStream().close();
         }
-        return p;
+        return new ProcessChannel(p, read ? p.getInputStream() : null, write ? p.getOutputStream() : null);
     }
 
     public static class PipeRConnection extends BaseRConnection {
@@ -93,12 +97,11 @@ public class PipeConnections {
     }
 
     static class PipeReadRConnection extends DelegateReadRConnection {
-        private final ByteChannel channel;
+        private final ProcessChannel channel;
 
         protected PipeReadRConnection(BaseRConnection base, String command) throws IOException {
             super(base);
-            Process p = PipeConnections.executeAndJoin(command);
-            channel = ConnectionSupport.newChannel(p.getInputStream());
+            channel = PipeConnections.execute(command, true, false);
         }
 
         @Override
@@ -113,12 +116,11 @@ public class PipeConnections {
     }
 
     private static class PipeWriteConnection extends DelegateWriteRConnection {
-        private final ByteChannel channel;
+        private final ProcessChannel channel;
 
         PipeWriteConnection(BaseRConnection base, String command) throws IOException {
             super(base);
-            Process p = PipeConnections.executeAndJoin(command);
-            channel = ConnectionSupport.newChannel(p.getOutputStream());
+            channel = PipeConnections.execute(command, false, true);
         }
 
         @Override
@@ -126,6 +128,11 @@ public class PipeConnections {
             return channel;
         }
 
+        @Override
+        public void flush() throws IOException {
+            channel.flush();
+        }
+
         @Override
         public boolean isSeekable() {
             return false;
@@ -133,13 +140,11 @@ public class PipeConnections {
     }
 
     private static class PipeReadWriteConnection extends DelegateReadWriteRConnection {
-
-        private final RWChannel channel;
+        private final ProcessChannel channel;
 
         protected PipeReadWriteConnection(BaseRConnection base, String command) throws IOException {
             super(base);
-            Process p = PipeConnections.executeAndJoin(command);
-            channel = new RWChannel(p.getInputStream(), p.getOutputStream());
+            channel = PipeConnections.execute(command, true, true);
         }
 
         @Override
@@ -147,41 +152,109 @@ public class PipeConnections {
             return channel;
         }
 
+        @Override
+        public void flush() throws IOException {
+            channel.flush();
+        }
+
         @Override
         public boolean isSeekable() {
             return false;
         }
+    }
 
-        private static final class RWChannel implements ByteChannel {
-            private final ReadableByteChannel rchannel;
-            private final WritableByteChannel wchannel;
+    /**
+     * Channel reading from and writing to the standard streams of a process. The data are
+     * transferred directly between the streams and the arrays of the buffers, i.e., without the
+     * intermediate copy {@link java.nio.channels.Channels#newChannel} does. Like {@code stdio},
+     * the output is buffered until it is flushed, the channel is closed or input is requested.
+     * Closing the channel waits for the process to end, like {@code pclose} does.
+     */
+    private static final class ProcessChannel implements ByteChannel {
+        private final Process process;
+        private final InputStream in;
+        private final OutputStream out;
+        private boolean open = true;
 
-            RWChannel(InputStream in, OutputStream out) {
-                rchannel = Channels.newChannel(in);
-                wchannel = Channels.newChannel(out);
-            }
+        ProcessChannel(Process process, InputStream in, OutputStream out) {
+            this.process = process;
+            this.in = in;
+            this.out = out;
+        }
 
-            @Override
-            public int read(ByteBuffer dst) throws IOException {
-                return rchannel.read(dst);
+        @Override
+        public int read(ByteBuffer dst) throws IOException {
+            if (in == null) {
+                throw new IOException("This channel is write-only.");
             }
-
-            @Override
-            public boolean isOpen() {
-                return rchannel.isOpen() && wchannel.isOpen();
+            if (out != null) {
+                // the process may be waiting for the input before producing any output
+                out.flush();
             }
+            int n;
+            if (dst.hasArray()) {
+                n = in.read(dst.array(), dst.arrayOffset() + dst.position(), dst.remaining());
+                if (n > 0) {
+                    dst.position(dst.position() + n);
+                }
+            } else {
+                byte[] buf = new byte[dst.remaining()];
+                n = in.read(buf);
+                if (n > 0) {
+                    dst.put(buf, 0, n);
+                }
+            }
+            return n;
+        }
 
-            @Override
-            public void close() throws IOException {
-                rchannel.close();
-                wchannel.close();
+        @Override
+        public int write(ByteBuffer src) throws IOException {
+            if (out == null) {
+                throw new IOException("This channel is read-only.");
             }
+            int n = src.remaining();
+            if (src.hasArray()) {
+                out.write(src.array(), src.arrayOffset() + src.position(), n);
+                src.position(src.limit());
+            } else {
+                byte[] buf = new byte[n];
+                src.get(buf);
+                out.write(buf);
+            }
+            return n;
+        }
 
-            @Override
-            public int write(ByteBuffer src) throws IOException {
-                return wchannel.write(src);
+        void flush() throws IOException {
+            if (out != null) {
+                out.flush();
             }
         }
 
+        @Override
+        public boolean isOpen() {
+            return open;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (!open) {
+                return;
+            }
+            open = false;
+            try {
+                if (out != null) {
+                    out.close();
+                }
+            } finally {
+                if (in != null) {
+                    in.close();
+                }
+                try {
+                    process.waitFor();
+                } catch (InterruptedException e) {
+                    // the process continues to run on its own
+                }
+            }
+        }
     }
 }
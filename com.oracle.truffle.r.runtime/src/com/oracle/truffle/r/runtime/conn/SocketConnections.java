@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2014, 2019, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2014, 2020, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * This code is free software; you can redistribute it and/or modify it
@@ -25,13 +25,13 @@ package com.oracle.truffle.r.runtime.conn;
 import java.io.IOException;
 import java.net.InetSocketAddress;
 import java.net.Socket;
+import java.net.SocketTimeoutException;
 import java.nio.channels.ByteChannel;
 import java.nio.channels.SelectionKey;
 import java.nio.channels.Selector;
 import java.nio.channels.ServerSocketChannel;
 import java.nio.channels.SocketChannel;
 import java.util.HashMap;
-import java.util.Set;
 
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.r.runtime.RCompression;
@@ -42,6 +42,7 @@ import static com.oracle.truffle.r.runtime.conn.ConnectionSupport.AbstractOpenMo
 import com.oracle.truffle.r.runtime.conn.ConnectionSupport.BaseRConnection;
 import com.oracle.truffle.r.runtime.conn.ConnectionSupport.ConnectionClass;
 import com.oracle.truffle.r.runtime.conn.ConnectionSupport.OpenMode;
+import com.oracle.truffle.r.runtime.context.RContext;
 import java.nio.ByteBuffer;
 import java.nio.channels.Channels;
 import java.nio.channels.WritableByteChannel;
@@ -104,11 +105,7 @@ public class SocketConnections {
             } else if (server) {
                 delegate = new RServerSocketConnection(this);
             } else {
-                if (isBlocking()) {
-                    delegate = new RClientSocketConnection(this);
-                } else {
-                    delegate = new RClientSocketNonBlockConnection(this);
-                }
+                delegate = new RClientSocketConnection(this);
             }
             return delegate;
         }
@@ -159,63 +156,292 @@ public class SocketConnections {
 
         @TruffleBoundary
         public static byte[] select(RSocketConnection[] socketConnections, boolean write, long timeout) throws IOException {
-            int op = write ? SelectionKey.OP_WRITE : SelectionKey.OP_READ;
+            return getSocketState().select(socketConnections, write, timeout);
+        }
+    }
 
-            HashMap<RSocketConnection, SelectionKey> table = new HashMap<>();
-            Selector selector = Selector.open();
-            for (RSocketConnection con : socketConnections) {
-                con.checkOpen();
+    private static SocketState getSocketState() {
+        return RContext.getInstance().stateRConnection.sockets;
+    }
+
+    /**
+     * Per-context state of the socket connections. The channels of all socket connections are in
+     * non-blocking mode and are registered with a {@link Selector} that lives as long as the
+     * context, the registration is done only once per channel. Blocking connections wait on the
+     * selector whenever the channel is not ready. The state also keeps a listening server socket
+     * open as long as there is an open connection accepted from it, so that a server can accept
+     * further connections on the same port without re-binding it. The listening socket is closed
+     * together with the last of its connections, like R closes it once the connection is accepted.
+     */
+    static final class SocketState {
+        private Selector selector;
+        private final HashMap<Integer, Listener> listeners = new HashMap<>();
 
-                SocketChannel sc = (SocketChannel) con.theConnection.getChannel();
-                sc.configureBlocking(false);
-                table.put(con, sc.register(selector, op));
+        private Selector getSelector() throws IOException {
+            if (selector == null) {
+                selector = Selector.open();
             }
-            int select;
-            if (timeout >= 0) {
-                select = selector.select(timeout);
-            } else {
-                select = selector.select();
+            return selector;
+        }
+
+        private SelectionKey register(SocketChannel channel, int ops) throws IOException {
+            Selector sel = getSelector();
+            SelectionKey key = channel.keyFor(sel);
+            if (key != null && key.isValid()) {
+                key.interestOps(ops);
+                return key;
+            }
+            if (key != null) {
+                // the cancelled key is removed from the selector by the next selection
+                sel.selectNow();
+                sel.selectedKeys().clear();
+            }
+            channel.configureBlocking(false);
+            return channel.register(sel, ops);
+        }
+
+        /**
+         * Removes the channel from the selector so that it can be switched to blocking mode.
+         */
+        private void deregister(SocketChannel channel) throws IOException {
+            if (selector != null) {
+                SelectionKey key = channel.keyFor(selector);
+                if (key != null) {
+                    key.cancel();
+                    selector.selectNow();
+                    selector.selectedKeys().clear();
+                }
             }
+        }
 
+        /**
+         * Waits until the channel is ready for given operation, returns {@code false} if the
+         * timeout (in milliseconds, zero means no timeout) elapsed.
+         */
+        private boolean await(SocketChannel channel, int op, long timeout) throws IOException {
+            SelectionKey key = register(channel, op);
+            Selector sel = getSelector();
+            sel.selectedKeys().clear();
+            int selected = sel.select(timeout);
+            boolean ready = selected > 0 && sel.selectedKeys().contains(key);
+            sel.selectedKeys().clear();
+            if (key.isValid()) {
+                key.interestOps(0);
+            }
+            return ready;
+        }
+
+        private byte[] select(RSocketConnection[] socketConnections, boolean write, long timeout) throws IOException {
+            int op = write ? SelectionKey.OP_WRITE : SelectionKey.OP_READ;
             byte[] result = new byte[socketConnections.length];
-            if (select > 0) {
-                Set<SelectionKey> selectedKeys = selector.selectedKeys();
-                for (int i = 0; i < result.length; i++) {
-                    result[i] = RRuntime.asLogical(selectedKeys.contains(table.get(socketConnections[i])));
+            SelectionKey[] keys = new SelectionKey[socketConnections.length];
+            boolean buffered = false;
+            for (int i = 0; i < socketConnections.length; i++) {
+                RSocketConnection con = socketConnections[i];
+                con.checkOpen();
+                if (!(con.theConnection instanceof RSocketDelegateConection)) {
+                    throw RError.error(RError.SHOW_CALLER, RError.Message.NOT_A_SOCKET_CONNECTION);
+                }
+                RSocketDelegateConection delegate = (RSocketDelegateConection) con.theConnection;
+                if (!write && delegate.hasBufferedInput()) {
+                    // the data were already read from the channel
+                    result[i] = RRuntime.LOGICAL_TRUE;
+                    buffered = true;
+                } else {
+                    result[i] = RRuntime.LOGICAL_FALSE;
+                    keys[i] = register(delegate.getSocketChannel(), op);
+                }
+            }
+            Selector sel = getSelector();
+            sel.selectedKeys().clear();
+            if (buffered || timeout == 0) {
+                sel.selectNow();
+            } else if (timeout > 0) {
+                sel.select(timeout);
+            } else {
+                sel.select();
+            }
+            for (SelectionKey key : keys) {
+                if (key != null && key.isValid()) {
+                    key.interestOps(0);
+                }
+            }
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i] != null) {
+                    result[i] = RRuntime.asLogical(sel.selectedKeys().contains(keys[i]));
                 }
             }
+            sel.selectedKeys().clear();
             return result;
         }
+
+        /**
+         * Accepts a connection on given port, the listening server socket is created if there is
+         * no open connection accepted from it. Every accepted connection must be released by
+         * {@link #release(int)} when it is closed.
+         */
+        private SocketChannel accept(int port) throws IOException {
+            Listener listener = listeners.get(port);
+            if (listener == null) {
+                ServerSocketChannel channel = ServerSocketChannel.open();
+                // allow re-binding the port while the connections of a previous listener linger
+                channel.socket().setReuseAddress(true);
+                try {
+                    channel.socket().bind(new InetSocketAddress(port));
+                } catch (IOException ex) {
+                    channel.close();
+                    throw ex;
+                }
+                listener = new Listener(channel);
+                listeners.put(port, listener);
+            }
+            SocketChannel connection;
+            try {
+                connection = listener.channel.accept();
+            } catch (IOException ex) {
+                if (listener.connections == 0) {
+                    listeners.remove(port);
+                    listener.channel.close();
+                }
+                throw ex;
+            }
+            listener.connections++;
+            return connection;
+        }
+
+        /**
+         * Closes the listening server socket on given port if the last connection accepted from
+         * it was closed.
+         */
+        private void release(int port) throws IOException {
+            Listener listener = listeners.get(port);
+            if (listener != null && --listener.connections == 0) {
+                listeners.remove(port);
+                listener.channel.close();
+            }
+        }
+
+        void dispose() {
+            for (Listener listener : listeners.values()) {
+                try {
+                    listener.channel.close();
+                } catch (IOException ex) {
+                    // ignore
+                }
+            }
+            listeners.clear();
+            if (selector != null) {
+                try {
+                    selector.close();
+                } catch (IOException ex) {
+                    // ignore
+                }
+                selector = null;
+            }
+        }
+    }
+
+    private static final class Listener {
+        private final ServerSocketChannel channel;
+        /**
+         * The number of open connections accepted from the channel.
+         */
+        private int connections;
+
+        Listener(ServerSocketChannel channel) {
+            this.channel = channel;
+        }
+    }
+
+    /**
+     * Byte channel view of a non-blocking socket channel. If the connection is blocking, reads wait
+     * for at least one byte and writes wait until all the bytes are written. Writes to a
+     * non-blocking connection also write all the bytes, as R does not check how many bytes were
+     * written.
+     */
+    private static final class SocketByteChannel implements ByteChannel {
+        private final SocketChannel channel;
+        private final boolean blocking;
+        private final long timeout;
+
+        SocketByteChannel(SocketChannel channel, boolean blocking, long timeout) {
+            this.channel = channel;
+            this.blocking = blocking;
+            this.timeout = timeout;
+        }
+
+        @Override
+        public int read(ByteBuffer dst) throws IOException {
+            int n = channel.read(dst);
+            while (n == 0 && blocking && dst.hasRemaining()) {
+                if (!getSocketState().await(channel, SelectionKey.OP_READ, timeout) && timeout > 0) {
+                    throw new SocketTimeoutException("Read timed out");
+                }
+                n = channel.read(dst);
+            }
+            return n;
+        }
+
+        @Override
+        public int write(ByteBuffer src) throws IOException {
+            int total = 0;
+            while (src.hasRemaining()) {
+                int n = channel.write(src);
+                if (n == 0 && !getSocketState().await(channel, SelectionKey.OP_WRITE, timeout) && timeout > 0) {
+                    throw new SocketTimeoutException("Write timed out");
+                }
+                total += n;
+            }
+            return total;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return channel.isOpen();
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
     }
 
     private interface RSocketDelegateConection {
         SocketChannel getSocketChannel();
+
+        /**
+         * Tells if there are data that were already read from the channel but not consumed yet.
+         */
+        boolean hasBufferedInput();
     }
 
     private abstract static class RSocketReadWriteConnection extends DelegateReadWriteRConnection implements RSocketDelegateConection {
-        private Socket socket;
-        private SocketChannel channel;
+        private SocketChannel socketChannel;
+        private SocketByteChannel channel;
         protected final RSocketConnection thisBase;
 
         protected RSocketReadWriteConnection(RSocketConnection base) {
-            super(base, 0);
+            // reads are buffered in a direct buffer, so that bulk reads do not need a copy
+            super(base, DEFAULT_CACHE_SIZE, true);
             this.thisBase = base;
         }
 
         protected void openStreams(SocketChannel socketArg) throws IOException {
-            channel = socketArg;
-            socket = socketArg.socket();
-            if (thisBase.isBlocking()) {
-                channel.configureBlocking(true);
-                // Java (int) timeouts do not meet the POSIX standard of 31 days
-                long millisTimeout = ((long) thisBase.timeout) * 1000;
-                if (millisTimeout > Integer.MAX_VALUE) {
-                    millisTimeout = Integer.MAX_VALUE;
-                }
-                socket.setSoTimeout((int) millisTimeout);
-            } else {
-                channel.configureBlocking(false);
+            socketChannel = socketArg;
+            socketChannel.configureBlocking(false);
+            // Java (int) timeouts do not meet the POSIX standard of 31 days
+            long millisTimeout = ((long) thisBase.timeout) * 1000;
+            if (millisTimeout > Integer.MAX_VALUE) {
+                millisTimeout = Integer.MAX_VALUE;
             }
+            channel = new SocketByteChannel(socketChannel, thisBase.isBlocking(), Math.max(millisTimeout, 0));
+        }
+
+        @Override
+        @TruffleBoundary
+        public int write(ByteBuffer src) throws IOException {
+            // sockets are not seekable, the buffered input stays valid
+            return channel.write(src);
         }
 
         @Override
@@ -225,7 +451,12 @@ public class SocketConnections {
 
         @Override
         public SocketChannel getSocketChannel() {
-            return channel;
+            return socketChannel;
+        }
+
+        @Override
+        public boolean hasBufferedInput() {
+            return bytesInCache() > 0;
         }
 
         @Override
@@ -244,6 +475,7 @@ public class SocketConnections {
 
         protected void openStreams(SocketChannel socketArg) throws IOException {
             socket = socketArg.socket();
+            getSocketState().deregister(socketArg);
             if (!socketArg.isBlocking()) {
                 // have to block with GZIPOutputStream
                 socketArg.configureBlocking(true);
@@ -286,77 +518,24 @@ public class SocketConnections {
         }
     }
 
-    private abstract static class RSocketReadWriteNonBlockConnection extends DelegateReadWriteRConnection implements RSocketDelegateConection {
-        private Socket socket;
-        private SocketChannel socketChannel;
-
-        protected RSocketReadWriteNonBlockConnection(RSocketConnection base) {
-            super(base, 0);
-        }
-
-        protected void openStreams(Socket socketArg) throws IOException {
-            this.socket = socketArg;
-            this.socketChannel = socket.getChannel();
-            socketChannel.configureBlocking(false);
-        }
-
-        @Override
-        public void close() throws IOException {
-            socketChannel.close();
-            socket.close();
-        }
-
-        @Override
-        public ByteChannel getChannel() {
-            return socketChannel;
-        }
-
-        @Override
-        public SocketChannel getSocketChannel() {
-            return socketChannel;
-        }
-
-        @Override
-        public boolean isSeekable() {
-            return false;
-        }
-    }
-
-    private static class RServerSocketConnection extends RSocketReadWriteConnection implements RSocketDelegateConection {
-        private final SocketChannel connectionSocket;
+    private static class RServerSocketConnection extends RSocketReadWriteConnection {
 
         RServerSocketConnection(RSocketConnection base) throws IOException {
             super(base);
-            InetSocketAddress addr = new InetSocketAddress(base.port);
-            ServerSocketChannel serverSocketChannel = ServerSocketChannel.open();
-
-            // we expect only one connection per-server socket; furthermore, we need to accommodate
-            // for multiple connections being established locally on the same server port;
-            // consequently, we close the server socket at the end of the constructor and allow
-            // address reuse to be able to open the next connection after the current one closes
-            serverSocketChannel.socket().setReuseAddress(true);
-            serverSocketChannel.socket().bind(addr);
-            connectionSocket = serverSocketChannel.accept();
+            // the listening socket stays open until this connection is closed, further
+            // connections on the same port are accepted from it
+            SocketChannel connectionSocket = getSocketState().accept(base.port);
             openStreams(connectionSocket);
-            serverSocketChannel.close();
         }
 
         @Override
         public void close() throws IOException {
-            super.close();
-            connectionSocket.close();
-        }
-
-        @Override
-        public ByteChannel getChannel() {
-            return connectionSocket;
-        }
-
-        @Override
-        public SocketChannel getSocketChannel() {
-            return connectionSocket;
+            try {
+                super.close();
+            } finally {
+                getSocketState().release(thisBase.port);
+            }
         }
-
     }
 
     private static class RClientSocketConnection extends RSocketReadWriteConnection {
@@ -368,15 +547,6 @@ public class SocketConnections {
         }
     }
 
-    private static class RClientSocketNonBlockConnection extends RSocketReadWriteNonBlockConnection {
-
-        RClientSocketNonBlockConnection(RSocketConnection base) throws IOException {
-            super(base);
-            SocketChannel socketChannel = SocketChannel.open(new InetSocketAddress(base.host, base.port));
-            openStreams(socketChannel.socket());
-        }
-    }
-
     private static class RClientSocketGZipConnection extends RSocketGZipConnection {
         RClientSocketGZipConnection(RSocketConnection base) throws IOException {
             super(base);
@@ -384,5 +554,18 @@ public class SocketConnections {
             SocketChannel socketChannel = ((RSocketDelegateConection) base.theConnection).getSocketChannel();
             openStreams(socketChannel);
         }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                super.close();
+            } finally {
+                // the server connection replaced by this one is not closed on its own
+                RSocketConnection socketBase = (RSocketConnection) base;
+                if (socketBase.server) {
+                    getSocketState().release(socketBase.port);
+                }
+            }
+        }
     }
 }
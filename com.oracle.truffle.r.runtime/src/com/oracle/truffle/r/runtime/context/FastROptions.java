@@ -84,6 +84,14 @@ public class FastROptions {
     public static final OptionKey<Boolean> LoadProfiles = new OptionKey<>(!FastRConfig.ManagedMode);
     @Option(category = OptionCategory.EXPERT, help = "Use 128 bit arithmetic in sum builtin") //
     public static final OptionKey<Boolean> FullPrecisionSum = new OptionKey<>(false);
+    @Option(category = OptionCategory.EXPERT, help = "Sum blocks of very long double vectors in parallel") //
+    public static final OptionKey<Boolean> ParallelSum = new OptionKey<>(false);
+    @Option(category = OptionCategory.EXPERT, help = "Defer element-wise arithmetic on long double vectors and fuse it into the operation that reads the result") //
+    public static final OptionKey<Boolean> DeferArithmetic = new OptionKey<>(false);
+    @Option(category = OptionCategory.EXPERT, help = "Build the ASTs of closures loaded from package databases only when they are called for the first time") //
+    public static final OptionKey<Boolean> DeferFunctionBodies = new OptionKey<>(true);
+    @Option(category = OptionCategory.EXPERT, help = "Allocate vectors directly in native memory at allocation sites whose vectors usually end up in native code") //
+    public static final OptionKey<Boolean> NativeFirstAllocation = new OptionKey<>(false);
     @Option(category = OptionCategory.EXPERT, help = "Argument writes do not trigger state transitions") //
     public static final OptionKey<Boolean> InvisibleArgs = new OptionKey<>(true);
     @Option(category = OptionCategory.EXPERT, help = "Disable reference count decrements") //
@@ -111,6 +119,8 @@ public class FastROptions {
     public static final OptionKey<Boolean> EagerEvalDefault = new OptionKey<>(false);
     @Option(category = OptionCategory.INTERNAL, help = "Enables optimistic eager evaluation of trivial expressions") //
     public static final OptionKey<Boolean> EagerEvalExpressions = new OptionKey<>(false);
+    @Option(category = OptionCategory.INTERNAL, help = "Passes eagerly evaluated arguments as plain values to closures that never inspect their promises") //
+    public static final OptionKey<Boolean> EagerEvalPassValues = new OptionKey<>(true);
     @Option(category = OptionCategory.INTERNAL, help = "Enables inline caches for promises evaluation") //
     public static final OptionKey<Integer> PromiseCacheSize = new OptionKey<>(3);
     @Option(category = OptionCategory.INTERNAL, help = "Factor by which are multiplied all DSL 'limit' values where applicable.") //
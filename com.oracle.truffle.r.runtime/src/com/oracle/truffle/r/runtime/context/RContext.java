@@ -104,6 +104,7 @@ import com.oracle.truffle.r.runtime.builtins.RBuiltinLookup;
 import com.oracle.truffle.r.runtime.conn.ConnectionSupport;
 import com.oracle.truffle.r.runtime.conn.StdConnections;
 import com.oracle.truffle.r.runtime.data.LanguageClosureCache;
+import com.oracle.truffle.r.runtime.data.NativeAllocationSite;
 import com.oracle.truffle.r.runtime.data.RDataFactory;
 import com.oracle.truffle.r.runtime.data.RFunction;
 import com.oracle.truffle.r.runtime.data.RStringVector;
@@ -338,6 +339,13 @@ public final class RContext {
     private static final Assumption isSingleContextAssumption = Truffle.getRuntime().createAssumption("is single RContext");
 
     private final Env env;
+
+    /**
+     * Replaces the application arguments reported by {@code commandArgs()} when set, which allows
+     * a context prepared in advance to run a script with different arguments.
+     */
+    private String[] commandArgs;
+
     private final boolean initial;
     /**
      * State that is used to support interposing on loadNamespace() for overrides.
@@ -371,6 +379,7 @@ public final class RContext {
     public final AltRepContext altRepContext;
 
     public final RFFIUpCallTargets rffiUpCallTargets;
+    public final NativeAllocationSite.AllocVectorSites allocVectorSites = new NativeAllocationSite.AllocVectorSites(this);
 
     @CompilationFinal private RFFIContext stateRFFI;
 
@@ -664,6 +673,14 @@ public final class RContext {
         return env;
     }
 
+    public String[] getCommandArgs() {
+        return commandArgs != null ? commandArgs : env.getApplicationArguments();
+    }
+
+    public void setCommandArgs(String[] commandArgs) {
+        this.commandArgs = commandArgs;
+    }
+
     public FastROptions getFastROptions() {
         return fastrOptions;
     }
@@ -0,0 +1,179 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 3 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 3 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.r.runtime.data;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+
+import com.oracle.truffle.api.CompilerDirectives.CompilationFinal;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.TruffleFile;
+
+/**
+ * Read-only memory mapped region of a file that holds the elements of a vector, see
+ * {@link RDoubleMappedVectorData}, {@link RIntMappedVectorData} and {@link RRawMappedVectorData}.
+ * The region is split into chunks of at most {@code 2^30} bytes, because a {@link ByteBuffer} can
+ * be indexed only by {@code int}. The mapping is released by the garbage collector once the region
+ * is not referenced anymore.
+ */
+public final class MappedFileRegion {
+
+    private static final int CHUNK_SHIFT = 30;
+
+    @CompilationFinal(dimensions = 1) private final ByteBuffer[] chunks;
+    private final ByteOrder order;
+    private final int elementShift;
+    private final int chunkElementShift;
+    private final int chunkElementMask;
+    private final int length;
+
+    private MappedFileRegion(ByteBuffer[] chunks, ByteOrder order, int elementShift, int length) {
+        this.chunks = chunks;
+        this.order = order;
+        this.elementShift = elementShift;
+        this.chunkElementShift = CHUNK_SHIFT - elementShift;
+        this.chunkElementMask = (1 << chunkElementShift) - 1;
+        this.length = length;
+    }
+
+    /**
+     * Maps {@code length} elements of size {@code elementSize} (1, 4 or 8 bytes) starting at byte
+     * {@code offset} of the file.
+     */
+    @TruffleBoundary
+    public static MappedFileRegion map(TruffleFile file, long offset, int length, int elementSize, ByteOrder order) throws IOException {
+        assert elementSize == 1 || elementSize == 4 || elementSize == 8;
+        int elementShift = Integer.numberOfTrailingZeros(elementSize);
+        long byteLength = (long) length << elementShift;
+        try (SeekableByteChannel channel = file.newByteChannel(Collections.singleton(StandardOpenOption.READ))) {
+            if (!(channel instanceof FileChannel)) {
+                throw new IOException("file '" + file + "' cannot be memory mapped");
+            }
+            if (offset < 0 || offset + byteLength > channel.size()) {
+                throw new IOException("region of " + byteLength + " bytes at offset " + offset + " exceeds the size of file '" + file + "'");
+            }
+            FileChannel fileChannel = (FileChannel) channel;
+            long chunkSize = 1L << CHUNK_SHIFT;
+            ByteBuffer[] chunks = new ByteBuffer[(int) ((byteLength + chunkSize - 1) >> CHUNK_SHIFT)];
+            for (int i = 0; i < chunks.length; i++) {
+                long start = (long) i << CHUNK_SHIFT;
+                MappedByteBuffer chunk = fileChannel.map(MapMode.READ_ONLY, offset + start, Math.min(chunkSize, byteLength - start));
+                chunks[i] = chunk.order(order);
+            }
+            return new MappedFileRegion(chunks, order, elementShift, length);
+        }
+    }
+
+    public int getLength() {
+        return length;
+    }
+
+    private ByteBuffer chunk(int index) {
+        return chunks[index >>> chunkElementShift];
+    }
+
+    private int chunkOffset(int index) {
+        return (index & chunkElementMask) << elementShift;
+    }
+
+    double getDouble(int index) {
+        return chunk(index).getDouble(chunkOffset(index));
+    }
+
+    int getInt(int index) {
+        return chunk(index).getInt(chunkOffset(index));
+    }
+
+    byte getByte(int index) {
+        return chunk(index).get(chunkOffset(index));
+    }
+
+    /**
+     * Positioned view of the chunk holding element {@code index}. The view is limited to the end of
+     * the chunk.
+     */
+    private ByteBuffer view(int index) {
+        ByteBuffer view = chunk(index).duplicate().order(order);
+        view.position(chunkOffset(index));
+        return view;
+    }
+
+    private int chunkRemaining(int index) {
+        return chunkElementMask + 1 - (index & chunkElementMask);
+    }
+
+    @TruffleBoundary
+    void getDoubles(int from, double[] dest, int destOffset, int count) {
+        int done = 0;
+        while (done < count) {
+            int n = Math.min(count - done, chunkRemaining(from + done));
+            view(from + done).asDoubleBuffer().get(dest, destOffset + done, n);
+            done += n;
+        }
+    }
+
+    @TruffleBoundary
+    void getInts(int from, int[] dest, int destOffset, int count) {
+        int done = 0;
+        while (done < count) {
+            int n = Math.min(count - done, chunkRemaining(from + done));
+            view(from + done).asIntBuffer().get(dest, destOffset + done, n);
+            done += n;
+        }
+    }
+
+    @TruffleBoundary
+    void getBytes(int from, byte[] dest, int destOffset, int count) {
+        int done = 0;
+        while (done < count) {
+            int n = Math.min(count - done, chunkRemaining(from + done));
+            view(from + done).get(dest, destOffset + done, n);
+            done += n;
+        }
+    }
+
+    double[] getDoubles() {
+        double[] result = new double[length];
+        getDoubles(0, result, 0, length);
+        return result;
+    }
+
+    int[] getInts() {
+        int[] result = new int[length];
+        getInts(0, result, 0, length);
+        return result;
+    }
+
+    byte[] getBytes() {
+        byte[] result = new byte[length];
+        getBytes(0, result, 0, length);
+        return result;
+    }
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2016, 2018, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2016, 2020, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * This code is free software; you can redistribute it and/or modify it
@@ -37,6 +37,10 @@ import com.oracle.truffle.r.runtime.data.model.RAbstractVector;
  * implementors of {@link RAbstractVector} are expected to report to {@link MemoryCopyTracer} and
  * others can listen to them through {@link Listener} interface. Use method
  * {@link #setTracingState(boolean)} to enable/disable the tracing.
+ *
+ * Apart from the copies of whole vectors, the tracer also reports materializations of compact data
+ * (sequences, closures, etc.) into arrays and copies of vector data between the Java heap and
+ * native memory, which are the other hidden sources of copying.
  */
 public final class MemoryCopyTracer {
     private static Deque<Listener> listeners = new ConcurrentLinkedDeque<>();
@@ -55,6 +59,10 @@ public final class MemoryCopyTracer {
         listeners.addLast(listener);
     }
 
+    public static void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
     /**
      * After calling this method memory related events will be reported to the listener. This
      * invalidates global assumption and should be used with caution.
@@ -79,6 +87,33 @@ public final class MemoryCopyTracer {
         }
     }
 
+    /**
+     * Tells if the memory related events are reported. Callers that need extra work to find out
+     * whether to report an event should check this first, so that the work is not done when the
+     * tracing is off.
+     */
+    public static boolean isTracing() {
+        return !noMemoryCopyTracingAssumption.isValid() && enabled;
+    }
+
+    /**
+     * Reports that the compact data of given vector are about to be materialized into an array.
+     */
+    public static void reportMaterialization(RAbstractVector vector) {
+        if (!noMemoryCopyTracingAssumption.isValid() && enabled) {
+            notifyMaterialization(vector);
+        }
+    }
+
+    /**
+     * Reports that given number of bytes of vector data was copied to or from native memory.
+     */
+    public static void reportNativeCopy(long bytes, boolean toNative) {
+        if (!noMemoryCopyTracingAssumption.isValid() && enabled) {
+            notifyNativeCopy(bytes, toNative);
+        }
+    }
+
     @TruffleBoundary
     private static void notifyListeners(RAbstractVector source, RAbstractVector dest) {
         for (Listener listener : listeners) {
@@ -86,7 +121,27 @@ public final class MemoryCopyTracer {
         }
     }
 
+    @TruffleBoundary
+    private static void notifyMaterialization(RAbstractVector vector) {
+        for (Listener listener : listeners) {
+            listener.reportMaterialization(vector);
+        }
+    }
+
+    @TruffleBoundary
+    private static void notifyNativeCopy(long bytes, boolean toNative) {
+        for (Listener listener : listeners) {
+            listener.reportNativeCopy(bytes, toNative);
+        }
+    }
+
     public interface Listener {
         void reportCopying(RAbstractVector source, RAbstractVector dest);
+
+        default void reportMaterialization(@SuppressWarnings("unused") RAbstractVector vector) {
+        }
+
+        default void reportNativeCopy(@SuppressWarnings("unused") long bytes, @SuppressWarnings("unused") boolean toNative) {
+        }
     }
 }
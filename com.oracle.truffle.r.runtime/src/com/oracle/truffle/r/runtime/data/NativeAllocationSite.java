@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 3 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 3 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.r.runtime.data;
+
+import com.oracle.truffle.api.Assumption;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.Truffle;
+import com.oracle.truffle.r.runtime.context.FastROptions;
+import com.oracle.truffle.r.runtime.context.RContext;
+
+/**
+ * Profile of a place that allocates vectors by length, e.g., a {@link RDataFactory.VectorFactory}
+ * node or {@code Rf_allocVector}. Vectors are by default allocated on the Java heap and their data
+ * are copied to native memory once the native code asks for the data pointer (see
+ * {@link NativeDataAccess}). The site tags the first {@link #SAMPLE_COUNT} sufficiently long
+ * vectors it allocates and counts how many of them got copied to native memory. If the majority
+ * of them did, the site switches to "native-first" mode and allocates all further vectors directly
+ * in (pooled) native memory, which saves the allocation of the Java array and the copying.
+ *
+ * The decision is taken only once, the site never switches back to Java heap allocations. The
+ * vectors are created via the {@link RDataFactory} methods that take the site as an argument.
+ *
+ * A site belongs to the context that created it and is only used for the allocations in that
+ * context, so that the profile of one context cannot change how another context allocates. The
+ * profiling is enabled by {@link FastROptions#NativeFirstAllocation}.
+ */
+public final class NativeAllocationSite {
+
+    private static final int SAMPLE_COUNT = 16;
+    private static final int NATIVE_THRESHOLD = 12;
+    /**
+     * Shorter vectors are cheap to copy and are neither profiled nor allocated in native memory.
+     */
+    private static final int MIN_LENGTH = 128;
+
+    private final RContext context;
+    private final Assumption javaFirst = Truffle.getRuntime().createAssumption("NativeAllocationSite.javaFirst");
+    private final Assumption profiling = Truffle.getRuntime().createAssumption("NativeAllocationSite.profiling");
+
+    private int samples;
+    private int nativized;
+
+    public NativeAllocationSite(RContext context) {
+        this.context = context;
+    }
+
+    boolean isNativeFirst(int length) {
+        return !javaFirst.isValid() && length >= MIN_LENGTH && RContext.getInstance() == context;
+    }
+
+    <T extends RBaseObject> T profile(T vector, int length) {
+        if (profiling.isValid() && length >= MIN_LENGTH && RContext.getInstance() == context) {
+            recordSample(vector);
+        }
+        return vector;
+    }
+
+    @TruffleBoundary
+    private synchronized void recordSample(RBaseObject vector) {
+        if (!profiling.isValid()) {
+            return;
+        }
+        if (!context.getOption(FastROptions.NativeFirstAllocation)) {
+            profiling.invalidate();
+            return;
+        }
+        NativeDataAccess.setAllocationSite(vector, this);
+        if (++samples == SAMPLE_COUNT) {
+            profiling.invalidate();
+        }
+    }
+
+    /**
+     * Called when the data of a sampled vector are copied to native memory.
+     */
+    synchronized void nativized() {
+        if (++nativized == NATIVE_THRESHOLD) {
+            javaFirst.invalidate();
+        }
+    }
+
+    /**
+     * The sites of the vectors allocated by {@code Rf_allocVector} in one context. Vectors
+     * allocated by the native code usually stay in native code, the sites are shared by all the
+     * call sites of {@code Rf_allocVector}.
+     */
+    public static final class AllocVectorSites {
+        public final NativeAllocationSite intSite;
+        public final NativeAllocationSite doubleSite;
+        public final NativeAllocationSite logicalSite;
+        public final NativeAllocationSite rawSite;
+
+        public AllocVectorSites(RContext context) {
+            intSite = new NativeAllocationSite(context);
+            doubleSite = new NativeAllocationSite(context);
+            logicalSite = new NativeAllocationSite(context);
+            rawSite = new NativeAllocationSite(context);
+        }
+    }
+}
@@ -217,6 +217,13 @@ public final class NativeDataAccess {
          */
         private NativeWrapperReference nativeWrapperRef;
 
+        /**
+         * The site that allocated the delegate if the vector was chosen as a sample for the
+         * profiling of the site, see {@link NativeAllocationSite}. Cleared once the data are
+         * copied to native memory.
+         */
+        private NativeAllocationSite allocationSite;
+
         /**
          * Creates a new mirror with a specified native address as both ID and address. The buffer
          * will be freed when the Java object is collected.
@@ -314,6 +321,15 @@ public final class NativeDataAccess {
             return dataAddress;
         }
 
+        private NativeMemoryWrapper setPooledDataAddress(long address, ElementType type, long elementsCount) {
+            assert address != getEmptyDataAddress();
+            this.dataAddress = NativeMemory.wrapPooledNativeMemory(address, type, elementsCount, delegate);
+            if (dataAddressToNativeMirrors != null) {
+                addToAddressDebugMapping(address);
+            }
+            return dataAddress;
+        }
+
         @TruffleBoundary
         private void addToAddressDebugMapping(long address) {
             dataAddressToNativeMirrors.put(address, this);
@@ -323,17 +339,35 @@ public final class NativeDataAccess {
         void allocateNative(Object source, int vectorLength, long elementsCount, ElementType type) {
             assert getDataAddress() == 0;
             if (vectorLength != 0) {
-                setDataAddress(NativeMemory.allocate(type, elementsCount, source));
+                setPooledDataAddress(NativeMemory.allocatePooled(type, elementsCount, source), type, elementsCount);
                 NativeMemory.copyMemory(source, dataAddress, type, elementsCount);
+                MemoryCopyTracer.reportNativeCopy(elementsCount * type.getBytes(), true);
             } else {
                 setExternalDataAddress(getEmptyDataAddress());
             }
             this.length = vectorLength;
+            if (allocationSite != null) {
+                allocationSite.nativized();
+                allocationSite = null;
+            }
 
             // ensure that marker address is not used
             assert this.length == 0 || dataAddress.getAddress() != getEmptyDataAddress();
         }
 
+        @TruffleBoundary
+        void allocateNativeZeroed(int vectorLength, long elementsCount, ElementType type) {
+            assert getDataAddress() == 0;
+            if (vectorLength != 0) {
+                long address = NativeMemory.allocatePooled(type, elementsCount, delegate);
+                NativeMemory.setMemory(address, elementsCount * type.getBytes(), (byte) 0);
+                setPooledDataAddress(address, type, elementsCount);
+            } else {
+                setExternalDataAddress(getEmptyDataAddress());
+            }
+            this.length = vectorLength;
+        }
+
         @TruffleBoundary
         void initializeAltrep(RBaseObject altrepVec, long address, int altrepLength) {
             assert altrepVec.isAltRep();
@@ -348,6 +382,7 @@ public final class NativeDataAccess {
             assert getDataAddress() == 0;
             setDataAddress(NativeMemory.allocate(bytes.length + 1L, "NativeString"));
             NativeMemory.copyMemory(bytes, dataAddress, ElementType.BYTE, bytes.length);
+            MemoryCopyTracer.reportNativeCopy(bytes.length, true);
             // append C strings termination
             NativeMemory.putByte(dataAddress, bytes.length, (byte) 0);
             this.length = bytes.length + 1;
@@ -642,6 +677,7 @@ public final class NativeDataAccess {
         assert mirror.getDataAddress() != 0;
         double[] data = new double[(int) mirror.length];
         NativeMemory.copyMemory(mirror.dataAddress, data, ElementType.DOUBLE, data.length);
+        MemoryCopyTracer.reportNativeCopy(data.length * 8L, false);
         return data;
     }
 
@@ -649,6 +685,7 @@ public final class NativeDataAccess {
         assert mirror.getDataAddress() != 0;
         double[] data = new double[(int) (mirror.length << 1)];
         NativeMemory.copyMemory(mirror.dataAddress, data, ElementType.DOUBLE, data.length);
+        MemoryCopyTracer.reportNativeCopy(data.length * 8L, false);
         return data;
     }
 
@@ -656,6 +693,7 @@ public final class NativeDataAccess {
         assert mirror.getDataAddress() != 0;
         int[] data = new int[(int) mirror.length];
         NativeMemory.copyMemory(mirror.dataAddress, data, ElementType.INT, data.length);
+        MemoryCopyTracer.reportNativeCopy(data.length * 4L, false);
         return data;
     }
 
@@ -663,6 +701,7 @@ public final class NativeDataAccess {
         assert mirror.getDataAddress() != 0;
         byte[] data = new byte[(int) mirror.length];
         NativeMemory.copyMemory(mirror.dataAddress, data, ElementType.BYTE, data.length);
+        MemoryCopyTracer.reportNativeCopy(data.length, false);
         return data;
     }
 
@@ -1361,6 +1400,36 @@ public final class NativeDataAccess {
 
     public static void setNativeContents(RBaseObject obj, long address, int length) {
         assert obj.getNativeMirror() != null;
+        invalidateNoNative(obj);
+        NativeMirror mirror = obj.getNativeMirror();
+        mirror.setExternalDataAddress(address);
+        mirror.length = length;
+    }
+
+    /**
+     * Allocates zero initialized native memory for the data of a freshly created vector that has
+     * no data yet. Unlike {@link #toNative(RBaseObject)}, the native handle is assigned only once
+     * the vector really leaks to the native code.
+     */
+    static void allocateNativeFirstContents(RBaseObject vector, int length, long elementsCount, ElementType type) {
+        NativeMirror mirror = createNativeMirror(vector);
+        invalidateNoNative(vector);
+        mirror.allocateNativeZeroed(length, elementsCount, type);
+    }
+
+    /**
+     * Remembers the allocation site of given vector, which will be notified if the data of the
+     * vector are ever copied to native memory.
+     */
+    static void setAllocationSite(RBaseObject vector, NativeAllocationSite site) {
+        NativeMirror mirror = vector.getNativeMirror();
+        if (mirror == null) {
+            mirror = createNativeMirror(vector);
+        }
+        mirror.allocationSite = site;
+    }
+
+    private static void invalidateNoNative(RBaseObject obj) {
         if (noDoubleNative.isValid() && obj instanceof RDoubleVector) {
             noDoubleNative.invalidate();
         } else if (noComplexNative.isValid() && obj instanceof RComplexVector) {
@@ -1374,9 +1443,6 @@ public final class NativeDataAccess {
         } else if (noStringNative.isValid() && obj instanceof RStringVector) {
             noStringNative.invalidate();
         }
-        NativeMirror mirror = obj.getNativeMirror();
-        mirror.setExternalDataAddress(address);
-        mirror.length = length;
     }
 
     public static void setNativeWrapper(RBaseObject obj, Object wrapper) {
@@ -313,6 +313,9 @@ public final class RComplexVector extends RAbstractAtomicVector implements RMate
 
     @ExportMessage(library = AbstractContainerLibrary.class)
     public void materializeData(@CachedLibrary(limit = DATA_LIB_LIMIT) VectorDataLibrary dataLib) {
+        if (MemoryCopyTracer.isTracing() && !dataLib.isWriteable(data)) {
+            MemoryCopyTracer.reportMaterialization(this);
+        }
         setData(dataLib.materialize(data), getLength());
     }
 
@@ -323,6 +326,7 @@ public final class RComplexVector extends RAbstractAtomicVector implements RMate
         }
         // To retain the semantics of the original materialize, for sequences and such we return new
         // vector
+        MemoryCopyTracer.reportMaterialization(this);
         return new RComplexVector(dataLib.getComplexDataCopy(data), isComplete());
     }
 
@@ -24,6 +24,7 @@ package com.oracle.truffle.r.runtime.data;
 
 import com.oracle.truffle.api.Assumption;
 import com.oracle.truffle.api.CompilerAsserts;
+import com.oracle.truffle.api.CompilerDirectives;
 import com.oracle.truffle.api.CompilerDirectives.CompilationFinal;
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.RootCallTarget;
@@ -134,11 +135,22 @@ public final class RDataFactory {
 
     public static final class VectorFactory extends BaseVectorFactory {
 
-        private VectorFactory() {
-            // private constructor
+        private final ConditionProfile hasAttributes = ConditionProfile.createBinaryProfile();
+        private final boolean profileNativeAllocations;
+        @CompilationFinal private NativeAllocationSite nativeAllocationSite;
+
+        private VectorFactory(boolean profileNativeAllocations) {
+            this.profileNativeAllocations = profileNativeAllocations;
         }
 
-        private final ConditionProfile hasAttributes = ConditionProfile.createBinaryProfile();
+        @Override
+        protected NativeAllocationSite getNativeAllocationSite() {
+            if (nativeAllocationSite == null && profileNativeAllocations) {
+                CompilerDirectives.transferToInterpreterAndInvalidate();
+                nativeAllocationSite = new NativeAllocationSite(RContext.getInstance());
+            }
+            return nativeAllocationSite;
+        }
 
         @Override
         public void reinitializeAttributes(RAbstractVector vector, int[] dims, RStringVector names, RList dimNames) {
@@ -170,11 +182,11 @@ public final class RDataFactory {
         }
 
         public static VectorFactory create() {
-            return new VectorFactory();
+            return new VectorFactory(true);
         }
 
         public static VectorFactory getUncached() {
-            return new VectorFactory();
+            return new VectorFactory(false);
         }
     }
 
@@ -201,6 +213,14 @@ public final class RDataFactory {
             return data;
         }
 
+        /**
+         * Returns the site used to profile the vectors allocated by length via this factory or
+         * {@code null} if the allocations should not be profiled.
+         */
+        protected NativeAllocationSite getNativeAllocationSite() {
+            return null;
+        }
+
         public final RIntVector createIntVector(int[] data, boolean complete) {
             return traceDataCreated(new RIntVector(data, complete));
         }
@@ -457,6 +477,10 @@ public final class RDataFactory {
         }
 
         public final RIntVector createIntVector(int length) {
+            NativeAllocationSite site = getNativeAllocationSite();
+            if (site != null) {
+                return RDataFactory.createIntVector(site, length);
+            }
             return createIntVector(new int[length], true);
         }
 
@@ -465,10 +489,18 @@ public final class RDataFactory {
         }
 
         public final RDoubleVector createDoubleVector(int length) {
+            NativeAllocationSite site = getNativeAllocationSite();
+            if (site != null) {
+                return RDataFactory.createDoubleVector(site, length);
+            }
             return createDoubleVector(new double[length], true);
         }
 
         public final RRawVector createRawVector(int length) {
+            NativeAllocationSite site = getNativeAllocationSite();
+            if (site != null) {
+                return RDataFactory.createRawVector(site, length);
+            }
             return createRawVector(new byte[length]);
         }
 
@@ -499,6 +531,10 @@ public final class RDataFactory {
         }
 
         public final RLogicalVector createLogicalVector(int length) {
+            NativeAllocationSite site = getNativeAllocationSite();
+            if (site != null) {
+                return RDataFactory.createLogicalVector(site, length);
+            }
             return createLogicalVector(length, false);
         }
 
@@ -800,6 +836,38 @@ public final class RDataFactory {
         return traceDataCreated(RDoubleVector.fromNative(address, length));
     }
 
+    /*
+     * Zero initialized vectors allocated at a profiled site, see NativeAllocationSite.
+     */
+
+    public static RIntVector createIntVector(NativeAllocationSite site, int length) {
+        if (site.isNativeFirst(length)) {
+            return traceDataCreated(RIntVector.createNativeFirst(length));
+        }
+        return site.profile(createIntVector(new int[length], COMPLETE_VECTOR), length);
+    }
+
+    public static RDoubleVector createDoubleVector(NativeAllocationSite site, int length) {
+        if (site.isNativeFirst(length)) {
+            return traceDataCreated(RDoubleVector.createNativeFirst(length));
+        }
+        return site.profile(createDoubleVector(new double[length], COMPLETE_VECTOR), length);
+    }
+
+    public static RLogicalVector createLogicalVector(NativeAllocationSite site, int length) {
+        if (site.isNativeFirst(length)) {
+            return traceDataCreated(RLogicalVector.createNativeFirst(length));
+        }
+        return site.profile(createLogicalVector(new byte[length], COMPLETE_VECTOR), length);
+    }
+
+    public static RRawVector createRawVector(NativeAllocationSite site, int length) {
+        if (site.isNativeFirst(length)) {
+            return traceDataCreated(RRawVector.createNativeFirst(length));
+        }
+        return site.profile(createRawVector(new byte[length]), length);
+    }
+
     public static RDoubleVector createDoubleVector(int length) {
         return createDoubleVector(length, false);
     }
@@ -957,6 +1025,30 @@ public final class RDataFactory {
         return traceDataCreated(new RLogicalVector(data, complete));
     }
 
+    /**
+     * Creates a vector of given length that repeats each element of {@code x} {@code each} times
+     * and recycles the result without allocating the whole data, see {@link RRep}. The attributes
+     * of {@code x} are not copied. Returns {@code null} if the type of {@code x} does not support
+     * the compact representation.
+     */
+    @TruffleBoundary
+    public static RAbstractVector createRepVector(RAbstractVector x, int each, int length) {
+        VectorDataLibrary dataLib = VectorDataLibrary.getFactory().getUncached();
+        Object data = x.getData();
+        switch (x.getRType()) {
+            case Integer:
+                return RIntVector.createRep(dataLib.getIntDataCopy(data), each, length);
+            case Double:
+                return RDoubleVector.createRep(dataLib.getDoubleDataCopy(data), each, length);
+            case Logical:
+                return RLogicalVector.createRep(dataLib.getLogicalDataCopy(data), each, length);
+            case Character:
+                return RStringVector.createRep(dataLib.getStringDataCopy(data), each, length);
+            default:
+                return null;
+        }
+    }
+
     public static RLogicalVector createLogicalVector(byte[] data, boolean complete, int[] dims) {
         return createLogicalVector(data, complete, dims, null);
     }
@@ -1280,6 +1372,15 @@ public final class RDataFactory {
         return traceDataCreated(new RFunction(name, packageName, target, builtin, enclosingFrame));
     }
 
+    /**
+     * Creates a closure whose call target is created from {@code deferred} once it is needed.
+     */
+    public static RFunction createDeferredFunction(String name, String packageName, RFunction.DeferredTarget deferred, MaterializedFrame enclosingFrame) {
+        RFunction function = new RFunction(name, packageName, null, null, enclosingFrame);
+        function.setDeferredTarget(deferred);
+        return traceDataCreated(function);
+    }
+
     private static final AtomicInteger environmentCount = new AtomicInteger();
 
     @TruffleBoundary
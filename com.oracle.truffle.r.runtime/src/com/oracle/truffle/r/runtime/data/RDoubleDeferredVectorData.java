@@ -0,0 +1,486 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 3 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 3 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.r.runtime.data;
+
+import java.util.Arrays;
+
+import com.oracle.truffle.api.CompilerAsserts;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.Cached.Shared;
+import com.oracle.truffle.api.interop.TruffleObject;
+import com.oracle.truffle.api.library.ExportLibrary;
+import com.oracle.truffle.api.library.ExportMessage;
+import com.oracle.truffle.api.profiles.ConditionProfile;
+import com.oracle.truffle.api.profiles.LoopConditionProfile;
+import com.oracle.truffle.r.runtime.RInternalError;
+import com.oracle.truffle.r.runtime.RRuntime;
+import com.oracle.truffle.r.runtime.RType;
+import com.oracle.truffle.r.runtime.data.VectorDataLibrary.RandomAccessIterator;
+import com.oracle.truffle.r.runtime.data.VectorDataLibrary.SeqIterator;
+import com.oracle.truffle.r.runtime.data.model.RAbstractVector;
+import com.oracle.truffle.r.runtime.ops.CompensatedSum;
+import com.oracle.truffle.r.runtime.ops.na.NACheck;
+
+/**
+ * Double vector data holding the result of an element-wise arithmetic operation that has not been
+ * computed yet. The operands are Java arrays, scalars or other deferred data, so that a chain like
+ * {@code sum((x - mean(x))^2)} reads {@code x} block by block in {@link #sum(boolean, boolean)} and
+ * never allocates the intermediate vectors.
+ *
+ * The data are immutable, the first write to the vector materializes them. Any other read, be it
+ * of a single element or of the whole array, computes the result once and keeps it instead of the
+ * operands. The computation is synchronized, the result is published through a volatile field
+ * before the operands are dropped, so that concurrent readers see either of them. Chains longer
+ * than {@link #MAX_DEPTH} are not fused, the last operation is computed eagerly.
+ *
+ * The arrays of the operand vectors are read later, therefore their reference count is incremented
+ * for as long as the operands are kept, so that an update of such a vector copies it. The operands
+ * are released when the result is computed and when the data are consumed by {@link #release()}.
+ * Temporary deferred operands are owned by the data that use them and are released with them.
+ * Results that are dropped without being read keep the operands referenced, like any other
+ * reference to them would.
+ */
+@ExportLibrary(VectorDataLibrary.class)
+public final class RDoubleDeferredVectorData implements TruffleObject {
+
+    public enum Op {
+        ADD,
+        SUBTRACT,
+        MULTIPLY,
+        DIVIDE,
+        /**
+         * {@code x^2}, other exponents are computed eagerly because they depend on the profiled
+         * fast paths of {@code BinaryArithmetic.Pow}.
+         */
+        SQUARE,
+        /**
+         * {@code -x}, the right operand is ignored.
+         */
+        NEGATE
+    }
+
+    /**
+     * Shorter results are cheap to allocate and are computed eagerly.
+     */
+    public static final int MIN_LENGTH = 1 << 12;
+    public static final int MAX_DEPTH = 8;
+    private static final int BLOCK_SIZE = 1 << 12;
+
+    private final int length;
+    private final int depth;
+    /**
+     * The operation and its operands, {@code null} once the result was computed.
+     */
+    private volatile Expression expression;
+    /**
+     * The computed result, once somebody read the data other than by {@link #sum(boolean, boolean)}.
+     */
+    private volatile double[] values;
+
+    private RDoubleDeferredVectorData(Op op, Operand left, Operand right, int length) {
+        this.expression = new Expression(op, left, right);
+        this.length = length;
+        this.depth = 1 + Math.max(left.getDepth(), right.getDepth());
+    }
+
+    /**
+     * Returns {@code true} if the result of {@code op} applied to given operands should be
+     * deferred. This is the case for long vectors without attributes whose data are either Java
+     * arrays or deferred data that are not fused too deep. The caller checks whether the deferred
+     * arithmetic is enabled at all.
+     */
+    public static boolean canDefer(Op op, RAbstractVector left, RAbstractVector right) {
+        if (!(left instanceof RDoubleVector) || !(right instanceof RDoubleVector) || left.getAttributes() != null || right.getAttributes() != null) {
+            return false;
+        }
+        int leftLength = left.getLength();
+        int rightLength = right.getLength();
+        int resultLength = Math.max(leftLength, rightLength);
+        if (resultLength < MIN_LENGTH || (leftLength != resultLength && leftLength != 1) || (rightLength != resultLength && rightLength != 1)) {
+            return false;
+        }
+        if (op == Op.SQUARE && (rightLength != 1 || !(right.getData() instanceof RDoubleArrayVectorData) || ((RDoubleArrayVectorData) right.getData()).getReadonlyDoubleData()[0] != 2)) {
+            return false;
+        }
+        return isOperand(left.getData(), leftLength) && isOperand(right.getData(), rightLength);
+    }
+
+    /**
+     * Returns {@code true} if the negation of given operand should be deferred, see
+     * {@link #canDefer(Op, RAbstractVector, RAbstractVector)}.
+     */
+    public static boolean canDeferNegate(RAbstractVector operand) {
+        if (!(operand instanceof RDoubleVector) || operand.getAttributes() != null) {
+            return false;
+        }
+        int operandLength = operand.getLength();
+        return operandLength >= MIN_LENGTH && isOperand(operand.getData(), operandLength);
+    }
+
+    private static boolean isOperand(Object data, int length) {
+        if (data instanceof RDoubleDeferredVectorData) {
+            return ((RDoubleDeferredVectorData) data).getDepth() < MAX_DEPTH;
+        }
+        return data instanceof RDoubleArrayVectorData || length == 1;
+    }
+
+    @TruffleBoundary
+    static RDoubleDeferredVectorData create(Op op, RDoubleVector left, RDoubleVector right) {
+        assert canDefer(op, left, right);
+        return new RDoubleDeferredVectorData(op, Operand.create(left), Operand.create(right), Math.max(left.getLength(), right.getLength()));
+    }
+
+    @TruffleBoundary
+    static RDoubleDeferredVectorData createNegate(RDoubleVector operand) {
+        assert canDeferNegate(operand);
+        return new RDoubleDeferredVectorData(Op.NEGATE, Operand.create(operand), Operand.createScalar(0), operand.getLength());
+    }
+
+    public int getDepth() {
+        return values != null ? 0 : depth;
+    }
+
+    @SuppressWarnings("static-method")
+    @ExportMessage
+    public RType getType() {
+        return RType.Double;
+    }
+
+    @SuppressWarnings("static-method")
+    @ExportMessage
+    public NACheck getNACheck() {
+        return NACheck.getEnabled();
+    }
+
+    @ExportMessage
+    public int getLength() {
+        return length;
+    }
+
+    @ExportMessage
+    public RDoubleArrayVectorData materialize() {
+        return new RDoubleArrayVectorData(getDoubleDataCopy(), RDataFactory.INCOMPLETE_VECTOR);
+    }
+
+    @SuppressWarnings("static-method")
+    @ExportMessage
+    public boolean isWriteable() {
+        return false;
+    }
+
+    @ExportMessage
+    public RDoubleDeferredVectorData copy(@SuppressWarnings("unused") boolean deep) {
+        // the data are immutable
+        return this;
+    }
+
+    @ExportMessage
+    public double[] getReadonlyDoubleData() {
+        return getValues();
+    }
+
+    @ExportMessage
+    public double[] getDoubleDataCopy() {
+        double[] result = getValues();
+        return Arrays.copyOf(result, result.length);
+    }
+
+    private double[] getValues() {
+        double[] result = values;
+        if (result == null) {
+            result = computeValues();
+        }
+        return result;
+    }
+
+    @TruffleBoundary
+    private synchronized double[] computeValues() {
+        if (values == null) {
+            double[] result = new double[length];
+            Expression e = expression;
+            if (e == null) {
+                throw RInternalError.shouldNotReachHere("deferred data read after release");
+            }
+            e.evaluate(0, length, result);
+            values = result;
+            // the operands are no longer needed
+            expression = null;
+            e.release();
+        }
+        return values;
+    }
+
+    /**
+     * Sums the elements, see {@link CompensatedSum#sum(double[], int, int, boolean)}. The
+     * elements are computed by blocks that are summed right away. If {@code consume} is
+     * {@code true}, i.e., the vector is temporary and nobody reads it afterwards, the operands are
+     * released.
+     */
+    @TruffleBoundary
+    public double sum(boolean naRm, boolean consume) {
+        double[] computed = values;
+        if (computed != null) {
+            return CompensatedSum.sum(computed, 0, length, naRm);
+        }
+        int blocks = (length + BLOCK_SIZE - 1) / BLOCK_SIZE;
+        double[] partialSums = new double[blocks];
+        double[] buffer = new double[Math.min(length, BLOCK_SIZE)];
+        for (int i = 0; i < blocks; i++) {
+            int from = i * BLOCK_SIZE;
+            int count = Math.min(BLOCK_SIZE, length - from);
+            evaluate(from, count, buffer);
+            partialSums[i] = CompensatedSum.sum(buffer, 0, count, naRm);
+        }
+        if (consume) {
+            release();
+        }
+        return CompensatedSum.sum(partialSums, 0, blocks, naRm);
+    }
+
+    /**
+     * Releases the operands of data that will not be read anymore, unless the result was already
+     * computed and the operands released.
+     */
+    synchronized void release() {
+        Expression e = expression;
+        if (values == null && e != null) {
+            expression = null;
+            e.release();
+        }
+    }
+
+    /**
+     * Computes elements {@code from} to {@code from + count} into the beginning of {@code result}.
+     */
+    private void evaluate(int from, int count, double[] result) {
+        double[] computed = values;
+        Expression e = expression;
+        if (computed == null && e != null) {
+            e.evaluate(from, count, result);
+        } else {
+            // the values are published before the expression is dropped
+            System.arraycopy(values, from, result, 0, count);
+        }
+    }
+
+    /**
+     * Follows the NA handling of the eagerly computed arithmetic: {@code NA op x} is {@code NA},
+     * {@code NaN op NA} is {@code NaN}.
+     */
+    private static double apply(Op op, double left, double right) {
+        if (RRuntime.isNA(left)) {
+            return RRuntime.DOUBLE_NA;
+        } else if (RRuntime.isNA(right)) {
+            return Double.isNaN(left) ? left : RRuntime.DOUBLE_NA;
+        }
+        switch (op) {
+            case ADD:
+                return left + right;
+            case SUBTRACT:
+                return left - right;
+            case MULTIPLY:
+                return left * right;
+            case DIVIDE:
+                return left / right;
+            case SQUARE:
+                return left * left;
+            case NEGATE:
+                return -left;
+            default:
+                throw RInternalError.shouldNotReachHere();
+        }
+    }
+
+    // Read access to the elements:
+
+    @ExportMessage
+    public SeqIterator iterator(@Shared("naCheck") @Cached() NACheck naCheck,
+                    @Shared("SeqItLoopProfile") @Cached("createCountingProfile()") LoopConditionProfile loopProfile) {
+        SeqIterator it = new SeqIterator(this, length);
+        naCheck.enable(true);
+        it.initLoopConditionProfile(loopProfile);
+        return it;
+    }
+
+    @ExportMessage
+    @SuppressWarnings("static-method")
+    public boolean nextImpl(SeqIterator it, boolean loopCondition,
+                    @Shared("SeqItLoopProfile") @Cached("createCountingProfile()") LoopConditionProfile loopProfile) {
+        return it.next(loopCondition, loopProfile);
+    }
+
+    @ExportMessage
+    @SuppressWarnings("static-method")
+    public void nextWithWrap(SeqIterator it,
+                    @Cached("createBinaryProfile()") ConditionProfile wrapProfile) {
+        it.nextWithWrap(wrapProfile);
+    }
+
+    @ExportMessage
+    public RandomAccessIterator randomAccessIterator(@Shared("naCheck") @Cached() NACheck naCheck) {
+        naCheck.enable(true);
+        return new RandomAccessIterator(this);
+    }
+
+    @ExportMessage
+    public double getDoubleAt(int index,
+                    @Shared("naCheck") @Cached() NACheck naCheck) {
+        double value = getValues()[index];
+        naCheck.check(value);
+        return value;
+    }
+
+    @ExportMessage
+    public double getNextDouble(SeqIterator it,
+                    @Shared("naCheck") @Cached() NACheck naCheck) {
+        double value = ((RDoubleDeferredVectorData) it.getStore()).getValues()[it.getIndex()];
+        naCheck.check(value);
+        return value;
+    }
+
+    @ExportMessage
+    public double getDouble(RandomAccessIterator it, int index,
+                    @Shared("naCheck") @Cached() NACheck naCheck) {
+        double value = ((RDoubleDeferredVectorData) it.getStore()).getValues()[index];
+        naCheck.check(value);
+        return value;
+    }
+
+    @Override
+    public String toString() {
+        CompilerAsserts.neverPartOfCompilation();
+        Expression e = expression;
+        return e == null ? "deferred(computed)" : "deferred(" + e.op + ", depth = " + depth + ")";
+    }
+
+    private static final class Expression {
+        final Op op;
+        final Operand left;
+        final Operand right;
+
+        Expression(Op op, Operand left, Operand right) {
+            this.op = op;
+            this.left = left;
+            this.right = right;
+        }
+
+        void evaluate(int from, int count, double[] result) {
+            left.fill(from, count, result);
+            double[] rightValues;
+            int rightOffset;
+            if (right.deferred != null) {
+                rightValues = new double[count];
+                right.deferred.evaluate(from, count, rightValues);
+                rightOffset = 0;
+            } else {
+                rightValues = right.values;
+                rightOffset = from;
+            }
+            if (rightValues == null) {
+                double scalar = right.scalar;
+                for (int i = 0; i < count; i++) {
+                    result[i] = apply(op, result[i], scalar);
+                }
+            } else {
+                for (int i = 0; i < count; i++) {
+                    result[i] = apply(op, result[i], rightValues[rightOffset + i]);
+                }
+            }
+        }
+
+        void release() {
+            left.release();
+            right.release();
+        }
+    }
+
+    /**
+     * An operand of the deferred operation: a Java array of the result length, another deferred
+     * data or a scalar.
+     */
+    private static final class Operand {
+        final double[] values;
+        final RDoubleDeferredVectorData deferred;
+        final double scalar;
+        /**
+         * The vector whose reference count was incremented because its array is read later.
+         */
+        final RDoubleVector source;
+        /**
+         * The deferred data belong to a temporary vector that is not read other than through this
+         * operand, so they are released together with it.
+         */
+        final boolean owned;
+
+        private Operand(double[] values, RDoubleDeferredVectorData deferred, double scalar, RDoubleVector source, boolean owned) {
+            this.values = values;
+            this.deferred = deferred;
+            this.scalar = scalar;
+            this.source = source;
+            this.owned = owned;
+        }
+
+        static Operand create(RDoubleVector vector) {
+            Object data = vector.getData();
+            if (data instanceof RDoubleDeferredVectorData) {
+                return new Operand(null, (RDoubleDeferredVectorData) data, 0, null, vector.isTemporary());
+            } else if (vector.getLength() == 1) {
+                return createScalar(VectorDataLibrary.getFactory().getUncached().getDoubleAt(data, 0));
+            }
+            double[] array = ((RDoubleArrayVectorData) data).getReadonlyDoubleData();
+            if (vector.isSharedPermanent()) {
+                return new Operand(array, null, 0, null, false);
+            }
+            // any update of the vector has to copy it while the array is referenced here
+            vector.incRefCount();
+            return new Operand(array, null, 0, vector, false);
+        }
+
+        static Operand createScalar(double scalar) {
+            return new Operand(null, null, scalar, null, false);
+        }
+
+        int getDepth() {
+            return deferred != null ? deferred.getDepth() : 0;
+        }
+
+        void fill(int from, int count, double[] result) {
+            if (deferred != null) {
+                deferred.evaluate(from, count, result);
+            } else if (values != null) {
+                System.arraycopy(values, from, result, 0, count);
+            } else {
+                Arrays.fill(result, 0, count, scalar);
+            }
+        }
+
+        void release() {
+            if (source != null && !source.isSharedPermanent()) {
+                source.decRefCount();
+            } else if (owned) {
+                deferred.release();
+            }
+        }
+    }
+}
@@ -22,9 +22,13 @@
  */
 package com.oracle.truffle.r.runtime.data;
 
+import java.util.Arrays;
+
+import com.oracle.truffle.api.TruffleLanguage.Env;
 import com.oracle.truffle.api.dsl.Cached;
 import com.oracle.truffle.api.dsl.Cached.Exclusive;
 import com.oracle.truffle.api.dsl.Cached.Shared;
+import com.oracle.truffle.api.interop.InteropException;
 import com.oracle.truffle.api.interop.InteropLibrary;
 import com.oracle.truffle.api.interop.InvalidArrayIndexException;
 import com.oracle.truffle.api.interop.TruffleObject;
@@ -39,16 +43,36 @@ import com.oracle.truffle.r.runtime.RError;
 import com.oracle.truffle.r.runtime.RInternalError;
 import com.oracle.truffle.r.runtime.RRuntime;
 import com.oracle.truffle.r.runtime.RType;
+import com.oracle.truffle.r.runtime.context.RContext;
 import com.oracle.truffle.r.runtime.data.VectorDataLibrary.RandomAccessIterator;
 import com.oracle.truffle.r.runtime.data.VectorDataLibrary.SeqIterator;
+import com.oracle.truffle.r.runtime.ffi.util.NativeMemory;
+import com.oracle.truffle.r.runtime.ffi.util.NativeMemory.ElementType;
 import com.oracle.truffle.r.runtime.ops.na.NACheck;
 
 @ExportLibrary(VectorDataLibrary.class)
 class RDoubleForeignObjData implements TruffleObject {
     protected final Object foreign;
+    /**
+     * The {@code double[]} wrapped by {@link #foreign} if it is a host object. The elements of such
+     * array are read directly instead of by an interop message per element.
+     */
+    private final double[] hostArray;
 
     RDoubleForeignObjData(Object foreign) {
         this.foreign = foreign;
+        this.hostArray = getHostArray(foreign);
+    }
+
+    private static double[] getHostArray(Object foreign) {
+        Env env = RContext.getInstance().getEnv();
+        if (env.isHostObject(foreign)) {
+            Object hostObject = env.asHostObject(foreign);
+            if (hostObject instanceof double[]) {
+                return (double[]) hostObject;
+            }
+        }
+        return null;
     }
 
     @SuppressWarnings("static-method")
@@ -65,6 +89,9 @@ class RDoubleForeignObjData implements TruffleObject {
 
     @ExportMessage
     public int getLength(@CachedLibrary("this.foreign") InteropLibrary interop) {
+        if (hostArray != null) {
+            return hostArray.length;
+        }
         try {
             long result = interop.getArraySize(foreign);
             return (int) result;
@@ -95,11 +122,25 @@ class RDoubleForeignObjData implements TruffleObject {
         return new RDoubleArrayVectorData(getDoubleDataCopy(valueInterop, interop, resultProfile, unprecisseDoubleProfile), RDataFactory.INCOMPLETE_VECTOR);
     }
 
+    @ExportMessage
+    public double[] getReadonlyDoubleData(@CachedLibrary(limit = "5") InteropLibrary valueInterop,
+                    @CachedLibrary("this.foreign") InteropLibrary interop,
+                    @Shared("resultProfile") @Cached("createClassProfile()") ValueProfile resultProfile,
+                    @Shared("unprecisseProfile") @Cached("createBinaryProfile()") ConditionProfile unprecisseDoubleProfile) {
+        if (hostArray != null) {
+            return hostArray;
+        }
+        return getDoubleDataCopy(valueInterop, interop, resultProfile, unprecisseDoubleProfile);
+    }
+
     @ExportMessage
     public double[] getDoubleDataCopy(@CachedLibrary(limit = "5") InteropLibrary valueInterop,
                     @CachedLibrary("this.foreign") InteropLibrary interop,
                     @Shared("resultProfile") @Cached("createClassProfile()") ValueProfile resultProfile,
                     @Shared("unprecisseProfile") @Cached("createBinaryProfile()") ConditionProfile unprecisseDoubleProfile) {
+        if (hostArray != null) {
+            return Arrays.copyOf(hostArray, hostArray.length);
+        }
         int len = getLength(interop);
         return getDataAsArray(len, len, valueInterop, interop, resultProfile, unprecisseDoubleProfile);
     }
@@ -170,6 +211,11 @@ class RDoubleForeignObjData implements TruffleObject {
                     @Shared("naCheck") @Cached() NACheck naCheck,
                     @Shared("resultProfile") @Cached("createClassProfile()") ValueProfile resultProfile,
                     @Shared("unprecisseProfile") @Cached("createBinaryProfile()") ConditionProfile unprecisseDoubleProfile) {
+        if (hostArray != null) {
+            double value = hostArray[index];
+            naCheck.check(value);
+            return value;
+        }
         return getDoubleImpl(foreign, index, naCheck, valueInterop, interop, resultProfile, unprecisseDoubleProfile);
     }
 
@@ -180,6 +226,11 @@ class RDoubleForeignObjData implements TruffleObject {
                     @Shared("naCheck") @Cached() NACheck naCheck,
                     @Shared("resultProfile") @Cached("createClassProfile()") ValueProfile resultProfile,
                     @Shared("unprecisseProfile") @Cached("createBinaryProfile()") ConditionProfile unprecisseDoubleProfile) {
+        if (hostArray != null) {
+            double value = hostArray[it.getIndex()];
+            naCheck.check(value);
+            return value;
+        }
         return getDoubleImpl(it.getStore(), it.getIndex(), naCheck, valueInterop, interop, resultProfile, unprecisseDoubleProfile);
     }
 
@@ -190,9 +241,40 @@ class RDoubleForeignObjData implements TruffleObject {
                     @Shared("naCheck") @Cached() NACheck naCheck,
                     @Shared("resultProfile") @Cached("createClassProfile()") ValueProfile resultProfile,
                     @Shared("unprecisseProfile") @Cached("createBinaryProfile()") ConditionProfile unprecisseDoubleProfile) {
+        if (hostArray != null) {
+            double value = hostArray[index];
+            naCheck.check(value);
+            return value;
+        }
         return getDoubleImpl(it.getStore(), index, naCheck, valueInterop, interop, resultProfile, unprecisseDoubleProfile);
     }
 
+    @ExportMessage
+    public int getDoubleRegion(int startIndex, int size, Object buffer, InteropLibrary bufferInterop,
+                    @CachedLibrary(limit = "5") InteropLibrary valueInterop,
+                    @CachedLibrary("this.foreign") InteropLibrary interop,
+                    @Shared("naCheck") @Cached() NACheck naCheck,
+                    @Shared("resultProfile") @Cached("createClassProfile()") ValueProfile resultProfile,
+                    @Shared("unprecisseProfile") @Cached("createBinaryProfile()") ConditionProfile unprecisseDoubleProfile) {
+        int length = Math.max(0, Math.min(size, getLength(interop) - startIndex));
+        if (hostArray != null && bufferInterop.isPointer(buffer)) {
+            try {
+                NativeMemory.copyMemory(hostArray, startIndex, bufferInterop.asPointer(buffer), ElementType.DOUBLE, length);
+                return length;
+            } catch (UnsupportedMessageException e) {
+                throw RInternalError.shouldNotReachHere(e);
+            }
+        }
+        try {
+            for (int i = 0; i < length; i++) {
+                bufferInterop.writeArrayElement(buffer, i, getDoubleAt(startIndex + i, valueInterop, interop, naCheck, resultProfile, unprecisseDoubleProfile));
+            }
+        } catch (InteropException e) {
+            throw RInternalError.shouldNotReachHere(e);
+        }
+        return length;
+    }
+
     private double[] getDataAsArray(int newLength, int length, InteropLibrary valueInterop, InteropLibrary interop, ValueProfile resultProfile, ConditionProfile unprecisseDoubleProfile) {
         double[] data = new double[newLength];
         for (int i = 0; i < Math.min(newLength, length); i++) {
@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PADoubleICULAR PURPOSE.  See the GNU General Public License
+ * version 3 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 3 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.r.runtime.data;
+
+import java.util.Arrays;
+
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.Cached.Shared;
+import com.oracle.truffle.api.library.ExportLibrary;
+import com.oracle.truffle.api.library.ExportMessage;
+import com.oracle.truffle.r.runtime.RRuntime;
+import com.oracle.truffle.r.runtime.RType;
+import com.oracle.truffle.r.runtime.data.VectorDataLibrary.RandomAccessIterator;
+import com.oracle.truffle.r.runtime.data.VectorDataLibrary.SeqIterator;
+import com.oracle.truffle.r.runtime.data.model.RAbstractVector;
+import com.oracle.truffle.r.runtime.ops.na.NACheck;
+
+/**
+ * See {@link RRep} and {@link RRepVectorData}.
+ */
+@ExportLibrary(VectorDataLibrary.class)
+public final class RDoubleRepVectorData extends RRepVectorData {
+    private final double[] values;
+
+    public RDoubleRepVectorData(double[] values, int each, int length) {
+        super(each, length, isComplete(values));
+        assert values.length > 0;
+        this.values = values;
+    }
+
+    private static boolean isComplete(double[] values) {
+        for (int i = 0; i < values.length; i++) {
+            if (RRuntime.isNA(values[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int getValuesLength() {
+        return values.length;
+    }
+
+    public double getValue(int valueIndex) {
+        return values[valueIndex];
+    }
+
+    @Override
+    protected RType getTargetType() {
+        return RType.Double;
+    }
+
+    @Override
+    protected RDoubleArrayVectorData materializeData() {
+        return new RDoubleArrayVectorData(getDoubleDataCopy(), complete);
+    }
+
+    @Override
+    protected RAbstractVector createValues(int[] valueIndices) {
+        double[] result = new double[valueIndices.length];
+        for (int i = 0; i < valueIndices.length; i++) {
+            result[i] = values[valueIndices[i]];
+        }
+        return RDataFactory.createDoubleVector(result, complete);
+    }
+
+    @Override
+    protected void fill(Object result, int from, int to, int valueIndex) {
+        Arrays.fill((double[]) result, from, to, values[valueIndex]);
+    }
+
+    @Override
+    protected String valuesToString() {
+        return Arrays.toString(values);
+    }
+
+    @ExportMessage
+    public double[] getDoubleDataCopy() {
+        double[] result = new double[length];
+        fillRuns(result);
+        return result;
+    }
+
+    @ExportMessage
+    public double getDoubleAt(int index,
+                    @Shared("naCheck") @Cached() NACheck naCheck) {
+        double value = values[getValueIndex(index)];
+        naCheck.check(value);
+        return value;
+    }
+
+    @ExportMessage
+    public double getNextDouble(SeqIterator it,
+                    @Shared("naCheck") @Cached() NACheck naCheck) {
+        RDoubleRepVectorData data = (RDoubleRepVectorData) it.getStore();
+        double value = data.values[data.getValueIndex(it.getIndex())];
+        naCheck.check(value);
+        return value;
+    }
+
+    @ExportMessage
+    public double getDouble(RandomAccessIterator it, int index,
+                    @Shared("naCheck") @Cached() NACheck naCheck) {
+        RDoubleRepVectorData data = (RDoubleRepVectorData) it.getStore();
+        double value = data.values[data.getValueIndex(index)];
+        naCheck.check(value);
+        return value;
+    }
+}
@@ -47,6 +47,7 @@ import com.oracle.truffle.r.runtime.data.model.RAbstractVector.RMaterializedVect
 import com.oracle.truffle.r.runtime.data.nodes.FastPathVectorAccess.FastPathFromDoubleAccess;
 import com.oracle.truffle.r.runtime.data.nodes.SlowPathVectorAccess.SlowPathFromDoubleAccess;
 import com.oracle.truffle.r.runtime.data.nodes.VectorAccess;
+import com.oracle.truffle.r.runtime.ffi.util.NativeMemory.ElementType;
 import com.oracle.truffle.r.runtime.ops.na.NACheck;
 
 @ExportLibrary(AbstractContainerLibrary.class)
@@ -85,10 +86,43 @@ public final class RDoubleVector extends RAbstractNumericVector implements RMate
         return new RDoubleVector(data, VectorDataLibrary.getFactory().getUncached().getLength(data));
     }
 
+    /**
+     * Creates a vector whose elements are read from a memory mapped file.
+     */
+    public static RDoubleVector createMapped(MappedFileRegion region) {
+        return new RDoubleVector(new RDoubleMappedVectorData(region), region.getLength());
+    }
+
+    /**
+     * Creates a vector holding the result of an element-wise operation that is computed only when
+     * it is read, see {@link RDoubleDeferredVectorData}.
+     */
+    public static RDoubleVector createDeferred(RDoubleDeferredVectorData.Op op, RDoubleVector left, RDoubleVector right) {
+        RDoubleDeferredVectorData data = RDoubleDeferredVectorData.create(op, left, right);
+        return new RDoubleVector(data, data.getLength());
+    }
+
+    /**
+     * Creates a vector holding the negation of {@code operand} that is computed only when it is
+     * read, see {@link RDoubleDeferredVectorData}.
+     */
+    public static RDoubleVector createDeferredNegate(RDoubleVector operand) {
+        RDoubleDeferredVectorData data = RDoubleDeferredVectorData.createNegate(operand);
+        return new RDoubleVector(data, data.getLength());
+    }
+
     public static RDoubleVector createSequence(double start, double stride, int length) {
         return new RDoubleVector(new RDoubleSeqVectorData(start, stride, length), length);
     }
 
+    /**
+     * Creates a vector that repeats the values without allocating the whole data, see
+     * {@link RRep}.
+     */
+    public static RDoubleVector createRep(double[] values, int each, int length) {
+        return new RDoubleVector(new RDoubleRepVectorData(values, each, length), length);
+    }
+
     public static RDoubleVector createClosure(RAbstractVector delegate, boolean keepAttrs) {
         RDoubleVector result = new RDoubleVector(VectorDataClosure.fromVector(delegate, RType.Double), delegate.getLength());
         if (keepAttrs) {
@@ -109,6 +143,17 @@ public final class RDoubleVector extends RAbstractNumericVector implements RMate
         return vector;
     }
 
+    /**
+     * Creates a zero initialized vector with data allocated directly in native memory, see
+     * {@link NativeAllocationSite}.
+     */
+    static RDoubleVector createNativeFirst(int length) {
+        RDoubleVector result = new RDoubleVector();
+        NativeDataAccess.allocateNativeFirstContents(result, length, length, ElementType.DOUBLE);
+        result.setData(new RDoubleNativeVectorData(result), length);
+        return result;
+    }
+
     static RDoubleVector fromNative(long address, int length) {
         RDoubleVector result = new RDoubleVector();
         NativeDataAccess.toNative(result);
@@ -272,6 +317,9 @@ public final class RDoubleVector extends RAbstractNumericVector implements RMate
 
     @ExportMessage(library = AbstractContainerLibrary.class)
     public void materializeData(@CachedLibrary(limit = DATA_LIB_LIMIT) VectorDataLibrary dataLib) {
+        if (MemoryCopyTracer.isTracing() && !dataLib.isWriteable(data)) {
+            MemoryCopyTracer.reportMaterialization(this);
+        }
         setData(dataLib.materialize(data), getLength());
     }
 
@@ -282,6 +330,7 @@ public final class RDoubleVector extends RAbstractNumericVector implements RMate
         }
         // To retain the semantics of the original materialize, for sequences and such we return new
         // vector
+        MemoryCopyTracer.reportMaterialization(this);
         return new RDoubleVector(dataLib.getDoubleDataCopy(data), isComplete());
     }
 
@@ -318,6 +367,26 @@ public final class RDoubleVector extends RAbstractNumericVector implements RMate
         lib.setDoubleAt(data, toIndex, value);
     }
 
+    @Override
+    public void transferRegionSameType(int toIndex, RAbstractVector fromVector, int fromIndex, int length) {
+        Object fromData = ((RDoubleVector) fromVector).data;
+        if (data instanceof RDoubleArrayVectorData && fromData instanceof RDoubleArrayVectorData) {
+            double[] values = ((RDoubleArrayVectorData) fromData).getReadonlyDoubleData();
+            System.arraycopy(values, fromIndex, ((RDoubleArrayVectorData) data).getReadonlyDoubleData(), toIndex, length);
+            if (!((RDoubleArrayVectorData) fromData).isComplete()) {
+                // writing the first NA also clears the complete flag of the target
+                for (int i = fromIndex; i < fromIndex + length; i++) {
+                    if (RRuntime.isNA(values[i])) {
+                        VectorDataLibrary.getFactory().getUncached().setDoubleAt(data, toIndex + i - fromIndex, values[i]);
+                        break;
+                    }
+                }
+            }
+        } else {
+            super.transferRegionSameType(toIndex, fromVector, fromIndex, length);
+        }
+    }
+
     @CompilerDirectives.TruffleBoundary
     protected void copyAttributes(RIntVector materializedVec) {
         materializedVec.copyAttributesFrom(this);
@@ -22,6 +22,7 @@
  */
 package com.oracle.truffle.r.runtime.data;
 
+import com.oracle.truffle.api.CompilerDirectives;
 import com.oracle.truffle.api.CompilerDirectives.CompilationFinal;
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.RootCallTarget;
@@ -54,7 +55,8 @@ import com.oracle.truffle.r.runtime.interop.R2ForeignNodeGen;
  * are as follows:
  * <ul>
  * <li>The {@link #name} is optional. It is only set initially for builtins (required).
- * <li>The {@link #target} represents the actually callable entry point to the function.
+ * <li>The {@link #target} represents the actually callable entry point to the function. It may be
+ * created lazily from a {@link DeferredTarget} when it is requested for the first time.
  * <li>Functions may represent builtins; this is indicated by the {@link #builtin} flag set to the
  * associated {@link RBuiltin} instance.
  * <li>The lexically enclosing environment of this function's definition is referenced by
@@ -69,6 +71,7 @@ public final class RFunction extends RSharingAttributeStorage implements Shareab
     private final String name;
     private final String packageName;
     @CompilationFinal private RootCallTarget target;
+    @CompilationFinal private DeferredTarget deferredTarget;
     private final RBuiltinDescriptor builtin;
 
     @CompilationFinal private MaterializedFrame enclosingFrame;
@@ -135,11 +138,47 @@ public final class RFunction extends RSharingAttributeStorage implements Shareab
     }
 
     public RootCallTarget getTarget() {
+        if (deferredTarget != null) {
+            CompilerDirectives.transferToInterpreterAndInvalidate();
+            materializeTarget();
+        }
         return target;
     }
 
     public RootNode getRootNode() {
-        return target != null ? target.getRootNode() : null;
+        RootCallTarget callTarget = getTarget();
+        return callTarget != null ? callTarget.getRootNode() : null;
+    }
+
+    /**
+     * Returns the source of the call target if the target has not been created yet, {@code null}
+     * otherwise. Code that only needs the formals or the body of the function as R values should
+     * use it to avoid building the AST.
+     */
+    public DeferredTarget getDeferredTarget() {
+        DeferredTarget deferred = deferredTarget;
+        if (deferred != null && deferred.isMaterialized()) {
+            // materialized through a copy of this function
+            getTarget();
+            return null;
+        }
+        return deferred;
+    }
+
+    void setDeferredTarget(DeferredTarget deferredTarget) {
+        this.deferredTarget = deferredTarget;
+    }
+
+    @TruffleBoundary
+    private void materializeTarget() {
+        DeferredTarget deferred = deferredTarget;
+        if (deferred != null) {
+            target = deferred.materialize(this);
+            deferredTarget = null;
+            if (!isBuiltin() && name != NO_NAME) {
+                RContext.getRRuntimeASTAccess().setFunctionName(target.getRootNode(), name);
+            }
+        }
     }
 
     public MaterializedFrame getEnclosingFrame() {
@@ -148,12 +187,14 @@ public final class RFunction extends RSharingAttributeStorage implements Shareab
 
     @Override
     public String toString() {
-        return target.toString();
+        return getTarget().toString();
     }
 
     @Override
     public RFunction copy() {
-        RFunction newFunction = RDataFactory.createFunction(getName(), getPackageName(), getTarget(), getRBuiltin(), getEnclosingFrame());
+        RFunction newFunction = RDataFactory.createFunction(getName(), getPackageName(), target, getRBuiltin(), getEnclosingFrame());
+        // the copies share the deferred target, which creates the call target only once
+        newFunction.deferredTarget = deferredTarget;
         if (getAttributes() != null) {
             newFunction.initAttributes(RAttributesLayout.copy(getAttributes()));
         }
@@ -163,12 +204,38 @@ public final class RFunction extends RSharingAttributeStorage implements Shareab
 
     public void reassignTarget(RootCallTarget newTarget) {
         this.target = newTarget;
+        this.deferredTarget = null;
     }
 
     public void reassignEnclosingFrame(MaterializedFrame newEnclosingFrame) {
         this.enclosingFrame = newEnclosingFrame;
     }
 
+    /**
+     * The compact form of a function whose AST is built only when the function is called or
+     * otherwise needs its call target for the first time. The formals and the body can be
+     * retrieved as R values without building the AST.
+     */
+    public interface DeferredTarget {
+        /**
+         * Creates the call target, or returns the one created before, since the instance may be
+         * shared by several copies of the function.
+         */
+        RootCallTarget materialize(RFunction function);
+
+        boolean isMaterialized();
+
+        /**
+         * Returns the formal arguments as a pairlist, or {@code NULL} if there are none.
+         */
+        Object getFormals();
+
+        /**
+         * Returns the body as a language object, symbol or constant.
+         */
+        Object getBody();
+    }
+
     public interface ExplicitCall extends NodeInterface {
         static ExplicitCall create() {
             return DSLConfig.getInteropLibraryCacheSize() > 0 ? CachedExplicitCallNodeGen.create() : new UncachedExplicitCall();
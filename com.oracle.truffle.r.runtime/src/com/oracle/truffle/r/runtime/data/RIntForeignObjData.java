@@ -22,9 +22,13 @@
  */
 package com.oracle.truffle.r.runtime.data;
 
+import java.util.Arrays;
+
+import com.oracle.truffle.api.TruffleLanguage.Env;
 import com.oracle.truffle.api.dsl.Cached;
 import com.oracle.truffle.api.dsl.Cached.Exclusive;
 import com.oracle.truffle.api.dsl.Cached.Shared;
+import com.oracle.truffle.api.interop.InteropException;
 import com.oracle.truffle.api.interop.InteropLibrary;
 import com.oracle.truffle.api.interop.InvalidArrayIndexException;
 import com.oracle.truffle.api.interop.TruffleObject;
@@ -38,16 +42,36 @@ import com.oracle.truffle.api.profiles.ValueProfile;
 import com.oracle.truffle.r.runtime.RInternalError;
 import com.oracle.truffle.r.runtime.RRuntime;
 import com.oracle.truffle.r.runtime.RType;
+import com.oracle.truffle.r.runtime.context.RContext;
 import com.oracle.truffle.r.runtime.data.VectorDataLibrary.RandomAccessIterator;
 import com.oracle.truffle.r.runtime.data.VectorDataLibrary.SeqIterator;
+import com.oracle.truffle.r.runtime.ffi.util.NativeMemory;
+import com.oracle.truffle.r.runtime.ffi.util.NativeMemory.ElementType;
 import com.oracle.truffle.r.runtime.ops.na.NACheck;
 
 @ExportLibrary(VectorDataLibrary.class)
 class RIntForeignObjData implements TruffleObject {
     protected final Object foreign;
+    /**
+     * The {@code int[]} wrapped by {@link #foreign} if it is a host object. The elements of such
+     * array are read directly instead of by an interop message per element.
+     */
+    private final int[] hostArray;
 
     RIntForeignObjData(Object foreign) {
         this.foreign = foreign;
+        this.hostArray = getHostArray(foreign);
+    }
+
+    private static int[] getHostArray(Object foreign) {
+        Env env = RContext.getInstance().getEnv();
+        if (env.isHostObject(foreign)) {
+            Object hostObject = env.asHostObject(foreign);
+            if (hostObject instanceof int[]) {
+                return (int[]) hostObject;
+            }
+        }
+        return null;
     }
 
     @SuppressWarnings("static-method")
@@ -64,6 +88,9 @@ class RIntForeignObjData implements TruffleObject {
 
     @ExportMessage
     public int getLength(@CachedLibrary("this.foreign") InteropLibrary interop) {
+        if (hostArray != null) {
+            return hostArray.length;
+        }
         try {
             long result = interop.getArraySize(foreign);
             return (int) result;
@@ -96,12 +123,27 @@ class RIntForeignObjData implements TruffleObject {
         return new RIntArrayVectorData(getIntDataCopy(valueInterop, interop, resultProfile, isTruffleObjectProfile, isIntProfile), RDataFactory.INCOMPLETE_VECTOR);
     }
 
+    @ExportMessage
+    public int[] getReadonlyIntData(@CachedLibrary(limit = "5") InteropLibrary valueInterop,
+                    @CachedLibrary("this.foreign") InteropLibrary interop,
+                    @Shared("resultProfile") @Cached("createClassProfile()") ValueProfile resultProfile,
+                    @Shared("isTOProfile") @Cached("createBinaryProfile()") ConditionProfile isTruffleObjectProfile,
+                    @Shared("isIntProfile") @Cached("createBinaryProfile()") ConditionProfile isIntProfile) {
+        if (hostArray != null) {
+            return hostArray;
+        }
+        return getIntDataCopy(valueInterop, interop, resultProfile, isTruffleObjectProfile, isIntProfile);
+    }
+
     @ExportMessage
     public int[] getIntDataCopy(@CachedLibrary(limit = "5") InteropLibrary valueInterop,
                     @CachedLibrary("this.foreign") InteropLibrary interop,
                     @Shared("resultProfile") @Cached("createClassProfile()") ValueProfile resultProfile,
                     @Shared("isTOProfile") @Cached("createBinaryProfile()") ConditionProfile isTruffleObjectProfile,
                     @Shared("isIntProfile") @Cached("createBinaryProfile()") ConditionProfile isIntProfile) {
+        if (hostArray != null) {
+            return Arrays.copyOf(hostArray, hostArray.length);
+        }
         int len = getLength(interop);
         return getDataAsArray(len, len, valueInterop, interop, resultProfile, isTruffleObjectProfile, isIntProfile);
     }
@@ -175,6 +217,11 @@ class RIntForeignObjData implements TruffleObject {
                     @Shared("resultProfile") @Cached("createClassProfile()") ValueProfile resultProfile,
                     @Shared("isTOProfile") @Cached("createBinaryProfile()") ConditionProfile isTruffleObjectProfile,
                     @Shared("isIntProfile") @Cached("createBinaryProfile()") ConditionProfile isIntProfile) {
+        if (hostArray != null) {
+            int value = hostArray[index];
+            naCheck.check(value);
+            return value;
+        }
         return getIntImpl(foreign, index, naCheck, valueInterop, interop, resultProfile, isTruffleObjectProfile, isIntProfile);
     }
 
@@ -186,6 +233,11 @@ class RIntForeignObjData implements TruffleObject {
                     @Shared("resultProfile") @Cached("createClassProfile()") ValueProfile resultProfile,
                     @Shared("isTOProfile") @Cached("createBinaryProfile()") ConditionProfile isTruffleObjectProfile,
                     @Shared("isIntProfile") @Cached("createBinaryProfile()") ConditionProfile isIntProfile) {
+        if (hostArray != null) {
+            int value = hostArray[it.getIndex()];
+            naCheck.check(value);
+            return value;
+        }
         return getIntImpl(it.getStore(), it.getIndex(), naCheck, valueInterop, interop, resultProfile, isTruffleObjectProfile, isIntProfile);
     }
 
@@ -197,9 +249,41 @@ class RIntForeignObjData implements TruffleObject {
                     @Shared("resultProfile") @Cached("createClassProfile()") ValueProfile resultProfile,
                     @Shared("isTOProfile") @Cached("createBinaryProfile()") ConditionProfile isTruffleObjectProfile,
                     @Shared("isIntProfile") @Cached("createBinaryProfile()") ConditionProfile isIntProfile) {
+        if (hostArray != null) {
+            int value = hostArray[index];
+            naCheck.check(value);
+            return value;
+        }
         return getIntImpl(it.getStore(), index, naCheck, valueInterop, interop, resultProfile, isTruffleObjectProfile, isIntProfile);
     }
 
+    @ExportMessage
+    public int getIntRegion(int startIndex, int size, Object buffer, InteropLibrary bufferInterop,
+                    @CachedLibrary(limit = "5") InteropLibrary valueInterop,
+                    @CachedLibrary("this.foreign") InteropLibrary interop,
+                    @Shared("naCheck") @Cached() NACheck naCheck,
+                    @Shared("resultProfile") @Cached("createClassProfile()") ValueProfile resultProfile,
+                    @Shared("isTOProfile") @Cached("createBinaryProfile()") ConditionProfile isTruffleObjectProfile,
+                    @Shared("isIntProfile") @Cached("createBinaryProfile()") ConditionProfile isIntProfile) {
+        int length = Math.max(0, Math.min(size, getLength(interop) - startIndex));
+        if (hostArray != null && bufferInterop.isPointer(buffer)) {
+            try {
+                NativeMemory.copyMemory(hostArray, startIndex, bufferInterop.asPointer(buffer), ElementType.INT, length);
+                return length;
+            } catch (UnsupportedMessageException e) {
+                throw RInternalError.shouldNotReachHere(e);
+            }
+        }
+        try {
+            for (int i = 0; i < length; i++) {
+                bufferInterop.writeArrayElement(buffer, i, getIntAt(startIndex + i, valueInterop, interop, naCheck, resultProfile, isTruffleObjectProfile, isIntProfile));
+            }
+        } catch (InteropException e) {
+            throw RInternalError.shouldNotReachHere(e);
+        }
+        return length;
+    }
+
     // Utility methods:
 
     private int[] getDataAsArray(int newLength, int length, InteropLibrary valueInterop, InteropLibrary interop, ValueProfile resultProfile, ConditionProfile isTruffleObjectProfile,
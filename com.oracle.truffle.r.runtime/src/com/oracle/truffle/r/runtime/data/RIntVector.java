@@ -50,6 +50,7 @@ import com.oracle.truffle.r.runtime.data.model.RAbstractVector;
 import com.oracle.truffle.r.runtime.data.nodes.FastPathVectorAccess.FastPathFromIntAccess;
 import com.oracle.truffle.r.runtime.data.nodes.SlowPathVectorAccess.SlowPathFromIntAccess;
 import com.oracle.truffle.r.runtime.data.nodes.VectorAccess;
+import com.oracle.truffle.r.runtime.ffi.util.NativeMemory.ElementType;
 import com.oracle.truffle.r.runtime.ops.na.NACheck;
 
 @ExportLibrary(AbstractContainerLibrary.class)
@@ -83,6 +84,17 @@ public final class RIntVector extends RAbstractNumericVector {
         super.setData(data);
     }
 
+    /**
+     * Creates a zero initialized vector with data allocated directly in native memory, see
+     * {@link NativeAllocationSite}.
+     */
+    static RIntVector createNativeFirst(int length) {
+        RIntVector result = new RIntVector();
+        NativeDataAccess.allocateNativeFirstContents(result, length, length, ElementType.INT);
+        result.setData(new RIntNativeVectorData(result), length);
+        return result;
+    }
+
     static RIntVector fromNative(long address, int length) {
         RIntVector result = new RIntVector();
         NativeDataAccess.toNative(result);
@@ -116,11 +128,26 @@ public final class RIntVector extends RAbstractNumericVector {
         return result;
     }
 
+    /**
+     * Creates a vector that repeats the values without allocating the whole data, see
+     * {@link RRep}.
+     */
+    public static RIntVector createRep(int[] values, int each, int length) {
+        return new RIntVector(new RIntRepVectorData(values, each, length), length);
+    }
+
     public static RIntVector createForeignWrapper(Object foreign) {
         RIntForeignObjData data = new RIntForeignObjData(foreign);
         return new RIntVector(data, VectorDataLibrary.getFactory().getUncached().getLength(data));
     }
 
+    /**
+     * Creates a vector whose elements are read from a memory mapped file.
+     */
+    public static RIntVector createMapped(MappedFileRegion region) {
+        return new RIntVector(new RIntMappedVectorData(region), region.getLength());
+    }
+
     @Override
     @Ignore // AbstractContainerLibrary
     public boolean isMaterialized() {
@@ -286,6 +313,9 @@ public final class RIntVector extends RAbstractNumericVector {
 
     @ExportMessage(library = AbstractContainerLibrary.class)
     public void materializeData(@CachedLibrary(limit = DATA_LIB_LIMIT) VectorDataLibrary dataLib) {
+        if (MemoryCopyTracer.isTracing() && !dataLib.isWriteable(data)) {
+            MemoryCopyTracer.reportMaterialization(this);
+        }
         setData(dataLib.materialize(data), getLength());
     }
 
@@ -296,6 +326,7 @@ public final class RIntVector extends RAbstractNumericVector {
         }
         // To retain the semantics of the original materialize, for sequences and such we return new
         // vector
+        MemoryCopyTracer.reportMaterialization(this);
         return new RIntVector(dataLib.getIntDataCopy(data), isComplete());
     }
 
@@ -351,6 +382,26 @@ public final class RIntVector extends RAbstractNumericVector {
         lib.setIntAt(data, toIndex, value);
     }
 
+    @Override
+    public void transferRegionSameType(int toIndex, RAbstractVector fromVector, int fromIndex, int length) {
+        Object fromData = ((RIntVector) fromVector).data;
+        if (data instanceof RIntArrayVectorData && fromData instanceof RIntArrayVectorData) {
+            int[] values = ((RIntArrayVectorData) fromData).getReadonlyIntData();
+            System.arraycopy(values, fromIndex, ((RIntArrayVectorData) data).getReadonlyIntData(), toIndex, length);
+            if (!((RIntArrayVectorData) fromData).isComplete()) {
+                // writing the first NA also clears the complete flag of the target
+                for (int i = fromIndex; i < fromIndex + length; i++) {
+                    if (RRuntime.isNA(values[i])) {
+                        VectorDataLibrary.getFactory().getUncached().setIntAt(data, toIndex + i - fromIndex, values[i]);
+                        break;
+                    }
+                }
+            }
+        } else {
+            super.transferRegionSameType(toIndex, fromVector, fromIndex, length);
+        }
+    }
+
     @CompilerDirectives.TruffleBoundary
     protected void copyAttributes(RIntVector materializedVec) {
         materializedVec.copyAttributesFrom(this);
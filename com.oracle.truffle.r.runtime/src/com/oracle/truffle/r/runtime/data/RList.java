@@ -262,6 +262,9 @@ public final class RList extends RAbstractListVector implements RMaterializedVec
 
     @ExportMessage(library = AbstractContainerLibrary.class)
     public void materializeData(@CachedLibrary(limit = DATA_LIB_LIMIT) VectorDataLibrary dataLib) {
+        if (MemoryCopyTracer.isTracing() && !dataLib.isWriteable(data)) {
+            MemoryCopyTracer.reportMaterialization(this);
+        }
         setData(dataLib.materialize(data), dataLib.getLength(data));
     }
 
@@ -49,6 +49,7 @@ import com.oracle.truffle.r.runtime.data.model.RAbstractVector.RMaterializedVect
 import com.oracle.truffle.r.runtime.data.nodes.FastPathVectorAccess.FastPathFromLogicalAccess;
 import com.oracle.truffle.r.runtime.data.nodes.SlowPathVectorAccess.SlowPathFromLogicalAccess;
 import com.oracle.truffle.r.runtime.data.nodes.VectorAccess;
+import com.oracle.truffle.r.runtime.ffi.util.NativeMemory.ElementType;
 import com.oracle.truffle.r.runtime.ops.na.NACheck;
 
 @ExportLibrary(InteropLibrary.class)
@@ -83,6 +84,14 @@ public final class RLogicalVector extends RAbstractAtomicVector implements RMate
         super.setData(data);
     }
 
+    /**
+     * Creates a vector that repeats the values without allocating the whole data, see
+     * {@link RRep}.
+     */
+    public static RLogicalVector createRep(byte[] values, int each, int length) {
+        return new RLogicalVector(new RLogicalRepVectorData(values, each, length), length);
+    }
+
     public static RLogicalVector createForeignWrapper(Object foreign) {
         RLogicalForeignObjData data = new RLogicalForeignObjData(foreign);
         return new RLogicalVector(data, VectorDataLibrary.getFactory().getUncached().getLength(data));
@@ -99,6 +108,17 @@ public final class RLogicalVector extends RAbstractAtomicVector implements RMate
         return logicalVec;
     }
 
+    /**
+     * Creates a zero initialized vector with data allocated directly in native memory, see
+     * {@link NativeAllocationSite}.
+     */
+    static RLogicalVector createNativeFirst(int length) {
+        RLogicalVector result = new RLogicalVector();
+        NativeDataAccess.allocateNativeFirstContents(result, length, length, ElementType.INT);
+        result.setData(new RLogicalNativeVectorData(result), length);
+        return result;
+    }
+
     static RLogicalVector fromNative(long address, int length) {
         RLogicalVector result = new RLogicalVector();
         NativeDataAccess.toNative(result);
@@ -266,6 +286,26 @@ public final class RLogicalVector extends RAbstractAtomicVector implements RMate
         lib.setLogicalAt(data, toIndex, value);
     }
 
+    @Override
+    public void transferRegionSameType(int toIndex, RAbstractVector fromVector, int fromIndex, int length) {
+        Object fromData = ((RLogicalVector) fromVector).data;
+        if (data instanceof RLogicalArrayVectorData && fromData instanceof RLogicalArrayVectorData) {
+            byte[] values = ((RLogicalArrayVectorData) fromData).getReadonlyLogicalData();
+            System.arraycopy(values, fromIndex, ((RLogicalArrayVectorData) data).getReadonlyLogicalData(), toIndex, length);
+            if (!((RLogicalArrayVectorData) fromData).isComplete()) {
+                // writing the first NA also clears the complete flag of the target
+                for (int i = fromIndex; i < fromIndex + length; i++) {
+                    if (RRuntime.isNA(values[i])) {
+                        VectorDataLibrary.getFactory().getUncached().setLogicalAt(data, toIndex + i - fromIndex, values[i]);
+                        break;
+                    }
+                }
+            }
+        } else {
+            super.transferRegionSameType(toIndex, fromVector, fromIndex, length);
+        }
+    }
+
     @Override
     public byte[] getDataCopy() {
         return VectorDataLibrary.getFactory().getUncached().getLogicalDataCopy(data);
@@ -284,6 +324,9 @@ public final class RLogicalVector extends RAbstractAtomicVector implements RMate
 
     @ExportMessage(library = AbstractContainerLibrary.class)
     public void materializeData(@CachedLibrary(limit = DATA_LIB_LIMIT) VectorDataLibrary dataLib) {
+        if (MemoryCopyTracer.isTracing() && !dataLib.isWriteable(data)) {
+            MemoryCopyTracer.reportMaterialization(this);
+        }
         setData(dataLib.materialize(data), getLength());
     }
 
@@ -294,6 +337,7 @@ public final class RLogicalVector extends RAbstractAtomicVector implements RMate
         }
         // To retain the semantics of the original materialize, for sequences and such we return new
         // vector
+        MemoryCopyTracer.reportMaterialization(this);
         return new RLogicalVector(dataLib.getLogicalDataCopy(data), isComplete());
     }
 
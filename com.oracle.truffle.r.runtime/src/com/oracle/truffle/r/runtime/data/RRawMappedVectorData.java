@@ -0,0 +1,169 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 3 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 3 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.r.runtime.data;
+
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.Cached.Shared;
+import com.oracle.truffle.api.interop.InteropException;
+import com.oracle.truffle.api.interop.InteropLibrary;
+import com.oracle.truffle.api.interop.TruffleObject;
+import com.oracle.truffle.api.library.ExportLibrary;
+import com.oracle.truffle.api.library.ExportMessage;
+import com.oracle.truffle.api.profiles.ConditionProfile;
+import com.oracle.truffle.api.profiles.LoopConditionProfile;
+import com.oracle.truffle.r.runtime.RInternalError;
+import com.oracle.truffle.r.runtime.RType;
+import com.oracle.truffle.r.runtime.data.VectorDataLibrary.RandomAccessIterator;
+import com.oracle.truffle.r.runtime.data.VectorDataLibrary.SeqIterator;
+import com.oracle.truffle.r.runtime.ffi.util.NativeMemory;
+import com.oracle.truffle.r.runtime.ffi.util.NativeMemory.ElementType;
+import com.oracle.truffle.r.runtime.ops.na.NACheck;
+
+/**
+ * Raw vector data read directly from a memory mapped file, see {@link MappedFileRegion}. The
+ * data are not writeable, the first write to the vector materializes it into a Java array.
+ */
+@ExportLibrary(VectorDataLibrary.class)
+class RRawMappedVectorData implements TruffleObject {
+    private final MappedFileRegion region;
+
+    RRawMappedVectorData(MappedFileRegion region) {
+        this.region = region;
+    }
+
+    @SuppressWarnings("static-method")
+    @ExportMessage
+    public final RType getType() {
+        return RType.Raw;
+    }
+
+    @SuppressWarnings("static-method")
+    @ExportMessage
+    public NACheck getNACheck() {
+        return NACheck.getDisabled();
+    }
+
+    @SuppressWarnings("static-method")
+    @ExportMessage
+    public boolean isComplete() {
+        return true;
+    }
+
+    @ExportMessage
+    public int getLength() {
+        return region.getLength();
+    }
+
+    @ExportMessage
+    public RRawArrayVectorData materialize() {
+        return copy(false);
+    }
+
+    @SuppressWarnings("static-method")
+    @ExportMessage
+    public boolean isWriteable() {
+        return false;
+    }
+
+    @ExportMessage
+    public RRawArrayVectorData copy(@SuppressWarnings("unused") boolean deep) {
+        return new RRawArrayVectorData(getRawDataCopy());
+    }
+
+    @ExportMessage
+    public byte[] getRawDataCopy() {
+        return region.getBytes();
+    }
+
+    @ExportMessage
+    public SeqIterator iterator(@Shared("naCheck") @Cached() NACheck naCheck,
+                    @Shared("SeqItLoopProfile") @Cached("createCountingProfile()") LoopConditionProfile loopProfile) {
+        SeqIterator it = new SeqIterator(region, region.getLength());
+        naCheck.enable(true);
+        it.initLoopConditionProfile(loopProfile);
+        return it;
+    }
+
+    @ExportMessage
+    @SuppressWarnings("static-method")
+    public boolean nextImpl(SeqIterator it, boolean loopCondition,
+                    @Shared("SeqItLoopProfile") @Cached("createCountingProfile()") LoopConditionProfile loopProfile) {
+        return it.next(loopCondition, loopProfile);
+    }
+
+    @ExportMessage
+    @SuppressWarnings("static-method")
+    public void nextWithWrap(SeqIterator it,
+                    @Cached("createBinaryProfile()") ConditionProfile wrapProfile) {
+        it.nextWithWrap(wrapProfile);
+    }
+
+    @ExportMessage
+    public RandomAccessIterator randomAccessIterator(@Shared("naCheck") @Cached() NACheck naCheck) {
+        naCheck.enable(true);
+        return new RandomAccessIterator(region);
+    }
+
+    @ExportMessage
+    public byte getRawAt(int index,
+                    @Shared("naCheck") @Cached() NACheck naCheck) {
+        byte value = region.getByte(index);
+        naCheck.check(value);
+        return value;
+    }
+
+    @ExportMessage
+    public byte getNextRaw(SeqIterator it,
+                    @Shared("naCheck") @Cached() NACheck naCheck) {
+        byte value = ((MappedFileRegion) it.getStore()).getByte(it.getIndex());
+        naCheck.check(value);
+        return value;
+    }
+
+    @ExportMessage
+    public byte getRaw(RandomAccessIterator it, int index,
+                    @Shared("naCheck") @Cached() NACheck naCheck) {
+        byte value = ((MappedFileRegion) it.getStore()).getByte(index);
+        naCheck.check(value);
+        return value;
+    }
+
+    @ExportMessage
+    public int getRawRegion(int startIndex, int size, Object buffer, InteropLibrary bufferInterop) {
+        int length = Math.max(0, Math.min(size, region.getLength() - startIndex));
+        byte[] values = new byte[length];
+        region.getBytes(startIndex, values, 0, length);
+        try {
+            if (bufferInterop.isPointer(buffer)) {
+                NativeMemory.copyMemory(values, bufferInterop.asPointer(buffer), ElementType.BYTE, length);
+            } else {
+                for (int i = 0; i < length; i++) {
+                    bufferInterop.writeArrayElement(buffer, i, values[i]);
+                }
+            }
+        } catch (InteropException e) {
+            throw RInternalError.shouldNotReachHere(e);
+        }
+        return length;
+    }
+}
@@ -45,6 +45,7 @@ import com.oracle.truffle.r.runtime.data.model.RAbstractVector.RMaterializedVect
 import com.oracle.truffle.r.runtime.data.nodes.FastPathVectorAccess.FastPathFromRawAccess;
 import com.oracle.truffle.r.runtime.data.nodes.SlowPathVectorAccess.SlowPathFromRawAccess;
 import com.oracle.truffle.r.runtime.data.nodes.VectorAccess;
+import com.oracle.truffle.r.runtime.ffi.util.NativeMemory.ElementType;
 import com.oracle.truffle.r.runtime.ops.na.NACheck;
 
 @ExportLibrary(AbstractContainerLibrary.class)
@@ -78,6 +79,17 @@ public final class RRawVector extends RAbstractNumericVector implements RMateria
         super.setData(data);
     }
 
+    /**
+     * Creates a zero initialized vector with data allocated directly in native memory, see
+     * {@link NativeAllocationSite}.
+     */
+    static RRawVector createNativeFirst(int length) {
+        RRawVector result = new RRawVector();
+        NativeDataAccess.allocateNativeFirstContents(result, length, length, ElementType.BYTE);
+        result.setData(new RRawNativeVectorData(result), length);
+        return result;
+    }
+
     static RRawVector fromNative(long address, int length) {
         RRawVector result = new RRawVector();
         NativeDataAccess.toNative(result);
@@ -86,6 +98,13 @@ public final class RRawVector extends RAbstractNumericVector implements RMateria
         return result;
     }
 
+    /**
+     * Creates a vector whose elements are read from a memory mapped file.
+     */
+    public static RRawVector createMapped(MappedFileRegion region) {
+        return new RRawVector(new RRawMappedVectorData(region), region.getLength());
+    }
+
     @CompilerDirectives.TruffleBoundary
     public static RRawVector createAltRaw(AltRawClassDescriptor descriptor, RAltRepData altRepData) {
         RAltRawVectorData altRawVectorData = new RAltRawVectorData(descriptor, altRepData);
@@ -237,6 +256,9 @@ public final class RRawVector extends RAbstractNumericVector implements RMateria
 
     @ExportMessage(library = AbstractContainerLibrary.class)
     public void materializeData(@CachedLibrary(limit = DATA_LIB_LIMIT) VectorDataLibrary dataLib) {
+        if (MemoryCopyTracer.isTracing() && !dataLib.isWriteable(data)) {
+            MemoryCopyTracer.reportMaterialization(this);
+        }
         setData(dataLib.materialize(data), getLength());
     }
 
@@ -247,6 +269,7 @@ public final class RRawVector extends RAbstractNumericVector implements RMateria
         }
         // To retain the semantics of the original materialize, for sequences and such we return new
         // vector
+        MemoryCopyTracer.reportMaterialization(this);
         return new RRawVector(dataLib.getRawDataCopy(data));
     }
 
@@ -300,6 +323,16 @@ public final class RRawVector extends RAbstractNumericVector implements RMateria
         lib.setRawAt(data, toIndex, value);
     }
 
+    @Override
+    public void transferRegionSameType(int toIndex, RAbstractVector fromVector, int fromIndex, int length) {
+        Object fromData = ((RRawVector) fromVector).data;
+        if (data instanceof RRawArrayVectorData && fromData instanceof RRawArrayVectorData) {
+            System.arraycopy(((RRawArrayVectorData) fromData).getReadonlyRawData(), fromIndex, ((RRawArrayVectorData) data).getReadonlyRawData(), toIndex, length);
+        } else {
+            super.transferRegionSameType(toIndex, fromVector, fromIndex, length);
+        }
+    }
+
     @Override
     @Ignore
     public RRawVector createEmptySameType(int newLength, @SuppressWarnings("unused") boolean newIsComplete) {
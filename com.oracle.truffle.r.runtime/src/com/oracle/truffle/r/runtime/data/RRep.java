@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 3 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 3 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.r.runtime.data;
+
+import com.oracle.truffle.r.runtime.data.model.RAbstractVector;
+
+/**
+ * An {@link RRep} is a compact representation of {@code rep(values, each = each, length.out =
+ * length)}, i.e., the element at index {@code i} is {@code values[(i / each) % values.length]}.
+ * Constant vectors, e.g. {@code numeric(n)} or {@code rep(NA, n)}, are the special case of a single
+ * value. The data are immutable, the first write to such vector materializes it.
+ */
+public interface RRep {
+    /**
+     * Vectors shorter than this are not worth the indirection and are allocated directly.
+     */
+    int MIN_LENGTH = 1 << 14;
+    /**
+     * The compact representation is used only if the vector is at least this many times longer
+     * than the repeated values.
+     */
+    int MIN_RATIO = 8;
+
+    static boolean isBeneficial(int valuesLength, long length) {
+        return valuesLength > 0 && length >= MIN_LENGTH && length <= Integer.MAX_VALUE && length >= (long) MIN_RATIO * valuesLength;
+    }
+
+    int getLength();
+
+    int getEach();
+
+    int getValuesLength();
+
+    default int getValueIndex(int index) {
+        int valuesLength = getValuesLength();
+        if (valuesLength == 1) {
+            return 0;
+        }
+        int each = getEach();
+        return (each == 1 ? index : index / each) % valuesLength;
+    }
+
+    /**
+     * Returns the number of leading values that actually occur in the data, which may be shorter
+     * than one whole cycle of the values.
+     */
+    default int getOccurringValuesLength() {
+        return (int) Math.min(getValuesLength(), ((long) getLength() + getEach() - 1) / getEach());
+    }
+
+    /**
+     * Returns how many times the value at {@code valueIndex} occurs in the data.
+     */
+    default long getCount(int valueIndex) {
+        long each = getEach();
+        long cycle = each * getValuesLength();
+        long rest = getLength() % cycle - valueIndex * each;
+        return getLength() / cycle * each + Math.max(0, Math.min(each, rest));
+    }
+
+    /**
+     * Returns the indices of the values that occur in the data in the order of their first
+     * occurrence or, if {@code fromLast} is {@code true}, in the reversed order starting from the
+     * last element. Since the values are repeated periodically, all the last occurrences are within
+     * the last cycle.
+     */
+    default int[] getOccurringValueIndices(boolean fromLast) {
+        int occurring = getOccurringValuesLength();
+        int[] result = new int[occurring];
+        if (fromLast) {
+            int last = getValueIndex(getLength() - 1);
+            for (int i = 0; i < occurring; i++) {
+                result[i] = (last - i + occurring) % occurring;
+            }
+        } else {
+            for (int i = 0; i < occurring; i++) {
+                result[i] = i;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Creates a vector without attributes holding the values at {@link #getOccurringValueIndices}.
+     * Hence the unique elements of this vector are the unique elements of the whole data, and the
+     * first occurrences in the vector created for {@code fromLast} are the last occurrences in the
+     * data, in reverse order.
+     */
+    RAbstractVector createOccurringValues(boolean fromLast);
+}
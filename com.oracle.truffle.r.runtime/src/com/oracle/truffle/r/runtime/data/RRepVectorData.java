@@ -0,0 +1,170 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 3 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 3 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.r.runtime.data;
+
+import com.oracle.truffle.api.CompilerAsserts;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.Cached.Shared;
+import com.oracle.truffle.api.interop.TruffleObject;
+import com.oracle.truffle.api.library.ExportLibrary;
+import com.oracle.truffle.api.library.ExportMessage;
+import com.oracle.truffle.api.profiles.ConditionProfile;
+import com.oracle.truffle.api.profiles.LoopConditionProfile;
+import com.oracle.truffle.r.runtime.RType;
+import com.oracle.truffle.r.runtime.data.VectorDataLibrary.RandomAccessIterator;
+import com.oracle.truffle.r.runtime.data.VectorDataLibrary.SeqIterator;
+import com.oracle.truffle.r.runtime.data.model.RAbstractVector;
+import com.oracle.truffle.r.runtime.ops.na.NACheck;
+
+/**
+ * The part of the compact vector data (see {@link RRep}) that does not depend on the type of the
+ * repeated values. The subclasses hold the values and export the type specific messages.
+ */
+@ExportLibrary(VectorDataLibrary.class)
+public abstract class RRepVectorData implements RRep, TruffleObject {
+    final int each;
+    final int length;
+    final boolean complete;
+
+    RRepVectorData(int each, int length, boolean complete) {
+        assert each > 0;
+        this.each = each;
+        this.length = length;
+        this.complete = complete;
+    }
+
+    protected abstract RType getTargetType();
+
+    protected abstract Object materializeData();
+
+    /**
+     * Creates a vector without attributes holding the values at given indices.
+     */
+    protected abstract RAbstractVector createValues(int[] valueIndices);
+
+    /**
+     * Stores the value at {@code valueIndex} to the elements {@code from} (inclusive) to {@code to}
+     * (exclusive) of {@code result}, which is an array of the type of the values.
+     */
+    protected abstract void fill(Object result, int from, int to, int valueIndex);
+
+    protected abstract String valuesToString();
+
+    @Override
+    public final int getEach() {
+        return each;
+    }
+
+    @Override
+    public final RAbstractVector createOccurringValues(boolean fromLast) {
+        return createValues(getOccurringValueIndices(fromLast));
+    }
+
+    /**
+     * Fills {@code result} with all the elements, one {@link #fill} per run of equal elements.
+     */
+    final void fillRuns(Object result) {
+        int valuesLength = getValuesLength();
+        if (valuesLength == 1) {
+            fill(result, 0, length, 0);
+            return;
+        }
+        int pos = 0;
+        while (pos < length) {
+            for (int v = 0; v < valuesLength && pos < length; v++) {
+                int end = Math.min(length, pos + each);
+                fill(result, pos, end, v);
+                pos = end;
+            }
+        }
+    }
+
+    @ExportMessage
+    public NACheck getNACheck() {
+        return complete ? NACheck.getDisabled() : NACheck.getEnabled();
+    }
+
+    @ExportMessage
+    public final RType getType() {
+        return getTargetType();
+    }
+
+    @ExportMessage
+    @Override
+    public final int getLength() {
+        return length;
+    }
+
+    @ExportMessage
+    public Object materialize() {
+        return materializeData();
+    }
+
+    @ExportMessage
+    public RRepVectorData copy(@SuppressWarnings("unused") boolean deep) {
+        // the data are immutable
+        return this;
+    }
+
+    @ExportMessage
+    public boolean isComplete() {
+        return complete;
+    }
+
+    // Read access to the elements, the typed getters are exported by the subclasses:
+
+    @ExportMessage
+    public SeqIterator iterator(@Shared("naCheck") @Cached() NACheck naCheck,
+                    @Shared("SeqItLoopProfile") @Cached("createCountingProfile()") LoopConditionProfile loopProfile) {
+        SeqIterator it = new SeqIterator(this, length);
+        naCheck.enable(!complete);
+        it.initLoopConditionProfile(loopProfile);
+        return it;
+    }
+
+    @ExportMessage
+    @SuppressWarnings("static-method")
+    public boolean nextImpl(SeqIterator it, boolean loopCondition,
+                    @Shared("SeqItLoopProfile") @Cached("createCountingProfile()") LoopConditionProfile loopProfile) {
+        return it.next(loopCondition, loopProfile);
+    }
+
+    @ExportMessage
+    @SuppressWarnings("static-method")
+    public void nextWithWrap(SeqIterator it,
+                    @Cached("createBinaryProfile()") ConditionProfile wrapProfile) {
+        it.nextWithWrap(wrapProfile);
+    }
+
+    @ExportMessage
+    public RandomAccessIterator randomAccessIterator(@Shared("naCheck") @Cached() NACheck naCheck) {
+        naCheck.enable(!complete);
+        return new RandomAccessIterator(this);
+    }
+
+    @Override
+    public String toString() {
+        CompilerAsserts.neverPartOfCompilation();
+        return "rep(" + valuesToString() + ", each = " + each + ", length.out = " + length + ")";
+    }
+}
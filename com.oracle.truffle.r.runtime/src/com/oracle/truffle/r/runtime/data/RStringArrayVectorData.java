@@ -26,6 +26,7 @@ import static com.oracle.truffle.r.runtime.data.model.RAbstractVector.ENABLE_COM
 
 import java.util.Arrays;
 
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.dsl.Cached;
 import com.oracle.truffle.api.dsl.Cached.Shared;
 import com.oracle.truffle.api.interop.TruffleObject;
@@ -34,6 +35,7 @@ import com.oracle.truffle.api.library.ExportMessage;
 import com.oracle.truffle.api.profiles.BranchProfile;
 import com.oracle.truffle.api.profiles.ConditionProfile;
 import com.oracle.truffle.api.profiles.LoopConditionProfile;
+import com.oracle.truffle.r.runtime.Collections.NonRecursiveHashMapCharacter;
 import com.oracle.truffle.r.runtime.RRuntime;
 import com.oracle.truffle.r.runtime.RType;
 import com.oracle.truffle.r.runtime.data.VectorDataLibrary.Iterator;
@@ -47,6 +49,13 @@ import com.oracle.truffle.r.runtime.ops.na.NACheck;
 class RStringArrayVectorData implements TruffleObject {
     private final String[] data;
     private boolean complete;
+    /**
+     * Lazily built hash index of the elements used by {@link #getIndexOf(String)}. Any write
+     * access to the elements drops it. The index is built in a local variable and only the
+     * finished map is published, the field is volatile so that a vector shared by several threads
+     * never sees a partially filled map.
+     */
+    private volatile NonRecursiveHashMapCharacter index;
 
     RStringArrayVectorData(String[] data, boolean complete) {
         this.data = data;
@@ -61,6 +70,29 @@ class RStringArrayVectorData implements TruffleObject {
         return new RStringCharSXPData(result);
     }
 
+    /**
+     * Returns the index of the first element equal to the given non-NA string or {@code -1}.
+     */
+    @TruffleBoundary
+    int getIndexOf(String element) {
+        NonRecursiveHashMapCharacter map = index;
+        if (map != null) {
+            int result = map.get(element);
+            if (result == -1 || element.equals(data[result])) {
+                return result;
+            }
+        }
+        map = new NonRecursiveHashMapCharacter(data.length);
+        // in reverse order, so that the first occurrence of a duplicate element wins
+        for (int i = data.length - 1; i >= 0; i--) {
+            if (!RRuntime.isNA(data[i])) {
+                map.put(data[i], i);
+            }
+        }
+        index = map;
+        return map.get(element);
+    }
+
     @SuppressWarnings("static-method")
     @ExportMessage
     public NACheck getNACheck(@Shared("naCheck") @Cached() NACheck na) {
@@ -166,13 +198,25 @@ class RStringArrayVectorData implements TruffleObject {
 
     // Write access to the elements:
 
+    /**
+     * Most writes go to vectors that never built the index, for them a volatile read replaces the
+     * volatile write.
+     */
+    private void dropIndex() {
+        if (index != null) {
+            index = null;
+        }
+    }
+
     @ExportMessage
     public SeqWriteIterator writeIterator() {
+        dropIndex();
         return new SeqWriteIterator(data, data.length);
     }
 
     @ExportMessage
     public RandomAccessWriteIterator randomAccessWriteIterator() {
+        dropIndex();
         return new RandomAccessWriteIterator(data);
     }
 
@@ -189,6 +233,7 @@ class RStringArrayVectorData implements TruffleObject {
     }
 
     private void commitWrites(boolean neverSeenNA, @Cached BranchProfile setCompleteProfile) {
+        dropIndex();
         if (!neverSeenNA) {
             setCompleteProfile.enter();
             complete = false;
@@ -198,6 +243,7 @@ class RStringArrayVectorData implements TruffleObject {
     @ExportMessage
     public void setStringAt(int index, String value, @Shared("setCompleteProfile") @Cached BranchProfile setCompleteProfile) {
         data[index] = value;
+        dropIndex();
         if (RRuntime.isNA(value)) {
             setCompleteProfile.enter();
             complete = false;
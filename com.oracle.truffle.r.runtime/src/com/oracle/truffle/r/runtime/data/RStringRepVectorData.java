@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PACharacterICULAR PURPOSE.  See the GNU General Public License
+ * version 3 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 3 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.r.runtime.data;
+
+import java.util.Arrays;
+
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.Cached.Shared;
+import com.oracle.truffle.api.library.ExportLibrary;
+import com.oracle.truffle.api.library.ExportMessage;
+import com.oracle.truffle.r.runtime.RRuntime;
+import com.oracle.truffle.r.runtime.RType;
+import com.oracle.truffle.r.runtime.data.VectorDataLibrary.RandomAccessIterator;
+import com.oracle.truffle.r.runtime.data.VectorDataLibrary.SeqIterator;
+import com.oracle.truffle.r.runtime.data.model.RAbstractVector;
+import com.oracle.truffle.r.runtime.ops.na.NACheck;
+
+/**
+ * See {@link RRep} and {@link RRepVectorData}.
+ */
+@ExportLibrary(VectorDataLibrary.class)
+public final class RStringRepVectorData extends RRepVectorData {
+    private final String[] values;
+
+    public RStringRepVectorData(String[] values, int each, int length) {
+        super(each, length, isComplete(values));
+        assert values.length > 0;
+        this.values = values;
+    }
+
+    private static boolean isComplete(String[] values) {
+        for (int i = 0; i < values.length; i++) {
+            if (RRuntime.isNA(values[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int getValuesLength() {
+        return values.length;
+    }
+
+    public String getValue(int valueIndex) {
+        return values[valueIndex];
+    }
+
+    @Override
+    protected RType getTargetType() {
+        return RType.Character;
+    }
+
+    @Override
+    protected RStringArrayVectorData materializeData() {
+        return new RStringArrayVectorData(getStringDataCopy(), complete);
+    }
+
+    @Override
+    protected RAbstractVector createValues(int[] valueIndices) {
+        String[] result = new String[valueIndices.length];
+        for (int i = 0; i < valueIndices.length; i++) {
+            result[i] = values[valueIndices[i]];
+        }
+        return RDataFactory.createStringVector(result, complete);
+    }
+
+    @Override
+    protected void fill(Object result, int from, int to, int valueIndex) {
+        Arrays.fill((String[]) result, from, to, values[valueIndex]);
+    }
+
+    @Override
+    protected String valuesToString() {
+        return Arrays.toString(values);
+    }
+
+    @ExportMessage
+    public String[] getStringDataCopy() {
+        String[] result = new String[length];
+        fillRuns(result);
+        return result;
+    }
+
+    @ExportMessage
+    public String getStringAt(int index,
+                    @Shared("naCheck") @Cached() NACheck naCheck) {
+        String value = values[getValueIndex(index)];
+        naCheck.check(value);
+        return value;
+    }
+
+    @ExportMessage
+    public String getNextString(SeqIterator it,
+                    @Shared("naCheck") @Cached() NACheck naCheck) {
+        RStringRepVectorData data = (RStringRepVectorData) it.getStore();
+        String value = data.values[data.getValueIndex(it.getIndex())];
+        naCheck.check(value);
+        return value;
+    }
+
+    @ExportMessage
+    public String getString(RandomAccessIterator it, int index,
+                    @Shared("naCheck") @Cached() NACheck naCheck) {
+        RStringRepVectorData data = (RStringRepVectorData) it.getStore();
+        String value = data.values[data.getValueIndex(index)];
+        naCheck.check(value);
+        return value;
+    }
+}
@@ -24,6 +24,7 @@ package com.oracle.truffle.r.runtime.data;
 
 import java.util.Arrays;
 
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.dsl.Cached;
 import com.oracle.truffle.api.interop.InteropLibrary;
 import com.oracle.truffle.api.interop.TruffleObject;
@@ -57,6 +58,11 @@ import com.oracle.truffle.r.runtime.ops.na.NACheck;
 @ExportLibrary(AbstractContainerLibrary.class)
 public final class RStringVector extends RAbstractAtomicVector implements RMaterializedVector, Shareable {
 
+    /**
+     * Shorter vectors are searched linearly by {@link #getIndexOf(String)}.
+     */
+    public static final int INDEX_MIN_LENGTH = 64;
+
     private int length;
 
     RStringVector(Object[] data, boolean complete) {
@@ -92,6 +98,14 @@ public final class RStringVector extends RAbstractAtomicVector implements RMater
         }
     }
 
+    /**
+     * Creates a vector that repeats the values without allocating the whole data, see
+     * {@link RRep}.
+     */
+    public static RStringVector createRep(String[] values, int each, int length) {
+        return new RStringVector(new RStringRepVectorData(values, each, length), length);
+    }
+
     public static RStringVector createClosure(RAbstractVector delegate, boolean keepAttrs) {
         RStringVector result = new RStringVector(VectorDataClosure.fromVector(delegate, RType.Character), delegate.getLength());
         if (keepAttrs) {
@@ -299,6 +313,39 @@ public final class RStringVector extends RAbstractAtomicVector implements RMater
         return getUncachedDataLib().getStringAt(data, i);
     }
 
+    /**
+     * Returns {@code true} if {@link #getIndexOf(String)} looks the elements up in a hash index,
+     * which is the case for long vectors held in a Java array.
+     */
+    public boolean hasIndexableData() {
+        return getLength() >= INDEX_MIN_LENGTH && data instanceof RStringArrayVectorData;
+    }
+
+    /**
+     * Returns the index of the first element equal to given non-NA string or {@code -1} if there
+     * is no such element. Vectors of at least {@link #INDEX_MIN_LENGTH} elements held in a Java
+     * array build a hash index of their elements on the first lookup and keep it until they are
+     * written to, so that repeated lookups by name, e.g., in the names of a long list, do not scan
+     * the whole vector.
+     */
+    @TruffleBoundary
+    public int getIndexOf(String element) {
+        assert !RRuntime.isNA(element);
+        Object d = data;
+        int len = getLength();
+        if (hasIndexableData()) {
+            return ((RStringArrayVectorData) d).getIndexOf(element);
+        }
+        VectorDataLibrary dataLib = getUncachedDataLib();
+        for (int i = 0; i < len; i++) {
+            String value = dataLib.getStringAt(d, i);
+            if (!RRuntime.isNA(value) && element.equals(value)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
     private RStringVector updateDataAt(int i, String right, NACheck rightNACheck) {
         if (this.isShared()) {
             throw RInternalError.shouldNotReachHere("update shared vector");
@@ -340,6 +387,9 @@ public final class RStringVector extends RAbstractAtomicVector implements RMater
 
     @ExportMessage(library = AbstractContainerLibrary.class)
     public void materializeData(@CachedLibrary(limit = DATA_LIB_LIMIT) VectorDataLibrary dataLib) {
+        if (MemoryCopyTracer.isTracing() && !dataLib.isWriteable(data)) {
+            MemoryCopyTracer.reportMaterialization(this);
+        }
         setData(dataLib.materialize(data), getLength());
     }
 
@@ -350,6 +400,7 @@ public final class RStringVector extends RAbstractAtomicVector implements RMater
         }
         // To retain the semantics of the original materialize, for sequences and such we return new
         // vector
+        MemoryCopyTracer.reportMaterialization(this);
         return new RStringVector(dataLib.getStringDataCopy(data), isComplete());
     }
 
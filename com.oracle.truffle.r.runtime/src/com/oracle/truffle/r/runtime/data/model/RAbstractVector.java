@@ -251,6 +251,9 @@ public abstract class RAbstractVector extends RAbstractContainer implements RFFI
             return -1;
         }
         RStringVector names = getNamesFromAttrs();
+        if (names.getLength() >= RStringVector.INDEX_MIN_LENGTH && !name.equals(RRuntime.STRING_NA)) {
+            return names.getIndexOf(name);
+        }
         for (int i = 0; i < names.getLength(); i++) {
             if (names.getDataAt(i).equals(name)) {
                 return i;
@@ -665,6 +668,17 @@ public abstract class RAbstractVector extends RAbstractContainer implements RFFI
         throw new UnsupportedOperationException();
     }
 
+    /**
+     * Copies {@code length} elements of {@code fromVector}, which must have the same type, starting
+     * at {@code fromIndex} to this vector starting at {@code toIndex}. Vectors backed by Java arrays
+     * copy the whole region at once.
+     */
+    public void transferRegionSameType(int toIndex, RAbstractVector fromVector, int fromIndex, int length) {
+        for (int i = 0; i < length; i++) {
+            transferElementSameType(toIndex + i, fromVector, fromIndex + i);
+        }
+    }
+
     @InternalDeprecation("Use dedicated node for attributes manipulation")
     public final RAttributable copyAttributesFrom(RAbstractContainer vector) {
         // it's meant to be used on a "fresh" vector with only dimensions potentially set
@@ -62,10 +62,12 @@ import com.oracle.truffle.r.runtime.context.ChildContextInfo;
 import com.oracle.truffle.r.runtime.context.FastROptions;
 import com.oracle.truffle.r.runtime.context.RContext;
 import com.oracle.truffle.r.runtime.context.TruffleRLanguage;
+import com.oracle.truffle.r.runtime.data.RFunction;
 import com.oracle.truffle.r.runtime.data.RPairList;
 import com.oracle.truffle.r.runtime.data.RPromise;
 import com.oracle.truffle.r.runtime.data.RSharingAttributeStorage;
 import com.oracle.truffle.r.runtime.data.RUnboundValue;
+import com.oracle.truffle.r.runtime.nodes.EvaluatedArgumentsVisitor;
 
 /**
  * This class maintains information about the current hierarchy of environments in the system. This
@@ -554,11 +556,18 @@ public final class FrameSlotChangeMonitor {
         @CompilationFinal private volatile StableValue<Object> stableValue;
         private int invalidationCount;
         private final boolean possibleMultiSlot;
+        /**
+         * If a function stored in this slot may shadow one of the functions that
+         * {@link EvaluatedArgumentsVisitor} assumes to be the base package version, the assumption
+         * for its name, otherwise {@code null}.
+         */
+        private final Assumption valueOnlyFunctionAssumption;
 
-        FrameSlotInfoImpl(boolean isSingletonFrame, boolean isGlobalEnv, Object identifier, boolean isNewEnv) {
+        FrameSlotInfoImpl(boolean isSingletonFrame, boolean isGlobalEnv, Object identifier, boolean isNewEnv, boolean isBaseEnv) {
             nonLocalModifiedAssumption = Truffle.getRuntime().createAssumption(identifier + ":NonLocalModified");
             noMultiSlot = Truffle.getRuntime().createAssumption(identifier + ":NoMultiSlot");
             this.possibleMultiSlot = isSingletonFrame && !isNewEnv;
+            this.valueOnlyFunctionAssumption = !isBaseEnv && EvaluatedArgumentsVisitor.isValueOnlyFunction(identifier) ? EvaluatedArgumentsVisitor.getValueOnlyFunctionAssumption((String) identifier) : null;
             if (isSingletonFrame) {
                 stableValue = new StableValue<>(null, identifier.toString());
                 invalidationCount = isGlobalEnv ? MAX_GLOBAL_ENV_INVALIDATION_COUNT : MAX_INVALIDATION_COUNT;
@@ -571,6 +580,19 @@ public final class FrameSlotChangeMonitor {
             return stableValue != null;
         }
 
+        /**
+         * Function lookups skip non-function values, but also force promises and active bindings
+         * in non-function environments (e.g. {@code delayedAssign("c", ...)}).
+         */
+        private void checkValueOnlyFunction(Object newValue) {
+            if (valueOnlyFunctionAssumption != null && (newValue instanceof RFunction || (possibleMultiSlot && (newValue instanceof RPromise || ActiveBinding.isActiveBinding(newValue))))) {
+                if (valueOnlyFunctionAssumption.isValid()) {
+                    CompilerDirectives.transferToInterpreter();
+                    valueOnlyFunctionAssumption.invalidate();
+                }
+            }
+        }
+
         public boolean possibleMultiSlot() {
             return possibleMultiSlot;
         }
@@ -677,6 +699,11 @@ public final class FrameSlotChangeMonitor {
                     prevMultiSlotVal = (MultiSlotData) prevValue;
                     prevValue = prevMultiSlotVal.get(0);
                 }
+                if (prevMultiSlotVal == null && info.stableValue == null && replicate && info.possibleMultiSlot() && !isMutableRShareable(prevValue) && !(prevValue instanceof RPromise)) {
+                    // the value is shared by all contexts until one of them writes the slot (see
+                    // setMultiSlot), so that reads do not have to go through MultiSlotData
+                    break;
+                }
                 if (info.stableValue == null || isMutableRShareable(info.stableValue) || isMutableRShareable(prevValue) || !replicate) {
                     // create a multi slot for slots whose stableValue is null but also for all
                     // slots of the global frame (which are marked as !replicate)
@@ -746,13 +773,20 @@ public final class FrameSlotChangeMonitor {
             // TODO: perhaps putting the whole thing behind the Truffle boundary an overkill, but on
             // the other hand it shouldn't happen often and not on the fast path
             MultiSlotData data;
-            if (stableValue == null) {
+            if (!noMultiSlot.isValid()) {
                 // already a multi slot - should be visible to all threads
                 assert slotExists(slot, frame) : slot;
                 data = (MultiSlotData) frame.getValue(slot);
                 assert data != null : slot;
                 int ind = RContext.getInstance().getMultiSlotInd();
                 data.set(ind, newValue);
+            } else if (stableValue == null) {
+                // first write into a slot shared by all contexts, the other contexts keep seeing
+                // the previous value
+                noMultiSlot.invalidate();
+                data = new MultiSlotData();
+                data.setAll(frame.getValue(slot));
+                setNewMultiValue(frame, slot, data, newValue);
             } else {
                 nonLocalModifiedAssumption.invalidate();
                 invalidationCount = 0;
@@ -809,7 +843,8 @@ public final class FrameSlotChangeMonitor {
         } else {
             FrameDescriptorMetaData metaData = getMetaData(fd);
             invalidateNames(metaData, Arrays.asList(identifier));
-            return fd.addFrameSlot(identifier, new FrameSlotInfoImpl(metaData.singletonFrame != null, "global".equals(metaData.name), identifier, metaData.name.startsWith("<new-env-")),
+            return fd.addFrameSlot(identifier, new FrameSlotInfoImpl(metaData.singletonFrame != null, "global".equals(metaData.name), identifier, metaData.name.startsWith("<new-env-"),
+                            "base".equals(metaData.name)),
                             initialKind);
         }
     }
@@ -942,6 +977,7 @@ public final class FrameSlotChangeMonitor {
 
     private static void setAndInvalidate(Frame frame, FrameSlot frameSlot, Object newValue, boolean isNonLocal, BranchProfile invalidateProfile) {
         FrameSlotInfoImpl info = getFrameSlotInfo(frameSlot);
+        info.checkValueOnlyFunction(newValue);
         if (FastROptions.sharedContextsOptionValue && isMultislot(info) && !RContext.isSingle()) {
             info.setMultiSlot(frame, frameSlot, newValue);
         } else {
@@ -954,8 +990,9 @@ public final class FrameSlotChangeMonitor {
     }
 
     public static void setObject(Frame frame, FrameSlot frameSlot, Object newValue) {
+        FrameSlotInfoImpl info = getFrameSlotInfo(frameSlot);
+        info.checkValueOnlyFunction(newValue);
         if (FastROptions.sharedContextsOptionValue && !RContext.isSingle()) {
-            FrameSlotInfoImpl info = getFrameSlotInfo(frameSlot);
             if (isMultislot(info)) {
                 info.setMultiSlot(frame, frameSlot, newValue);
                 return;
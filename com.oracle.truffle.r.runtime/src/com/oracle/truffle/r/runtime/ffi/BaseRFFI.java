@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2014, 2019, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2014, 2020, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * This code is free software; you can redistribute it and/or modify it
@@ -56,8 +56,8 @@ public final class BaseRFFI {
             super(parent.createDownCallNode());
         }
 
-        public int execute(String fifoInPath, String fifoOutPath) {
-            return (int) call(NativeFunction.initEventLoop, fifoInPath, fifoOutPath);
+        public int execute(String fifoInPath) {
+            return (int) call(NativeFunction.initEventLoop, fifoInPath);
         }
 
         public static InitEventLoopNode create() {
@@ -80,6 +80,21 @@ public final class BaseRFFI {
         }
     }
 
+    public static final class ReleaseEventLoopNode extends NativeCallNode {
+
+        private ReleaseEventLoopNode(DownCallNodeFactory parent) {
+            super(parent.createDownCallNode());
+        }
+
+        public void execute() {
+            call(NativeFunction.releaseEventLoop);
+        }
+
+        public static ReleaseEventLoopNode create() {
+            return RFFIFactory.getBaseRFFI().createReleaseEventLoopNode();
+        }
+    }
+
     public static final class GetpidNode extends NativeCallNode {
 
         private GetpidNode(DownCallNodeFactory parent) {
@@ -336,6 +351,10 @@ public final class BaseRFFI {
         return new DispatchHandlersNode(eventLoopDownCallNodeFactory);
     }
 
+    public ReleaseEventLoopNode createReleaseEventLoopNode() {
+        return new ReleaseEventLoopNode(eventLoopDownCallNodeFactory);
+    }
+
     public GetpidNode createGetpidNode() {
         return new GetpidNode(downCallNodeFactory);
     }
@@ -43,9 +43,11 @@ public interface CallRFFI {
             LibHandle handle = dllInfo == null ? null : dllInfo.handle;
             Type rffiType = handle == null ? stateRFFI.getDefaultRFFIType() : handle.getRFFIType();
             Object before = stateRFFI.beforeDowncall(frame == null ? null : frame.materialize(), rffiType);
+            Object profile = NativeCallProfiler.enter(stateRFFI, nativeCallInfo);
             try {
                 return execute(nativeCallInfo, args);
             } finally {
+                NativeCallProfiler.exit(stateRFFI, profile);
                 stateRFFI.afterDowncall(before, rffiType, AfterDownCallProfiles.getUncached());
             }
         }
@@ -62,9 +64,11 @@ public interface CallRFFI {
         default void dispatch(VirtualFrame frame, NativeCallInfo nativeCallInfo, Object[] args) {
             RFFIContext stateRFFI = RContext.getInstance().getStateRFFI();
             Object before = stateRFFI.beforeDowncall(frame == null ? null : frame.materialize(), nativeCallInfo.dllInfo.handle.getRFFIType());
+            Object profile = NativeCallProfiler.enter(stateRFFI, nativeCallInfo);
             try {
                 execute(frame, nativeCallInfo, args);
             } finally {
+                NativeCallProfiler.exit(stateRFFI, profile);
                 stateRFFI.afterDowncall(before, nativeCallInfo.dllInfo.handle.getRFFIType(), AfterDownCallProfiles.getUncached());
             }
         }
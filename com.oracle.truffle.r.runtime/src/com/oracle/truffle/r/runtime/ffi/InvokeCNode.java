@@ -96,10 +96,12 @@ public abstract class InvokeCNode extends RBaseNode {
         LibHandle handle = nativeCallInfo.dllInfo == null ? null : nativeCallInfo.dllInfo.handle;
         Type rffiType = handle == null ? stateRFFI.getDefaultRFFIType() : handle.getRFFIType();
         Object before = stateRFFI.beforeDowncall(frame.materialize(), rffiType);
+        Object profile = NativeCallProfiler.enter(stateRFFI, nativeCallInfo);
         try {
             execute(nativeCallInfo, preparedArgs);
             return RDataFactory.createList(argsUnwrapperNode.execute(preparedArgs), validateArgNames(preparedArgs.length, args.getSignature()));
         } finally {
+            NativeCallProfiler.exit(stateRFFI, profile);
             stateRFFI.afterDowncall(before, rffiType, AfterDownCallProfiles.getUncached());
         }
     }
@@ -0,0 +1,286 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 3 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 3 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.r.runtime.ffi;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.oracle.truffle.api.Assumption;
+import com.oracle.truffle.api.CompilerDirectives.CompilationFinal;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.Truffle;
+import com.oracle.truffle.r.runtime.context.RContext;
+import com.oracle.truffle.r.runtime.data.MemoryCopyTracer;
+import com.oracle.truffle.r.runtime.data.model.RAbstractVector;
+import com.oracle.truffle.r.runtime.ffi.RFFIContext.RFFIContextState;
+
+/**
+ * Aggregates the native calls done via {@code .Call}, {@code .External}, {@code .C} and
+ * {@code .Fortran} per DLL and symbol: number of calls, wall time including nested calls, the
+ * up-calls issued by the native code and the bytes copied between the Java heap and the native
+ * mirrors of vectors (see {@code NativeDataAccess}) while the native function was running. The
+ * profiler is switched on and off per context by the {@code .fastr.nativeprof} builtin.
+ *
+ * The instrumented places, including the single up-call hook {@link #upCall(RFFIContext, String)}
+ * shared with {@link RFFIUpCallProfile}, only check {@link #isActive()}, which is a compilation
+ * constant. It is true while this profiler is switched on in some context or the up-call counting
+ * of {@link RFFIUpCallProfile} is enabled, and turns false again once all of them are switched off.
+ */
+public final class NativeCallProfiler {
+
+    /**
+     * As long as "off" is valid, no profiler is active. Once some is, it is active as long as "on"
+     * is valid, when all of them are switched off again, a new state replaces this one.
+     */
+    private static final class State {
+        private final Assumption off = Truffle.getRuntime().createAssumption("NativeCallProfiler off");
+        private final Assumption on = Truffle.getRuntime().createAssumption("NativeCallProfiler on");
+
+        boolean isActive() {
+            return !off.isValid() && on.isValid();
+        }
+    }
+
+    /**
+     * The copies between the Java heap and native memory are reported by {@code NativeDataAccess}
+     * to {@link MemoryCopyTracer}, which passes them on to this listener while some profiler is
+     * active.
+     */
+    private static final MemoryCopyTracer.Listener COPY_LISTENER = new MemoryCopyTracer.Listener() {
+        @Override
+        public void reportCopying(RAbstractVector source, RAbstractVector dest) {
+            // only the copies to and from native memory are recorded
+        }
+
+        @Override
+        public void reportNativeCopy(long bytes, boolean toNative) {
+            if (isActive()) {
+                get().copied(bytes, toNative);
+            }
+        }
+    };
+
+    @CompilationFinal private static State state = new State();
+    private static int activeProfilers;
+
+    public static final class Entry {
+        public final String dll;
+        public final String symbol;
+        public long calls;
+        public long nanos;
+        public long upCalls;
+        public long bytesToNative;
+        public long bytesFromNative;
+
+        Entry(String dll, String symbol) {
+            this.dll = dll;
+            this.symbol = symbol;
+        }
+    }
+
+    private static final class Activation {
+        private final Entry entry;
+        private final Entry outer;
+        private final long start;
+
+        Activation(Entry entry, Entry outer, long start) {
+            this.entry = entry;
+            this.outer = outer;
+            this.start = start;
+        }
+    }
+
+    private boolean enabled;
+    private final Map<String, Entry> entries = new LinkedHashMap<>();
+    private final Map<String, long[]> upCalls = new HashMap<>();
+    private Entry current;
+    private long bytesToNative;
+    private long bytesFromNative;
+
+    public static boolean isActive() {
+        return state.isActive();
+    }
+
+    /**
+     * Called when a profiler in some context is switched on or off.
+     */
+    static synchronized void setProfilerActive(boolean active) {
+        activeProfilers += active ? 1 : -1;
+        assert activeProfilers >= 0;
+        State current = state;
+        if (activeProfilers > 0 && !current.isActive()) {
+            MemoryCopyTracer.addListener(COPY_LISTENER);
+            MemoryCopyTracer.setTracingState(true);
+            current.off.invalidate();
+        } else if (activeProfilers == 0 && current.isActive()) {
+            MemoryCopyTracer.removeListener(COPY_LISTENER);
+            MemoryCopyTracer.setTracingState(false);
+            // the new state must be visible before the code that depends on the old one is
+            // invalidated, otherwise it could be compiled with the old state again
+            state = new State();
+            current.on.invalidate();
+        }
+    }
+
+    private static NativeCallProfiler get() {
+        return RContext.getInstance().getStateRFFI().rffiContextState.nativeCallProfiler;
+    }
+
+    /**
+     * Switches the profiling on or off, switching it on discards the previously collected data.
+     */
+    @TruffleBoundary
+    public synchronized void setEnabled(boolean on) {
+        if (on != enabled) {
+            setProfilerActive(on);
+        }
+        if (on) {
+            entries.clear();
+            upCalls.clear();
+            current = null;
+            bytesToNative = 0;
+            bytesFromNative = 0;
+        }
+        enabled = on;
+    }
+
+    public synchronized boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Called before the native function is invoked, the result must be passed to
+     * {@link #exit(RFFIContext, Object)}.
+     */
+    public static Object enter(RFFIContext context, NativeCallInfo nativeCallInfo) {
+        if (!isActive()) {
+            return null;
+        }
+        return context.rffiContextState.nativeCallProfiler.enterCall(nativeCallInfo);
+    }
+
+    public static void exit(RFFIContext context, Object token) {
+        if (token != null) {
+            context.rffiContextState.nativeCallProfiler.exitCall((Activation) token);
+        }
+    }
+
+    @TruffleBoundary
+    private synchronized Activation enterCall(NativeCallInfo nativeCallInfo) {
+        if (!enabled) {
+            return null;
+        }
+        String dll = nativeCallInfo.dllInfo == null ? "" : nativeCallInfo.dllInfo.name;
+        String key = dll + "::" + nativeCallInfo.name;
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            entry = new Entry(dll, nativeCallInfo.name);
+            entries.put(key, entry);
+        }
+        entry.calls++;
+        Activation activation = new Activation(entry, current, System.nanoTime());
+        current = entry;
+        return activation;
+    }
+
+    @TruffleBoundary
+    private synchronized void exitCall(Activation activation) {
+        activation.entry.nanos += System.nanoTime() - activation.start;
+        current = activation.outer;
+    }
+
+    /**
+     * The hook called by the up-calls while {@link #isActive()}, it records the up-call for this
+     * profiler and for {@link RFFIUpCallProfile}.
+     */
+    @TruffleBoundary
+    public static void upCall(RFFIContext context, String name) {
+        RFFIContextState contextState = context.rffiContextState;
+        contextState.upCallProfile.count(name);
+        contextState.nativeCallProfiler.countUpCall(name);
+    }
+
+    private synchronized void countUpCall(String name) {
+        if (!enabled) {
+            return;
+        }
+        long[] count = upCalls.get(name);
+        if (count == null) {
+            count = new long[1];
+            upCalls.put(name, count);
+        }
+        count[0]++;
+        if (current != null) {
+            current.upCalls++;
+        }
+    }
+
+    @TruffleBoundary
+    private synchronized void copied(long bytes, boolean toNative) {
+        if (!enabled) {
+            return;
+        }
+        if (toNative) {
+            bytesToNative += bytes;
+        } else {
+            bytesFromNative += bytes;
+        }
+        if (current != null) {
+            if (toNative) {
+                current.bytesToNative += bytes;
+            } else {
+                current.bytesFromNative += bytes;
+            }
+        }
+    }
+
+    @TruffleBoundary
+    public synchronized Collection<Entry> getEntries() {
+        return new ArrayList<>(entries.values());
+    }
+
+    /**
+     * Returns the number of calls of every up-call function, in descending order.
+     */
+    @TruffleBoundary
+    public synchronized Map<String, Long> getUpCalls() {
+        ArrayList<Map.Entry<String, long[]>> list = new ArrayList<>(upCalls.entrySet());
+        list.sort((a, b) -> Long.compare(b.getValue()[0], a.getValue()[0]));
+        Map<String, Long> result = new LinkedHashMap<>();
+        for (Map.Entry<String, long[]> e : list) {
+            result.put(e.getKey(), e.getValue()[0]);
+        }
+        return result;
+    }
+
+    public synchronized long getBytesToNative() {
+        return bytesToNative;
+    }
+
+    public synchronized long getBytesFromNative() {
+        return bytesFromNative;
+    }
+}
@@ -33,8 +33,9 @@ import com.oracle.truffle.r.runtime.RInternalError;
  */
 public enum NativeFunction {
     // base
-    initEventLoop("(string, string): sint32", "call_base_", baseLibrary(), true),
+    initEventLoop("(string): sint32", "call_base_", baseLibrary(), true),
     dispatchHandlers("(): sint32", "call_base_", baseLibrary(), true),
+    releaseEventLoop("(): void", "call_base_", baseLibrary(), true),
     getpid("(): sint32", "call_base_"),
     getcwd("([uint8], sint32): sint32", "call_base_"),
     chdir("(string): sint32", "call_base_"),
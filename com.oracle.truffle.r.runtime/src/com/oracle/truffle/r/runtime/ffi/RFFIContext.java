@@ -111,6 +111,13 @@ public abstract class RFFIContext extends RFFI {
         public MaterializedFrame currentDowncallFrame = null;
 
         public boolean primFunBeingDispatched;
+
+        /**
+         * Counts the up-calls only if {@link RFFIUpCallProfile#isEnabled()}.
+         */
+        public final RFFIUpCallProfile upCallProfile = new RFFIUpCallProfile();
+
+        public final NativeCallProfiler nativeCallProfiler = new NativeCallProfiler();
     }
 
     /**
@@ -141,6 +148,12 @@ public abstract class RFFIContext extends RFFI {
 
     public abstract TruffleObject lookupNativeFunction(NativeFunction function);
 
+    @Override
+    public void beforeDispose(RContext context) {
+        rffiContextState.upCallProfile.dispose();
+        rffiContextState.nativeCallProfiler.setEnabled(false);
+    }
+
     public abstract <C extends RFFIContext> C as(Class<C> rffiCtxClass);
 
     /**
@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 3 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 3 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.r.runtime.ffi;
+
+import static com.oracle.truffle.r.runtime.RLogger.LOGGER_RFFI_UPCALL_PROFILE;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.TruffleLogger;
+import com.oracle.truffle.r.runtime.RLogger;
+
+/**
+ * Counts the up-calls made by native code per R API function. The counting is enabled by the
+ * {@link RLogger#LOGGER_RFFI_UPCALL_PROFILE} logger, e.g.
+ * {@code mx r --log.R.com.oracle.truffle.r.rffiUpCallProfile.level=FINE}, and the counts are
+ * logged in descending order when the context is disposed. The up-calls at the top of the list
+ * are the candidates for specialized nodes (see {@code RFFIUpCallNode}). The up-calls are reported
+ * through the hook of {@link NativeCallProfiler}, which is active while the counting is enabled in
+ * some context.
+ */
+public final class RFFIUpCallProfile {
+
+    private static final TruffleLogger LOGGER = RLogger.getLogger(LOGGER_RFFI_UPCALL_PROFILE);
+
+    private final Map<String, long[]> counts = new HashMap<>();
+    private boolean enabled;
+
+    public RFFIUpCallProfile() {
+        enabled = isEnabled();
+        if (enabled) {
+            NativeCallProfiler.setProfilerActive(true);
+        }
+    }
+
+    public static boolean isEnabled() {
+        return LOGGER.isLoggable(Level.FINE);
+    }
+
+    public synchronized void count(String name) {
+        if (!enabled) {
+            return;
+        }
+        long[] count = counts.get(name);
+        if (count == null) {
+            count = new long[1];
+            counts.put(name, count);
+        }
+        count[0]++;
+    }
+
+    /**
+     * Logs the counts and stops the counting, called when the context is disposed.
+     */
+    @TruffleBoundary
+    public synchronized void dispose() {
+        if (enabled) {
+            report();
+            enabled = false;
+            NativeCallProfiler.setProfilerActive(false);
+        }
+    }
+
+    /**
+     * Logs the counts collected so far and resets them.
+     */
+    @TruffleBoundary
+    public synchronized void report() {
+        if (counts.isEmpty()) {
+            return;
+        }
+        List<Map.Entry<String, long[]>> entries = new ArrayList<>(counts.entrySet());
+        entries.sort((a, b) -> Long.compare(b.getValue()[0], a.getValue()[0]));
+        long total = 0;
+        for (Map.Entry<String, long[]> entry : entries) {
+            total += entry.getValue()[0];
+        }
+        StringBuilder sb = new StringBuilder();
+        sb.append("RFFI up-calls: ").append(total).append(" calls of ").append(entries.size()).append(" functions");
+        for (Map.Entry<String, long[]> entry : entries) {
+            long count = entry.getValue()[0];
+            sb.append(System.lineSeparator()).append(String.format("%12d %5.1f%%  %s", count, count * 100.0 / total, entry.getKey()));
+        }
+        LOGGER.fine(sb.toString());
+        counts.clear();
+    }
+}
@@ -69,6 +69,10 @@ public abstract class NativeMemory {
             this.bytes = bytes;
             this.offset = offset;
         }
+
+        public int getBytes() {
+            return bytes;
+        }
     }
 
     private static final Unsafe UNSAFE = initUnsafe();
@@ -110,9 +114,32 @@ public abstract class NativeMemory {
         traceFreeDone(address, debugInfo);
     }
 
+    /**
+     * Allocates a block of at least {@code size} bytes from {@link NativeMemoryPool}. The block
+     * must be wrapped with {@link #wrapPooledNativeMemory(long, ElementType, long, Object)} with the same size,
+     * which returns it to the pool once the owner is collected.
+     */
+    public static long allocatePooled(ElementType type, long size, Object debugInfo) {
+        return NativeMemoryPool.allocate(size * type.bytes, debugInfo);
+    }
+
+    public static void setMemory(long address, long bytes, byte value) {
+        UNSAFE.setMemory(address, bytes, value);
+    }
+
     @TruffleBoundary
     public static NativeMemoryWrapper wrapNativeMemory(long address, Object owner) {
-        return new FreeingNativeMemoryWrapper(address, owner);
+        return new FreeingNativeMemoryWrapper(address, 0, owner);
+    }
+
+    /**
+     * Wraps memory allocated via {@link #allocatePooled(ElementType, long, Object)}, {@code size}
+     * is the number of elements of given type.
+     */
+    @TruffleBoundary
+    public static NativeMemoryWrapper wrapPooledNativeMemory(long address, ElementType type, long size, Object owner) {
+        assert size > 0;
+        return new FreeingNativeMemoryWrapper(address, size * type.bytes, owner);
     }
 
     /**
@@ -134,6 +161,14 @@ public abstract class NativeMemory {
         copyMemory(source, type.offset, type.bytes, destination, elementsCount);
     }
 
+    /**
+     * Copies {@code elementsCount} elements of the {@code source} array starting at
+     * {@code sourceIndex} to given address.
+     */
+    public static void copyMemory(Object source, int sourceIndex, long destination, ElementType type, long elementsCount) {
+        UNSAFE.copyMemory(source, type.offset + (long) type.bytes * sourceIndex, null, destination, type.bytes * elementsCount);
+    }
+
     private static void copyMemory(Object source, int elementBase, long elementSize, long destination, long elementsCount) {
         // this takes relevant args as longs to make sure any calculations do not overflow
         UNSAFE.copyMemory(source, elementBase, null, destination, elementSize * elementsCount);
@@ -297,10 +332,15 @@ public abstract class NativeMemory {
     }
 
     /**
-     * Subclass that frees the native memory.
+     * Subclass that frees the native memory or returns it to the {@link NativeMemoryPool}.
      */
     private static final class FreeingNativeMemoryWrapper extends NativeMemoryWrapper implements Releasable {
         @SuppressFBWarnings(value = "UWF_NULL_FIELD", justification = "used for debugging") private final String ownerInfo;
+        /**
+         * Size in bytes of a block allocated from the {@link NativeMemoryPool}, zero if the memory
+         * was not allocated from the pool.
+         */
+        private final long pooledSize;
 
         /**
          * The instances need to be kept alive until they are pooled from the reference queue and
@@ -310,8 +350,9 @@ public abstract class NativeMemory {
         private static final EconomicSet<NativeMemoryWrapper> active = EconomicSet.create();
         private static final ReentrantLock activeLock = new ReentrantLock();
 
-        private FreeingNativeMemoryWrapper(long address, Object owner) {
+        private FreeingNativeMemoryWrapper(long address, long pooledSize, Object owner) {
             super(address, owner, ResourcesCleaner.nativeReferenceQueue());
+            this.pooledSize = pooledSize;
             // Assertion check: creating NativeMemoryWrapper for address that was not allocated via
             // NativeMemory.allocate
             assert ALLOCATED == null || ALLOCATED.get(getAddress()) != null : "MEMORY ERROR: " + Long.toHexString(getAddress()) + " " + owner.getClass().getSimpleName();
@@ -333,7 +374,11 @@ public abstract class NativeMemory {
 
         @Override
         public void release() {
-            NativeMemory.free(getAddress(), ownerInfo);
+            if (pooledSize != 0) {
+                NativeMemoryPool.free(getAddress(), pooledSize, ownerInfo);
+            } else {
+                NativeMemory.free(getAddress(), ownerInfo);
+            }
             try {
                 activeLock.lock();
                 assert active.contains(this) : "MEMORY ERROR";
@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 3 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 3 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.r.runtime.ffi.util;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+
+/**
+ * Pool of native memory blocks used for the data of vectors that live in native memory. Requests
+ * are rounded up to a power of two size class between {@link #MIN_BLOCK_SIZE} and
+ * {@link #MAX_BLOCK_SIZE} bytes and freed blocks are kept on a per size class free-list, so that
+ * vectors repeatedly crossing the native boundary do not pay for {@code malloc}/{@code free} each
+ * time. Larger requests go directly to {@link NativeMemory}.
+ *
+ * The blocks are released from the {@link ResourcesCleaner} thread, therefore all the state is
+ * guarded by a lock.
+ */
+final class NativeMemoryPool {
+
+    private static final int MIN_SHIFT = 6;
+    private static final int MAX_SHIFT = 20;
+    static final long MIN_BLOCK_SIZE = 1L << MIN_SHIFT;
+    static final long MAX_BLOCK_SIZE = 1L << MAX_SHIFT;
+
+    /**
+     * Upper bound of the memory that is kept in the free-lists and not used by any vector.
+     */
+    private static final long MAX_POOLED_BYTES = 64L * 1024 * 1024;
+    /**
+     * Upper bound of the number of free blocks in one size class.
+     */
+    private static final int MAX_BLOCKS_PER_CLASS = 1024;
+
+    private static final long[][] freeBlocks = new long[MAX_SHIFT - MIN_SHIFT + 1][];
+    private static final int[] freeCounts = new int[MAX_SHIFT - MIN_SHIFT + 1];
+    private static long pooledBytes;
+    private static final ReentrantLock lock = new ReentrantLock();
+
+    private NativeMemoryPool() {
+        // only static members
+    }
+
+    /**
+     * Returns the number of bytes that are actually reserved for a request of given size.
+     */
+    static long blockSize(long size) {
+        if (size > MAX_BLOCK_SIZE) {
+            return size;
+        } else if (size <= MIN_BLOCK_SIZE) {
+            return MIN_BLOCK_SIZE;
+        }
+        return Long.highestOneBit(size - 1) << 1;
+    }
+
+    private static int sizeClass(long blockSize) {
+        return Long.numberOfTrailingZeros(blockSize) - MIN_SHIFT;
+    }
+
+    @TruffleBoundary
+    static long allocate(long size, Object debugInfo) {
+        long blockSize = blockSize(size);
+        if (blockSize <= MAX_BLOCK_SIZE) {
+            int sizeClass = sizeClass(blockSize);
+            lock.lock();
+            try {
+                int count = freeCounts[sizeClass];
+                if (count > 0) {
+                    freeCounts[sizeClass] = count - 1;
+                    pooledBytes -= blockSize;
+                    return freeBlocks[sizeClass][count - 1];
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+        return NativeMemory.allocate(blockSize, debugInfo);
+    }
+
+    /**
+     * Returns a block obtained from {@link #allocate(long, Object)} with the same {@code size} to
+     * the pool or frees it if the pool is full.
+     */
+    @TruffleBoundary
+    static void free(long address, long size, Object debugInfo) {
+        long blockSize = blockSize(size);
+        if (blockSize <= MAX_BLOCK_SIZE) {
+            int sizeClass = sizeClass(blockSize);
+            lock.lock();
+            try {
+                int count = freeCounts[sizeClass];
+                if (count < MAX_BLOCKS_PER_CLASS && pooledBytes + blockSize <= MAX_POOLED_BYTES) {
+                    long[] blocks = freeBlocks[sizeClass];
+                    if (blocks == null || blocks.length == count) {
+                        blocks = new long[blocks == null ? 16 : Math.min(blocks.length * 2, MAX_BLOCKS_PER_CLASS)];
+                        if (freeBlocks[sizeClass] != null) {
+                            System.arraycopy(freeBlocks[sizeClass], 0, blocks, 0, count);
+                        }
+                        freeBlocks[sizeClass] = blocks;
+                    }
+                    blocks[count] = address;
+                    freeCounts[sizeClass] = count + 1;
+                    pooledBytes += blockSize;
+                    return;
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+        NativeMemory.free(address, debugInfo);
+    }
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2015, 2019, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2015, 2020, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * This code is free software; you can redistribute it and/or modify it
@@ -24,17 +24,25 @@ package com.oracle.truffle.r.runtime.nodes;
 
 import java.util.Arrays;
 
+import com.oracle.truffle.api.Assumption;
 import com.oracle.truffle.r.runtime.ArgumentsSignature;
 import com.oracle.truffle.r.runtime.RVisibility;
 import com.oracle.truffle.r.runtime.builtins.FastPathFactory;
+import com.oracle.truffle.r.runtime.context.FastROptions;
 import com.oracle.truffle.r.runtime.context.RContext;
 
 final class EvaluatedArgumentsFastPath implements FastPathFactory {
 
     private final boolean[] forcedArguments;
+    /**
+     * If the body of the function uses its arguments only as values, the assumptions that the
+     * functions it calls were not redefined, otherwise {@code null}.
+     */
+    private final Assumption[] valueOnlyAssumptions;
 
-    EvaluatedArgumentsFastPath(boolean[] forcedArguments) {
+    EvaluatedArgumentsFastPath(boolean[] forcedArguments, Assumption[] valueOnlyAssumptions) {
         this.forcedArguments = forcedArguments;
+        this.valueOnlyAssumptions = valueOnlyAssumptions;
     }
 
     @Override
@@ -57,6 +65,25 @@ final class EvaluatedArgumentsFastPath implements FastPathFactory {
         return RContext.getInstance().noEagerEvalOption() ? false : forcedArguments[index];
     }
 
+    @Override
+    public boolean passesEagerValue(int index) {
+        return valueOnlyAssumptions != null && forcedEagerPromise(index) && isValid(valueOnlyAssumptions) && RContext.getInstance().getOption(FastROptions.EagerEvalPassValues);
+    }
+
+    @Override
+    public Assumption[] getEagerValueAssumptions() {
+        return valueOnlyAssumptions;
+    }
+
+    private static boolean isValid(Assumption[] assumptions) {
+        for (Assumption assumption : assumptions) {
+            if (!assumption.isValid()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     public String toString(ArgumentsSignature signature) {
         StringBuilder str = new StringBuilder();
         for (int i = 0; i < signature.getLength(); i++) {
@@ -69,12 +96,12 @@ final class EvaluatedArgumentsFastPath implements FastPathFactory {
 
     @Override
     public int hashCode() {
-        return Arrays.hashCode(forcedArguments);
+        return Arrays.hashCode(forcedArguments) * 31 + Arrays.hashCode(valueOnlyAssumptions);
     }
 
     @Override
     public boolean equals(Object obj) {
         EvaluatedArgumentsFastPath other = (EvaluatedArgumentsFastPath) obj;
-        return forcedArguments == null && other.forcedArguments == null || forcedArguments != null && other.forcedArguments != null && Arrays.equals(forcedArguments, other.forcedArguments);
+        return Arrays.equals(valueOnlyAssumptions, other.valueOnlyAssumptions) && (forcedArguments == null && other.forcedArguments == null || forcedArguments != null && other.forcedArguments != null && Arrays.equals(forcedArguments, other.forcedArguments));
     }
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2015, 2019, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2015, 2020, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * This code is free software; you can redistribute it and/or modify it
@@ -26,7 +26,12 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
 
+import com.oracle.truffle.api.Assumption;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.Truffle;
 import com.oracle.truffle.r.runtime.ArgumentsSignature;
 import com.oracle.truffle.r.runtime.builtins.RBuiltinDescriptor;
 import com.oracle.truffle.r.runtime.builtins.RBuiltinKind;
@@ -83,6 +88,21 @@ public final class EvaluatedArgumentsVisitor extends RSyntaxVisitor<Info> {
                     "*", "/", "%%", "^", ":", ">=", ">", "<=", "<", "==", "!=", "||", "|", "&&", "&", "!", "%o%", "%*%", "%/%", "%in%", "{", "for", "while", "repeat", "if", "attributes", "attr",
                     "nchar"));
 
+    /**
+     * Well-known functions that may look at the promises of the caller's arguments (e.g., native
+     * code or {@code print} methods).
+     */
+    private static final Set<String> opaqueFunctions = new HashSet<>(Arrays.asList("print", ".Call", ".FastR"));
+
+    /**
+     * For each name of the functions that {@link #usesArgumentsAsValues} relies on, an assumption
+     * that is valid as long as no function of that name was defined outside of the base package.
+     * The analysis only sees the names of the called functions, so a user-defined {@code c} or
+     * {@code +} could otherwise inspect the promises of a closure that was given plain values.
+     * Such definition only affects the closures that call the redefined function.
+     */
+    private static final ConcurrentHashMap<String, Assumption> valueOnlyFunctionAssumptions = new ConcurrentHashMap<>();
+
     private EvaluatedArgumentsVisitor() {
         // private constructor
     }
@@ -237,8 +257,94 @@ public final class EvaluatedArgumentsVisitor extends RSyntaxVisitor<Info> {
         if (cnt == 0) {
             return null;
         } else {
-            return new EvaluatedArgumentsFastPath(forcedArguments);
+            Set<String> calledFunctions = new TreeSet<>();
+            boolean valueOnly = usesArgumentsAsValues(body, calledFunctions);
+            for (int i = 0; i < signature.getLength() && valueOnly; i++) {
+                // a formal argument could hold a function shadowing a well-known one
+                valueOnly = !isValueOnlyFunction(signature.getName(i));
+            }
+            Assumption[] valueOnlyAssumptions = null;
+            if (valueOnly) {
+                valueOnlyAssumptions = new Assumption[calledFunctions.size()];
+                int i = 0;
+                for (String name : calledFunctions) {
+                    valueOnlyAssumptions[i++] = getValueOnlyFunctionAssumption(name);
+                }
+            }
+            return new EvaluatedArgumentsFastPath(forcedArguments, valueOnlyAssumptions);
+        }
+    }
+
+    /**
+     * Returns {@code true} if a function with the given name is assumed to be the base package
+     * version in the bodies accepted by {@link #usesArgumentsAsValues}, including the replacement
+     * functions used by complex assignments.
+     */
+    public static boolean isValueOnlyFunction(Object identifier) {
+        if (!(identifier instanceof String)) {
+            return false;
+        }
+        String name = (String) identifier;
+        if (name.equals("<-") || name.equals("(") || wellKnownFunctions.contains(name)) {
+            return true;
+        }
+        return name.endsWith("<-") && wellKnownFunctions.contains(name.substring(0, name.length() - 2));
+    }
+
+    /**
+     * Returns the assumption that no function with the given {@link #isValueOnlyFunction
+     * value-only} name was defined outside of the base package. It must be invalidated whenever
+     * such a function is stored there.
+     */
+    @TruffleBoundary
+    public static Assumption getValueOnlyFunctionAssumption(String name) {
+        assert isValueOnlyFunction(name) : name;
+        return valueOnlyFunctionAssumptions.computeIfAbsent(name, n -> Truffle.getRuntime().createAssumption("value-only function \"" + n + "\" unchanged"));
+    }
+
+    /**
+     * Returns {@code true} if the given function body only calls well-known functions that do not
+     * inspect the promises of the arguments, i.e., there is no {@code substitute}, {@code missing},
+     * {@code sys.call} or any other call that could distinguish a value passed as an argument from
+     * a promise that evaluates to that value.
+     */
+    private static boolean usesArgumentsAsValues(RSyntaxElement node, Set<String> calledFunctions) {
+        if (node instanceof RSyntaxCall) {
+            RSyntaxCall call = (RSyntaxCall) node;
+            RSyntaxElement lhs = call.getSyntaxLHS();
+            if (!(lhs instanceof RSyntaxLookup)) {
+                return false;
+            }
+            String symbol = ((RSyntaxLookup) lhs).getIdentifier();
+            if (!(symbol.equals("<-") || symbol.equals("(") || wellKnownFunctions.contains(symbol)) || opaqueFunctions.contains(symbol)) {
+                return false;
+            }
+            RSyntaxElement[] arguments = call.getSyntaxArguments();
+            if (symbol.equals("<-") && arguments.length > 0 && arguments[0] instanceof RSyntaxLookup && isValueOnlyFunction(((RSyntaxLookup) arguments[0]).getIdentifier())) {
+                // the closure itself redefines a function it relies on
+                return false;
+            }
+            calledFunctions.add(symbol);
+            if (symbol.equals("<-") && arguments.length > 0) {
+                // a complex assignment also calls the replacement functions, e.g., `names<-`
+                RSyntaxElement target = arguments[0];
+                while (target instanceof RSyntaxCall && ((RSyntaxCall) target).getSyntaxLHS() instanceof RSyntaxLookup) {
+                    String replacement = ((RSyntaxLookup) ((RSyntaxCall) target).getSyntaxLHS()).getIdentifier() + "<-";
+                    if (isValueOnlyFunction(replacement)) {
+                        calledFunctions.add(replacement);
+                    }
+                    RSyntaxElement[] targetArguments = ((RSyntaxCall) target).getSyntaxArguments();
+                    target = targetArguments.length > 0 ? targetArguments[0] : null;
+                }
+            }
+            for (RSyntaxElement arg : arguments) {
+                if (arg != null && !usesArgumentsAsValues(arg, calledFunctions)) {
+                    return false;
+                }
+            }
+            return true;
         }
+        return node instanceof RSyntaxLookup || node instanceof RSyntaxConstant;
     }
 
     public static boolean isSimpleArgument(RSyntaxElement node) {
@@ -0,0 +1,314 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 3 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 3 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.r.runtime.ops;
+
+import java.util.stream.IntStream;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.r.runtime.RRuntime;
+import com.oracle.truffle.r.runtime.context.FastROptions;
+import com.oracle.truffle.r.runtime.context.RContext;
+import com.oracle.truffle.r.runtime.data.VectorDataLibrary;
+import com.oracle.truffle.r.runtime.data.VectorDataLibrary.RandomAccessIterator;
+
+/**
+ * Summation of doubles with accuracy comparable to the {@code long double} accumulators used by
+ * GNU R, without the need to copy the data to native memory. Every addition is followed by Knuth's
+ * branch-free two-sum transformation, which keeps the rounding error in a separate compensation
+ * term. The loop works on four independent lanes, so that the additions do not form a single
+ * dependency chain.
+ *
+ * Vectors longer than {@link #PARALLEL_THRESHOLD} are summed in fixed-size blocks whose partial
+ * sums are then summed in order. The blocks are the same whether they are processed in parallel
+ * (see {@link FastROptions#ParallelSum}) or not, therefore the result does not depend on the number
+ * of threads.
+ */
+public final class CompensatedSum {
+
+    public static final int PARALLEL_THRESHOLD = 1 << 20;
+    private static final int BLOCK_SIZE = 1 << 14;
+
+    private CompensatedSum() {
+        // only static members
+    }
+
+    /**
+     * Returns the rounding error of {@code sum = a + b}, i.e. {@code (a + b) - sum} computed
+     * exactly.
+     */
+    public static double error(double a, double b, double sum) {
+        double bVirtual = sum - a;
+        return (a - (sum - bVirtual)) + (b - bVirtual);
+    }
+
+    /**
+     * Applies the accumulated compensation to the sum. Infinite and NaN sums are returned as they
+     * are, the compensation is NaN in such case.
+     */
+    public static double result(double sum, double compensation) {
+        return Double.isFinite(sum) ? sum + compensation : sum;
+    }
+
+    /**
+     * Sums the values in range {@code [from, to)} with the semantics of the {@code sum} builtin:
+     * {@code NA} makes the result {@code NA} and {@code NaN} propagates, unless {@code naRm} is
+     * set, in which case both are skipped.
+     */
+    public static double sum(double[] values, int from, int to, boolean naRm) {
+        double result = to - from >= PARALLEL_THRESHOLD ? sumBlocks(values, from, to) : sumRange(values, from, to);
+        if (Double.isNaN(result)) {
+            // either there is NA/NaN in the data or infinities of opposite signs
+            return sumWithNA(values, from, to, naRm);
+        }
+        return result;
+    }
+
+    /**
+     * Computes the mean of the values in range {@code [from, to)} with the semantics of the
+     * {@code mean} internal: the first {@code NA} or {@code NaN} value is the result. Like in GNU
+     * R, the mean is refined by the mean of the residuals.
+     */
+    public static double mean(double[] values, int from, int to) {
+        int length = to - from;
+        if (length == 0) {
+            return Double.NaN;
+        }
+        double sum = sum(values, from, to, false);
+        if (Double.isNaN(sum)) {
+            return firstNaN(values, from, to, sum);
+        }
+        double mean = sum / length;
+        if (Double.isInfinite(mean)) {
+            // the sum of finite values can overflow where GNU R's long double accumulator does not
+            mean = scaledSum(values, from, to, length);
+        }
+        if (Double.isFinite(mean)) {
+            double s = 0;
+            double c = 0;
+            for (int i = from; i < to; i++) {
+                // the residual itself is rounded, its error goes to the compensation as well
+                double value = values[i] - mean;
+                double t = s + value;
+                c += error(values[i], -mean, value) + error(s, value, t);
+                s = t;
+            }
+            mean += result(s, c) / length;
+        }
+        return mean;
+    }
+
+    /**
+     * Variant of {@link #sum(double[], int, int, boolean)} for data that are not held in a Java
+     * array, e.g. compact sequences or memory mapped files, whose elements are read through the
+     * iterator instead of being copied to an array.
+     */
+    public static double sum(VectorDataLibrary dataLib, Object data, RandomAccessIterator it, int from, int to, boolean naRm) {
+        double s = 0;
+        double c = 0;
+        boolean seenNaN = false;
+        for (int i = from; i < to; i++) {
+            double value = dataLib.getDouble(data, it, i);
+            if (Double.isNaN(value)) {
+                if (!naRm) {
+                    if (RRuntime.isNA(value)) {
+                        return RRuntime.DOUBLE_NA;
+                    }
+                    seenNaN = true;
+                }
+                continue;
+            }
+            double t = s + value;
+            c += error(s, value, t);
+            s = t;
+        }
+        return seenNaN ? Double.NaN : result(s, c);
+    }
+
+    /**
+     * Sums the elements in range {@code [from, to)} read through the iterator, the first
+     * {@code NA} or {@code NaN} element is the result if there is any. This is the result of
+     * {@code colSums} without {@code na.rm}.
+     */
+    public static double sumOrFirstNaN(VectorDataLibrary dataLib, Object data, RandomAccessIterator it, int from, int to) {
+        double s = 0;
+        double c = 0;
+        for (int i = from; i < to; i++) {
+            double value = dataLib.getDouble(data, it, i);
+            if (Double.isNaN(value)) {
+                return value;
+            }
+            double t = s + value;
+            c += error(s, value, t);
+            s = t;
+        }
+        return result(s, c);
+    }
+
+    /**
+     * Variant of {@link #mean(double[], int, int)} for data that are not held in a Java array.
+     */
+    public static double mean(VectorDataLibrary dataLib, Object data, RandomAccessIterator it, int from, int to) {
+        int length = to - from;
+        if (length == 0) {
+            return Double.NaN;
+        }
+        double sum = sumOrFirstNaN(dataLib, data, it, from, to);
+        if (Double.isNaN(sum)) {
+            return sum;
+        }
+        double mean = sum / length;
+        if (Double.isInfinite(mean)) {
+            double s = 0;
+            double c = 0;
+            for (int i = from; i < to; i++) {
+                double value = dataLib.getDouble(data, it, i) / length;
+                double t = s + value;
+                c += error(s, value, t);
+                s = t;
+            }
+            mean = result(s, c);
+        }
+        if (Double.isFinite(mean)) {
+            double s = 0;
+            double c = 0;
+            for (int i = from; i < to; i++) {
+                double element = dataLib.getDouble(data, it, i);
+                double value = element - mean;
+                double t = s + value;
+                c += error(element, -mean, value) + error(s, value, t);
+                s = t;
+            }
+            mean += result(s, c) / length;
+        }
+        return mean;
+    }
+
+    @TruffleBoundary
+    private static double scaledSum(double[] values, int from, int to, int divisor) {
+        double s = 0;
+        double c = 0;
+        for (int i = from; i < to; i++) {
+            double value = values[i] / divisor;
+            double t = s + value;
+            c += error(s, value, t);
+            s = t;
+        }
+        return result(s, c);
+    }
+
+    /**
+     * Returns the first {@code NA} or {@code NaN} value in range {@code [from, to)}, or
+     * {@code defaultValue} if there is none (e.g. when infinities of opposite signs are summed).
+     * This is the result of {@code mean} and of {@code colSums} without {@code na.rm}.
+     */
+    @TruffleBoundary
+    public static double firstNaN(double[] values, int from, int to, double defaultValue) {
+        for (int i = from; i < to; i++) {
+            if (Double.isNaN(values[i])) {
+                return values[i];
+            }
+        }
+        return defaultValue;
+    }
+
+    private static double sumRange(double[] values, int from, int to) {
+        double s0 = 0;
+        double s1 = 0;
+        double s2 = 0;
+        double s3 = 0;
+        double c0 = 0;
+        double c1 = 0;
+        double c2 = 0;
+        double c3 = 0;
+        int i = from;
+        for (; i + 3 < to; i += 4) {
+            double v0 = values[i];
+            double v1 = values[i + 1];
+            double v2 = values[i + 2];
+            double v3 = values[i + 3];
+            double t0 = s0 + v0;
+            double t1 = s1 + v1;
+            double t2 = s2 + v2;
+            double t3 = s3 + v3;
+            c0 += error(s0, v0, t0);
+            c1 += error(s1, v1, t1);
+            c2 += error(s2, v2, t2);
+            c3 += error(s3, v3, t3);
+            s0 = t0;
+            s1 = t1;
+            s2 = t2;
+            s3 = t3;
+        }
+        for (; i < to; i++) {
+            double t0 = s0 + values[i];
+            c0 += error(s0, values[i], t0);
+            s0 = t0;
+        }
+        double c = (c0 + c1) + (c2 + c3);
+        double s = s0 + s1;
+        c += error(s0, s1, s);
+        double t = s + s2;
+        c += error(s, s2, t);
+        s = t + s3;
+        c += error(t, s3, s);
+        return result(s, c);
+    }
+
+    @TruffleBoundary
+    private static double sumBlocks(double[] values, int from, int to) {
+        int blocks = (int) (((long) to - from + BLOCK_SIZE - 1) / BLOCK_SIZE);
+        double[] partial = new double[blocks];
+        IntStream range = IntStream.range(0, blocks);
+        if (RContext.getInstance().getOption(FastROptions.ParallelSum)) {
+            range = range.parallel();
+        }
+        range.forEach(b -> {
+            int blockStart = from + b * BLOCK_SIZE;
+            partial[b] = sumRange(values, blockStart, Math.min(to, blockStart + BLOCK_SIZE));
+        });
+        return sumRange(partial, 0, blocks);
+    }
+
+    @TruffleBoundary
+    private static double sumWithNA(double[] values, int from, int to, boolean naRm) {
+        if (naRm) {
+            double s = 0;
+            double c = 0;
+            for (int i = from; i < to; i++) {
+                double value = values[i];
+                if (!Double.isNaN(value)) {
+                    double t = s + value;
+                    c += error(s, value, t);
+                    s = t;
+                }
+            }
+            return result(s, c);
+        }
+        for (int i = from; i < to; i++) {
+            if (RRuntime.isNA(values[i])) {
+                return RRuntime.DOUBLE_NA;
+            }
+        }
+        return Double.NaN;
+    }
+}
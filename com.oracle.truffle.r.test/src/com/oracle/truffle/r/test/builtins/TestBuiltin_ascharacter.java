@@ -14,7 +14,7 @@
  * Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
  *
  * Copyright (c) 2012-2014, Purdue University
- * Copyright (c) 2013, 2018, Oracle and/or its affiliates
+ * Copyright (c) 2013, 2020, Oracle and/or its affiliates
  *
  * All rights reserved.
  */
@@ -289,4 +289,13 @@ public class TestBuiltin_ascharacter extends TestBase {
     public void noCopyCheck() {
         assertEvalFastR("{ x <- c('a', 'abc'); .fastr.identity(x) == .fastr.identity(as.character(x)); }", "[1] TRUE");
     }
+
+    @Test
+    public void testDoubleFormatting() {
+        assertEval(template("as.character(%0)", new String[]{"1e15", "1e-5", "0.1+0.2", "-0", "NA_real_", "NaN", "Inf", "-Inf", "123456.7", "1/3"}));
+        assertEval("as.character(c(1e15, 1e-5, 0.1+0.2, -0, NA, NaN, Inf, -Inf, 1e5, 1e-15, 123456789012, 0.1234567890123456789))");
+        // data that are not held in an array are converted element-wise
+        assertEval("{ x <- rep(c(0.1+0.2, 1e15, NA, -Inf), 10000); as.character(x)[c(1:4, 39997:40000)] }");
+        assertEval("{ x <- seq(0.5, by = 0.25, length.out = 10); as.character(x) }");
+    }
 }
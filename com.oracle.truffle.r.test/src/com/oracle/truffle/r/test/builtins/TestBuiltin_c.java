@@ -14,7 +14,7 @@
  * Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
  *
  * Copyright (c) 2012-2014, Purdue University
- * Copyright (c) 2013, 2018, Oracle and/or its affiliates
+ * Copyright (c) 2013, 2020, Oracle and/or its affiliates
  *
  * All rights reserved.
  */
@@ -581,4 +581,18 @@ public class TestBuiltin_c extends TestBase {
     public void testCombineBroken() {
         assertEval("{ c(1i,0/0) }");
     }
+
+    @Test
+    public void testMixedStorages() {
+        // sequences, replicated values, vectors with NA and plain vectors in one call
+        assertEval("{ x <- c(1:5, rep(7L, 4), c(1L, NA, 3L), as.integer(c(10, 11))); list(x, anyNA(x), anyNA(x[-(10:12)])) }");
+        assertEval("{ x <- c(seq(0.5, 3, by = 0.5), rep(2.5, 3), c(NA, NaN, 1), as.double(1:3)); list(x, is.na(x), anyNA(x[1:9])) }");
+        assertEval("{ x <- c(a = TRUE, rep(FALSE, 3), c(NA, TRUE), b = c(x = FALSE)); list(x, names(x)) }");
+        assertEval("{ x <- c(as.raw(1:3), rep(as.raw(255), 2), as.raw(c(0, 16))); x }");
+        assertEval("{ x <- runif(10); y <- x * 2; z <- c(x, y, 1:3, NA); identical(z[11:20], x * 2) && is.na(z[24]) && length(z) == 24 }");
+        assertEval("{ x <- 1:3; y <- c(x, x); y[1] <- 10L; list(x, y) }");
+        assertEval("{ x <- c(1.5, 2.5); y <- c(x, 1:2); y[1] <- 0; list(x, y) }");
+        assertEval("{ x <- c(1:3, 4.5); y <- c(TRUE, 2L); z <- c(y, 3.5, NA); list(x, y, z, typeof(z)) }");
+        assertEval("{ x <- c(list(1:3), 4:5, c(a = 6)); x }");
+    }
 }
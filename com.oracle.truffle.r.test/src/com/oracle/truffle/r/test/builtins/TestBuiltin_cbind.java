@@ -14,7 +14,7 @@
  * Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
  *
  * Copyright (c) 2012-2014, Purdue University
- * Copyright (c) 2013, 2018, Oracle and/or its affiliates
+ * Copyright (c) 2013, 2020, Oracle and/or its affiliates
  *
  * All rights reserved.
  */
@@ -212,4 +212,19 @@ public class TestBuiltin_cbind extends TestBase {
         assertEval(Ignored.ImplementationError, "dput(cbind(substitute(graphics::par), list(as.symbol('a'))))");
         assertEval("typeof(cbind(substitute(graphics::par), list(as.symbol('a'))))");
     }
+
+    @Test
+    public void testMixedStorages() {
+        assertEval("cbind(1:3, rep(7L, 3), c(1L, NA, 3L), as.integer(c(4, 5, 6)))");
+        assertEval("cbind(seq(0.5, 1.5, by = 0.5), rep(2.5, 3), c(NA, NaN, 1), 1:3)");
+        assertEval("cbind(a = c(TRUE, NA), b = rep(FALSE, 2), c = 1:2)");
+        assertEval("cbind(as.raw(1:3), rep(as.raw(255), 3))");
+        assertEval("{ m <- cbind(1:4, c(NA, 2L, 3L, 4L)); list(m, anyNA(m[, 1]), anyNA(m[, 2])) }");
+        assertEval("{ m <- matrix(1:6, 2); x <- cbind(m, 7:8, matrix(c(0.5, NA, 1.5, 2), 2)); list(x, anyNA(x[, 1:4])) }");
+        assertEval("{ m1 <- matrix(1:6, 3); m2 <- matrix(c(1.5, 2.5, 3.5), 3); cbind(m1, m2, m1) }");
+        assertEval("{ x <- runif(4); y <- x + 1; m <- cbind(x, y, 1:4); identical(m[, 2], x + 1) && identical(m[, 3], as.double(1:4)) }");
+        assertEval("cbind(1:6, matrix(c(1.5, 2.5), 2, 1))");
+        assertEval("cbind(1:2, 1:4, c(x = 5L))");
+        assertEval("{ a <- 1:3; m <- cbind(a, a); m[1, 1] <- 10L; list(a, m) }");
+    }
 }
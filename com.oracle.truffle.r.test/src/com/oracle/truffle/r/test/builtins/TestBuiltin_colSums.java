@@ -14,7 +14,7 @@
  * Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
  *
  * Copyright (c) 2012-2014, Purdue University
- * Copyright (c) 2013, 2018, Oracle and/or its affiliates
+ * Copyright (c) 2013, 2020, Oracle and/or its affiliates
  *
  * All rights reserved.
  */
@@ -104,4 +104,17 @@ public class TestBuiltin_colSums extends TestBase {
         // colSums on array have correct values
         assertEval("{ a = colSums(array(1:24,c(2,3,4))); c(a[1,1],a[2,2],a[3,3],a[3,4]) }");
     }
+
+    @Test
+    public void testNAandNaN() {
+        assertEval("{ colSums(matrix(c(1, NaN, NA, 2, NA, NaN, 3, 4, 5), 3)) }");
+        assertEval("{ colSums(matrix(c(1, NaN, NA, 2, NA, NaN, 3, 4, 5), 3), na.rm = TRUE) }");
+        assertEval("{ colSums(matrix(c(Inf, -Inf, 1, Inf, 1, 2, 1e10, 1, -1e10), 3)) }");
+        assertEval("{ colMeans(matrix(c(1, NaN, NA, 2, NA, NaN, 3, 4, 5), 3)) }");
+        assertEval("{ colMeans(matrix(c(1, NaN, NA, 2, NA, NaN, 3, 4, 5), 3), na.rm = TRUE) }");
+        assertEval("{ colSums(matrix(rep(c(1e10, 1, -1e10), 400000), 3000)) }");
+        // compact data are read element-wise
+        assertEval("{ x <- seq(0.1, by = 0.1, length.out = 3000); dim(x) <- c(300, 10); colSums(x) }");
+        assertEval("{ x <- rep(c(1e10, 1, NaN, -1e10, NA), 6); dim(x) <- c(5, 6); list(colSums(x), colSums(x, na.rm = TRUE)) }");
+    }
 }
@@ -14,7 +14,7 @@
  * Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
  *
  * Copyright (c) 2012-2014, Purdue University
- * Copyright (c) 2013, 2018, Oracle and/or its affiliates
+ * Copyright (c) 2013, 2020, Oracle and/or its affiliates
  *
  * All rights reserved.
  */
@@ -342,4 +342,14 @@ public class TestBuiltin_deparse extends TestBase {
         assertTrue(RDeparse.isValidName("..."));
         assertFalse(RDeparse.isValidName("while"));
     }
+
+    @Test
+    public void testDeferredFunctions() {
+        // unserialized closures are deparsed from their serialized form until they are called
+        assertEval("{ options(keep.source=FALSE); f <- unserialize(serialize(function(a, b = 'x', ...) { for (i in seq_len(a)) b <- paste0(b, i); b }, NULL)); d <- deparse(f); f(2); list(d, identical(d, deparse(f))) }");
+        assertEval("{ options(keep.source=FALSE); f <- unserialize(serialize(function(x) function(y) x + y, NULL)); list(deparse(f), deparse(f(1)), f(1)(2)) }");
+        assertEval("{ options(keep.source=FALSE); f <- unserialize(serialize(function(x = c(a = 1, b = 2), y = -1, z = NULL) x[['a']] %in% y, NULL)); deparse(f) }");
+        assertEval("{ options(keep.source=FALSE); f <- unserialize(serialize(function() NULL, NULL)); list(deparse(f), dput(f), f()) }");
+        assertEval("{ options(keep.source=FALSE); f <- unserialize(serialize(function(x) if (x) `my var` <- 1 else -x, NULL)); deparse(f) }");
+    }
 }
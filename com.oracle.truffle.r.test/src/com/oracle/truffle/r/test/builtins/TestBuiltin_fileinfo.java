@@ -14,7 +14,7 @@
  * Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
  *
  * Copyright (c) 2014, Purdue University
- * Copyright (c) 2014, 2018, Oracle and/or its affiliates
+ * Copyright (c) 2014, 2020, Oracle and/or its affiliates
  *
  * All rights reserved.
  */
@@ -36,4 +36,16 @@ public class TestBuiltin_fileinfo extends TestBase {
     public void testfileinfo2() {
         assertEval("argv <- list(character(0)); .Internal(file.info(argv[[1]]))");
     }
+
+    @Test
+    public void testExtraCols() {
+        assertEval("{ f <- tempfile(); writeLines('abc', f); i <- file.info(f, extra_cols=FALSE); unlink(f); list(names(i), i$size, i$isdir, class(i$mtime), rownames(i) == f) }");
+        assertEval("{ f <- tempfile(); writeLines('abc', f); i <- file.info(f, extra_cols=TRUE); unlink(f); list(names(i), i$size, i$isdir, is.character(i$uname), is.character(i$grname)) }");
+        assertEval("{ f <- tempfile(); writeLines('abc', f); i <- file.info(f, extra_cols=FALSE); j <- file.info(f); unlink(f); identical(i, j[names(i)]) }");
+        assertEval("{ i <- file.info(tempdir(), extra_cols=FALSE); list(names(i), i$isdir) }");
+        assertEval("{ i <- file.info('/does/not/exist', extra_cols=FALSE); list(names(i), is.na(i$size), is.na(i$isdir), is.na(i$mode), is.na(i$mtime)) }");
+        assertEval("{ f <- tempfile(); writeLines('abc', f); r <- list(file.size(f), file.mtime(f) == file.info(f)$mtime, file.size(c(f, '/does/not/exist'))); unlink(f); r }");
+        assertEval("{ f <- tempfile(); writeLines('abc', f); i <- .Internal(file.info(c(f, tempdir()), FALSE)); unlink(f); list(length(i), i[[1]][[1]], i[[2]]) }");
+        assertEval("{ i <- file.info(character(0), extra_cols=FALSE); list(names(i), nrow(i)) }");
+    }
 }
@@ -14,7 +14,7 @@
  * Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
  *
  * Copyright (c) 2012-2014, Purdue University
- * Copyright (c) 2013, 2018, Oracle and/or its affiliates
+ * Copyright (c) 2013, 2020, Oracle and/or its affiliates
  *
  * All rights reserved.
  */
@@ -323,4 +323,10 @@ public class TestBuiltin_format extends TestBase {
         // only the first 16 decimal digits (53 bits) contain useful information (+ decimal point)
         assertEval("substr(format(2147483647 / 1.7976931348623157E308, digits =22), 1,16+1)");
     }
+
+    @Test
+    public void testDoubleFormatting() {
+        assertEval(template("format(c(1e15, 1e-5, 0.1+0.2, -0, NA, NaN, Inf), digits = %0, scipen = %1)", new String[]{"1", "7", "15", "22"}, new String[]{"-5", "0", "100"}));
+        assertEval(template("format(%0, digits = 3, scipen = 0)", new String[]{"1e15", "1e-5", "0.1+0.2", "-0", "NA_real_", "NaN", "Inf", "-Inf", "123456.7", "1/3"}));
+    }
 }
@@ -0,0 +1,48 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 3 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 3 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.r.test.builtins;
+
+import org.junit.Test;
+
+import com.oracle.truffle.r.test.TestBase;
+
+// Checkstyle: stop line length check
+public class TestBuiltin_lazyLoadDBfetch extends TestBase {
+
+    private static final String[] COMPRESSIONS = new String[]{"FALSE", "TRUE", "2", "3"};
+
+    @Test
+    public void testRoundTrip() {
+        // the random raw vector does not compress, bzip2 and xz store it uncompressed with type '0'
+        assertEval(template("{ set.seed(1); e <- new.env(); e$r <- as.raw(sample(0:255, 3000, TRUE)); e$s <- rep(c('abc', 'de'), 1000); e$f <- function(x) x + 1; e$n <- 1:10 + 0.5; f <- tempfile(); tools:::makeLazyLoadDB(e, f, compress = %0); e2 <- new.env(); lazyLoad(f, envir = e2); res <- list(identical(e2$r, e$r), identical(e2$s, e$s), e2$f(1), e2$n, sort(ls(e2))); unlink(paste0(f, c('.rdb', '.rdx'))); res }",
+                        COMPRESSIONS));
+        assertEval(template("{ e <- new.env(); e$a <- 1L; e$b <- 'x'; f <- tempfile(); tools:::makeLazyLoadDB(e, f, compress = %0); e2 <- new.env(); lazyLoad(f, envir = e2); res <- list(e2$a, e2$b); unlink(paste0(f, c('.rdb', '.rdx'))); res }", COMPRESSIONS));
+    }
+
+    @Test
+    public void testStoredType() {
+        // the byte after the uncompressed length tells the compression of the record
+        assertEval(template("{ set.seed(1); e <- new.env(); e$r <- as.raw(sample(0:255, 3000, TRUE)); e$s <- rep('abc', 3000); f <- tempfile(); tools:::makeLazyLoadDB(e, f, compress = %0); idx <- readRDS(paste0(f, '.rdx')); con <- file(paste0(f, '.rdb'), 'rb'); types <- sapply(c('r', 's'), function(n) { key <- idx$variables[[n]]; seek(con, key[1]); rawToChar(readBin(con, 'raw', 5)[5]) }); close(con); unlink(paste0(f, c('.rdb', '.rdx'))); types }",
+                        new String[]{"2", "3"}));
+    }
+}
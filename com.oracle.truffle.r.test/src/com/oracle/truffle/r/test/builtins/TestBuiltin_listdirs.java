@@ -14,7 +14,7 @@
  * Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
  *
  * Copyright (c) 2014, Purdue University
- * Copyright (c) 2014, 2019, Oracle and/or its affiliates
+ * Copyright (c) 2014, 2020, Oracle and/or its affiliates
  *
  * All rights reserved.
  */
@@ -44,4 +44,16 @@ public class TestBuiltin_listdirs extends TestBase {
 
         assertEval("list.dirs('does-not-exist', full.names=F, recursive=F)");
     }
+
+    private static final String TREE = "d <- file.path(tempdir(), 'list-tree'); unlink(d, recursive=TRUE); for (p in c('b/c', 'b/h', 'd/i', 'f/j/k', 'f/m', sprintf('w%02d/x', 1:40))) dir.create(file.path(d, p), recursive=TRUE); for (f in c('b/c/e', 'b/c/g', 'b/h/o', 'd/i/p', 'f/j/k/l', 'f/q', 'n', '.r', sprintf('w%02d/x/y', 1:40))) file.create(file.path(d, f)); ";
+
+    @Test
+    public void testRecursiveListingOrder() {
+        // the sub-directories are listed in parallel, the result must not depend on that
+        assertEval("{ " + TREE + "res <- list.dirs(d, full.names=FALSE); unlink(d, recursive=TRUE); res }");
+        assertEval("{ " + TREE + "res <- list.dirs(d, full.names=FALSE, recursive=FALSE); unlink(d, recursive=TRUE); res }");
+        assertEval("{ " + TREE + "res <- list.dirs(d); unlink(d, recursive=TRUE); substring(res, nchar(d) + 1) }");
+        assertEval("{ " + TREE + "wd <- setwd(d); res <- list.dirs('.'); setwd(wd); unlink(d, recursive=TRUE); res }");
+        assertEval("{ " + TREE + "res <- lapply(1:5, function(i) list.dirs(d, full.names=FALSE)); unlink(d, recursive=TRUE); all(vapply(res, identical, TRUE, res[[1]])) }");
+    }
 }
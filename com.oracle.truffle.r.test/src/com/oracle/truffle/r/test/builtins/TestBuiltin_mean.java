@@ -14,7 +14,7 @@
  * Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
  *
  * Copyright (c) 2012-2014, Purdue University
- * Copyright (c) 2013, 2018, Oracle and/or its affiliates
+ * Copyright (c) 2013, 2020, Oracle and/or its affiliates
  *
  * All rights reserved.
  */
@@ -151,4 +151,18 @@ public class TestBuiltin_mean extends TestBase {
         assertEval("{ mean(c(TRUE, TRUE))}");
         assertEval("{ mean(c(TRUE, FALSE))}");
     }
+
+    @Test
+    public void testCompensatedMean() {
+        assertEval("{ mean(c(1, NaN, NA)) }");
+        assertEval("{ mean(c(1, NA, NaN)) }");
+        assertEval("{ mean(c(Inf, -Inf, 1)) }");
+        assertEval("{ mean(c(Inf, 1)) }");
+        assertEval("{ mean(c(1e308, 1e308)) }");
+        assertEval("{ mean(double()) }");
+        // compact data are read element-wise
+        assertEval("{ mean(seq(0.1, by = 0.1, length.out = 1e6)) }");
+        assertEval("{ mean(rep(c(1e308, 1e308), 5)) }");
+        assertEval("{ mean(rep(c(1, NA, NaN), 1000)) }");
+    }
 }
@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 3 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 3 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.r.test.builtins;
+
+import org.junit.Test;
+
+import com.oracle.truffle.r.test.TestBase;
+
+// Checkstyle: stop line length check
+public class TestBuiltin_memCompress extends TestBase {
+
+    private static final String[] TYPES = new String[]{"'none'", "'gzip'", "'bzip2'", "'xz'"};
+
+    private static final String[] INPUTS = new String[]{"raw(0)", "as.raw(1:10)", "charToRaw(paste(rep('FastR memCompress ', 200), collapse=''))", "rep(as.raw(0), 100000)",
+                    "{ set.seed(11); as.raw(sample(0:255, 5000, TRUE)) }", "rep(as.raw(0:255), 5000)", "{ set.seed(12); as.raw(sample(c(0:3, 250:255), 1200000, TRUE)) }"};
+
+    @Test
+    public void testRoundTrip() {
+        assertEval(template("{ x <- %0; identical(memDecompress(memCompress(x, type=%1), type=%1), x) }", INPUTS, TYPES));
+        assertEval(template("{ x <- %0; identical(memDecompress(memCompress(x, type=%1), type='unknown'), x) }", INPUTS, new String[]{"'gzip'", "'bzip2'", "'xz'"}));
+        assertEval(template("{ x <- 'Hello, world! Hello, world! Hello, world!'; memDecompress(memCompress(x, type=%0), type=%0, asChar=TRUE) }", TYPES));
+        assertEval(template("{ x <- c('first line', 'second line'); rawToChar(memDecompress(memCompress(x, type=%0), type=%0)) }", TYPES));
+    }
+
+    @Test
+    public void testFormat() {
+        assertEval("{ x <- charToRaw(strrep('a', 1000)); y <- memCompress(x, type='xz'); list(y[1:6], length(y) < 200) }");
+        assertEval("{ x <- charToRaw(strrep('a', 1000)); y <- memCompress(x, type='bzip2'); list(rawToChar(y[1:3]), length(y) < 200) }");
+        assertEval("{ x <- charToRaw(strrep('a', 1000)); y <- memCompress(x, type='gzip'); length(y) < 200 }");
+        assertEval("{ x <- as.raw(1:10); identical(memCompress(x, type='none'), x) }");
+    }
+
+    @Test
+    public void testBzfile() {
+        assertEval("{ f <- tempfile(); con <- bzfile(f, 'w'); writeLines(rep(c('abc', 'defgh'), 1000), con); close(con); con <- bzfile(f); x <- readLines(con); close(con); unlink(f); list(length(x), unique(x)) }");
+        assertEval("{ f <- tempfile(); x <- rep(as.raw(0:255), 5000); con <- bzfile(f, 'wb'); writeBin(x, con); close(con); con <- bzfile(f, 'rb'); y <- readBin(con, 'raw', 2e6); close(con); unlink(f); identical(x, y) }");
+        assertEval("{ f <- tempfile(); writeBin(c(memCompress(charToRaw('first '), 'bzip2'), memCompress(charToRaw('second'), 'bzip2')), f); con <- bzfile(f, 'rb'); y <- readBin(con, 'raw', 100); close(con); unlink(f); rawToChar(y) }");
+    }
+}
@@ -14,7 +14,7 @@
  * Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
  *
  * Copyright (c) 2012-2014, Purdue University
- * Copyright (c) 2013, 2018, Oracle and/or its affiliates
+ * Copyright (c) 2013, 2020, Oracle and/or its affiliates
  *
  * All rights reserved.
  */
@@ -121,4 +121,11 @@ public class TestBuiltin_paste extends TestBase {
         // ISOdate utilizes paste
         assertEval("{ ISOdate(2010, 01, 01, 1:10) }");
     }
+
+    @Test
+    public void testDoubleFormatting() {
+        assertEval(template("paste(%0)", new String[]{"1e15", "1e-5", "0.1+0.2", "-0", "NA_real_", "NaN", "Inf", "-Inf", "123456.7", "1/3"}));
+        assertEval("paste(c(1e15, 1e-5, 0.1+0.2, -0, NA, NaN, Inf), collapse = ' ')");
+        assertEval("paste0('x', rep(c(1e-5, 0.1+0.2), 10000))[c(1, 2, 20000)]");
+    }
 }
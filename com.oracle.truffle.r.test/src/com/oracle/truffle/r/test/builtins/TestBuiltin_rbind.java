@@ -14,7 +14,7 @@
  * Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
  *
  * Copyright (c) 2012-2014, Purdue University
- * Copyright (c) 2013, 2018, Oracle and/or its affiliates
+ * Copyright (c) 2013, 2020, Oracle and/or its affiliates
  *
  * All rights reserved.
  */
@@ -174,4 +174,19 @@ public class TestBuiltin_rbind extends TestBase {
         assertEval("dput(rbind(integer(0)))");
         assertEval("dput(rbind(integer(0), NULL, NULL))");
     }
+
+    @Test
+    public void testMixedStorages() {
+        assertEval("rbind(1:3, rep(7L, 3), c(1L, NA, 3L), as.integer(c(4, 5, 6)))");
+        assertEval("rbind(seq(0.5, 1.5, by = 0.5), rep(2.5, 3), c(NA, NaN, 1), 1:3)");
+        assertEval("rbind(a = c(TRUE, NA), b = rep(FALSE, 2), c = 1:2)");
+        assertEval("rbind(as.raw(1:3), rep(as.raw(255), 3))");
+        assertEval("{ m <- rbind(1:4, c(NA, 2L, 3L, 4L)); list(m, anyNA(m[1, ]), anyNA(m[2, ])) }");
+        assertEval("{ m <- matrix(1:6, 2); x <- rbind(m, 7:9, matrix(c(0.5, NA, 1.5, 2, 3, 4), 2)); list(x, anyNA(x[1:3, ])) }");
+        assertEval("{ m1 <- matrix(1:6, 2); m2 <- matrix(c(1.5, 2.5, 3.5), 1); rbind(m1, m2, m1) }");
+        assertEval("{ x <- runif(4); y <- x + 1; m <- rbind(x, y, 1:4); identical(m[2, ], x + 1) && identical(m[3, ], as.double(1:4)) }");
+        assertEval("rbind(1:6, matrix(c(1.5, 2.5), 1, 2))");
+        assertEval("rbind(1:2, 1:4, c(x = 5L))");
+        assertEval("{ a <- 1:3; m <- rbind(a, a); m[1, 1] <- 10L; list(a, m) }");
+    }
 }
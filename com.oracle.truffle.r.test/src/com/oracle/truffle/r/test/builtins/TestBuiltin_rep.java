@@ -14,7 +14,7 @@
  * Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
  *
  * Copyright (c) 2012-2014, Purdue University
- * Copyright (c) 2013, 2018, Oracle and/or its affiliates
+ * Copyright (c) 2013, 2020, Oracle and/or its affiliates
  *
  * All rights reserved.
  */
@@ -274,4 +274,38 @@ public class TestBuiltin_rep extends TestBase {
         assertEval(Ignored.ReferenceError, "{ x <- c(1,2,3); f <- function() { x[1] <<- 10; 2 }; rep(x, f()) }");
 
     }
+
+    @Test
+    public void testCompactRep() {
+        // long results of short inputs are represented compactly
+        assertEval("{ x <- rep(c(1.5, NA, -2), times = 10000); c(length(x), x[c(1, 2, 3, 29998, 29999, 30000)], sum(x, na.rm = TRUE), sum(is.na(x))) }");
+        assertEval("{ x <- rep(c(1L, 2L, NA), each = 3, length.out = 20000); c(length(x), x[c(1, 3, 4, 7, 9, 10, 19999, 20000)], sum(x, na.rm = TRUE), sum(is.na(x))) }");
+        assertEval("{ x <- rep(c(TRUE, FALSE, NA), each = 2, times = 5000); c(length(x), sum(x, na.rm = TRUE), sum(is.na(x)), x[29999]) }");
+        assertEval("{ x <- rep(c('a', NA, 'b'), each = 7000); list(length(x), x[c(1, 7000, 7001, 14001, 21000)], unique(x), table(x, useNA = 'always')) }");
+        assertEval("{ x <- rep(c(a = 1, b = 2), length.out = 17000); list(length(x), names(x)[16999:17000], x[['b']], unique(x)) }");
+        assertEval("{ x <- rep(c(3, 1, 3, 2), length.out = 20001); list(unique(x), sum(x), anyNA(x), is.na(x)[1:4], sum(is.na(rep(c(1, NA), 10000)))) }");
+        assertEval("{ x <- rep(1:3, each = 3, length.out = 20000); identical(x, rep(rep(1:3, each = 3), length.out = 20000)) && identical(x, as.integer(c(rep(c(1, 1, 1, 2, 2, 2, 3, 3, 3), 2222), 1, 1))) }");
+        // writes materialize the data
+        assertEval("{ x <- rep(c(1, 2), 10000); y <- x; x[3] <- 42; c(x[1:4], y[1:4], sum(x), sum(y)) }");
+        assertEval("{ x <- rep(1:2, 10000); x[[20000]] <- 0L; x[20001] <- 5L; c(length(x), x[19999:20001], sum(x)) }");
+        assertEval("{ x <- rep('a', 20000); x[2] <- 'b'; names(x) <- NULL; dim(x) <- c(100, 200); c(x[1, 1], x[2, 1], dim(x)) }");
+        assertEval("{ x <- rep(c(TRUE, NA), 10000); x[is.na(x)] <- FALSE; c(sum(x), length(x)) }");
+        assertEval("{ x <- rep(2, 20000); length(x) <- 20002; c(sum(x, na.rm = TRUE), x[20000:20002]) }");
+        assertEval("{ x <- rep(c(1, 2), 10000); x <- x + 1; c(sum(x), x[1:2]) }");
+        // integer sums that overflow give a warning and NA
+        assertEval("{ sum(rep(.Machine$integer.max, 20000)) }");
+        assertEval("{ sum(rep(c(.Machine$integer.max, -.Machine$integer.max), 10000)) }");
+        assertEval("{ sum(rep(c(2147483647L, NA), 10000), na.rm = TRUE) }");
+        assertEval("{ sum(rep(c(100000L, NA), 10000)) }");
+        assertEval("{ sum(rep(c(1e308, -1e308), 10000)) }");
+        assertEval("{ c(sum(rep(1e308, 20000)), sum(rep(c(Inf, 1), 10000)), sum(rep(c(Inf, -Inf), 10000)), sum(rep(c(NaN, NA), 10000))) }");
+    }
+
+    @Test
+    public void testCompactUnique() {
+        // the first and the last occurrences of the repeated values, also with a partial last cycle
+        assertEval(template("{ unique(rep(%0, length.out = 20000), fromLast = %1) }", new String[]{"1:3", "c(3, 1, 2, 1)", "c('a', 'b', NA, 'b')", "c(TRUE, NA)"},
+                        new String[]{"FALSE", "TRUE"}));
+        assertEval(template("{ unique(rep(1:4, each = %0, length.out = %1), fromLast = TRUE) }", new String[]{"1", "3", "5000"}, new String[]{"20000", "20003", "17000"}));
+    }
 }
@@ -14,7 +14,7 @@
  * Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
  *
  * Copyright (c) 2012-2014, Purdue University
- * Copyright (c) 2013, 2018, Oracle and/or its affiliates
+ * Copyright (c) 2013, 2020, Oracle and/or its affiliates
  *
  * All rights reserved.
  */
@@ -69,4 +69,13 @@ public class TestBuiltin_rep_len extends TestBase {
         assertEval("rep_len(c(a=1,b=4), 4)");
         assertEval("rep_len(expression(1,4,'foo'), 7)");
     }
+
+    @Test
+    public void testCompactRepLen() {
+        assertEval("{ x <- rep_len(c(1, NA, 3), 20000); c(length(x), x[19998:20000], sum(x, na.rm = TRUE), sum(is.na(x))) }");
+        assertEval("{ x <- rep_len(1:7, 30000); c(length(x), x[29999:30000], sum(x), length(unique(x))) }");
+        assertEval("{ x <- rep_len(c('x', 'y'), 20000); c(x[19999:20000], unique(x), sum(x == 'y')) }");
+        assertEval("{ x <- rep_len(c(TRUE, FALSE), 20001); c(sum(x), x[20001]) }");
+        assertEval("{ x <- rep_len(c(1L, 2L), 20000); x[1] <- NA; c(sum(x, na.rm = TRUE), sum(is.na(x)), x[1:3]) }");
+    }
 }
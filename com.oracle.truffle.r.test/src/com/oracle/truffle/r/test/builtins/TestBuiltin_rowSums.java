@@ -14,7 +14,7 @@
  * Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
  *
  * Copyright (c) 2012-2014, Purdue University
- * Copyright (c) 2013, 2018, Oracle and/or its affiliates
+ * Copyright (c) 2013, 2020, Oracle and/or its affiliates
  *
  * All rights reserved.
  */
@@ -112,4 +112,11 @@ public class TestBuiltin_rowSums extends TestBase {
 
         assertEval("{x<-matrix(c(\"1\",\"2\",\"3\",\"4\"),ncol=2);rowSums(x)}");
     }
+
+    @Test
+    public void testCompensatedRowSums() {
+        assertEval("{ rowSums(matrix(c(1e10, 1e10, 1, 1, -1e10, -1e10, 2, 3), 2)) }");
+        assertEval("{ m <- matrix(rep(c(1e10, 1, -1e10), 1000), 5, byrow = TRUE); rowSums(m) }");
+        assertEval("{ rowMeans(matrix(c(1, NA, 3, NaN, 5, 6), 3)) }");
+    }
 }
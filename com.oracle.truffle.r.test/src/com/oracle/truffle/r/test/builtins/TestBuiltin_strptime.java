@@ -14,7 +14,7 @@
  * Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
  *
  * Copyright (c) 2014, Purdue University
- * Copyright (c) 2014, 2018, Oracle and/or its affiliates
+ * Copyright (c) 2014, 2020, Oracle and/or its affiliates
  *
  * All rights reserved.
  */
@@ -77,6 +77,25 @@ public class TestBuiltin_strptime extends TestBase {
         assertEval("argv <- list(c('1937/01/01', '1916/01/01', '1913/01/01', '1927/01/01', '1947/01/01', '1913/01/01', '1917/01/01', '1923/01/01', '1921/01/01', '1926/01/01', '1920/01/01', '1915/01/01', '1914/01/01', '1914/01/01', '1914/01/01', '1919/01/01', '1948/01/01', '1911/01/01', '1909/01/01', '1913/01/01', '1925/01/01', '1926/01/01', '1910/01/01', '1917/01/01', '1936/01/01', '1938/01/01', '1960/01/01', '1915/01/01', '1919/01/01', '1924/01/01', '1914/01/01', '1905/01/01', '1921/01/01', '1929/01/01', '1926/01/01', '1921/01/01', '1908/01/01', '1928/01/01', '1919/01/01', '1921/01/01', '1925/01/01', '1934/01/01', '1927/01/01', '1928/01/01', '1934/01/01', '1922/01/01', '1923/01/01', '1915/01/01', '1934/01/01', '1925/01/01', '1922/01/01', '1930/01/01', '1924/01/01', '1923/01/01', '1919/01/01', '1932/01/01', '1930/01/01', '1923/01/01', '1930/01/01', '1922/01/01', '1919/01/01', '1932/01/01', '1939/01/01', '1923/01/01', '1920/01/01', '1919/01/01', '1952/01/01', '1927/01/01', '1924/01/01', '1919/01/01', '1925/01/01', '1945/01/01', '1916/01/01', '1943/01/01', '1920/01/01', '1920/01/01', '1931/01/01', '1924/01/01', '1919/01/01', '1926/01/01', '1920/01/01', '1952/01/01', '1919/01/01', '1930/01/01', '1925/01/01', '1924/01/01', '1926/01/01', '1918/01/01', '1922/01/01', '1921/01/01', '1925/01/01', '1928/01/01', '1925/01/01', '1929/01/01', '1933/01/01', '1947/01/01', '1950/01/01', '1945/01/01', '1924/01/01', '1939/01/01', '1924/01/01', '1933/01/01', '1928/01/01'), '%Y/%m/%d', ''); .Internal(strptime(argv[[1]], argv[[2]], argv[[3]]))");
     }
 
+    @Test
+    public void testCachedFormats() {
+        // the same format string is translated once and reused by later calls
+        assertEval("{ f <- function(x) strptime(x, '%d.%m.%Y %H:%M', tz = 'UTC'); list(f('01.02.2003 04:05'), f('31.12.1999 23:59'), f('01.02.2003 04:05')) }");
+        assertEval("{ x <- as.POSIXlt('2010-06-15 13:45:10', tz = 'UTC'); c(format(x, '%H:%M'), format(x, '%Y/%m/%d'), format(x, '%H:%M'), format(x, '%Y/%m/%d')) }");
+        assertEval("{ strptime(c('2001-02-03', '04/05/2006', '2007-08-09'), c('%Y-%m-%d', '%d/%m/%Y'), tz = 'UTC') }");
+        assertEval("{ x <- as.POSIXlt(c('2001-02-03 04:05:06', '2010-11-12 13:14:15'), tz = 'UTC'); format(x, c('%Y-%m-%d', '%Y-%m-%d %H:%M:%S', '%H')) }");
+    }
+
+    @Test
+    public void testISOFastPaths() {
+        assertEval("{ strptime(c('2008-04-22', '2008-4-2', '1900-01-01', '2100-12-31', NA, '2008-13-01', '2008-02-30', 'x'), '%Y-%m-%d', tz = 'UTC') }");
+        assertEval("{ strptime(c('2008-04-22 09:45:01', '2008-4-2 9:5:1', '2008-04-22 24:00:00', '2008-04-22 09:45', '1969-12-31 23:59:59'), '%Y-%m-%d %H:%M:%S', tz = 'UTC') }");
+        assertEval("{ x <- strptime('2012-02-29 23:59:59', '%Y-%m-%d %H:%M:%S', tz = 'UTC'); c(x$year, x$mon, x$mday, x$hour, x$min, x$sec, x$wday, x$yday, x$isdst) }");
+        assertEval("{ x <- strptime(c('2019-03-31 01:30:00', '2019-03-31 03:30:00', '2019-10-27 02:30:00', '2019-07-01 12:00:00'), '%Y-%m-%d %H:%M:%S', tz = 'Europe/Prague'); list(x$isdst, as.numeric(as.POSIXct(x))) }");
+        assertEval("{ x <- as.POSIXct(c('2019-01-15 08:00:00', '2019-07-15 08:00:00', '1950-07-15 08:00:00'), tz = 'America/New_York'); list(format(x, '%Y-%m-%d %H:%M:%S'), format(x, '%Y-%m-%d'), as.POSIXlt(x)$isdst, format(x, usetz = TRUE)) }");
+        assertEval("{ x <- as.POSIXct(c(0, 1e9, -1e9, 4e9), origin = '1970-01-01', tz = 'UTC'); format(x, '%Y-%m-%d %H:%M:%S') }");
+    }
+
     @Test
     public void testArgsCasts() {
         assertEval("{ .Internal(strptime('1970-01-01 0:3:22', '%H:%M:%S', 'UTC')); }");
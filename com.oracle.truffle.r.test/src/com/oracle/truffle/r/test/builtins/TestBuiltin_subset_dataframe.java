@@ -14,7 +14,7 @@
  * Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
  *
  * Copyright (c) 2014, Purdue University
- * Copyright (c) 2014, 2018, Oracle and/or its affiliates
+ * Copyright (c) 2014, 2020, Oracle and/or its affiliates
  *
  * All rights reserved.
  */
@@ -54,4 +54,45 @@ public class TestBuiltin_subset_dataframe extends TestBase {
         assertEval("df <- data.frame(x='a', y='b'); f <- function(df, missng) {df[,missng]}; f(df)");
         assertEval(Output.IgnoreErrorContext, "df <- data.frame(x='a', y='b'); f <- function(df, missng) {df[,,missng]}; f(df)");
     }
+
+    private static final String DF = "df <- data.frame(a=1:5, b=c(1.5, 2.5, 3.5, 4.5, 5.5), c=c(TRUE, FALSE, TRUE, NA, FALSE), d=letters[1:5], stringsAsFactors=FALSE); ";
+    private static final String DF_NAMED = "df <- data.frame(a=1:4, b=letters[1:4], row.names=c('w', 'x', 'y', 'z'), stringsAsFactors=FALSE); ";
+    private static final String[] ROWS = {"1:3", "1:2", "1", "c(2L, 4L)", "5:1", "1:5", "c(TRUE, FALSE, TRUE, TRUE, FALSE)", "c(TRUE, FALSE)", "TRUE", "df$a > 2", "integer(0)", "c(1, 1, 2)",
+                    "c(1, NA, 3)", "NA_integer_", "c(1, 7)", "0", "c(0, 2)", "-1", "c(2.7, 3.2)"};
+    private static final String[] COLUMNS = {"c('a', 'b')", "c(1, 3)", "'d'", "c(TRUE, FALSE, TRUE, FALSE)", "c('b', 'b')"};
+
+    @Test
+    public void testRowSelection() {
+        assertEval(template("{ " + DF + "dput(df[%0, %1]) }", ROWS, COLUMNS));
+        assertEval(template("{ " + DF + "dput(df[%0, %1, drop=%2]) }", new String[]{"1:3", "c(TRUE, FALSE, TRUE, FALSE, TRUE)", "c(1, 1)", "2"}, COLUMNS, new String[]{"TRUE", "FALSE"}));
+        // compact row names of a prefix of the rows are not automatic
+        assertEval(template("{ " + DF + "r <- df[%0, c('a', 'b')]; list(.row_names_info(r), .row_names_info(r, type=1L), rownames(r)) }", new String[]{"1:2", "1:3", "1:5", "c(TRUE, TRUE, TRUE, FALSE, FALSE)", "2:4"}));
+        assertEval(template("{ " + DF_NAMED + "dput(df[%0, %1]) }", new String[]{"c(2, 4)", "1:3", "c(TRUE, FALSE, TRUE, TRUE)", "c(1, 1)", "c(1, NA)", "'x'", "c('z', 'w')"},
+                        new String[]{"c('a', 'b')", "'b'", "2:1"}));
+        assertEval(template("{ df <- data.frame(a=1:4, b=4:1, row.names=%0); dput(df[%1, c('b', 'a')]) }", new String[]{"c(10L, 20L, 30L, 40L)", "1:4", "c(2L, 1L, 3L, 4L)"},
+                        new String[]{"1:3", "c(3, 1)", "1:4"}));
+        // a selected row index that is not a number, the R code reports the error
+        assertEval(Output.IgnoreErrorContext, "{ " + DF + "df[list(1), c('a', 'b')] }");
+        assertEval(Output.IgnoreErrorContext, "{ " + DF + "df[1:2, c('a', 'x')] }");
+    }
+
+    @Test
+    public void testsubassign_dataframe() {
+        assertEval(template("{ " + DF + "df[%0, %1] <- %2; dput(df) }", new String[]{"2:3", "c(TRUE, FALSE, TRUE, FALSE, FALSE)", "c(1, 1)", "integer(0)", "0"}, new String[]{"'a'", "c('a', 'b')"},
+                        new String[]{"7L", "c(7L, 8L)", "NA"}));
+        // new named columns
+        assertEval(template("{ " + DF + "%0; dput(df) }", new String[]{"df['e'] <- 5:1", "df[, 'e'] <- 1", "df[c('e', 'f')] <- 1:10", "df[c('a', 'e')] <- 0L", "df[, c('e', 'a')] <- c(TRUE, FALSE)",
+                        "df['d'] <- NULL", "df[2] <- 'x'"}));
+        // the assigned value has to be coerced to a wider type
+        assertEval(template("{ " + DF + "df[%0, %1] <- %2; dput(df) }", new String[]{"1", "c(2, 4)"}, new String[]{"'a'", "'c'", "'d'", "c('a', 'c')"},
+                        new String[]{"2.5", "1L", "'x'", "1+1i"}));
+        assertEval(template("{ " + DF + "df[, %0] <- %1; dput(df) }", new String[]{"'a'", "'c'"}, new String[]{"'x'", "as.numeric(1:5)", "1:5"}));
+        // extending the data frame or new columns with only some of the rows
+        assertEval("{ " + DF + "df[6, 'a'] <- 1L; dput(df) }");
+        assertEval("{ " + DF + "df[7, c('a', 'b')] <- 1; dput(df) }");
+        assertEval("{ " + DF + "df[2:3, 'e'] <- 1L; dput(df) }");
+        assertEval(Output.IgnoreErrorContext, "{ " + DF + "df[, 'e'] <- 1:2; dput(df) }");
+        assertEval(Output.IgnoreErrorContext, "{ " + DF + "df[1:2, 'a'] <- 1:3; dput(df) }");
+        assertEval(template("{ " + DF_NAMED + "df[%0, 'a'] <- 0L; dput(df) }", new String[]{"'x'", "c(TRUE, FALSE)", "c(1, 4)"}));
+    }
 }
@@ -14,7 +14,7 @@
  * Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
  *
  * Copyright (c) 2012-2014, Purdue University
- * Copyright (c) 2013, 2018, Oracle and/or its affiliates
+ * Copyright (c) 2013, 2020, Oracle and/or its affiliates
  *
  * All rights reserved.
  */
@@ -213,4 +213,19 @@ public class TestBuiltin_sum extends TestBase {
     public void testSideEffect() {
         assertEval("{ x <- c(1, 2, 3); f <- function() { x[1] <<- 10; 2 }; g <- function(){ x[1] <<- 100; 0 }; sum(x, f(), x, g()) }");
     }
+
+    @Test
+    public void testCompensatedSum() {
+        assertEval("{ sum(c(Inf, 1, -Inf)) }");
+        assertEval("{ sum(c(1, NaN, NA, 2)) }");
+        assertEval("{ sum(c(1, NA, NaN, 2)) }");
+        assertEval("{ sum(c(1, NaN, 2)) }");
+        assertEval("{ sum(c(1, NaN, NA, 2), na.rm = TRUE) }");
+        assertEval("{ sum(c(NaN, Inf)) }");
+        // longer than the block size used for very long vectors
+        assertEval("{ x <- rep(c(1e10, 1, -1e10), 500000); c(sum(x), sum(c(x, NA)), sum(c(x, NA), na.rm = TRUE)) }");
+        // compact data are read element-wise
+        assertEval("{ sum(seq(0.1, by = 0.1, length.out = 1e6)) }");
+        assertEval("{ sum(seq(-1e15, by = 0.1, length.out = 1000)) }");
+    }
 }
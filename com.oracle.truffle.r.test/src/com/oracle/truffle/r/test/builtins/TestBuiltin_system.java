@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2018, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2018, 2020, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * This code is free software; you can redistribute it and/or modify it
@@ -33,4 +33,16 @@ public class TestBuiltin_system extends TestBase {
         assertEval("{  t <- Sys.time(); system(command='sleep 1', timeout=2); delay <- Sys.time() - t; print(delay < 2); }");
     }
 
+    @Test
+    public void testSystemIntern() {
+        // more output than fits into the pipe buffer
+        assertEval("{ x <- system('seq 1 200000', intern=TRUE); list(length(x), x[1], x[200000], sum(as.numeric(x))) }");
+        assertEval("{ x <- system('yes abcdefghij | head -n 100000', intern=TRUE); list(length(x), unique(x)) }");
+        assertEval("{ x <- system(\"awk 'BEGIN { for (i = 0; i < 300000; i++) printf \\\"x\\\"; print \\\"\\\" }'\", intern=TRUE); list(length(x), nchar(x)) }");
+        assertEval("{ x <- system('seq 1 100000', intern=TRUE, timeout=60); list(length(x), x[100000]) }");
+        // the last line does not end with a new line
+        assertEval("{ system(\"printf 'a\\\\nbc\\\\nd'\", intern=TRUE) }");
+        assertEval("{ system('true', intern=TRUE) }");
+    }
+
 }
@@ -14,7 +14,7 @@
  * Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
  *
  * Copyright (c) 2012-2014, Purdue University
- * Copyright (c) 2013, 2018, Oracle and/or its affiliates
+ * Copyright (c) 2013, 2020, Oracle and/or its affiliates
  *
  * All rights reserved.
  */
@@ -360,4 +360,19 @@ public class TestBuiltin_unlist extends TestBase {
         assertEval("unlist(pairlist(a=1,b=pairlist(c=2,d=3)))");
         assertEval("unlist(list(pairlist(1, list(pairlist(2), 3))))");
     }
+
+    @Test
+    public void testMixedStorages() {
+        assertEval("unlist(list(1:3, rep(7L, 2), c(1L, NA), as.integer(c(4, 5))))");
+        assertEval("unlist(list(seq(0.5, 1.5, by = 0.5), rep(2.5, 2), c(NA, NaN), 1:2))");
+        assertEval("unlist(list(a = c(TRUE, NA), b = rep(FALSE, 2), c = c(x = TRUE, y = FALSE)))");
+        assertEval("unlist(list(as.raw(1:3), rep(as.raw(255), 2)))");
+        assertEval("unlist(list(a = 1:2, b = c(x = 3L, y = 4L), c = list(d = 5:6, 7L)))");
+        assertEval("unlist(list(a = 1:2, b = c(x = 3L, y = 4L)), use.names = FALSE)");
+        assertEval("unlist(list(a = c(1.5, 2.5), b = 3:4, c = c(z = NA)))");
+        assertEval("{ x <- unlist(list(1:3, c(NA, 4L))); list(x, anyNA(x), anyNA(x[1:3])) }");
+        assertEval("{ x <- runif(5); l <- list(x, x * 2, 1:2); y <- unlist(l); identical(y[6:10], x * 2) && identical(y[11:12], c(1, 2)) }");
+        assertEval("{ l <- list(1:3, 4:5); x <- unlist(l); x[1] <- 10L; list(l, x) }");
+        assertEval("{ l <- lapply(1:200, function(i) c(i, NA, -i)); x <- unlist(l); c(length(x), sum(x, na.rm = TRUE), sum(is.na(x)), x[598:600]) }");
+    }
 }
@@ -185,4 +185,26 @@ public class TestBuiltin_unserialize extends TestBase {
         assertEval(Output.ContainsReferences, template("options(keep.source=FALSE); val <- new.env(hash=FALSE); val$e <- 5+9i; unserialize(serialize(val, connection=NULL, version=%0))", VERSIONS));
         assertEval(Output.ContainsReferences, template("options(keep.source=FALSE); val <- new.env(hash=FALSE); val$f <- NA; unserialize(serialize(val, connection=NULL, version=%0))", VERSIONS));
     }
+
+    @Test
+    public void testDeferredFunctionBodies() {
+        // closures read by unserialize get their AST only when they are called
+        String f = "options(keep.source=FALSE); f <- unserialize(serialize(function(x, y = x * 2, ...) { z <- x + y; if (z > 10) 'big' else z }, connection=NULL, version=%0)); ";
+        assertEval(template(f + "deparse(f)", VERSIONS));
+        assertEval(template(f + "list(body(f), formals(f), names(formals(f)))", VERSIONS));
+        assertEval(template(f + "print(f); f(1); print(f)", VERSIONS));
+        assertEval(template(f + "d1 <- deparse(f); f(3); identical(d1, deparse(f))", VERSIONS));
+        assertEval(template(f + "c(f(1), f(1, 2), f(5))", VERSIONS));
+        assertEval(template(f + "g <- f; c(g(2), deparse(f)[1])", VERSIONS));
+        assertEval(template(f + "body(f) <- quote(x - 1); c(f(3), deparse(f))", VERSIONS));
+        assertEval(template(f + "formals(f)$y <- 100; f(1)", VERSIONS));
+        assertEval(template(f + "identical(environment(f), globalenv())", VERSIONS));
+        assertEval(template(f + "args(f)", VERSIONS));
+        assertEval(template("options(keep.source=FALSE); e <- new.env(); e$k <- 42; h <- local(function() k, e); h2 <- unserialize(serialize(h, connection=NULL, version=%0)); c(h2(), deparse(h2))", VERSIONS));
+        assertEval(template("options(keep.source=FALSE); f <- function(n) if (n <= 1) 1 else n * f(n - 1); f <- unserialize(serialize(f, connection=NULL, version=%0)); c(f(5), deparse(body(f)))", VERSIONS));
+        assertEval(template("options(keep.source=FALSE); f <- structure(function(x) x + 1, class = 'myfun', extra = 1:3); g <- unserialize(serialize(f, connection=NULL, version=%0)); list(class(g), attr(g, 'extra'), g(1), deparse(unclass(g)))", VERSIONS));
+        assertEval(template("options(keep.source=FALSE); l <- unserialize(serialize(list(a = function() 1, b = function(x) x), connection=NULL, version=%0)); list(l$a(), l$b(2), deparse(l$a), deparse(l$b))", VERSIONS));
+        assertEval(template("options(keep.source=TRUE); f <- eval(parse(text = 'function(x) {\n  # comment\n  x + 1\n}', keep.source = TRUE)); g <- unserialize(serialize(f, connection=NULL, version=%0)); print(g); g(1)", VERSIONS));
+        assertEval(template("options(keep.source=FALSE); f <- unserialize(serialize(function(x) stop('boom ', x), connection=NULL, version=%0)); tryCatch(f(1), error = function(e) conditionMessage(e))", VERSIONS));
+    }
 }
@@ -14,7 +14,7 @@
  * Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
  *
  * Copyright (c) 2012-2014, Purdue University
- * Copyright (c) 2013, 2018, Oracle and/or its affiliates
+ * Copyright (c) 2013, 2020, Oracle and/or its affiliates
  *
  * All rights reserved.
  */
@@ -100,4 +100,14 @@ public class TestBuiltin_vector extends TestBase {
         assertEval("v <- c('a', 'b', 'c', 'd'); dim(v)<-c(2,2); v[1, 1]<-NA_character_; v");
         assertEval("v <- c(1, 2, 3, 4); dim(v)<-c(2,2); v[1, 1]<-NA_integer_; v");
     }
+
+    @Test
+    public void testLongConstantVectors() {
+        assertEval("{ x <- numeric(20000); c(length(x), sum(x), unique(x), anyNA(x)) }");
+        assertEval("{ x <- integer(20000); x[10000] <- 5L; c(sum(x), x[9999:10001], length(x)) }");
+        assertEval("{ x <- logical(20000); x[c(1, 20000)] <- TRUE; c(sum(x), x[1:2]) }");
+        assertEval("{ x <- character(20000); x[2] <- 'a'; list(unique(x), sum(nchar(x)), x[1:3]) }");
+        assertEval("{ x <- vector('numeric', 20000); y <- x; y[1] <- 1; c(sum(x), sum(y)) }");
+        assertEval("{ x <- vector('list', 20000); length(x) }");
+    }
 }
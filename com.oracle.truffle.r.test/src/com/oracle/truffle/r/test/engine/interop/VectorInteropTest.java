@@ -156,6 +156,40 @@ public class VectorInteropTest extends AbstractInteropTest {
         getInterop().isNull(RDataFactory.createComplexVector(new double[]{1, RRuntime.COMPLEX_NA_IMAGINARY_PART}, RDataFactory.INCOMPLETE_VECTOR));
     }
 
+    @Test
+    public void testHostArrayWrappers() {
+        double[] doubles = new double[]{1.5, RRuntime.DOUBLE_NA, -3, Double.NaN};
+        RDoubleVector doubleVector = RDoubleVector.createForeignWrapper(RContext.getInstance().getEnv().asGuestValue(doubles));
+        assertEquals(4, doubleVector.getLength());
+        assertEquals(1.5, doubleVector.getDataAt(0), 0);
+        assertTrue(RRuntime.isNA(doubleVector.getDataAt(1)));
+        assertTrue(Double.isNaN(doubleVector.getDataAt(3)) && !RRuntime.isNA(doubleVector.getDataAt(3)));
+        double[] doubleCopy = doubleVector.getDataCopy();
+        assertTrue(doubleCopy != doubles);
+        doubleCopy[0] = 42;
+        assertEquals(1.5, doubleVector.getDataAt(0), 0);
+        assertEquals(-3, doubleVector.getReadonlyData()[2], 0);
+        assertEquals(-3, doubleVector.materialize().getDataAt(2), 0);
+
+        int[] ints = new int[]{7, RRuntime.INT_NA, Integer.MAX_VALUE};
+        RIntVector intVector = RIntVector.createForeignWrapper(RContext.getInstance().getEnv().asGuestValue(ints));
+        assertEquals(3, intVector.getLength());
+        assertEquals(7, intVector.getDataAt(0));
+        assertTrue(RRuntime.isNA(intVector.getDataAt(1)));
+        int[] intCopy = intVector.getDataCopy();
+        assertTrue(intCopy != ints);
+        intCopy[0] = 42;
+        assertEquals(7, intVector.getDataAt(0));
+        assertEquals(Integer.MAX_VALUE, intVector.getReadonlyData()[2]);
+        assertEquals(Integer.MAX_VALUE, intVector.materialize().getDataAt(2));
+
+        // boxed arrays are still read element by element via interop
+        RIntVector boxedVector = RIntVector.createForeignWrapper(RContext.getInstance().getEnv().asGuestValue(new Integer[]{7, null}));
+        assertEquals(7, boxedVector.getDataAt(0));
+        assertTrue(RRuntime.isNA(boxedVector.getDataAt(1)));
+        assertEquals(7, boxedVector.getDataCopy()[0]);
+    }
+
     public void testRNARTOTIN(TruffleObject vec, Object expectedFirst) throws Exception {
         assertEquals(expectedFirst, getInterop().readArrayElement(vec, 0));
         Object expectedNA = getInterop().readArrayElement(vec, 1);
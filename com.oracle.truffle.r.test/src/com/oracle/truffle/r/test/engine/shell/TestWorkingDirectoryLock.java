@@ -0,0 +1,159 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 3 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 3 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.r.test.engine.shell;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.Test;
+
+import com.oracle.truffle.r.launcher.WorkingDirectoryLock;
+
+public class TestWorkingDirectoryLock {
+
+    private static Thread acquireAsync(WorkingDirectoryLock lock, String dir, CountDownLatch acquired) {
+        Thread thread = new Thread(() -> {
+            try {
+                lock.acquire(dir);
+                acquired.countDown();
+            } catch (InterruptedException e) {
+                // the test interrupts the thread on purpose
+            }
+        });
+        thread.setDaemon(true);
+        thread.start();
+        return thread;
+    }
+
+    @Test
+    public void testSameDirectoryIsShared() throws InterruptedException {
+        WorkingDirectoryLock lock = new WorkingDirectoryLock();
+        lock.acquire("/a");
+        CountDownLatch acquired = new CountDownLatch(1);
+        acquireAsync(lock, "/a", acquired);
+        assertTrue(acquired.await(10, TimeUnit.SECONDS));
+        assertEquals("/a", lock.getDirectory());
+        lock.release();
+        lock.release();
+        assertNull(lock.getDirectory());
+    }
+
+    @Test
+    public void testOtherDirectoryWaits() throws InterruptedException {
+        WorkingDirectoryLock lock = new WorkingDirectoryLock();
+        lock.acquire("/a");
+        CountDownLatch acquired = new CountDownLatch(1);
+        acquireAsync(lock, "/b", acquired);
+        assertFalse(acquired.await(200, TimeUnit.MILLISECONDS));
+        assertEquals("/a", lock.getDirectory());
+        lock.release();
+        assertTrue(acquired.await(10, TimeUnit.SECONDS));
+        assertEquals("/b", lock.getDirectory());
+        lock.release();
+    }
+
+    @Test
+    public void testWaitingRequestIsNotOvertaken() throws InterruptedException {
+        WorkingDirectoryLock lock = new WorkingDirectoryLock();
+        lock.acquire("/a");
+        CountDownLatch acquiredB = new CountDownLatch(1);
+        acquireAsync(lock, "/b", acquiredB);
+        assertFalse(acquiredB.await(200, TimeUnit.MILLISECONDS));
+        // a later request for the directory in use queues behind the one for the other directory
+        CountDownLatch acquiredA = new CountDownLatch(1);
+        acquireAsync(lock, "/a", acquiredA);
+        assertFalse(acquiredA.await(200, TimeUnit.MILLISECONDS));
+        lock.release();
+        assertTrue(acquiredB.await(10, TimeUnit.SECONDS));
+        assertFalse(acquiredA.await(200, TimeUnit.MILLISECONDS));
+        lock.release();
+        assertTrue(acquiredA.await(10, TimeUnit.SECONDS));
+        assertEquals("/a", lock.getDirectory());
+        lock.release();
+    }
+
+    @Test
+    public void testInterruptedRequestIsSkipped() throws InterruptedException {
+        WorkingDirectoryLock lock = new WorkingDirectoryLock();
+        lock.acquire("/a");
+        CountDownLatch acquiredB = new CountDownLatch(1);
+        Thread b = acquireAsync(lock, "/b", acquiredB);
+        CountDownLatch acquiredC = new CountDownLatch(1);
+        acquireAsync(lock, "/c", acquiredC);
+        Thread.sleep(200);
+        b.interrupt();
+        b.join(10000);
+        assertFalse(b.isAlive());
+        lock.release();
+        assertTrue(acquiredC.await(10, TimeUnit.SECONDS));
+        assertEquals(1, acquiredB.getCount());
+        assertEquals("/c", lock.getDirectory());
+        lock.release();
+    }
+
+    @Test
+    public void testHoldersNeverOverlapAcrossDirectories() throws InterruptedException {
+        WorkingDirectoryLock lock = new WorkingDirectoryLock();
+        AtomicBoolean failed = new AtomicBoolean();
+        int[] active = new int[2];
+        Thread[] threads = new Thread[8];
+        for (int i = 0; i < threads.length; i++) {
+            int dir = i % 2;
+            threads[i] = new Thread(() -> {
+                try {
+                    for (int j = 0; j < 100; j++) {
+                        lock.acquire("/" + dir);
+                        try {
+                            synchronized (active) {
+                                active[dir]++;
+                                if (active[1 - dir] != 0) {
+                                    failed.set(true);
+                                }
+                            }
+                            Thread.yield();
+                        } finally {
+                            synchronized (active) {
+                                active[dir]--;
+                            }
+                            lock.release();
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    failed.set(true);
+                }
+            });
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join(60000);
+        }
+        assertFalse(failed.get());
+        assertNull(lock.getDirectory());
+    }
+}
@@ -14,7 +14,7 @@
  * Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
  *
  * Copyright (c) 2012-2014, Purdue University
- * Copyright (c) 2013, 2019, Oracle and/or its affiliates
+ * Copyright (c) 2013, 2020, Oracle and/or its affiliates
  *
  * All rights reserved.
  */
@@ -250,6 +250,25 @@ public class TestFunctions extends TestBase {
         assertEval("{ x <- rep(80, 1); f <- function(arg, defArg = x) {print(arg + defArg); print(defArg)}; f(80L); f(80L); f(80L) }");
     }
 
+    @Test
+    public void testEagerValues() {
+        // arguments passed as values to closures that only call well-known functions
+        assertEval("{ f <- function(x) { x[1] <- 0; x }; y <- c(1,2,3); z <- f(y); list(y, z) }");
+        assertEval("{ f <- function(x) { x[1] <- 0; x }; f(c(1,2,3)); f(c(1,2,3)) }");
+        assertEval("{ f <- function(x, y) { x[[2]] <- y; x }; l <- list(1, 2); r <- f(l, 42); list(l, r) }");
+        // the eager evaluation of the second argument fails, later calls must still be correct
+        assertEval("{ f <- function(x, y) x + y; h <- function(a, b) f(a + 1, b + 1); cnt <- 0; r <- c(); for (i in 1:5) r <- c(r, h(i, { cnt <- cnt + 1; i })); c(r, cnt) }");
+        assertEval("{ f <- function(x, y) c(x, y); h <- function(a, b) f(a * 2, b); r <- list(); for (i in 1:4) r[[i]] <- if (i %% 2 == 0) h(i, i) else h(i, { i }); r }");
+        // redefined well-known functions can observe the promises of the caller
+        assertEval("{ '+' <- function(a, b) eval(quote(substitute(x)), parent.frame()); f <- function(x) x + 1; r <- f(2 * 3); rm('+'); r }");
+        assertEval("{ c <- function(a) eval(quote(substitute(x)), parent.frame()); f <- function(x) c(x); for (i in 1:3) r <- f(1 + i); rm(c); r }");
+        assertEval("{ f <- function(x) x[1]; f(c(3, 4)); '[' <- function(v, i) eval(quote(substitute(x)), parent.frame()); r <- f(c(1, 2)); rm('['); r }");
+        assertEval("{ f <- function(x) { x <- x + 1; x }; f(1); '+' <- function(a, b) sys.call(); r <- f(41); rm('+'); r }");
+        // a redefinition only concerns the closures calling the redefined function
+        assertEval("{ c <- function(...) 0; f <- function(x) x + 1; f(1); '+' <- function(a, b) eval(quote(substitute(x)), parent.frame()); r <- f(2 * 3); rm('+'); rm(c); r }");
+        assertEval("{ f <- function(x) { names(x) <- 'a'; x }; f(1); 'names<-' <- function(x, value) { attr(x, 'arg') <- deparse(eval(quote(substitute(x)), parent.frame())); x }; r <- f(2 * 3); rm('names<-'); r }");
+    }
+
     @Test
     public void testVarArgPromises() {
         assertEval("g <- function(e) get(\"ex\", e);f <- function(e, en) {  exports <- g(e);  unlist(lapply(en, get, envir = exports, inherits = FALSE))}; " +
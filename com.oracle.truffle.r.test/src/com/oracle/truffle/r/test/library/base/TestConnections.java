@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2014, 2019, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2014, 2020, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * This code is free software; you can redistribute it and/or modify it
@@ -22,8 +22,14 @@
  */
 package com.oracle.truffle.r.test.library.base;
 
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
@@ -37,6 +43,7 @@ import org.junit.Test;
 
 import com.oracle.truffle.r.test.TestBase;
 import com.oracle.truffle.r.test.TestRBase;
+import com.oracle.truffle.r.test.connection.SocketServerMockup;
 
 // Checkstyle: stop line length check
 public class TestConnections extends TestRBase {
@@ -256,6 +263,20 @@ public class TestConnections extends TestRBase {
         assertEval(template("f <- tempfile(); unlink(f); x <- 1:10; save(x, file=f, version=%0); con <- file(f, 'rb'); dput(class(con))", SAVE_VERSIONS));
     }
 
+    @Test
+    public void testPipe() {
+        // the command runs concurrently, its output does not have to fit into the pipe buffer
+        assertEval("{ con <- pipe('seq 1 200000'); x <- readLines(con); close(con); list(length(x), x[1], x[200000]) }");
+        assertEval("{ con <- pipe('seq 1 100000', 'r'); a <- readLines(con, 10); b <- readLines(con); close(con); list(a, length(b), b[length(b)]) }");
+        assertEval("{ con <- pipe('seq 1 50000'); x <- scan(con, quiet=TRUE); close(con); list(length(x), sum(x)) }");
+        assertEval("{ con <- pipe('head -c 100000 /dev/zero', 'rb'); x <- readBin(con, 'raw', 200000); close(con); list(length(x), all(x == 0)) }");
+        // the written data do not have to fit into the pipe buffer either, closing waits for the
+        // command
+        assertEval("{ f <- tempfile(); con <- pipe(paste('cat >', f), 'w'); writeLines(as.character(1:100000), con); close(con); x <- readLines(f); unlink(f); list(length(x), x[100000]) }");
+        assertEval("{ f <- tempfile(); con <- pipe(paste('sort -n -r >', f), 'w'); for (i in 1:1000) cat(i, '\\n', sep='', file=con); close(con); x <- readLines(f); unlink(f); head(x) }");
+        assertEval("{ f <- tempfile(); con <- pipe(paste('cat >', f), 'wb'); writeBin(as.raw(rep_len(0:255, 300000)), con); close(con); x <- readBin(f, 'raw', 400000); unlink(f); list(length(x), identical(x, as.raw(rep_len(0:255, 300000)))) }");
+    }
+
     @Test
     public void testFifoOpenInexisting() {
         assertEval("capabilities(\"fifo\")");
@@ -277,6 +298,146 @@ public class TestConnections extends TestRBase {
         assertEval("f1 <- file(open='w+b', encoding='UTF-8'); writeBin(charToRaw(\"abcd\"), f1); seek(f1); seek(f1,0); seek(f1)");
     }
 
+    private static final String SOCKET_PEER = "p <- java.type('" + SocketPeer.class.getName() + "'); ";
+
+    @Test
+    public void testSocketNonBlocking() {
+        // nothing to read yet, then the echoed bytes arrive in any number of pieces
+        assertEvalFastR("{ " + SOCKET_PEER +
+                        "con <- socketConnection('localhost', p$startEcho(), open='r+b', blocking=FALSE); r0 <- readBin(con, 'raw', 10L); writeBin(as.raw(1:100), con); " +
+                        "r <- raw(0); for (i in 1:1000) { r <- c(r, readBin(con, 'raw', 100L - length(r))); if (length(r) == 100L) break; Sys.sleep(0.01) }; close(con); list(length(r0), identical(r, as.raw(1:100))) }",
+                        "list(0L, TRUE)");
+        // a write larger than the socket buffers is written completely
+        assertEvalFastR("{ " + SOCKET_PEER +
+                        "con <- socketConnection('localhost', p$startCounter(), open='r+b', blocking=FALSE); n <- 2000000L; writeBin(n, con, endian='big'); writeBin(as.raw(rep_len(0:255, n)), con); " +
+                        "res <- integer(0); for (i in 1:1000) { res <- readBin(con, 'integer', endian='big'); if (length(res) == 1L) break; Sys.sleep(0.01) }; close(con); res }",
+                        "2000000L");
+    }
+
+    @Test
+    public void testSocketSelect() {
+        assertEvalFastR("{ " + SOCKET_PEER +
+                        "port <- p$startEcho(); c1 <- socketConnection('localhost', port, open='r+b', blocking=TRUE); c2 <- socketConnection('localhost', port, open='r+b', blocking=TRUE); " +
+                        "s0 <- socketSelect(list(c1, c2), timeout=0); writeBin(as.raw(1:3), c2); s1 <- socketSelect(list(c1, c2), timeout=10); w <- socketSelect(list(c1, c2), write=TRUE, timeout=10); " +
+                        "b1 <- readBin(c2, 'raw', 1L); s2 <- socketSelect(list(c1, c2), timeout=0); b2 <- readBin(c2, 'raw', 2L); s3 <- socketSelect(list(c1, c2), timeout=0); " +
+                        "close(c1); close(c2); list(s0, s1, w, s2, s3, c(b1, b2)) }",
+                        "list(c(FALSE, FALSE), c(FALSE, TRUE), c(TRUE, TRUE), c(FALSE, TRUE), c(FALSE, FALSE), as.raw(1:3))");
+        assertEvalFastR("{ " + SOCKET_PEER +
+                        "con <- socketConnection('localhost', p$startEcho(), open='r+b', blocking=TRUE); t <- system.time(s <- socketSelect(list(con), timeout=0.5))[[3]]; close(con); c(s, t >= 0.4) }",
+                        "c(FALSE, TRUE)");
+    }
+
+    @Test
+    public void testServerSocketLifetime() {
+        String mockup = "ssm <- java.type('" + SocketServerMockup.class.getName() + "'); ";
+        // the listening socket is closed with the connection
+        assertEvalFastR("{ " + SOCKET_PEER + mockup +
+                        "port <- p$freePort(); ssm$startClientSocket(port); con <- socketConnection(port=port, server=TRUE, open='wb', blocking=TRUE); writeBin(as.raw(1:3), con); " +
+                        "f0 <- p$isFree(port); close(con); c(f0, p$isFree(port)) }",
+                        "c(FALSE, TRUE)");
+        // ... with the last of the connections accepted on the same port
+        assertEvalFastR("{ " + SOCKET_PEER + mockup +
+                        "port <- p$freePort(); ssm$startClientSocket(port); ssm$startClientSocket(port); c1 <- socketConnection(port=port, server=TRUE, open='wb', blocking=TRUE); " +
+                        "c2 <- socketConnection(port=port, server=TRUE, open='wb', blocking=TRUE); close(c1); f1 <- p$isFree(port); close(c2); c(f1, p$isFree(port)) }",
+                        "c(FALSE, TRUE)");
+    }
+
+    /**
+     * The other end of the socket connections in the tests, used from R via {@code java.type}.
+     */
+    public static final class SocketPeer {
+
+        public static int freePort() throws IOException {
+            try (ServerSocket server = new ServerSocket(0)) {
+                return server.getLocalPort();
+            }
+        }
+
+        /**
+         * Tells if a server socket can be bound to given port.
+         */
+        public static boolean isFree(int port) {
+            try (ServerSocket server = new ServerSocket()) {
+                server.setReuseAddress(true);
+                server.bind(new InetSocketAddress(port));
+                return true;
+            } catch (IOException ex) {
+                return false;
+            }
+        }
+
+        /**
+         * Starts a server that sends back all the bytes it reads, returns its port.
+         */
+        public static int startEcho() throws IOException {
+            return start(socket -> {
+                InputStream in = socket.getInputStream();
+                OutputStream out = socket.getOutputStream();
+                byte[] buf = new byte[8192];
+                int n;
+                while ((n = in.read(buf)) > 0) {
+                    out.write(buf, 0, n);
+                    out.flush();
+                }
+            });
+        }
+
+        /**
+         * Starts a server that reads a big-endian integer {@code n}, then {@code n} bytes and
+         * replies with the number of the bytes read, returns its port.
+         */
+        public static int startCounter() throws IOException {
+            return start(socket -> {
+                DataInputStream in = new DataInputStream(socket.getInputStream());
+                int n = in.readInt();
+                byte[] buf = new byte[8192];
+                int count = 0;
+                while (count < n) {
+                    int read = in.read(buf, 0, Math.min(buf.length, n - count));
+                    if (read < 0) {
+                        break;
+                    }
+                    count += read;
+                }
+                DataOutputStream out = new DataOutputStream(socket.getOutputStream());
+                out.writeInt(count);
+                out.flush();
+                while (in.read(buf) > 0) {
+                    // wait until the client closes the connection
+                }
+            });
+        }
+
+        private interface Handler {
+            void handle(Socket socket) throws IOException;
+        }
+
+        private static int start(Handler handler) throws IOException {
+            ServerSocket server = new ServerSocket(0);
+            Thread acceptor = new Thread(() -> {
+                try (ServerSocket s = server) {
+                    while (true) {
+                        Socket socket = s.accept();
+                        Thread worker = new Thread(() -> {
+                            try (Socket ws = socket) {
+                                handler.handle(ws);
+                            } catch (IOException ex) {
+                                // the client went away
+                            }
+                        });
+                        worker.setDaemon(true);
+                        worker.start();
+                    }
+                } catch (IOException ex) {
+                    ex.printStackTrace();
+                }
+            });
+            acceptor.setDaemon(true);
+            acceptor.start();
+            return server.getLocalPort();
+        }
+    }
+
     private static final String[] LVAL = arr("T", "F");
 
     private static String[] arr(String... args) {
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2013, 2018, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2013, 2020, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * This code is free software; you can redistribute it and/or modify it
@@ -165,4 +165,28 @@ public class TestSimpleLists extends TestBase {
         assertEval("a<- NULL; a <- `$<-`(a, 1, 1); dput(a)");
         assertEval("a<- NULL; a <- `[[<-`(a, \"a\", 1); a <-`[[<-`(a, \"b\", 1); dput(a)");
     }
+
+    private static final String LONG_LIST = "l <- as.list(1:100); names(l) <- paste0('n', 1:100); ";
+
+    @Test
+    public void testLongListNames() {
+        // lists with many names look the names up in a hash index
+        assertEval("{ " + LONG_LIST + "list(l$n1, l$n64, l$n100, l$n101, l$n, l[['n77']], l[['n1']]) }");
+        assertEval("{ " + LONG_LIST + "dput(l[c('n3', 'n99', 'n3', 'n200')]) }");
+        assertEval("{ " + LONG_LIST + "dput(l[c('n100', NA, 'n1')]) }");
+        assertEval(Output.IgnoreErrorContext, "{ " + LONG_LIST + "l[['n101']] }");
+        assertEval("{ " + LONG_LIST + "names(l)[50] <- 'uniqueName'; list(l$uniq, l[['uniq', exact=FALSE]], l[['uniq']], l$n50) }");
+        // the index follows the changes of the names
+        assertEval("{ " + LONG_LIST + "l$n5; names(l) <- paste0('m', 1:100); list(l$n5, l$m5, l[['m100']], l['n1']) }");
+        assertEval("{ " + LONG_LIST + "l$n1; names(l)[10] <- 'n1'; a <- l$n1; names(l)[1] <- 'x'; list(a, l$n1, l[['n1']], l$x) }");
+        assertEval("{ " + LONG_LIST + "l$n1; names(l)[3] <- NA; list(l$n3, l$n4, l$`NA`) }");
+        assertEval("{ " + LONG_LIST + "for (i in 1:100) { names(l)[i] <- paste0('k', i); stopifnot(l[[paste0('k', i)]] == i, is.null(l[[paste0('n', i), exact=TRUE]] ), i == 100 || l[[paste0('n', i + 1)]] == i + 1) }; TRUE }");
+        // ... and of the elements
+        assertEval("{ " + LONG_LIST + "l$n1; l$n5 <- 'five'; l[['n6']] <- 6.5; l['n7'] <- list(NULL); list(l$n5, l[['n6']], l['n7'], length(l)) }");
+        assertEval("{ " + LONG_LIST + "l$n1; l$n8 <- NULL; list(length(l), l$n8, l$n9, l[['n100']], which(names(l) == 'n9')) }");
+        assertEval("{ " + LONG_LIST + "l$n1; l$new <- 'x'; l[['new2']] <- 'y'; l[c('n1', 'new3')] <- list('a', 'b'); list(length(l), l$new, l$new2, l$new3, l$n1, names(l)[101:103]) }");
+        assertEval("{ " + LONG_LIST + "l$n1; l <- l[100:1]; list(l$n1, l[['n100']], which(names(l) == 'n1')) }");
+        // atomic vectors with many names
+        assertEval("{ x <- setNames(1:100, paste0('n', 1:100)); x[['n42']]; x['n1'] <- 0L; names(x)[2] <- 'z'; list(x[['n1']], x[c('n100', 'z', 'n2')], x[['z']]) }");
+    }
 }
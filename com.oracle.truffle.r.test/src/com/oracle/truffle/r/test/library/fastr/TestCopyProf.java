@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 3 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 3 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.r.test.library.fastr;
+
+import org.junit.Test;
+
+import com.oracle.truffle.r.test.TestBase;
+
+// Checkstyle: stop line length check
+public class TestCopyProf extends TestBase {
+
+    private static final String FUNCTIONS = "f <- function() { x <- 1:100000; x[1] <- 0L; x }; g <- function(v) { v[1] <- 0; v }; a <- runif(1000); ";
+
+    @Test
+    public void testSummary() {
+        assertEvalFastR("{ " + FUNCTIONS + ".fastr.copyprof(TRUE); f(); g(a); .fastr.copyprof(FALSE); s <- .fastr.copyprof.summary(); list(is.data.frame(s), names(s)) }",
+                        "list(TRUE, c('location', 'stack', 'copies', 'copy.bytes', 'materializations', 'materialized.bytes', 'native.copies', 'native.bytes'))");
+        // the materialization of the sequence and the copy of the argument are attributed to the
+        // functions
+        assertEvalFastR("{ " + FUNCTIONS + ".fastr.copyprof(TRUE); f(); .fastr.copyprof(FALSE); s <- .fastr.copyprof.summary(); i <- which.max(s$materialized.bytes); c(s$materialized.bytes[[i]] >= 400000, grepl('f', s$stack[[i]]), grepl('#', s$location[[i]])) }",
+                        "c(TRUE, TRUE, TRUE)");
+        assertEvalFastR("{ " + FUNCTIONS + ".fastr.copyprof(TRUE); b <- g(a); .fastr.copyprof(FALSE); s <- .fastr.copyprof.summary(); i <- which.max(s$copy.bytes); c(s$copies[[i]] >= 1, s$copy.bytes[[i]] >= 8000, grepl('g', s$stack[[i]])) }",
+                        "c(TRUE, TRUE, TRUE)");
+        // the rows are ordered by the total number of bytes
+        assertEvalFastR("{ " + FUNCTIONS + ".fastr.copyprof(TRUE); f(); g(a); g(1:10); .fastr.copyprof(FALSE); s <- .fastr.copyprof.summary(); total <- s$copy.bytes + s$materialized.bytes + s$native.bytes; c(nrow(s) > 0, !is.unsorted(rev(total))) }",
+                        "c(TRUE, TRUE)");
+    }
+
+    @Test
+    public void testSwitching() {
+        // nothing is recorded while the profiler is off
+        assertEvalFastR("{ " + FUNCTIONS + ".fastr.copyprof(TRUE); .fastr.copyprof(FALSE); f(); g(a); nrow(.fastr.copyprof.summary()) }", "0");
+        // switching the profiler on again resets the data
+        assertEvalFastR("{ " + FUNCTIONS + ".fastr.copyprof(TRUE); f(); .fastr.copyprof(FALSE); n1 <- nrow(.fastr.copyprof.summary()); .fastr.copyprof(TRUE); .fastr.copyprof(FALSE); c(n1 > 0, nrow(.fastr.copyprof.summary()) == 0) }",
+                        "c(TRUE, TRUE)");
+        // switching it on twice or off twice is harmless
+        assertEvalFastR("{ " + FUNCTIONS + ".fastr.copyprof(TRUE); .fastr.copyprof(TRUE); f(); .fastr.copyprof(FALSE); .fastr.copyprof(FALSE); f(); sum(.fastr.copyprof.summary()$materializations) >= 1 }", "TRUE");
+        // the copy profiler does not disturb tracemem
+        assertEvalFastR("{ " + FUNCTIONS + ".fastr.copyprof(TRUE); x <- runif(10); tracemem(x); y <- x; y[1] <- 0; untracemem(x); .fastr.copyprof(FALSE); sum(.fastr.copyprof.summary()$copies) >= 1 }", "TRUE");
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 3 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 3 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.r.test.library.fastr;
+
+import static com.oracle.truffle.r.runtime.context.FastROptions.DeferArithmetic;
+import static org.junit.Assert.assertEquals;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.oracle.truffle.r.runtime.context.RContext;
+import com.oracle.truffle.r.runtime.context.RContext.ContextKind;
+import com.oracle.truffle.r.test.TestBase;
+import com.oracle.truffle.r.test.generate.FastRContext;
+import com.oracle.truffle.r.test.generate.FastRSession;
+
+/**
+ * Checks that deferred arithmetic on long double vectors gives the same results as the eager
+ * arithmetic and that the operands are copied on update only while they are needed.
+ */
+public class TestDeferredArithmetic extends TestBase {
+
+    private static final String DATA = "set.seed(1); x <- runif(10000) * 100; x[3] <- NA; x[4] <- NaN; x[5] <- Inf; ";
+
+    private static FastRContext deferredContext;
+    private static FastRContext eagerContext;
+
+    @BeforeClass
+    public static void setupClass() {
+        FastRSession session = FastRSession.create();
+        deferredContext = session.createContext(ContextKind.SHARE_NOTHING);
+        eagerContext = session.createContext(ContextKind.SHARE_NOTHING);
+        FastRSession.execInContext(deferredContext, () -> {
+            RContext.getInstance().setOption(DeferArithmetic, true);
+            return null;
+        });
+    }
+
+    @AfterClass
+    public static void finishClass() {
+        deferredContext.close();
+        eagerContext.close();
+    }
+
+    private static void assertSameResult(String code) {
+        String wrapped = "paste({" + code + "}, collapse = ' ')";
+        assertEquals(code, eagerContext.eval("R", wrapped).asString(), deferredContext.eval("R", wrapped).asString());
+    }
+
+    @Test
+    public void testDefaultIsEager() {
+        assertEquals(false, eagerContext.eval("R", ".fastr.option('DeferArithmetic')").asBoolean());
+    }
+
+    @Test
+    public void testElements() {
+        String[] exprs = {"x + 1", "2 - x", "x * x", "x / 3", "x^2", "(x - mean(x, na.rm = TRUE))^2", "((((((((x + 1) * 2) - 3) / 4) + x) * x) - 1) / 2 + 1)^2", "x / 0", "-x * x", "-x", "-(x * 0)", "-(-(x + 1))"};
+        for (String expr : exprs) {
+            assertSameResult(DATA + "y <- " + expr + "; paste(sprintf('%.17g', y[c(1:6, 9999, 10000)]), collapse = ' ')");
+            assertSameResult(DATA + "y <- " + expr + "; paste(sprintf('%.17g', rev(y)[1:3]), collapse = ' ')");
+            assertSameResult(DATA + "y <- " + expr + "; paste(c(sum(is.na(y)), sum(is.nan(y)), length(y)), collapse = ' ')");
+        }
+    }
+
+    @Test
+    public void testSum() {
+        assertSameResult(DATA + "c(is.na(sum(x * 2)), is.na(sum(x + 1, na.rm = FALSE)))");
+        assertSameResult(DATA + "x <- x[-(3:5)]; isTRUE(all.equal(sum((x - mean(x))^2), sum(as.double((x - mean(x))^2))))");
+        assertSameResult(DATA + "x <- x[-(3:5)]; y <- x * 2; s1 <- sum(y); s2 <- sum(y); y[1]; c(identical(s1, s2), isTRUE(all.equal(s1, sum(y))))");
+        assertSameResult(DATA + "sprintf('%.17g', sum(x * 2, na.rm = TRUE) / 2 - sum(x, na.rm = TRUE) + 1)");
+    }
+
+    @Test
+    public void testWrites() {
+        assertSameResult(DATA + "y <- x + 1; y[1] <- 0; z <- y; z[2] <- 0; c(y[1], y[2] == x[2] + 1, z[2], length(y))");
+        assertSameResult(DATA + "y <- x * 2; names(y) <- NULL; dim(y) <- c(100, 100); c(dim(y), y[2, 1] == x[2] * 2)");
+        assertSameResult(DATA + "y <- x - 1; length(y) <- 10001; c(is.na(y[10001]), y[10000] == x[10000] - 1)");
+    }
+
+    @Test
+    public void testOperandUpdates() {
+        // an operand updated before the result is read is copied, the result does not change
+        assertSameResult("x <- as.double(1:5000); y <- x * 2; x[1] <- 100; c(y[1], x[1])");
+        assertSameResult("x <- as.double(1:5000); y <- x + 1; z <- y * 2; x[2] <- 0; c(z[2], sum(z))");
+        assertEquals(true, deferredContext.eval("R", "x <- runif(5000); x1 <- x[[1]]; y <- x + 1; i1 <- .fastr.identity(x); x[1] <- 0; i1 != .fastr.identity(x) && y[1] == x1 + 1").asBoolean());
+        // once the result was computed, the operand can be updated in place again
+        assertEquals(true, deferredContext.eval("R", "x <- runif(5000); x1 <- x[[1]]; y <- x + 1; y[1]; i1 <- .fastr.identity(x); x[1] <- 0; i1 == .fastr.identity(x) && y[1] == x1 + 1").asBoolean());
+        // also once the result of a nested temporary operation was computed or a temporary result
+        // was summed
+        assertEquals(true, deferredContext.eval("R", "x <- runif(5000); x1 <- x[[1]]; y <- (x + 1) * 2; y[1]; i1 <- .fastr.identity(x); x[1] <- 0; i1 == .fastr.identity(x) && y[1] == (x1 + 1) * 2").asBoolean());
+        assertEquals(true, deferredContext.eval("R", "x <- runif(5000); s <- sum(-x * 2); i1 <- .fastr.identity(x); x[1] <- 0; i1 == .fastr.identity(x) && s < 0").asBoolean());
+        // a summed result that is still referenced keeps its operands
+        assertEquals(true, deferredContext.eval("R", "x <- runif(5000); x1 <- x[[1]]; y <- x + 1; s <- sum(y); x[1] <- 0; y[1] == x1 + 1 && s == sum(y)").asBoolean());
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 3 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 3 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.r.test.library.fastr;
+
+import org.junit.Test;
+
+import com.oracle.truffle.r.test.TestBase;
+
+// Checkstyle: stop line length check
+public class TestMMap extends TestBase {
+
+    private static final String WRITE = "f <- tempfile(); x <- c(1.5, NA, -3, Inf, NaN, 1e300); writeBin(x, f); ";
+
+    @Test
+    public void testRead() {
+        assertEvalFastR("{ " + WRITE + "y <- .fastr.mmap(f); r <- identical(x, y); unlink(f); r }", "TRUE");
+        assertEvalFastR("{ " + WRITE + "y <- .fastr.mmap(f, 'double', offset = 16, n = 3L); r <- identical(x[3:5], y); unlink(f); r }", "TRUE");
+        assertEvalFastR("{ f <- tempfile(); x <- c(1L, NA, -7L, .Machine$integer.max); writeBin(x, f, endian = 'big'); y <- .fastr.mmap(f, 'integer', endian = 'big'); r <- identical(x, y); unlink(f); r }", "TRUE");
+        assertEvalFastR("{ f <- tempfile(); x <- as.raw(c(0, 1, 255, 42)); writeBin(x, f); y <- .fastr.mmap(f, 'raw', offset = 1); r <- identical(x[-1], y); unlink(f); r }", "TRUE");
+        assertEvalFastR("{ " + WRITE + "y <- .fastr.mmap(f, n = 0L); r <- identical(y, double()); unlink(f); r }", "TRUE");
+        assertEvalFastR("{ " + WRITE + "y <- .fastr.mmap(f); r <- c(sum(y[1:3], na.rm = TRUE), length(y), y[[6]], rev(y)[[1]]); unlink(f); r }", "c(-1.5, 6, 1e300, 1e300)");
+    }
+
+    @Test
+    public void testCopyOnWrite() {
+        // modifications materialize the vector, neither the file nor other mappings change
+        assertEvalFastR("{ " + WRITE + "y <- .fastr.mmap(f); y[2] <- 42; z <- .fastr.mmap(f); r <- c(y[2] == 42, is.na(z[2]), is.na(readBin(f, 'double', 6)[2])); unlink(f); r }", "c(TRUE, TRUE, TRUE)");
+        assertEvalFastR("{ " + WRITE + "y <- .fastr.mmap(f); z <- y; z[1] <- 0; r <- c(y[1], z[1]); unlink(f); r }", "c(1.5, 0)");
+        assertEvalFastR("{ " + WRITE + "y <- .fastr.mmap(f); length(y) <- 8; r <- identical(y, c(x, NA, NA)); unlink(f); r }", "TRUE");
+        assertEvalFastR("{ " + WRITE + "y <- .fastr.mmap(f); attr(y, 'a') <- 1; y[[3]] <- 3; r <- c(y[3], attr(y, 'a'), readBin(f, 'double', 6)[3]); unlink(f); r }", "c(3, 1, -3)");
+        assertEvalFastR("{ f <- tempfile(); writeBin(1:10, f); y <- .fastr.mmap(f, 'integer'); y[5] <- 0L; y <- y * 2L; r <- c(y, readBin(f, 'integer', 10)); unlink(f); r }", "c(2L, 4L, 6L, 8L, 0L, 12L, 14L, 16L, 18L, 20L, 1:10)");
+        assertEvalFastR("{ f <- tempfile(); writeBin(as.raw(1:4), f); y <- .fastr.mmap(f, 'raw'); y[1] <- as.raw(9); r <- c(y, readBin(f, 'raw', 4)); unlink(f); r }", "as.raw(c(9, 2:4, 1:4))");
+    }
+
+    @Test
+    public void testSerialize() {
+        assertEvalFastR("{ " + WRITE + "y <- .fastr.mmap(f); r <- identical(unserialize(serialize(y, NULL)), x); unlink(f); r }", "TRUE");
+    }
+
+    @Test
+    public void testErrors() {
+        assertEvalFastR("{ " + WRITE + "r <- tryCatch(.fastr.mmap(f, 'character'), error = function(e) 'error'); unlink(f); r }", "'error'");
+        assertEvalFastR("{ " + WRITE + "r <- tryCatch(.fastr.mmap(f, offset = -1), error = function(e) 'error'); unlink(f); r }", "'error'");
+        assertEvalFastR("{ " + WRITE + "r <- tryCatch(.fastr.mmap(f, endian = 'middle'), error = function(e) 'error'); unlink(f); r }", "'error'");
+        assertEvalFastR("{ tryCatch(.fastr.mmap(tempfile()), error = function(e) 'error') }", "'error'");
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 3 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 3 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.r.test.library.fastr;
+
+import static com.oracle.truffle.r.runtime.context.FastROptions.NativeFirstAllocation;
+import static org.junit.Assert.assertEquals;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.oracle.truffle.r.runtime.context.RContext;
+import com.oracle.truffle.r.runtime.context.RContext.ContextKind;
+import com.oracle.truffle.r.test.TestBase;
+import com.oracle.truffle.r.test.generate.FastRContext;
+import com.oracle.truffle.r.test.generate.FastRSession;
+
+/**
+ * Checks that vectors allocated directly in native memory by profiled allocation sites behave
+ * like vectors allocated on the Java heap.
+ */
+public class TestNativeFirstAllocation extends TestBase {
+
+    // the constant matrices have rank one, the vectors passed to dqrdc2 end up in native code
+    private static final String QR = "all(vapply(1:40, function(i) { x <- double(400); x[] <- i; q <- qr(matrix(x, 20)); " +
+                    "q$rank == 1L && identical(dim(q$qr), c(20L, 20L)) && all(double(400) == 0) }, TRUE))";
+
+    private static FastRContext nativeFirstContext;
+    private static FastRContext javaFirstContext;
+
+    @BeforeClass
+    public static void setupClass() {
+        FastRSession session = FastRSession.create();
+        nativeFirstContext = session.createContext(ContextKind.SHARE_NOTHING);
+        javaFirstContext = session.createContext(ContextKind.SHARE_NOTHING);
+        FastRSession.execInContext(nativeFirstContext, () -> {
+            RContext.getInstance().setOption(NativeFirstAllocation, true);
+            return null;
+        });
+    }
+
+    @AfterClass
+    public static void finishClass() {
+        nativeFirstContext.close();
+        javaFirstContext.close();
+    }
+
+    @Test
+    public void testNativeFirstResults() {
+        assertEquals(true, nativeFirstContext.eval("R", QR).asBoolean());
+        assertEquals(true, javaFirstContext.eval("R", QR).asBoolean());
+    }
+
+    @Test
+    public void testOptionIsPerContext() {
+        assertEquals(true, nativeFirstContext.eval("R", ".fastr.option('NativeFirstAllocation')").asBoolean());
+        assertEquals(false, javaFirstContext.eval("R", ".fastr.option('NativeFirstAllocation')").asBoolean());
+    }
+
+    @Test
+    public void testLmFit() {
+        // lm.fit passes its vectors to the native dqrls
+        String code = "all(vapply(1:40, function(i) { x <- cbind(1, as.double(1:200)); y <- 2 * as.double(1:200) + i; " +
+                        "f <- lm.fit(x, y); isTRUE(all.equal(unname(f$coefficients), c(i, 2))) }, TRUE))";
+        assertEquals(true, nativeFirstContext.eval("R", code).asBoolean());
+    }
+}
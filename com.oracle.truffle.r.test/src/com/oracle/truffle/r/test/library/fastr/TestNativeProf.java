@@ -0,0 +1,50 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 3 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 3 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.r.test.library.fastr;
+
+import org.junit.Test;
+
+import com.oracle.truffle.r.test.TestBase;
+
+// Checkstyle: stop line length check
+public class TestNativeProf extends TestBase {
+
+    private static final String WORK = "m <- matrix(c(2, 1, 1, 3, 2, 1, 2, 1, 3), 3); for (i in 1:20) { qr(m); solve(m); chol(crossprod(m)) }; ";
+
+    @Test
+    public void testSummary() {
+        assertEvalFastR("{ .fastr.nativeprof(TRUE); " + WORK + ".fastr.nativeprof(FALSE); s <- .fastr.nativeprof.summary(); list(names(s), is.data.frame(s$calls), names(s$calls), is.numeric(s$upcalls), s$bytes.to.native >= 0) }",
+                        "list(c('calls', 'upcalls', 'bytes.to.native', 'bytes.from.native'), TRUE, c('dll', 'symbol', 'calls', 'time', 'upcalls', 'bytes.to.native', 'bytes.from.native'), TRUE, TRUE)");
+        assertEvalFastR("{ .fastr.nativeprof(TRUE); .fastr.nativeprof(FALSE); s <- .fastr.nativeprof.summary(); c(nrow(s$calls), length(s$upcalls), s$bytes.to.native, s$bytes.from.native) }", "c(0, 0, 0, 0)");
+    }
+
+    @Test
+    public void testSwitching() {
+        // data collected while the profiler is off are not recorded, switching it on again resets
+        // the data
+        assertEvalFastR("{ .fastr.nativeprof(TRUE); " + WORK + ".fastr.nativeprof(FALSE); s1 <- .fastr.nativeprof.summary(); " + WORK +
+                        "s2 <- .fastr.nativeprof.summary(); .fastr.nativeprof(TRUE); .fastr.nativeprof(FALSE); s3 <- .fastr.nativeprof.summary(); c(identical(s1$calls$calls, s2$calls$calls), nrow(s3$calls)) }", "c(1, 0)");
+        assertEvalFastR("{ for (i in 1:5) { .fastr.nativeprof(TRUE); " + WORK + ".fastr.nativeprof(FALSE) }; s <- .fastr.nativeprof.summary(); all(s$calls$calls <= 20 * 3) }", "TRUE");
+        assertEvalFastR("{ .fastr.nativeprof(TRUE); .fastr.nativeprof(TRUE); .fastr.nativeprof(FALSE); .fastr.nativeprof(FALSE); " + WORK + "nrow(.fastr.nativeprof.summary()$calls) }", "0");
+    }
+}
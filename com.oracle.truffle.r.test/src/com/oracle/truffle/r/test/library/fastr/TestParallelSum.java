@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 3 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 3 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.r.test.library.fastr;
+
+import static com.oracle.truffle.r.runtime.context.FastROptions.ParallelSum;
+import static org.junit.Assert.assertEquals;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.oracle.truffle.r.runtime.context.RContext;
+import com.oracle.truffle.r.runtime.context.RContext.ContextKind;
+import com.oracle.truffle.r.test.TestBase;
+import com.oracle.truffle.r.test.generate.FastRContext;
+import com.oracle.truffle.r.test.generate.FastRSession;
+
+/**
+ * Checks that very long double vectors are summed to the same result whether their blocks are
+ * processed in parallel or not.
+ */
+public class TestParallelSum extends TestBase {
+
+    private static final String DATA = "set.seed(42); x <- runif(3e6) * 10^sample(-5:5, 3e6, replace = TRUE); ";
+
+    private static FastRContext parallelContext;
+    private static FastRContext sequentialContext;
+
+    @BeforeClass
+    public static void setupClass() {
+        FastRSession session = FastRSession.create();
+        parallelContext = session.createContext(ContextKind.SHARE_NOTHING);
+        sequentialContext = session.createContext(ContextKind.SHARE_NOTHING);
+        FastRSession.execInContext(parallelContext, () -> {
+            RContext.getInstance().setOption(ParallelSum, true);
+            return null;
+        });
+    }
+
+    @AfterClass
+    public static void finishClass() {
+        parallelContext.close();
+        sequentialContext.close();
+    }
+
+    @Test
+    public void testDefaultIsSequential() {
+        assertEquals(false, sequentialContext.eval("R", ".fastr.option('ParallelSum')").asBoolean());
+    }
+
+    @Test
+    public void testSameResult() {
+        for (String expr : new String[]{"sum(x)", "mean(x)", "sum(c(x, NA), na.rm = TRUE)", "colSums(matrix(x, ncol = 2))[[2]]"}) {
+            String code = DATA + "sprintf('%.17g', " + expr + ")";
+            assertEquals(expr, sequentialContext.eval("R", code).asString(), parallelContext.eval("R", code).asString());
+        }
+    }
+
+    @Test
+    public void testNAandNaN() {
+        String code = DATA + "x[2e6] <- NaN; y <- x; y[2.5e6] <- NA; all(is.nan(sum(x)), is.na(sum(y)) && !is.nan(sum(y)), is.finite(sum(y, na.rm = TRUE)))";
+        assertEquals(true, parallelContext.eval("R", code).asBoolean());
+        assertEquals(true, sequentialContext.eval("R", code).asBoolean());
+    }
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 3 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 3 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.r.test.library.fastrGrid;
+
+import org.junit.Test;
+
+import com.oracle.truffle.r.test.TestBase;
+
+public class TestSVGDevice extends TestBase {
+
+    // draws a document large enough to be streamed to a temporary file
+    private static final String DRAW = "library(grid); f <- tempfile(fileext = '.svg'); svg(f); x <- seq(0, 1, length.out = 5000); grid.points(x, rev(x), default.units = 'npc'); ";
+
+    @Test
+    public void testSvgOffDoesNotSave() {
+        assertEvalFastR("{ " + DRAW + "s <- svg.off(); !file.exists(f) && nchar(s) > 65536 && startsWith(s, '<?xml') && endsWith(s, '</svg>') }", "TRUE");
+        assertEvalFastR("{ " + DRAW + "grid.newpage(); grid.points(x, x, default.units = 'npc'); s <- svg.off(); !file.exists(f) && nchar(s) > 65536 }", "TRUE");
+    }
+
+    @Test
+    public void testSvgStringAndSave() {
+        assertEvalFastR("{ " + DRAW + "s <- svg.string(); invisible(dev.off()); saved <- readChar(f, file.size(f), useBytes = TRUE); unlink(f); nchar(s) > 65536 && identical(s, saved) }", "TRUE");
+        assertEvalFastR("{ library(grid); f <- tempfile(fileext = '.svg'); svg(f); grid.rect(); s <- svg.string(); invisible(dev.off()); saved <- readChar(f, file.size(f), useBytes = TRUE); unlink(f); identical(s, saved) }",
+                        "TRUE");
+    }
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2016, 2018, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2016, 2020, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * This code is free software; you can redistribute it and/or modify it
@@ -38,4 +38,11 @@ public class TestWriteTable extends TestBase {
     public void testTable() {
         assertEval("write.table(data.frame(col=c(1,2,3,4), col2=c(T, F, T, F)))");
     }
+
+    @Test
+    public void testDecimalSeparator() {
+        assertEval("write.table(data.frame(x = c(1e15, 1e-5, 0.1+0.2, -0, NA, NaN, Inf)), dec = ',')");
+        assertEval("write.table(data.frame(x = c(1e15, 1e-5, 0.1+0.2, -0, NA, NaN, Inf), y = 1:7), dec = ',', sep = ';')");
+        assertEval("write.csv2(data.frame(x = c(0.1+0.2, -0, NA, 1e-5)))");
+    }
 }
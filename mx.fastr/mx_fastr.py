@@ -20,7 +20,7 @@
 # or visit www.oracle.com if you need additional information or have any
 # questions.
 #
-import glob
+import glob, json, tempfile
 import platform, subprocess, sys, shlex
 from os.path import join, sep
 from argparse import ArgumentParser
@@ -50,6 +50,8 @@ _command_class_dict = {'r': ["com.oracle.truffle.r.launcher.RMain", "R"],
                        'rscript': ["com.oracle.truffle.r.launcher.RMain", "Rscript"],
                         'rrepl': ["com.oracle.truffle.tools.debug.shell.client.SimpleREPLClient"],
                         'rembed': ["com.oracle.truffle.r.engine.shell.REmbedded"],
+                        'rserver': ["com.oracle.truffle.r.launcher.RServer"],
+                        'rscript-client': ["com.oracle.truffle.r.launcher.RscriptClient"],
                     }
 
 
@@ -268,6 +270,14 @@ def rscript(args, parser=None, **kwargs):
     '''run Rscript'''
     return run_r(args, 'rscript', parser=parser, **kwargs)
 
+def rserver(args):
+    '''run the FastR server that executes the scripts sent by rscript-client'''
+    return run_r(args, 'rserver')
+
+def rscript_client(args):
+    '''run Rscript in the FastR server, or in this process if no server is running'''
+    return run_r(args, 'rscript-client')
+
 def rrepl(args, nonZeroIsFatal=True, extraVmArgs=None):
     '''run R repl'''
     run_r(args, 'rrepl')
@@ -664,6 +674,79 @@ def gnu_rscript(args, env=None):
     cmd = [join(_gnur_path(), 'bin', 'Rscript')] + args
     return mx.run(cmd, nonZeroIsFatal=False, env=env)
 
+_GNUR_SNIPPET_TIMER = '''args <- commandArgs(TRUE)
+source(args[[1L]])
+s <- setup(as.integer(args[[2L]]))
+for (i in 1:3) run(s)
+iterations <- 0L
+start <- proc.time()[["elapsed"]]
+repeat {
+    run(s)
+    iterations <- iterations + 1L
+    elapsed <- proc.time()[["elapsed"]] - start
+    if (elapsed >= 1) break
+}
+cat(elapsed / iterations * 1e6, "\\n")
+'''
+
+def rbench_jmh(args):
+    '''
+    run the JMH benchmarks from FASTR_BENCHMARKS, the arguments are passed to JMH,
+    e.g. "mx rbench-jmh RSnippetBenchmark -p snippet=match -p size=1000"
+    with --gnur, the R snippets are also timed with GNU R and both timings are reported
+    '''
+    parser = ArgumentParser(prog='mx rbench-jmh')
+    parser.add_argument('--gnur', action='store_true', help='compare the R snippet timings with GNU R')
+    parsed_args, jmh_args = parser.parse_known_args(args)
+
+    setREnvironment()
+    jdk = get_default_jdk()
+    dists = ['FASTR_BENCHMARKS']
+    if mx.suite("sulong", fatalIfMissing=False):
+        dists.append('SULONG_NATIVE')
+    vmArgs = _sanitize_vmArgs(jdk, mx.get_runtime_jvm_args(dists, jdk=jdk) + set_graal_options() + _sulong_options())
+    # the forked benchmark VMs inherit the class path, but not the other options
+    forkArgs = [a for i, a in enumerate(vmArgs) if a != '-cp' and (i == 0 or vmArgs[i - 1] != '-cp')]
+
+    fd, results = tempfile.mkstemp(prefix='fastr-jmh-', suffix='.json')
+    os.close(fd)
+    try:
+        jmhArgs = ['org.openjdk.jmh.Main', '-rf', 'json', '-rff', results]
+        if forkArgs:
+            jmhArgs += ['-jvmArgsPrepend', ' '.join(forkArgs)]
+        mx.run_java(vmArgs + jmhArgs + jmh_args, jdk=jdk)
+        if parsed_args.gnur:
+            with open(results) as f:
+                _compare_gnur_timings(json.load(f))
+    finally:
+        os.remove(results)
+
+def _compare_gnur_timings(jmh_results):
+    rscript = join(_gnur_path(), 'bin', 'Rscript')
+    if not os.path.exists(rscript):
+        mx.warn('GNU R not found at ' + _gnur_path() + ', skipping the comparison')
+        return
+    snippets_dir = join(mx.project('com.oracle.truffle.r.benchmarks').dir, 'src', 'com', 'oracle', 'truffle', 'r', 'benchmarks', 'resources')
+    fd, timer = tempfile.mkstemp(prefix='fastr-jmh-timer-', suffix='.R')
+    with os.fdopen(fd, 'w') as f:
+        f.write(_GNUR_SNIPPET_TIMER)
+    try:
+        mx.log('{:<16} {:>10} {:>14} {:>14} {:>8}'.format('snippet', 'size', 'FastR [us]', 'GNU R [us]', 'ratio'))
+        for result in jmh_results:
+            if not result['benchmark'].endswith('.RSnippetBenchmark.run'):
+                continue
+            snippet = result['params']['snippet']
+            size = result['params']['size']
+            fastr = result['primaryMetric']['score']
+            out = mx.OutputCapture()
+            if mx.run([rscript, timer, join(snippets_dir, snippet + '.R'), size], out=out, nonZeroIsFatal=False) != 0:
+                mx.warn('GNU R failed to run snippet ' + snippet)
+                continue
+            gnur = float(out.data.strip())
+            mx.log('{:<16} {:>10} {:>14.2f} {:>14.2f} {:>8.2f}'.format(snippet, size, fastr, gnur, fastr / gnur if gnur > 0 else float('nan')))
+    finally:
+        os.remove(timer)
+
 def gnu_rtests(args, env=None):
     '''
     run tests of the internally built GNU R under tests subdirectory
@@ -954,6 +1037,8 @@ _commands = {
     'R' : [rshell, '[options]'],
     'rscript' : [rscript, '[options]'],
     'Rscript' : [rscript, '[options]'],
+    'rserver' : [rserver, '[--port=N] [--pool-size=N] [--server-file=FILE]'],
+    'rscript-client' : [rscript_client, '[options]'],
     'gridserver' : [run_grid_server, ''],
     'rtestgen' : [testgen, ''],
     'rgate' : [rgate, ''],
@@ -979,6 +1064,7 @@ _commands = {
     'gnu-r' : [gnu_r, '[]'],
     'gnu-rscript' : [gnu_rscript, '[]'],
     'gnu-rtests' : [gnu_rtests, '[]'],
+    'rbench-jmh' : [rbench_jmh, '[--gnur] [JMH options]'],
     'nativebuild' : [nativebuild, '[]'],
     'testrfficodegen' : [run_testrfficodegen, '[]'],
     'rfficodegen' : [run_rfficodegen, '[]'],
@@ -160,6 +160,22 @@ suite = {
       "spotbugsIgnoresGenerated" : True,
     },
 
+    "com.oracle.truffle.r.benchmarks" : {
+      "sourceDirs" : ["src"],
+      "dependencies" : [
+        "mx:JMH_1_21",
+        "com.oracle.truffle.r.engine",
+      ],
+      "annotationProcessors" : [
+          "mx:JMH_1_21",
+      ],
+      "checkstyle" : "com.oracle.truffle.r.runtime",
+      "javaCompliance" : "8+",
+      "workingSets" : "FastR,Test",
+      "spotbugsIgnoresGenerated" : True,
+      "testProject" : True,
+    },
+
     "com.oracle.truffle.r.test.native" : {
       "native" : True,
       "sourceDirs" : [],
@@ -463,6 +479,21 @@ suite = {
 
     },
 
+    "FASTR_BENCHMARKS" : {
+      "description" : "JMH benchmarks of R snippets and vector storages",
+      "dependencies" : [
+        "com.oracle.truffle.r.benchmarks",
+      ],
+      "exclude" : [
+        "mx:JMH_1_21",
+      ],
+      "distDependencies" : [
+        "FASTR",
+        "truffle:TRUFFLE_API",
+      ],
+      "maven" : False
+    },
+
     "FASTR_UNIT_TESTS_NATIVE" : {
       "description" : "unit tests support (from test.native project)",
        "native" : True,